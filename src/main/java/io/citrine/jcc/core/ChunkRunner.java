@@ -0,0 +1,248 @@
+package io.citrine.jcc.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Class that runs a task for each of a list of chunks with no more than a fixed number of tasks running at once.
+ * Chunks whose task fails with an {@link IOException}, or with an {@link HttpStatusException} for a 429 or 5xx
+ * response, are retried on their own, so a transient failure of one chunk does not cause the other chunks to be sent
+ * again. Retries are delayed by a random time of up to an exponentially growing, capped limit, so that chunks that
+ * failed together do not all retry at the same moment. Once a chunk fails for good, the chunks that are still running
+ * are cancelled.
+ *
+ * @param <T> Type of the chunks.
+ * @param <R> Type of the result of each chunk.
+ * @author Kyle Michel
+ */
+class ChunkRunner<T, R> {
+
+    /**
+     * Constructor. Retries are delayed by the default delays.
+     *
+     * @param chunks List of chunks to run.
+     * @param parallelism Maximum number of chunks to run at once.
+     * @param maxRetries Maximum number of times to retry each chunk.
+     * @param task Function that starts the task for a single chunk.
+     * @throws IllegalArgumentException if parallelism is not positive or maxRetries is negative.
+     */
+    ChunkRunner(final List<T> chunks, final int parallelism, final int maxRetries,
+            final Function<T, CompletableFuture<R>> task) {
+        this(chunks, parallelism, maxRetries, DEFAULT_RETRY_DELAY, DEFAULT_MAX_RETRY_DELAY, task);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param chunks List of chunks to run.
+     * @param parallelism Maximum number of chunks to run at once.
+     * @param maxRetries Maximum number of times to retry each chunk.
+     * @param retryDelay Limit in milliseconds of the delay before the first retry of a chunk. The limit doubles with
+     *                   each retry of the same chunk.
+     * @param maxRetryDelay Largest limit in milliseconds of the delay before a retry.
+     * @param task Function that starts the task for a single chunk.
+     * @throws IllegalArgumentException if parallelism is not positive or maxRetries, retryDelay or maxRetryDelay is
+     *      negative.
+     */
+    ChunkRunner(final List<T> chunks, final int parallelism, final int maxRetries, final long retryDelay,
+            final long maxRetryDelay, final Function<T, CompletableFuture<R>> task) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("'parallelism' must be positive");
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("'maxRetries' cannot be negative");
+        }
+        if ((retryDelay < 0) || (maxRetryDelay < 0)) {
+            throw new IllegalArgumentException("Retry delays cannot be negative");
+        }
+        this.chunks = chunks;
+        this.parallelism = parallelism;
+        this.maxRetries = maxRetries;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.task = task;
+        this.values = new Object[chunks.size()];
+        this.remaining = new AtomicInteger(chunks.size());
+    }
+
+    /**
+     * Start running the chunks. This should only be called once.
+     *
+     * @return {@link CompletableFuture} that completes with the result of each chunk in the order of the chunks, or
+     *      that fails with the failure of the first chunk to fail after its retries. Cancelling it, or the failure of
+     *      a chunk, cancels the chunks that are running.
+     */
+    CompletableFuture<List<R>> run() {
+        this.result.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                this.running.forEach(i -> i.cancel(true));
+            }
+        });
+        if (this.chunks.isEmpty()) {
+            this.result.complete(new ArrayList<>());
+        }
+        for (int i = 0; i < Math.min(this.parallelism, this.chunks.size()); ++i) {
+            startNext();
+        }
+        return this.result;
+    }
+
+    /**
+     * Start the next chunk that has not been started, if any.
+     */
+    private void startNext() {
+        final int index = this.next.getAndIncrement();
+        if ((index < this.chunks.size()) && !this.result.isDone()) {
+            attempt(index, 0);
+        }
+    }
+
+    /**
+     * Run the task for a chunk and record its result, retrying it after a delay if it fails with a failure that
+     * {@link #isRetryable(Throwable)} accepts.
+     *
+     * @param index Index of the chunk.
+     * @param numAttempts Number of attempts that have already been made for the chunk.
+     */
+    @SuppressWarnings("unchecked")
+    private void attempt(final int index, final int numAttempts) {
+        if (this.result.isDone()) {
+            return;
+        }
+        final CompletableFuture<R> future;
+        try {
+            future = this.task.apply(this.chunks.get(index));
+        } catch (RuntimeException e) {
+            this.result.completeExceptionally(e);
+            return;
+        }
+        this.running.add(future);
+        if (this.result.isDone()) {
+            future.cancel(true);
+        }
+        future.whenComplete((value, throwable) -> {
+            this.running.remove(future);
+            if (throwable != null) {
+                final Throwable cause = ((throwable instanceof CompletionException) && (throwable.getCause() != null))
+                        ? throwable.getCause()
+                        : throwable;
+                if (isRetryable(cause) && (numAttempts < this.maxRetries) && !this.result.isDone()) {
+                    final long delay = getRetryDelay(numAttempts);
+                    if (delay > 0) {
+                        RetryScheduler.INSTANCE.schedule(() -> attempt(index, numAttempts + 1), delay,
+                                TimeUnit.MILLISECONDS);
+                    } else {
+                        attempt(index, numAttempts + 1);
+                    }
+                } else {
+                    this.result.completeExceptionally(cause);
+                }
+                return;
+            }
+            synchronized (this.values) {
+                this.values[index] = value;
+            }
+            if (this.remaining.decrementAndGet() == 0) {
+                synchronized (this.values) {
+                    this.result.complete((List<R>) new ArrayList<>(Arrays.asList(this.values)));
+                }
+            } else {
+                startNext();
+            }
+        });
+    }
+
+    /**
+     * Get a random delay before a retry. The limit of the delay doubles with each retry of a chunk until it reaches
+     * {@link #maxRetryDelay}.
+     *
+     * @param numAttempts Number of attempts that have already been made for the chunk.
+     * @return Number of milliseconds to wait before the next attempt.
+     */
+    private long getRetryDelay(final int numAttempts) {
+        long limit = this.retryDelay;
+        for (int i = 0; (i < numAttempts) && (limit < this.maxRetryDelay); ++i) {
+            limit <<= 1;
+        }
+        limit = Math.min(limit, this.maxRetryDelay);
+        return (limit <= 0) ? 0 : ThreadLocalRandom.current().nextLong(limit + 1);
+    }
+
+    /**
+     * Check whether a chunk that failed might succeed if it is sent again.
+     *
+     * @param throwable {@link Throwable} that the chunk failed with.
+     * @return True if the failure is an {@link IOException} or an {@link HttpStatusException} for a 429 or 5xx
+     *      response.
+     */
+    static boolean isRetryable(final Throwable throwable) {
+        return (throwable instanceof IOException)
+                || ((throwable instanceof HttpStatusException) && ((HttpStatusException) throwable).isRetryable());
+    }
+
+    /** Chunks to run. */
+    private final List<T> chunks;
+
+    /** Maximum number of chunks to run at once. */
+    private final int parallelism;
+
+    /** Maximum number of times to retry each chunk. */
+    private final int maxRetries;
+
+    /** Limit in milliseconds of the delay before the first retry of a chunk. */
+    private final long retryDelay;
+
+    /** Largest limit in milliseconds of the delay before a retry. */
+    private final long maxRetryDelay;
+
+    /** Function that starts the task for a single chunk. */
+    private final Function<T, CompletableFuture<R>> task;
+
+    /** Result of each chunk by index. */
+    private final Object[] values;
+
+    /** Number of chunks that have not completed. */
+    private final AtomicInteger remaining;
+
+    /** Index of the next chunk to start. */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /** Tasks that are running. */
+    private final Set<CompletableFuture<R>> running = ConcurrentHashMap.newKeySet();
+
+    /** Future to complete with the results of all chunks. */
+    private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+
+    /** Default limit in milliseconds of the delay before the first retry of a chunk. */
+    static final long DEFAULT_RETRY_DELAY = 200L;
+
+    /** Default largest limit in milliseconds of the delay before a retry. */
+    static final long DEFAULT_MAX_RETRY_DELAY = 10_000L;
+
+    /**
+     * Holder of the thread that starts delayed retries, which is only created once a retry is delayed.
+     *
+     * @author Kyle Michel
+     */
+    private static class RetryScheduler {
+
+        /** Single daemon thread that starts delayed retries. Retries run on it only until their task is started. */
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "citrination-chunk-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -4,34 +4,96 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.citrine.jcc.predict.PredictedValue;
 import io.citrine.jcc.predict.PredictionRequest;
 import io.citrine.jcc.predict.PredictionResult;
+import io.citrine.jcc.search.dataset.query.DatasetMultiQuery;
+import io.citrine.jcc.search.dataset.query.DatasetQuery;
+import io.citrine.jcc.search.dataset.result.DatasetMultiSearchResult;
+import io.citrine.jcc.search.dataset.result.DatasetSearchHit;
+import io.citrine.jcc.search.dataset.result.DatasetSearchResult;
 import io.citrine.jcc.search.pif.query.PifMultiQuery;
 import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.query.QueryTemplate;
 import io.citrine.jcc.search.pif.result.PifMultiSearchResult;
+import io.citrine.jcc.search.pif.result.PifSearchHit;
 import io.citrine.jcc.search.pif.result.PifSearchResult;
+import io.citrine.jcc.util.Fingerprint;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.entity.DeflateDecompressingEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.LaxRedirectStrategy;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.util.EntityUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * Client for working with a Citrination.com site.
+ * Client for working with a Citrination.com site. A client owns a pool of HTTP connections that are reused across
+ * requests, so a single instance should be shared and then closed with {@link #close()} when it is no longer needed.
  *
  * @author Kyle Michel
  */
-public class CitrinationClient {
+public class CitrinationClient implements Closeable {
 
     /**
-     * Run a search using the input query.
+     * Run a search using the input query. If batching has been enabled with {@link Builder#setBatchMaxSize(int)},
+     * then the query may be sent together with other queries that are made at about the same time. If result caching
+     * has been enabled with {@link Builder#setResultCacheMaxWeight(long)} or
+     * {@link Builder#setDiskCacheDirectory(Path)}, then repeats of recent queries are answered from the cache. If
+     * coalescing has been enabled with {@link Builder#setSearchCoalescing(boolean)}, then concurrent searches with the
+     * same query, here or in {@link #searchAsync(PifQuery)}, share a single request and each receives its own copy of
+     * the result.
      *
      * @param pifQuery {@link PifQuery} to make against the site.
      * @return {@link PifSearchResult} with the result of the query.
@@ -39,16 +101,89 @@ public class CitrinationClient {
      * @throws RuntimeException if a non-200 response is received.
      */
     public PifSearchResult search(final PifQuery pifQuery) throws IOException {
+        final Fingerprint fingerprint = getSearchFingerprint(pifQuery);
+        final String cacheKey = getCacheKey(fingerprint);
+        final PifSearchResult cached = getCachedSearchResult(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        if (this.searchesInFlight == null) {
+            return sendSearch(pifQuery, cacheKey);
+        }
+        return await(this.searchesInFlight.execute(fingerprint, () -> {
+            try {
+                return CompletableFuture.completedFuture(sendSearch(pifQuery, cacheKey));
+            } catch (IOException e) {
+                return failedFuture(e);
+            }
+        }));
+    }
+
+    /**
+     * Run a search using the input query and pass each hit to a consumer as soon as it has been read from the
+     * response. Hits are read one at a time while the response is still arriving, so the full page of hits never has
+     * to be held in memory and processing can start before the whole response has been received. This bypasses
+     * batching.
+     *
+     * @param pifQuery {@link PifQuery} to make against the site.
+     * @param hitConsumer Consumer that is called with each {@link PifSearchHit} in the order that they are returned.
+     * @return {@link PifSearchResult} with the took and total number of hits values of the result. The returned object
+     *      does not contain any hits.
+     * @throws IOException      if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    public PifSearchResult search(final PifQuery pifQuery, final Consumer<? super PifSearchHit> hitConsumer)
+            throws IOException {
+        if (hitConsumer == null) {
+            throw new IllegalArgumentException("'hitConsumer' cannot be null");
+        }
         final HttpPost post = buildSearchRequest(pifQuery);
-        try (final CloseableHttpClient client = buildHttpClient()) {
-            try (final CloseableHttpResponse response = client.execute(post)) {
-                return buildSearchResult(response);
+        try (final CloseableHttpResponse response = this.httpClient.execute(post)) {
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                throw new HttpStatusException(response.getStatusLine());
             }
+            return this.pifSearchResultParser.parse(response.getEntity().getContent(), hitConsumer);
+        }
+    }
+
+    /**
+     * Compile a query into a template whose bindings can be passed to {@link #search(QueryTemplate.Binding)}. The
+     * query is serialized with the same writer that this client uses for every other query.
+     *
+     * @param pifQuery {@link PifQuery} with placeholders from {@link QueryTemplate#placeholder(String)} for the values
+     *                 that change between requests.
+     * @return {@link QueryTemplate} for the query.
+     * @throws IOException if the query cannot be serialized.
+     * @throws IllegalArgumentException if a placeholder is not the whole value of a field.
+     */
+    public QueryTemplate compileTemplate(final PifQuery pifQuery) throws IOException {
+        return QueryTemplate.compile(pifQuery, OBJECT_MAPPER.writer());
+    }
+
+    /**
+     * Run a search using a query template with values bound to its parameters. The body of the request is copied from
+     * the pre-encoded segments of the template, so the query is not serialized again. This bypasses batching, result
+     * caching and the sharing of concurrent identical searches, since each of those needs the fingerprint of a full
+     * query object; see {@link QueryTemplate} for details.
+     *
+     * @param binding {@link QueryTemplate.Binding} with the values of the parameters of the template.
+     * @return {@link PifSearchResult} with the result of the query.
+     * @throws IOException      if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    public PifSearchResult search(final QueryTemplate.Binding binding) throws IOException {
+        final HttpPost post = buildSearchRequest(binding);
+        try (final CloseableHttpResponse response = this.httpClient.execute(post)) {
+            return buildSearchResult(response);
         }
     }
 
     /**
-     * Execute a multi-search request.
+     * Execute a multi-search request. If chunking has been enabled with {@link Builder#setMultiQueryChunkSize(int)}
+     * or {@link Builder#setMultiQueryChunkBytes(long)}, then large multi-queries are split into chunks that are run
+     * concurrently and the results are returned in the original order. If deduplication has been enabled with
+     * {@link Builder#setMultiQueryDeduplication(boolean)}, then queries that are repeated within the multi-query are
+     * only sent once, and each position that they appear in receives its own copy of the result.
      *
      * @param pifMultiQuery {@link PifMultiQuery} to run.
      * @return {@link PifMultiSearchResult} with all of the results.
@@ -56,16 +191,69 @@ public class CitrinationClient {
      * @throws RuntimeException if a non-200 response is received.
      */
     public PifMultiSearchResult search(final PifMultiQuery pifMultiQuery) throws IOException {
-        final HttpPost post = buildMultiSearchRequest(pifMultiQuery);
-        try (final CloseableHttpClient client = buildHttpClient()) {
-            try (final CloseableHttpResponse response = client.execute(post)) {
-                return buildMultiSearchResult(response);
-            }
+        final PifMultiQueryDeduplicator.Plan plan = planMultiSearch(pifMultiQuery);
+        final List<PifMultiQuerySplitter.Chunk> chunks = PifMultiQuerySplitter.split(
+                plan.getUniqueQuery(), this.multiQueryChunkSize, this.multiQueryChunkBytes);
+        if (chunks.size() > 1) {
+            return plan.expand(await(searchChunksAsync(chunks)), CitrinationClient::copySearchResult);
+        }
+        final HttpPost post = buildMultiSearchRequest(chunks.get(0));
+        try (final CloseableHttpResponse response = this.httpClient.execute(post)) {
+            return plan.expand(buildMultiSearchResult(response), CitrinationClient::copySearchResult);
+        }
+    }
+
+    /**
+     * Find the queries of a multi-search to send, removing repeated queries if deduplication is enabled.
+     *
+     * @param pifMultiQuery {@link PifMultiQuery} to run.
+     * @return {@link PifMultiQueryDeduplicator.Plan} with the queries to send.
+     * @throws IOException if a query cannot be serialized.
+     */
+    private PifMultiQueryDeduplicator.Plan planMultiSearch(final PifMultiQuery pifMultiQuery) throws IOException {
+        return this.multiQueryDeduplication
+                ? PifMultiQueryDeduplicator.plan(pifMultiQuery)
+                : PifMultiQueryDeduplicator.keepAll(pifMultiQuery);
+    }
+
+    /**
+     * Run a dataset search using the input query. Setting {@link DatasetQuery#setCountPifs(Boolean)} returns the
+     * number of matching PIFs in each dataset, which makes this a cheap way to find the datasets to restrict a
+     * {@link PifQuery} to with {@link PifQuery#includeDataset(Long)}.
+     *
+     * @param datasetQuery {@link DatasetQuery} to make against the site.
+     * @return {@link DatasetSearchResult} with the result of the query.
+     * @throws IOException      if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    public DatasetSearchResult search(final DatasetQuery datasetQuery) throws IOException {
+        final HttpPost post = buildDatasetSearchRequest(datasetQuery);
+        try (final CloseableHttpResponse response = this.httpClient.execute(post)) {
+            return buildDatasetSearchResult(response);
+        }
+    }
+
+    /**
+     * Execute a dataset multi-search request.
+     *
+     * @param datasetMultiQuery {@link DatasetMultiQuery} to run.
+     * @return {@link DatasetMultiSearchResult} with all of the results.
+     * @throws IOException if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    public DatasetMultiSearchResult search(final DatasetMultiQuery datasetMultiQuery) throws IOException {
+        final HttpPost post = buildDatasetMultiSearchRequest(datasetMultiQuery);
+        try (final CloseableHttpResponse response = this.httpClient.execute(post)) {
+            return buildDatasetMultiSearchResult(response);
         }
     }
 
     /**
-     * Request predictions from a model.
+     * Request predictions from a model. If the prediction cache has been enabled with
+     * {@link Builder#setPredictionCacheMaxEntries(long)}, then only the candidates that have not been predicted
+     * recently are sent to the site. If chunking has been enabled with {@link Builder#setPredictChunkSize(int)} or
+     * {@link Builder#setPredictChunkBytes(long)}, then large requests are split into chunks that are run concurrently,
+     * each chunk is retried on its own if it fails, and the predictions are returned in the original order.
      *
      * @param modelName to make the prediction against
      * @param inputs    list of materials, as Maps[String, Object], to make predictions on
@@ -74,249 +262,1981 @@ public class CitrinationClient {
      * @throws RuntimeException if a non-200 response is received.
      */
     public PredictionResult predict(String modelName, PredictionRequest inputs) throws IOException {
-        final HttpPost post = new HttpPost(this.host + "/api/csv_to_models/" + modelName + "/predict");
-        post.addHeader("X-API-Key", this.apiKey);
-        post.addHeader("Content-type", "application/json");
+        if ((this.predictionCache != null) && (inputs.getCandidates() != null)) {
+            final PredictionCache.Lookup lookup = this.predictionCache.lookup(modelName, inputs);
+            return this.predictionCache.merge(lookup,
+                    (lookup.getRequest() == null) ? null : sendPredictRequest(modelName, lookup.getRequest()));
+        }
+        return sendPredictRequest(modelName, inputs);
+    }
 
-        Map<String, Object> wrapper = new HashMap<String, Object>();
-        wrapper.put("predictionRequest", inputs);
-        post.setEntity(new StringEntity(OBJECT_MAPPER.writeValueAsString(wrapper)));
+    /**
+     * Send a prediction request to the site, splitting it into chunks if it is large, or answer it from the disk cache
+     * if it was sent recently. A request that fits in a single chunk is retried in the same way as the chunks of a
+     * larger one.
+     *
+     * @param modelName Name of the model to make the prediction against.
+     * @param inputs {@link PredictionRequest} with the materials to make predictions on.
+     * @return {@link PredictionResult} containing the results.
+     * @throws IOException      if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    private PredictionResult sendPredictRequest(final String modelName, final PredictionRequest inputs)
+            throws IOException {
+        final List<PredictionRequest> chunks = PredictionRequestSplitter.split(
+                inputs, this.predictChunkSize, this.predictChunkBytes);
+        return await(predictChunksAsync(modelName, chunks));
+    }
 
-        try (final CloseableHttpClient client = buildHttpClient()) {
-            try (final CloseableHttpResponse response = client.execute(post)) {
-                if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
-                    throw new RuntimeException("Received " + response.getStatusLine().getStatusCode() + " response: "
-                            + response.getStatusLine().getReasonPhrase());
-                }
-                return OBJECT_MAPPER.readValue(response.getEntity().getContent(), PredictionResult.class);
+    /**
+     * Run a search using the input query without blocking the calling thread. The request is sent over non-blocking
+     * I/O and the response is parsed on the executor set in {@link Builder#setExecutor(Executor)}. Batching, result
+     * caching and coalescing of concurrent searches with the same query apply in the same way as for
+     * {@link #search(PifQuery)}.
+     *
+     * @param pifQuery {@link PifQuery} to make against the site.
+     * @return {@link CompletableFuture} that completes with a {@link PifSearchResult} with the result of the query.
+     *      The future completes exceptionally with an {@link IOException} if the request fails or with a
+     *      {@link RuntimeException} if a non-200 response is received.
+     */
+    public CompletableFuture<PifSearchResult> searchAsync(final PifQuery pifQuery) {
+        final String cacheKey;
+        final Fingerprint fingerprint;
+        try {
+            fingerprint = getSearchFingerprint(pifQuery);
+            cacheKey = getCacheKey(fingerprint);
+            final PifSearchResult cached = getCachedSearchResult(cacheKey);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
             }
+        } catch (IOException e) {
+            return failedFuture(e);
         }
+        return (this.searchesInFlight == null)
+                ? sendSearchAsync(pifQuery, cacheKey)
+                : this.searchesInFlight.execute(fingerprint, () -> sendSearchAsync(pifQuery, cacheKey));
     }
 
     /**
-     * Get an HTTP client to use.
+     * Run a search using a query template with values bound to its parameters without blocking the calling thread.
+     * This bypasses batching, result caching and request sharing in the same way as
+     * {@link #search(QueryTemplate.Binding)}.
      *
-     * @return {@link CloseableHttpClient} to use.
+     * @param binding {@link QueryTemplate.Binding} with the values of the parameters of the template.
+     * @return {@link CompletableFuture} that completes with a {@link PifSearchResult} with the result of the query.
+     *      The future completes exceptionally with an {@link IOException} if the request fails or with a
+     *      {@link RuntimeException} if a non-200 response is received.
      */
-    CloseableHttpClient buildHttpClient() {
-        return createDefaultHttpClientBuilder().build();
+    public CompletableFuture<PifSearchResult> searchAsync(final QueryTemplate.Binding binding) {
+        try {
+            return executeAsync(buildSearchRequest(binding), this::buildSearchResult);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
     }
 
     /**
-     * Get the default HTTP client to use.
+     * Execute a multi-search request without blocking the calling thread. Repeated queries are removed, if enabled,
+     * and large multi-queries are split into chunks in the same way as {@link #search(PifMultiQuery)}.
      *
-     * @return {@link HttpClientBuilder} to use.
+     * @param pifMultiQuery {@link PifMultiQuery} to run.
+     * @return {@link CompletableFuture} that completes with a {@link PifMultiSearchResult} with all of the results.
+     *      The future completes exceptionally with an {@link IOException} if the request fails or with a
+     *      {@link RuntimeException} if a non-200 response is received.
      */
-    HttpClientBuilder createDefaultHttpClientBuilder() {
-        return HttpClientBuilder.create().setRedirectStrategy(new LaxRedirectStrategy());
+    public CompletableFuture<PifMultiSearchResult> searchAsync(final PifMultiQuery pifMultiQuery) {
+        final PifMultiQueryDeduplicator.Plan plan;
+        final CompletableFuture<PifMultiSearchResult> result;
+        try {
+            plan = planMultiSearch(pifMultiQuery);
+            final List<PifMultiQuerySplitter.Chunk> chunks = PifMultiQuerySplitter.split(
+                    plan.getUniqueQuery(), this.multiQueryChunkSize, this.multiQueryChunkBytes);
+            result = (chunks.size() > 1)
+                    ? searchChunksAsync(chunks)
+                    : executeAsync(buildMultiSearchRequest(chunks.get(0)), this::buildMultiSearchResult);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+        return result.thenCompose(i -> {
+            try {
+                return CompletableFuture.completedFuture(plan.expand(i, CitrinationClient::copySearchResult));
+            } catch (IOException e) {
+                return failedFuture(e);
+            }
+        });
     }
 
     /**
-     * Build the POST request with the query to execute.
+     * Run a dataset search using the input query without blocking the calling thread.
      *
-     * @param pifQuery {@link PifQuery} to run.
-     * @return {@link HttpPost} object with the POST request to make.
-     * @throws IOException if thrown from within this function.
+     * @param datasetQuery {@link DatasetQuery} to make against the site.
+     * @return {@link CompletableFuture} that completes with a {@link DatasetSearchResult} with the result of the
+     *      query. The future completes exceptionally with an {@link IOException} if the request fails or with a
+     *      {@link RuntimeException} if a non-200 response is received.
      */
-    HttpPost buildSearchRequest(final PifQuery pifQuery) throws IOException {
-        return createCommonSearchRequest(pifQuery);
+    public CompletableFuture<DatasetSearchResult> searchAsync(final DatasetQuery datasetQuery) {
+        try {
+            return executeAsync(buildDatasetSearchRequest(datasetQuery), this::buildDatasetSearchResult);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
     }
 
     /**
-     * Build the POST request with the query to execute.
+     * Execute a dataset multi-search request without blocking the calling thread.
      *
-     * @param pifQuery {@link PifQuery} to run.
-     * @return {@link HttpPost} object with the POST request to make.
-     * @throws IOException if thrown from within this function.
+     * @param datasetMultiQuery {@link DatasetMultiQuery} to run.
+     * @return {@link CompletableFuture} that completes with a {@link DatasetMultiSearchResult} with all of the
+     *      results. The future completes exceptionally with an {@link IOException} if the request fails or with a
+     *      {@link RuntimeException} if a non-200 response is received.
      */
-    HttpPost createCommonSearchRequest(final PifQuery pifQuery) throws IOException {
-        final HttpPost post = new HttpPost(this.host + "/api/search/pif_search");
-        post.addHeader("X-API-Key", this.apiKey);
-        post.addHeader("Content-type", "application/json");
-        post.setEntity(new StringEntity(OBJECT_MAPPER.writeValueAsString(pifQuery)));
-        return post;
+    public CompletableFuture<DatasetMultiSearchResult> searchAsync(final DatasetMultiQuery datasetMultiQuery) {
+        try {
+            return executeAsync(buildDatasetMultiSearchRequest(datasetMultiQuery),
+                    this::buildDatasetMultiSearchResult);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
     }
 
     /**
-     * Build the POST request with the multi-query to execute.
+     * Request predictions from a model without blocking the calling thread. The prediction cache applies in the same
+     * way as for {@link #predict(String, PredictionRequest)}.
      *
-     * @param pifMultiQuery {@link PifMultiQuery} to run.
-     * @return {@link HttpPost} object with the POST request to make.
-     * @throws IOException if thrown from within this function.
+     * @param modelName to make the prediction against
+     * @param inputs    list of materials, as Maps[String, Object], to make predictions on
+     * @return {@link CompletableFuture} that completes with a {@link PredictionResult} containing the results. The
+     *      future completes exceptionally with an {@link IOException} if the request fails or with a
+     *      {@link RuntimeException} if a non-200 response is received.
      */
-    HttpPost buildMultiSearchRequest(final PifMultiQuery pifMultiQuery) throws IOException {
-        return createCommonMultiSearchRequest(pifMultiQuery);
+    public CompletableFuture<PredictionResult> predictAsync(final String modelName, final PredictionRequest inputs) {
+        if ((this.predictionCache == null) || (inputs.getCandidates() == null)) {
+            return sendPredictRequestAsync(modelName, inputs);
+        }
+        final PredictionCache.Lookup lookup;
+        try {
+            lookup = this.predictionCache.lookup(modelName, inputs);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+        final CompletableFuture<PredictionResult> fresh = (lookup.getRequest() == null)
+                ? CompletableFuture.completedFuture(null)
+                : sendPredictRequestAsync(modelName, lookup.getRequest());
+        return fresh.thenCompose(result -> {
+            try {
+                return CompletableFuture.completedFuture(this.predictionCache.merge(lookup, result));
+            } catch (IOException e) {
+                return failedFuture(e);
+            }
+        });
     }
 
     /**
-     * Build the POST request with the multi-query to execute.
+     * Send a prediction request to the site without blocking the calling thread, splitting it into chunks if it is
+     * large. A request that fits in a single chunk is retried in the same way as the chunks of a larger one.
      *
-     * @param pifMultiQuery {@link PifMultiQuery} to run.
-     * @return {@link HttpPost} object with the POST request to make.
-     * @throws IOException if thrown from within this function.
+     * @param modelName Name of the model to make the prediction against.
+     * @param inputs {@link PredictionRequest} with the materials to make predictions on.
+     * @return {@link CompletableFuture} that completes with a {@link PredictionResult} containing the results.
      */
-    HttpPost createCommonMultiSearchRequest(final PifMultiQuery pifMultiQuery) throws IOException {
-        final HttpPost post = new HttpPost(this.host + "/api/search/pif_multi_search");
-        post.addHeader("X-API-Key", this.apiKey);
-        post.addHeader("Content-type", "application/json");
-        post.setEntity(new StringEntity(OBJECT_MAPPER.writeValueAsString(pifMultiQuery)));
-        return post;
+    private CompletableFuture<PredictionResult> sendPredictRequestAsync(
+            final String modelName, final PredictionRequest inputs) {
+        try {
+            final List<PredictionRequest> chunks = PredictionRequestSplitter.split(
+                    inputs, this.predictChunkSize, this.predictChunkBytes);
+            return predictChunksAsync(modelName, chunks);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
     }
 
     /**
-     * Convert the response from a search result to a {@link PifSearchResult} object.
+     * Run the chunks of a prediction request with no more than {@link #predictParallelism} running at once and stitch
+     * their results back together. Chunks that fail with an {@link IOException} or a 429 or 5xx response are retried
+     * on their own after a delay, and the other chunks are cancelled once a chunk fails for good.
      *
-     * @param response {@link HttpResponse} with the result of the query.
-     * @return {@link PifSearchResult} with the result of the query.
-     * @throws IOException      if thrown from within this function.
-     * @throws RuntimeException if a non-200 response is received.
+     * @param modelName Name of the model to make the prediction against.
+     * @param chunks List of {@link PredictionRequest} objects to run.
+     * @return {@link CompletableFuture} that completes with a {@link PredictionResult} with the predictions of all
+     *      chunks in order.
      */
-    private PifSearchResult buildSearchResult(final HttpResponse response) throws IOException {
-        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
-            throw new RuntimeException("Received " + response.getStatusLine().getStatusCode() + " response: "
-                    + response.getStatusLine().getReasonPhrase());
-        }
-        return OBJECT_MAPPER.readValue(response.getEntity().getContent(), PifSearchResponseWrapper.class)
-                .pifSearchResult;
+    private CompletableFuture<PredictionResult> predictChunksAsync(
+            final String modelName, final List<PredictionRequest> chunks) {
+        return new ChunkRunner<>(chunks, this.predictParallelism, this.predictMaxRetries,
+                (PredictionRequest chunk) -> sendPredictChunkAsync(modelName, chunk))
+                .run()
+                .thenCompose(results -> {
+                    if (results.size() == 1) {
+                        return CompletableFuture.completedFuture(results.get(0));
+                    }
+                    try {
+                        return CompletableFuture.completedFuture(PredictionRequestSplitter.merge(chunks, results));
+                    } catch (IOException e) {
+                        return failedFuture(e);
+                    }
+                });
     }
 
     /**
-     * Convert the response from a search result to a {@link PifMultiSearchResult} object.
+     * Send a single prediction request to the site without blocking the calling thread, or answer it from the disk
+     * cache if it was sent recently.
      *
-     * @param response {@link HttpResponse} with the result of the query.
-     * @return {@link PifMultiSearchResult} with the result of the query.
-     * @throws IOException      if thrown from within this function.
-     * @throws RuntimeException if a non-200 response is received.
+     * @param modelName Name of the model to make the prediction against.
+     * @param inputs {@link PredictionRequest} with the materials to make predictions on.
+     * @return {@link CompletableFuture} that completes with a {@link PredictionResult} containing the results.
      */
-    private PifMultiSearchResult buildMultiSearchResult(final HttpResponse response) throws IOException {
-        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
-            throw new RuntimeException("Received " + response.getStatusLine().getStatusCode() + " response: "
-                    + response.getStatusLine().getReasonPhrase());
+    private CompletableFuture<PredictionResult> sendPredictChunkAsync(
+            final String modelName, final PredictionRequest inputs) {
+        try {
+            final String cacheKey = getPredictCacheKey(modelName, inputs);
+            final PredictionResult cached = getCachedPredictionResult(cacheKey);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+            return executeAsync(buildPredictRequest(modelName, inputs),
+                    response -> buildPredictionResult(response, cacheKey));
+        } catch (IOException e) {
+            return failedFuture(e);
         }
-        return OBJECT_MAPPER.readValue(response.getEntity().getContent(), PifMultiSearchResponseWrapper.class)
-                .pifMultiSearchResult;
     }
 
     /**
-     * Constructor.
+     * Get a lazy stream over every hit that matches the input query. Pages of hits are fetched as the stream is
+     * consumed, starting from {@link PifQuery#fromIndex()} and continuing until the total number of hits has been
+     * reached. Each page contains {@link PifQuery#size()} hits, or the number set in
+     * {@link Builder#setPageSize(int)} if the query does not set a size. The next pages are fetched while the current
+     * one is being consumed, but no more than the number set in {@link Builder#setMaxBufferedPages(int)} are held
+     * at once, so memory use is bounded no matter how many hits match.
      *
-     * @param project String with the project to connect to.
-     * @param host    String with the full host to connect to.
-     * @param apiKey  String with the api key to use.
-     * @throws IllegalArgumentException if project and host are both set.
-     * @throws IllegalArgumentException if apiKey is not set.
+     * <p>The query is copied when this method is called, so later changes to it do not affect the stream. Streams that
+     * are not fully consumed should be closed to cancel pages that are still being fetched:
+     *
+     * <pre>
+     * {@code
+     * try (Stream<PifSearchHit> hits = client.stream(pifQuery)) {
+     *     hits.forEach(hit -> ...);
+     * }
+     * }
+     * </pre>
+     *
+     * @param pifQuery {@link PifQuery} to get all hits for.
+     * @return {@link Stream} of {@link PifSearchHit} objects. Failed page requests are thrown from the stream as
+     *      {@link java.io.UncheckedIOException} or {@link RuntimeException}.
      */
-    CitrinationClient(final String project, final String host, final String apiKey) {
-        if ((project != null) && (host != null)) {
-            throw new IllegalArgumentException("Cannot set both 'project' and 'host'");
+    public Stream<PifSearchHit> stream(final PifQuery pifQuery) {
+        return stream(new PifSearchHitIterator(
+                pifQuery, getPageSize(pifQuery), this.maxBufferedPages, true, this::searchAsync), true);
+    }
+
+    /**
+     * Get a lazy stream over every hit that matches the input query, fetching pages concurrently. This works like
+     * {@link #stream(PifQuery)}, except that once the first page has returned the total number of hits, the remaining
+     * range of hits is split into pages and up to parallelism pages are fetched at the same time.
+     *
+     * <p>In ordered mode, hits are returned in the same order as {@link #stream(PifQuery)}. Pages that complete before
+     * the pages ahead of them are held in a reorder buffer that counts against the parallelism limit, so no more than
+     * parallelism + 1 pages are held in memory at once. In unordered mode, each page of hits is returned as soon as it
+     * completes, which keeps all requests busy when page latencies vary.
+     *
+     * @param pifQuery {@link PifQuery} to get all hits for.
+     * @param parallelism Maximum number of pages to fetch at once.
+     * @param ordered True to return hits in order, false to return pages of hits in the order that they complete.
+     * @return {@link Stream} of {@link PifSearchHit} objects. Failed page requests are thrown from the stream as
+     *      {@link java.io.UncheckedIOException} or {@link RuntimeException}.
+     * @throws IllegalArgumentException if parallelism is not positive.
+     */
+    public Stream<PifSearchHit> stream(final PifQuery pifQuery, final int parallelism, final boolean ordered) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("'parallelism' must be positive");
         }
-        if (apiKey == null) {
-            throw new IllegalArgumentException("Must set 'apiKey'");
+        return stream(new PifSearchHitIterator(
+                pifQuery, getPageSize(pifQuery), parallelism + 1, ordered, this::searchAsync), ordered);
+    }
+
+    /**
+     * Get a lazy stream over every hit that matches the input query by splitting it into sub-queries over groups of
+     * datasets. A dataset search with {@link DatasetQuery#setCountPifs(Boolean)} is run first, using the system queries
+     * of the input, to find the datasets with matching PIFs and the number of matches in each. The datasets are then
+     * grouped into shards of no more than maxShardSize matching PIFs, each shard is restricted to its datasets with
+     * {@link PifQuery#includeDataset(Long)}, and up to parallelism pages from any of the shards are fetched at the
+     * same time. No sub-query has to page past the hits of its own shard, which avoids the slow deep pagination of a
+     * single query that spans many datasets.
+     *
+     * <p>Datasets are packed into shards largest first, each into the first shard with room for it (first-fit
+     * decreasing), and a dataset whose number of matching PIFs is not known is counted as a single PIF. Each shard
+     * is ranked on its own, so hits are grouped by shard and the global order of the query, for example by score or
+     * by {@link PifQuery#sortExtracted()}, is lost. {@link PifQuery#fromIndex()} is ignored. In ordered mode, the
+     * pages of each shard are returned in order and the shard with the largest dataset is returned first. In
+     * unordered mode, each page of hits is returned as soon as it completes. Streams that are not fully consumed
+     * should be closed to cancel pages that are still being fetched.
+     *
+     * @param pifQuery {@link PifQuery} to get all hits for.
+     * @param maxShardSize Maximum number of matching PIFs in each shard. A dataset with more matches than this is
+     *                     queried by itself.
+     * @param parallelism Maximum number of pages to fetch at once.
+     * @param ordered True to return the pages of each shard in order, false to return pages of hits in the order that
+     *                they complete.
+     * @return {@link Stream} of {@link PifSearchHit} objects. Failed page requests are thrown from the stream as
+     *      {@link UncheckedIOException} or {@link RuntimeException}.
+     * @throws IOException if thrown while finding the datasets to query.
+     * @throws RuntimeException if a non-200 response is received while finding the datasets to query.
+     * @throws IllegalArgumentException if maxShardSize or parallelism is not positive.
+     */
+    public Stream<PifSearchHit> streamByDataset(final PifQuery pifQuery, final long maxShardSize,
+            final int parallelism, final boolean ordered) throws IOException {
+        if (maxShardSize <= 0) {
+            throw new IllegalArgumentException("'maxShardSize' must be positive");
         }
-        if (host != null) {
-            this.host = host;
-        } else if (project != null) {
-            this.host = "https://" + project + ".citrination.com";
-        } else {
-            this.host = "https://www.citrination.com";
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("'parallelism' must be positive");
         }
-        this.apiKey = apiKey;
+        final List<DatasetShardPlanner.Shard> shards = DatasetShardPlanner.plan(
+                pifQuery, findDatasets(DatasetShardPlanner.buildDatasetQuery(pifQuery)), maxShardSize);
+        return stream(new DatasetShardIterator(
+                shards, getPageSize(pifQuery), parallelism + 1, ordered, this::searchAsync), ordered);
     }
 
-    /** Host to connect to. */
-    final String host;
-
-    /** API key for making the connection. */
-    final String apiKey;
-
-    /** ObjectMapper for serializing queries. */
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-            .configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true)
-            .configure(DeserializationFeature.UNWRAP_SINGLE_VALUE_ARRAYS, true);
-
     /**
-     * Builder class to generate a new client.
+     * Get a lazy stream of predictions for a lazily generated stream of candidates. Candidates are pulled from the
+     * input stream in chunks of the size set in {@link Builder#setPredictChunkSize(int)}, or 1000 if that is not set,
+     * and each chunk is sent with {@link #predictAsync(String, PredictionRequest)}. Up to the number of chunks set in
+     * {@link Builder#setPredictParallelism(int)} are in flight while the current chunk is being consumed, and no more
+     * candidates are pulled until the consumer catches up, so memory use is bounded however many candidates there are.
      *
-     * @author Kyle Michel
+     * <p>Streams that are not fully consumed should be closed to cancel outstanding requests. Closing the returned
+     * stream also closes the input stream:
+     *
+     * <pre>
+     * {@code
+     * try (Stream<Map<String, PredictedValue>> predictions = client.predictStream(modelName, candidates)) {
+     *     predictions.forEach(prediction -> ...);
+     * }
+     * }
+     * </pre>
+     *
+     * @param modelName Name of the model to make the predictions against.
+     * @param candidates {@link Stream} of candidates to make predictions on.
+     * @return {@link Stream} with the predictions for each candidate in the order of the input stream. Failed requests
+     *      are thrown from the stream as {@link UncheckedIOException} or {@link RuntimeException}.
      */
-    public static class Builder {
+    public Stream<Map<String, PredictedValue>> predictStream(
+            final String modelName, final Stream<Map<String, Object>> candidates) {
+        final int chunkSize = (this.predictChunkSize > 0) ? this.predictChunkSize : DEFAULT_PREDICT_STREAM_CHUNK_SIZE;
+        return stream(new PredictionIterator(candidates.iterator(), chunkSize, this.predictParallelism + 1,
+                inputs -> predictAsync(modelName, inputs)), true)
+                .onClose(candidates::close);
+    }
 
-        /**
-         * Generate a new {@link CitrinationClient} object from the content of this object.
-         *
-         * @return New {@link CitrinationClient} object.
-         */
-        public CitrinationClient build() {
-            return new CitrinationClient(this.project, this.host, this.apiKey);
+    /**
+     * Release the pooled connections that are held by this client. The client cannot be used after it is closed.
+     *
+     * @throws IOException if thrown while shutting down the connection pool.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            this.closed = true;
         }
-
-        /**
-         * Set the host. This should contain the entire url for the connection.
-         *
-         * @param host String with the host to connect to.
-         * @return This object.
-         */
-        public Builder setHost(final String host) {
-            this.host = host;
-            return this;
+        if (this.queryBatcher != null) {
+            this.queryBatcher.close();
         }
-
-        /**
-         * Set the project. This is "project" in "https://project.citrination.com".
-         *
-         * @param project String with the project to connect to.
-         * @return This object.
-         */
-        public Builder setProject(final String project) {
-            this.project = project;
-            return this;
+        if (this.resultCache != null) {
+            this.resultCache.clear();
         }
-
-        /**
-         * Set the API key for your account.
-         *
-         * @param apiKey String with the API key to use.
-         * @return This object.
-         */
-        public Builder setApiKey(final String apiKey) {
-            this.apiKey = apiKey;
-            return this;
+        try {
+            this.httpClient.close();
+        } finally {
+            try {
+                if (this.asyncHttpClient != null) {
+                    this.asyncHttpClient.close();
+                }
+            } finally {
+                if (this.diskCache != null) {
+                    this.diskCache.close();
+                }
+            }
         }
-
-        /** Host to connect to. */
-        private String host;
-
-        /** Project to connect to. */
-        private String project;
-
-        /** API key for making the connection. */
-        private String apiKey;
     }
 
     /**
-     * Object that wraps the response received from an API request.
+     * Send a batch of single queries that {@link #queryBatcher} has serialized into the body of a multi-query.
      *
-     * @author Kyle Michel
+     * @param body Array of bytes with the serialized multi-query.
+     * @return {@link CompletableFuture} that completes with a {@link PifMultiSearchResult} with a result for each query
+     *      in the batch.
      */
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private static class PifSearchResponseWrapper {
+    private CompletableFuture<PifMultiSearchResult> searchBatchAsync(final byte[] body) {
+        try {
+            return executeAsync(buildMultiSearchRequest(body), this::buildMultiSearchResult);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+    }
 
-        /** Results field. */
-        @JsonProperty("results")
-        public PifSearchResult pifSearchResult;
+    /**
+     * Run the chunks of a multi-query concurrently and stitch their results back together.
+     *
+     * @param chunks List of {@link PifMultiQuerySplitter.Chunk} objects to run.
+     * @return {@link CompletableFuture} that completes with a {@link PifMultiSearchResult} with the results of all
+     *      chunks in order.
+     */
+    private CompletableFuture<PifMultiSearchResult> searchChunksAsync(final List<PifMultiQuerySplitter.Chunk> chunks) {
+        final List<CompletableFuture<PifMultiSearchResult>> futures = new ArrayList<>(chunks.size());
+        for (PifMultiQuerySplitter.Chunk i : chunks) {
+            try {
+                futures.add(executeAsync(buildMultiSearchRequest(i), this::buildMultiSearchResult));
+            } catch (IOException e) {
+                futures.forEach(future -> future.cancel(true));
+                return failedFuture(e);
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+                .thenCompose(ignored -> {
+                    final List<PifMultiSearchResult> results = new ArrayList<>(futures.size());
+                    futures.forEach(future -> results.add(future.join()));
+                    try {
+                        return CompletableFuture.completedFuture(PifMultiQuerySplitter.merge(chunks, results));
+                    } catch (IOException e) {
+                        return failedFuture(e);
+                    }
+                });
     }
 
     /**
-     * Object that wraps the response received from an API request.
+     * Send a request over the non-blocking client and convert the response on {@link #executor}. A JSON body is
+     * serialized on the calling thread before the request is submitted, rather than on an I/O thread when the request
+     * is sent, so the request matches the query at the time of the call and is sent with a known length.
      *
-     * @author Kyle Michel
+     * @param post {@link HttpPost} with the request to send.
+     * @param handler {@link ResponseHandler} used to convert the response.
+     * @param <T> Type of the converted response.
+     * @return {@link CompletableFuture} that completes with the converted response.
      */
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private static class PifMultiSearchResponseWrapper {
+    private <T> CompletableFuture<T> executeAsync(final HttpPost post, final ResponseHandler<T> handler) {
+        final CloseableHttpAsyncClient client;
+        try {
+            if (post.getEntity() instanceof JsonEntity) {
+                ((JsonEntity) post.getEntity()).serialize();
+            }
+            client = getAsyncHttpClient();
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+        if (!post.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+            post.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip,deflate");
+        }
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Future<HttpResponse> request = client.execute(post, new AsyncResponseCallback<>(
+                result, handler, this.executor));
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                request.cancel(true);
+            }
+        });
+        return result;
+    }
 
-        /** Results field. */
-        @JsonProperty("results")
-        public PifMultiSearchResult pifMultiSearchResult;
+    /**
+     * Send a search, through the batcher if batching is enabled, and cache its result.
+     *
+     * @param pifQuery {@link PifQuery} to send.
+     * @param cacheKey Key to cache the result under or a null pointer if result caching is disabled.
+     * @return {@link PifSearchResult} with the result of the query.
+     * @throws IOException if the request fails.
+     */
+    private PifSearchResult sendSearch(final PifQuery pifQuery, final String cacheKey) throws IOException {
+        final PifSearchResult result;
+        if (this.queryBatcher != null) {
+            result = await(this.queryBatcher.submit(pifQuery));
+        } else {
+            final HttpPost post = buildSearchRequest(pifQuery);
+            try (final CloseableHttpResponse response = this.httpClient.execute(post)) {
+                result = buildSearchResult(response);
+            }
+        }
+        return cacheSearchResult(cacheKey, result);
+    }
+
+    /**
+     * Send a search without blocking the calling thread, through the batcher if batching is enabled, and cache its
+     * result.
+     *
+     * @param pifQuery {@link PifQuery} to send.
+     * @param cacheKey Key to cache the result under or a null pointer if result caching is disabled.
+     * @return {@link CompletableFuture} that completes with a {@link PifSearchResult} with the result of the query.
+     */
+    private CompletableFuture<PifSearchResult> sendSearchAsync(final PifQuery pifQuery, final String cacheKey) {
+        final CompletableFuture<PifSearchResult> result;
+        try {
+            result = (this.queryBatcher != null)
+                    ? this.queryBatcher.submit(pifQuery)
+                    : executeAsync(buildSearchRequest(pifQuery), this::buildSearchResult);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+        return (cacheKey == null) ? result : result.thenApply(i -> cacheSearchResult(cacheKey, i));
+    }
+
+    /**
+     * Get the fingerprint of a query if it is needed for result caching or for coalescing concurrent searches. The
+     * fingerprint is computed once for each search, so a search with both disabled does not pay for it.
+     *
+     * @param pifQuery {@link PifQuery} to get the fingerprint of.
+     * @return {@link Fingerprint} of the query or a null pointer if it is not needed.
+     * @throws IOException if the query cannot be serialized.
+     */
+    private Fingerprint getSearchFingerprint(final PifQuery pifQuery) throws IOException {
+        if ((this.searchesInFlight == null) && (this.resultCache == null) && (this.diskCache == null)) {
+            return null;
+        }
+        return getFingerprint(pifQuery);
+    }
+
+    /**
+     * Get the key that the result of a query is cached under. The key is built from the fingerprint of the query and
+     * starts with the identity of this client, so clients for different hosts or users never share a result.
+     *
+     * @param fingerprint {@link Fingerprint} of the query to get the key for, which is not null if result caching is
+     *                    enabled.
+     * @return String with the cache key or a null pointer if result caching is disabled.
+     */
+    private String getCacheKey(final Fingerprint fingerprint) {
+        if ((this.resultCache == null) && (this.diskCache == null)) {
+            return null;
+        }
+        return this.cacheIdentity + "pif_search/" + fingerprint;
+    }
+
+    /**
+     * Get the fingerprint of a query. The fingerprint reflects the state of the query at the time of the call, so a
+     * search computes it once and uses the same value for the result cache and for coalescing.
+     *
+     * @param pifQuery {@link PifQuery} to get the fingerprint of.
+     * @return {@link Fingerprint} of the query.
+     * @throws IOException if the query cannot be serialized.
+     */
+    private static Fingerprint getFingerprint(final PifQuery pifQuery) throws IOException {
+        try {
+            return pifQuery.fingerprint();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Get the key that the result of a prediction request is cached under. It starts with the identity of this
+     * client, so clients for different hosts or users never share a result.
+     *
+     * @param modelName Name of the model to make the prediction against.
+     * @param inputs {@link PredictionRequest} with the materials to make predictions on.
+     * @return String with the cache key or a null pointer if the disk cache is disabled.
+     * @throws IOException if the request cannot be serialized.
+     */
+    private String getPredictCacheKey(final String modelName, final PredictionRequest inputs) throws IOException {
+        return (this.diskCache == null) ? null : this.cacheIdentity + "predict/" + modelName + "/" + digest(inputs);
+    }
+
+    /**
+     * Get a digest of an object serialized with map entries in sorted order, so equal objects have equal digests
+     * however they were built.
+     *
+     * @param value Object to get the digest of.
+     * @return String with the Base64 encoded SHA-256 digest of the serialized object.
+     * @throws IOException if the object cannot be serialized.
+     */
+    static String digest(final Object value) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (final OutputStream outputStream = new DigestOutputStream(NULL_OUTPUT_STREAM, digest)) {
+            CANONICAL_WRITER.writeValue(outputStream, value);
+        }
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    /**
+     * Look up a search result in the in-memory cache and then in the disk cache. Results that are found on disk are
+     * added to the in-memory cache. A damaged entry in the disk cache is treated as a miss.
+     *
+     * @param cacheKey Key that the result is saved under or a null pointer if result caching is disabled.
+     * @return {@link PifSearchResult} that the caller is free to change or a null pointer if the result is not cached.
+     */
+    private PifSearchResult getCachedSearchResult(final String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+        if (this.resultCache != null) {
+            final PifSearchResult cached = this.resultCache.get(cacheKey);
+            if (cached != null) {
+                return copySearchResult(cached);
+            }
+        }
+        if (this.diskCache != null) {
+            try (final InputStream cached = this.diskCache.get(cacheKey)) {
+                final PifSearchResult result = (cached == null) ? null : this.pifSearchResultParser.parse(cached, null);
+                if ((result != null) && (this.resultCache != null)) {
+                    this.resultCache.put(cacheKey, copySearchResult(result));
+                }
+                return result;
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Save a search result in the in-memory cache and the disk cache. A copy of the result is saved in memory so that
+     * changes made by the caller to the returned object do not affect later cache hits. Systems of hits that have not
+     * been bound are written to the disk cache from their buffered JSON tokens, so saving a result does not bind them.
+     * Failures to write to the disk cache are ignored.
+     *
+     * @param cacheKey Key to save the result under or a null pointer to not save it.
+     * @param result {@link PifSearchResult} to save.
+     * @return The input result.
+     */
+    private PifSearchResult cacheSearchResult(final String cacheKey, final PifSearchResult result) {
+        if ((cacheKey != null) && (result != null)) {
+            if (this.resultCache != null) {
+                this.resultCache.put(cacheKey, copySearchResult(result));
+            }
+            if (this.diskCache != null) {
+                try {
+                    this.diskCache.put(cacheKey,
+                            OBJECT_MAPPER.writeValueAsBytes(Collections.singletonMap("results", result)));
+                } catch (IOException | RuntimeException e) {
+                    // The result is still returned if it cannot be cached
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Look up the result of a prediction request in the disk cache. A damaged entry is treated as a miss.
+     *
+     * @param cacheKey Key that the result is saved under or a null pointer if the disk cache is disabled.
+     * @return {@link PredictionResult} or a null pointer if the result is not cached.
+     */
+    private PredictionResult getCachedPredictionResult(final String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+        try (final InputStream cached = this.diskCache.get(cacheKey)) {
+            return (cached == null) ? null : OBJECT_MAPPER.readValue(cached, PredictionResult.class);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Make a shallow copy of a search result. The copy has its own list of hits, but the hits themselves are shared.
+     *
+     * @param result {@link PifSearchResult} to copy.
+     * @return New {@link PifSearchResult} object.
+     */
+    private static PifSearchResult copySearchResult(final PifSearchResult result) {
+        final PifSearchResult res = new PifSearchResult()
+                .setTook(result.getTook())
+                .setTotalNumHits(result.getTotalNumHits());
+        for (PifSearchHit i : result) {
+            res.addHit(i);
+        }
+        return res;
+    }
+
+    /**
+     * Wrap a paged iterator in a stream that cancels outstanding pages when it is closed.
+     *
+     * @param iterator {@link PagedIterator} to wrap.
+     * @param ordered True if the iterator returns elements in a defined order.
+     * @param <T> Type of the elements of the iterator.
+     * @return {@link Stream} over the elements of the iterator.
+     */
+    private static <T> Stream<T> stream(final PagedIterator<T> iterator, final boolean ordered) {
+        final int characteristics = ordered ? (Spliterator.ORDERED | Spliterator.NONNULL) : Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Get every dataset that matches a dataset query by paging through its hits.
+     *
+     * @param datasetQuery {@link DatasetQuery} to run. Its from index and size are changed for each page.
+     * @return List of {@link DatasetSearchHit} objects with every matching dataset.
+     * @throws IOException      if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    private List<DatasetSearchHit> findDatasets(final DatasetQuery datasetQuery) throws IOException {
+        final List<DatasetSearchHit> res = new ArrayList<>();
+        while (true) {
+            final DatasetSearchResult page = search(datasetQuery.fromIndex(res.size()).size(DATASET_PAGE_SIZE));
+            if ((page == null) || (page.getNumHits() == 0)) {
+                return res;
+            }
+            page.forEach(res::add);
+            if ((page.getTotalNumHits() == null) || (res.size() >= page.getTotalNumHits())) {
+                return res;
+            }
+        }
+    }
+
+    /**
+     * Get the number of hits to request in each page when iterating over all hits of a query.
+     *
+     * @param pifQuery {@link PifQuery} that is being paged through.
+     * @return Size of the query if it is set and positive, otherwise {@link #pageSize}.
+     */
+    private int getPageSize(final PifQuery pifQuery) {
+        return ((pifQuery.size() != null) && (pifQuery.size() > 0)) ? pifQuery.size() : this.pageSize;
+    }
+
+    /**
+     * Wait for an asynchronous request to complete.
+     *
+     * @param future {@link CompletableFuture} to wait for.
+     * @param <T> Type of the value of the future.
+     * @return Value of the future.
+     * @throws IOException if the request failed with an {@link IOException} or the thread was interrupted.
+     * @throws RuntimeException if the request failed with a {@link RuntimeException}.
+     */
+    private static <T> T await(final CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        } catch (ExecutionException e) {
+            Throwable cause = (e.getCause() == null) ? e : e.getCause();
+            while ((cause instanceof CompletionException) && (cause.getCause() != null)) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Get a future that has already failed with the input exception.
+     *
+     * @param throwable {@link Throwable} that caused the failure.
+     * @param <T> Type of the value of the future.
+     * @return {@link CompletableFuture} that is completed exceptionally.
+     */
+    private static <T> CompletableFuture<T> failedFuture(final Throwable throwable) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(throwable);
+        return result;
+    }
+
+    /**
+     * Get the non-blocking HTTP client, starting it if this is the first asynchronous request made by this client.
+     *
+     * @return {@link CloseableHttpAsyncClient} to use.
+     * @throws IOException if the I/O reactor cannot be started.
+     * @throws IllegalStateException if this client has been closed.
+     */
+    private CloseableHttpAsyncClient getAsyncHttpClient() throws IOException {
+        CloseableHttpAsyncClient client = this.asyncHttpClient;
+        if (client == null) {
+            synchronized (this) {
+                if (this.closed) {
+                    throw new IllegalStateException("Client has been closed");
+                }
+                client = this.asyncHttpClient;
+                if (client == null) {
+                    client = buildAsyncHttpClient();
+                    client.start();
+                    this.asyncHttpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Get the non-blocking HTTP client to use. The returned client owns its own pool of connections, which has the
+     * same limits as the pool used for blocking requests.
+     *
+     * @return {@link CloseableHttpAsyncClient} to use.
+     * @throws IOException if the I/O reactor cannot be created.
+     */
+    CloseableHttpAsyncClient buildAsyncHttpClient() throws IOException {
+        final PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(IOReactorConfig.custom().setIoThreadCount(this.ioThreadCount).build()));
+        connectionManager.setMaxTotal(this.connectionManager.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(this.connectionManager.getDefaultMaxPerRoute());
+        return HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setRedirectStrategy(new LaxRedirectStrategy())
+                .build();
+    }
+
+    /**
+     * Get the HTTP client to use. The returned client owns {@link #connectionManager} and closing it shuts down the
+     * connection pool.
+     *
+     * @return {@link CloseableHttpClient} to use.
+     */
+    CloseableHttpClient buildHttpClient() {
+        return createDefaultHttpClientBuilder()
+                .setConnectionManager(this.connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(this.maxIdleTime, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Get the default HTTP client to use.
+     *
+     * @return {@link HttpClientBuilder} to use.
+     */
+    HttpClientBuilder createDefaultHttpClientBuilder() {
+        return HttpClientBuilder.create().setRedirectStrategy(new LaxRedirectStrategy());
+    }
+
+    /**
+     * Create the pool of connections that are shared by all requests made from this client.
+     *
+     * @param builder {@link Builder} with the settings for the pool.
+     * @return {@link PoolingHttpClientConnectionManager} to use.
+     */
+    private static PoolingHttpClientConnectionManager buildConnectionManager(final Builder builder) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(builder.maxConnectionsTotal);
+        connectionManager.setDefaultMaxPerRoute(builder.maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity(builder.validateAfterInactivity);
+        return connectionManager;
+    }
+
+    /**
+     * Build the POST request with the query to execute.
+     *
+     * @param pifQuery {@link PifQuery} to run.
+     * @return {@link HttpPost} object with the POST request to make.
+     * @throws IOException if thrown from within this function.
+     */
+    HttpPost buildSearchRequest(final PifQuery pifQuery) throws IOException {
+        return createCommonSearchRequest(pifQuery);
+    }
+
+    /**
+     * Build the POST request with the query to execute.
+     *
+     * @param pifQuery {@link PifQuery} to run.
+     * @return {@link HttpPost} object with the POST request to make.
+     * @throws IOException if thrown from within this function.
+     */
+    HttpPost createCommonSearchRequest(final PifQuery pifQuery) throws IOException {
+        final HttpPost post = new HttpPost(this.host + "/api/search/pif_search");
+        post.addHeader("X-API-Key", this.apiKey);
+        post.addHeader("Content-type", "application/json");
+        post.setEntity(buildJsonEntity(pifQuery));
+        return post;
+    }
+
+    /**
+     * Build the POST request with a bound query template to execute.
+     *
+     * @param binding {@link QueryTemplate.Binding} to run.
+     * @return {@link HttpPost} object with the POST request to make.
+     * @throws IOException if thrown from within this function.
+     */
+    HttpPost buildSearchRequest(final QueryTemplate.Binding binding) throws IOException {
+        final HttpPost post = new HttpPost(this.host + "/api/search/pif_search");
+        post.addHeader("X-API-Key", this.apiKey);
+        post.addHeader("Content-type", "application/json");
+        post.setEntity(buildJsonEntity(binding.toBytes()));
+        return post;
+    }
+
+    /**
+     * Build the POST request with the multi-query to execute.
+     *
+     * @param pifMultiQuery {@link PifMultiQuery} to run.
+     * @return {@link HttpPost} object with the POST request to make.
+     * @throws IOException if thrown from within this function.
+     */
+    HttpPost buildMultiSearchRequest(final PifMultiQuery pifMultiQuery) throws IOException {
+        return createCommonMultiSearchRequest(pifMultiQuery);
+    }
+
+    /**
+     * Build the POST request with a chunk of a multi-query to execute. The body that was serialized while splitting
+     * the multi-query is sent as it is, if there is one.
+     *
+     * @param chunk {@link PifMultiQuerySplitter.Chunk} to run.
+     * @return {@link HttpPost} object with the POST request to make.
+     * @throws IOException if thrown from within this function.
+     */
+    HttpPost buildMultiSearchRequest(final PifMultiQuerySplitter.Chunk chunk) throws IOException {
+        return (chunk.getBody() == null)
+                ? buildMultiSearchRequest(chunk.getQuery())
+                : buildMultiSearchRequest(chunk.getBody());
+    }
+
+    /**
+     * Build the POST request with a multi-query that has already been serialized.
+     *
+     * @param body Array of bytes with the serialized multi-query.
+     * @return {@link HttpPost} object with the POST request to make.
+     * @throws IOException if thrown from within this function.
+     */
+    HttpPost buildMultiSearchRequest(final byte[] body) throws IOException {
+        final HttpPost post = new HttpPost(this.host + "/api/search/pif_multi_search");
+        post.addHeader("X-API-Key", this.apiKey);
+        post.addHeader("Content-type", "application/json");
+        post.setEntity(buildJsonEntity(body));
+        return post;
+    }
+
+    /**
+     * Build the POST request with the multi-query to execute.
+     *
+     * @param pifMultiQuery {@link PifMultiQuery} to run.
+     * @return {@link HttpPost} object with the POST request to make.
+     * @throws IOException if thrown from within this function.
+     */
+    HttpPost createCommonMultiSearchRequest(final PifMultiQuery pifMultiQuery) throws IOException {
+        final HttpPost post = new HttpPost(this.host + "/api/search/pif_multi_search");
+        post.addHeader("X-API-Key", this.apiKey);
+        post.addHeader("Content-type", "application/json");
+        post.setEntity(buildJsonEntity(pifMultiQuery));
+        return post;
+    }
+
+    /**
+     * Build the POST request with the dataset query to execute.
+     *
+     * @param datasetQuery {@link DatasetQuery} to run.
+     * @return {@link HttpPost} object with the POST request to make.
+     * @throws IOException if thrown from within this function.
+     */
+    HttpPost buildDatasetSearchRequest(final DatasetQuery datasetQuery) throws IOException {
+        final HttpPost post = new HttpPost(this.host + "/api/search/dataset_search");
+        post.addHeader("X-API-Key", this.apiKey);
+        post.addHeader("Content-type", "application/json");
+        post.setEntity(buildJsonEntity(datasetQuery));
+        return post;
+    }
+
+    /**
+     * Build the POST request with the dataset multi-query to execute.
+     *
+     * @param datasetMultiQuery {@link DatasetMultiQuery} to run.
+     * @return {@link HttpPost} object with the POST request to make.
+     * @throws IOException if thrown from within this function.
+     */
+    HttpPost buildDatasetMultiSearchRequest(final DatasetMultiQuery datasetMultiQuery) throws IOException {
+        final HttpPost post = new HttpPost(this.host + "/api/search/dataset_multi_search");
+        post.addHeader("X-API-Key", this.apiKey);
+        post.addHeader("Content-type", "application/json");
+        post.setEntity(buildJsonEntity(datasetMultiQuery));
+        return post;
+    }
+
+    /**
+     * Build the POST request with the prediction to make.
+     *
+     * @param modelName to make the prediction against
+     * @param inputs    list of materials, as Maps[String, Object], to make predictions on
+     * @return {@link HttpPost} object with the POST request to make.
+     * @throws IOException if thrown from within this function.
+     */
+    HttpPost buildPredictRequest(final String modelName, final PredictionRequest inputs) throws IOException {
+        final HttpPost post = new HttpPost(this.host + "/api/csv_to_models/" + modelName + "/predict");
+        post.addHeader("X-API-Key", this.apiKey);
+        post.addHeader("Content-type", "application/json");
+
+        Map<String, Object> wrapper = new HashMap<String, Object>();
+        wrapper.put("predictionRequest", inputs);
+        post.setEntity(buildJsonEntity(wrapper));
+        return post;
+    }
+
+    /**
+     * Build the JSON body of a request. If request compression is disabled then the body is written straight to the
+     * connection when a blocking request is sent, using chunked transfer encoding, and is serialized when the request
+     * is submitted for non-blocking requests. Otherwise it is serialized to bytes up front so that its size is known,
+     * and bodies that are larger than {@link #requestCompressionThreshold} bytes are compressed with GZIP.
+     *
+     * @param body Object to serialize.
+     * @return {@link HttpEntity} with the serialized body.
+     * @throws IOException if the body cannot be serialized.
+     */
+    private HttpEntity buildJsonEntity(final Object body) throws IOException {
+        if (this.requestCompressionThreshold <= 0) {
+            return new JsonEntity(OBJECT_MAPPER.writer(), body);
+        }
+        return buildJsonEntity(OBJECT_MAPPER.writeValueAsBytes(body));
+    }
+
+    /**
+     * Build the body of a request from JSON that has already been serialized. Bodies that are larger than
+     * {@link #requestCompressionThreshold} bytes are compressed with GZIP if request compression is enabled.
+     *
+     * @param serialized Array of bytes with the serialized body.
+     * @return {@link HttpEntity} with the body.
+     * @throws IOException if the body cannot be compressed.
+     */
+    private HttpEntity buildJsonEntity(final byte[] serialized) throws IOException {
+        if ((this.requestCompressionThreshold <= 0) || (serialized.length <= this.requestCompressionThreshold)) {
+            return new ByteArrayEntity(serialized);
+        }
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(serialized.length / 4);
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(serialized);
+        }
+        final ByteArrayEntity entity = new ByteArrayEntity(compressed.toByteArray());
+        entity.setContentEncoding("gzip");
+        return entity;
+    }
+
+    /**
+     * Replace the entity of a response that was compressed by the server with one that decompresses it as it is read.
+     * The blocking client does this on its own, but the non-blocking client does not.
+     *
+     * @param response {@link HttpResponse} to decode.
+     * @return The input response.
+     */
+    private static HttpResponse decodeContent(final HttpResponse response) {
+        final HttpEntity entity = response.getEntity();
+        final Header encoding = (entity == null) ? null : entity.getContentEncoding();
+        if (encoding != null) {
+            final String codec = encoding.getValue().trim().toLowerCase(Locale.ROOT);
+            if (codec.equals("gzip") || codec.equals("x-gzip")) {
+                response.setEntity(new GzipDecompressingEntity(entity));
+            } else if (codec.equals("deflate")) {
+                response.setEntity(new DeflateDecompressingEntity(entity));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Convert the response from a search result to a {@link PifSearchResult} object.
+     *
+     * @param response {@link HttpResponse} with the result of the query.
+     * @return {@link PifSearchResult} with the result of the query.
+     * @throws IOException      if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    private PifSearchResult buildSearchResult(final HttpResponse response) throws IOException {
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+            throw new HttpStatusException(response.getStatusLine());
+        }
+        return this.pifSearchResultParser.parse(response.getEntity().getContent(), null);
+    }
+
+    /**
+     * Convert the response from a search result to a {@link PifMultiSearchResult} object.
+     *
+     * @param response {@link HttpResponse} with the result of the query.
+     * @return {@link PifMultiSearchResult} with the result of the query.
+     * @throws IOException      if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    private PifMultiSearchResult buildMultiSearchResult(final HttpResponse response) throws IOException {
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+            throw new HttpStatusException(response.getStatusLine());
+        }
+        return this.multiSearchResponseReader.<PifMultiSearchResponseWrapper>readValue(
+                response.getEntity().getContent()).pifMultiSearchResult;
+    }
+
+    /**
+     * Convert the response from a dataset search to a {@link DatasetSearchResult} object.
+     *
+     * @param response {@link HttpResponse} with the result of the query.
+     * @return {@link DatasetSearchResult} with the result of the query.
+     * @throws IOException      if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    private DatasetSearchResult buildDatasetSearchResult(final HttpResponse response) throws IOException {
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+            throw new HttpStatusException(response.getStatusLine());
+        }
+        return DATASET_SEARCH_RESULT_PARSER.parse(response.getEntity().getContent(), null);
+    }
+
+    /**
+     * Convert the response from a dataset multi-search to a {@link DatasetMultiSearchResult} object.
+     *
+     * @param response {@link HttpResponse} with the result of the query.
+     * @return {@link DatasetMultiSearchResult} with the result of the query.
+     * @throws IOException      if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    private DatasetMultiSearchResult buildDatasetMultiSearchResult(final HttpResponse response) throws IOException {
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+            throw new HttpStatusException(response.getStatusLine());
+        }
+        return DATASET_MULTI_SEARCH_RESPONSE_READER.<DatasetMultiSearchResponseWrapper>readValue(
+                response.getEntity().getContent()).datasetMultiSearchResult;
+    }
+
+    /**
+     * Convert the response from a prediction request to a {@link PredictionResult} object and save the body of the
+     * response in the disk cache.
+     *
+     * @param response {@link HttpResponse} with the result of the prediction.
+     * @param cacheKey Key to save the body of the response under or a null pointer to not save it.
+     * @return {@link PredictionResult} with the result of the prediction.
+     * @throws IOException      if thrown from within this function.
+     * @throws RuntimeException if a non-200 response is received.
+     */
+    private PredictionResult buildPredictionResult(final HttpResponse response, final String cacheKey)
+            throws IOException {
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+            throw new HttpStatusException(response.getStatusLine());
+        }
+        if (cacheKey == null) {
+            return OBJECT_MAPPER.readValue(response.getEntity().getContent(), PredictionResult.class);
+        }
+        final byte[] body = EntityUtils.toByteArray(response.getEntity());
+        final PredictionResult result = OBJECT_MAPPER.readValue(body, PredictionResult.class);
+        try {
+            this.diskCache.put(cacheKey, body);
+        } catch (IOException | RuntimeException e) {
+            // The result is still returned if it cannot be cached
+        }
+        return result;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param project String with the project to connect to.
+     * @param host    String with the full host to connect to.
+     * @param apiKey  String with the api key to use.
+     * @throws IllegalArgumentException if project and host are both set.
+     * @throws IllegalArgumentException if apiKey is not set.
+     */
+    CitrinationClient(final String project, final String host, final String apiKey) {
+        this(new Builder().setProject(project).setHost(host).setApiKey(apiKey));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param builder {@link Builder} with the settings for the client.
+     * @throws IllegalArgumentException if project and host are both set.
+     * @throws IllegalArgumentException if apiKey is not set.
+     */
+    CitrinationClient(final Builder builder) {
+        final String project = builder.project;
+        final String host = builder.host;
+        final String apiKey = builder.apiKey;
+        if ((project != null) && (host != null)) {
+            throw new IllegalArgumentException("Cannot set both 'project' and 'host'");
+        }
+        if (apiKey == null) {
+            throw new IllegalArgumentException("Must set 'apiKey'");
+        }
+        if (host != null) {
+            this.host = host;
+        } else if (project != null) {
+            this.host = "https://" + project + ".citrination.com";
+        } else {
+            this.host = "https://www.citrination.com";
+        }
+        this.apiKey = apiKey;
+        try {
+            this.cacheIdentity = this.host + "/" + digest(apiKey) + "/";
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to get the digest of 'apiKey'", e);
+        }
+        this.maxIdleTime = builder.maxIdleTime;
+        this.ioThreadCount = builder.ioThreadCount;
+        this.executor = builder.executor;
+        this.pageSize = builder.pageSize;
+        this.maxBufferedPages = builder.maxBufferedPages;
+        this.connectionManager = buildConnectionManager(builder);
+        this.httpClient = buildHttpClient();
+        this.multiQueryChunkSize = builder.multiQueryChunkSize;
+        this.multiQueryChunkBytes = builder.multiQueryChunkBytes;
+        this.multiQueryDeduplication = builder.multiQueryDeduplication;
+        this.requestCompressionThreshold = builder.requestCompressionThreshold;
+        this.resultCache = (builder.resultCacheMaxWeight > 0)
+                ? new ResultCache<>(builder.resultCacheMaxWeight, builder.resultCacheTtl, i -> 1L + i.getNumHits())
+                : null;
+        this.predictChunkSize = builder.predictChunkSize;
+        this.predictChunkBytes = builder.predictChunkBytes;
+        this.predictParallelism = builder.predictParallelism;
+        this.predictMaxRetries = builder.predictMaxRetries;
+        this.predictionCache = (builder.predictionCacheMaxEntries > 0)
+                ? new PredictionCache(builder.predictionCacheMaxEntries, builder.predictionCacheTtl)
+                : null;
+        try {
+            this.diskCache = (builder.diskCacheDirectory != null)
+                    ? new DiskCache(builder.diskCacheDirectory, builder.diskCacheMaxBytes, builder.diskCacheMaxEntries,
+                            builder.diskCacheTtl)
+                    : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open disk cache in " + builder.diskCacheDirectory, e);
+        }
+        this.pifSearchResultParser = new SearchResultParser<>(
+                OBJECT_MAPPER.readerFor(PifSearchHit.class)
+                        .withAttribute(PifSearchHit.LAZY_SYSTEM_BINDING, builder.lazySystemBinding),
+                PifSearchResult::new);
+        this.multiSearchResponseReader = OBJECT_MAPPER.readerFor(PifMultiSearchResponseWrapper.class)
+                .withAttribute(PifSearchHit.LAZY_SYSTEM_BINDING, builder.lazySystemBinding);
+        this.searchesInFlight = builder.searchCoalescing
+                ? new SingleFlight<>(CitrinationClient::copySearchResult)
+                : null;
+        this.queryBatcher = (builder.batchMaxSize > 1)
+                ? new PifQueryBatcher(builder.batchMaxSize, builder.batchMaxDelay, this::searchBatchAsync)
+                : null;
+    }
+
+    /** Host to connect to. */
+    final String host;
+
+    /** API key for making the connection. */
+    final String apiKey;
+
+    /** Prefix of every cache key, made from the host and a digest of the API key. */
+    private final String cacheIdentity;
+
+    /** Number of milliseconds that a pooled connection can sit idle before it is evicted. */
+    private final long maxIdleTime;
+
+    /** Pool of connections that are reused across requests. */
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /** HTTP client that is used for all blocking requests. */
+    private final CloseableHttpClient httpClient;
+
+    /** Number of I/O dispatch threads used by the non-blocking client. */
+    private final int ioThreadCount;
+
+    /** Executor on which responses to asynchronous requests are converted. */
+    private final Executor executor;
+
+    /** HTTP client that is used for all asynchronous requests. This is created when first needed. */
+    private volatile CloseableHttpAsyncClient asyncHttpClient;
+
+    /** Whether this client has been closed. */
+    private boolean closed;
+
+    /** Default number of hits in each page when streaming over all hits of a query. */
+    private final int pageSize;
+
+    /** Maximum number of pages that are requested or held at once when streaming over all hits of a query. */
+    private final int maxBufferedPages;
+
+    /** Maximum number of queries in each chunk of a multi-query or a non-positive number to disable chunking. */
+    private final int multiQueryChunkSize;
+
+    /** Maximum number of serialized bytes in each chunk of a multi-query or a non-positive number for no limit. */
+    private final long multiQueryChunkBytes;
+
+    /** Whether queries that are repeated within a multi-search are only sent once. */
+    private final boolean multiQueryDeduplication;
+
+    /** Object that combines single queries into multi-queries or a null pointer if batching is disabled. */
+    private final PifQueryBatcher queryBatcher;
+
+    /** Size in bytes above which request bodies are compressed or a non-positive number to never compress them. */
+    private final int requestCompressionThreshold;
+
+    /** Cache of search results by query digest or a null pointer if result caching is disabled. */
+    private final ResultCache<String, PifSearchResult> resultCache;
+
+    /** Persistent cache of responses that sits behind {@link #resultCache} or a null pointer if it is disabled. */
+    private final DiskCache diskCache;
+
+    /** Searches that are waiting for a response, by the fingerprint of their query, or a null pointer if disabled. */
+    private final SingleFlight<Fingerprint, PifSearchResult> searchesInFlight;
+
+    /** Cache of the predictions for single candidates or a null pointer if it is disabled. */
+    private final PredictionCache predictionCache;
+
+    /** Maximum number of candidates in each chunk of a prediction request or a non-positive number for no limit. */
+    private final int predictChunkSize;
+
+    /** Maximum number of serialized bytes in each chunk of a prediction request or non-positive for no limit. */
+    private final long predictChunkBytes;
+
+    /** Maximum number of chunks of a prediction request that are run at once. */
+    private final int predictParallelism;
+
+    /** Maximum number of times that a failed chunk of a prediction request is retried. */
+    private final int predictMaxRetries;
+
+    /** Streaming parser for the responses to PIF search requests. */
+    private final SearchResultParser<PifSearchHit, PifSearchResult> pifSearchResultParser;
+
+    /** Reader for the responses to PIF multi-search requests. */
+    private final ObjectReader multiSearchResponseReader;
+
+    /** ObjectMapper for serializing queries. */
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true)
+            .configure(DeserializationFeature.UNWRAP_SINGLE_VALUE_ARRAYS, true);
+
+    /** Streaming parser for the responses to dataset searches. */
+    private static final SearchResultParser<DatasetSearchHit, DatasetSearchResult> DATASET_SEARCH_RESULT_PARSER =
+            new SearchResultParser<>(OBJECT_MAPPER.readerFor(DatasetSearchHit.class), DatasetSearchResult::new);
+
+    /** Reader for the responses to dataset multi-searches. */
+    private static final ObjectReader DATASET_MULTI_SEARCH_RESPONSE_READER =
+            OBJECT_MAPPER.readerFor(DatasetMultiSearchResponseWrapper.class);
+
+    /** Number of datasets to request in each page when finding the datasets to split a query over. */
+    private static final int DATASET_PAGE_SIZE = 1000;
+
+    /** Number of candidates in each chunk of a prediction stream if no chunk size has been set. */
+    private static final int DEFAULT_PREDICT_STREAM_CHUNK_SIZE = 1000;
+
+    /** Writer that serializes queries in a canonical form for computing cache keys. */
+    private static final ObjectWriter CANONICAL_WRITER = OBJECT_MAPPER.writer()
+            .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    /** Output stream that discards everything written to it. */
+    private static final OutputStream NULL_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(final int b) {}
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {}
+    };
+
+    /**
+     * Builder class to generate a new client.
+     *
+     * @author Kyle Michel
+     */
+    public static class Builder {
+
+        /**
+         * Generate a new {@link CitrinationClient} object from the content of this object.
+         *
+         * @return New {@link CitrinationClient} object.
+         * @throws UncheckedIOException if the disk cache cannot be opened.
+         */
+        public CitrinationClient build() {
+            return new CitrinationClient(this);
+        }
+
+        /**
+         * Set the host. This should contain the entire url for the connection.
+         *
+         * @param host String with the host to connect to.
+         * @return This object.
+         */
+        public Builder setHost(final String host) {
+            this.host = host;
+            return this;
+        }
+
+        /**
+         * Set the project. This is "project" in "https://project.citrination.com".
+         *
+         * @param project String with the project to connect to.
+         * @return This object.
+         */
+        public Builder setProject(final String project) {
+            this.project = project;
+            return this;
+        }
+
+        /**
+         * Set the API key for your account.
+         *
+         * @param apiKey String with the API key to use.
+         * @return This object.
+         */
+        public Builder setApiKey(final String apiKey) {
+            this.apiKey = apiKey;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of pooled connections that can be open to a single host. Defaults to 20.
+         *
+         * @param maxConnectionsPerRoute Maximum number of connections per host.
+         * @return This object.
+         * @throws IllegalArgumentException if the input value is not positive.
+         */
+        public Builder setMaxConnectionsPerRoute(final int maxConnectionsPerRoute) {
+            if (maxConnectionsPerRoute <= 0) {
+                throw new IllegalArgumentException("'maxConnectionsPerRoute' must be positive");
+            }
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of pooled connections that can be open across all hosts. Defaults to 50.
+         *
+         * @param maxConnectionsTotal Maximum number of connections.
+         * @return This object.
+         * @throws IllegalArgumentException if the input value is not positive.
+         */
+        public Builder setMaxConnectionsTotal(final int maxConnectionsTotal) {
+            if (maxConnectionsTotal <= 0) {
+                throw new IllegalArgumentException("'maxConnectionsTotal' must be positive");
+            }
+            this.maxConnectionsTotal = maxConnectionsTotal;
+            return this;
+        }
+
+        /**
+         * Set the number of milliseconds that a pooled connection can sit idle before it is closed by a background
+         * thread. Defaults to 30 seconds.
+         *
+         * @param maxIdleTime Number of milliseconds before an idle connection is evicted.
+         * @return This object.
+         * @throws IllegalArgumentException if the input value is not positive.
+         */
+        public Builder setMaxIdleTime(final long maxIdleTime) {
+            if (maxIdleTime <= 0) {
+                throw new IllegalArgumentException("'maxIdleTime' must be positive");
+            }
+            this.maxIdleTime = maxIdleTime;
+            return this;
+        }
+
+        /**
+         * Set the number of milliseconds of inactivity after which a pooled connection is checked for staleness
+         * before it is reused. Defaults to 2 seconds. A non-positive value disables the check.
+         *
+         * @param validateAfterInactivity Number of milliseconds of inactivity before a connection is validated.
+         * @return This object.
+         */
+        public Builder setValidateAfterInactivity(final int validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+            return this;
+        }
+
+        /**
+         * Set the number of I/O dispatch threads used for asynchronous requests. A small number of threads is enough
+         * to keep many requests in flight. Defaults to the number of available processors.
+         *
+         * @param ioThreadCount Number of I/O dispatch threads.
+         * @return This object.
+         * @throws IllegalArgumentException if the input value is not positive.
+         */
+        public Builder setIoThreadCount(final int ioThreadCount) {
+            if (ioThreadCount <= 0) {
+                throw new IllegalArgumentException("'ioThreadCount' must be positive");
+            }
+            this.ioThreadCount = ioThreadCount;
+            return this;
+        }
+
+        /**
+         * Set the executor on which responses to asynchronous requests are parsed and on which the returned futures
+         * are completed. Defaults to {@link ForkJoinPool#commonPool()}.
+         *
+         * @param executor {@link Executor} to use.
+         * @return This object.
+         * @throws IllegalArgumentException if the input value is a null pointer.
+         */
+        public Builder setExecutor(final Executor executor) {
+            if (executor == null) {
+                throw new IllegalArgumentException("'executor' cannot be null");
+            }
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Set the number of hits to request in each page when streaming over all hits of a query that does not set
+         * its own size. Defaults to 100.
+         *
+         * @param pageSize Number of hits in each page.
+         * @return This object.
+         * @throws IllegalArgumentException if the input value is not positive.
+         */
+        public Builder setPageSize(final int pageSize) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("'pageSize' must be positive");
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of pages that are requested or held in memory at once when streaming over all hits
+         * of a query. This includes the page that is currently being consumed, so a value of 1 disables prefetching.
+         * Defaults to 2.
+         *
+         * @param maxBufferedPages Maximum number of pages held at once.
+         * @return This object.
+         * @throws IllegalArgumentException if the input value is not positive.
+         */
+        public Builder setMaxBufferedPages(final int maxBufferedPages) {
+            if (maxBufferedPages <= 0) {
+                throw new IllegalArgumentException("'maxBufferedPages' must be positive");
+            }
+            this.maxBufferedPages = maxBufferedPages;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of single queries that are combined into one multi-query request. Batching is
+         * opt-in: it is enabled by setting a value greater than 1, after which each {@link PifQuery} passed to
+         * {@link CitrinationClient#search(PifQuery)} or {@link CitrinationClient#searchAsync(PifQuery)} waits up to
+         * {@link #setBatchMaxDelay(long)} milliseconds for other queries to join its batch. Defaults to 0.
+         *
+         * @param batchMaxSize Maximum number of queries in a batch.
+         * @return This object.
+         */
+        public Builder setBatchMaxSize(final int batchMaxSize) {
+            this.batchMaxSize = batchMaxSize;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of milliseconds that a query waits for other queries to join its batch. This only
+         * applies if batching has been enabled with {@link #setBatchMaxSize(int)}. Defaults to 5 milliseconds.
+         *
+         * @param batchMaxDelay Maximum number of milliseconds to wait.
+         * @return This object.
+         * @throws IllegalArgumentException if the input value is negative.
+         */
+        public Builder setBatchMaxDelay(final long batchMaxDelay) {
+            if (batchMaxDelay < 0) {
+                throw new IllegalArgumentException("'batchMaxDelay' cannot be negative");
+            }
+            this.batchMaxDelay = batchMaxDelay;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of queries that are sent in a single multi-search request. Multi-queries with more
+         * queries than this are split into chunks that are run concurrently, and the results are stitched back
+         * together in the original order. Defaults to 0, which disables splitting by count.
+         *
+         * @param multiQueryChunkSize Maximum number of queries in each request.
+         * @return This object.
+         */
+        public Builder setMultiQueryChunkSize(final int multiQueryChunkSize) {
+            this.multiQueryChunkSize = multiQueryChunkSize;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of bytes in the serialized body of a single multi-search request.
+         * Multi-queries that are larger than this are split into chunks in the same way as
+         * {@link #setMultiQueryChunkSize(int)}. Defaults to 0, which disables splitting by size.
+         *
+         * @param multiQueryChunkBytes Maximum number of serialized bytes in each request.
+         * @return This object.
+         */
+        public Builder setMultiQueryChunkBytes(final long multiQueryChunkBytes) {
+            this.multiQueryChunkBytes = multiQueryChunkBytes;
+            return this;
+        }
+
+        /**
+         * Set whether queries that are repeated within a {@link PifMultiQuery} are only sent once. Each position that
+         * a repeated query appears in receives its own copy of the result. Repeats are found by comparing queries with
+         * {@link PifQuery#equals(Object)} first, and only queries that are not equal to an earlier one are
+         * fingerprinted to catch repeats whose sub-queries are in a different order. Defaults to false.
+         *
+         * @param multiQueryDeduplication True to send each query of a multi-search once.
+         * @return This object.
+         */
+        public Builder setMultiQueryDeduplication(final boolean multiQueryDeduplication) {
+            this.multiQueryDeduplication = multiQueryDeduplication;
+            return this;
+        }
+
+        /**
+         * Set whether the system of each search hit is bound only when {@link PifSearchHit#getSystem()} is first
+         * called. When enabled, the JSON of each system is buffered as it is read and hits that are never inspected
+         * skip the cost of building the full object graph. Defaults to false.
+         *
+         * @param lazySystemBinding True to bind systems on first access.
+         * @return This object.
+         */
+        public Builder setLazySystemBinding(final boolean lazySystemBinding) {
+            this.lazySystemBinding = lazySystemBinding;
+            return this;
+        }
+
+        /**
+         * Set the size in bytes above which the body of a request is compressed with GZIP before it is sent. Responses
+         * are always requested with GZIP or deflate compression whatever this is set to. Defaults to 0, which disables
+         * compression of requests.
+         *
+         * @param requestCompressionThreshold Size in bytes above which request bodies are compressed.
+         * @return This object.
+         */
+        public Builder setRequestCompressionThreshold(final int requestCompressionThreshold) {
+            this.requestCompressionThreshold = requestCompressionThreshold;
+            return this;
+        }
+
+        /**
+         * Set whether concurrent single {@link PifQuery} searches with the same query share a single request. Each
+         * search receives its own copy of the result. This needs the fingerprint of every query, which is also
+         * needed for result caching. Defaults to false.
+         *
+         * @param searchCoalescing True to share requests between concurrent searches with the same query.
+         * @return This object.
+         */
+        public Builder setSearchCoalescing(final boolean searchCoalescing) {
+            this.searchCoalescing = searchCoalescing;
+            return this;
+        }
+
+        /**
+         * Set the maximum total weight of the results that are kept in the in-memory result cache. Each
+         * {@link PifSearchResult} weighs one plus its number of hits, so this is roughly the number of hits that are
+         * cached. Single {@link PifQuery} searches that repeat a cached query are answered without a request. Defaults
+         * to 0, which disables the cache.
+         *
+         * @param resultCacheMaxWeight Maximum total weight of cached results.
+         * @return This object.
+         */
+        public Builder setResultCacheMaxWeight(final long resultCacheMaxWeight) {
+            this.resultCacheMaxWeight = resultCacheMaxWeight;
+            return this;
+        }
+
+        /**
+         * Set the number of milliseconds that a result is kept in the result cache. A non-positive number keeps
+         * results until they are evicted to make room for others. Defaults to 60000.
+         *
+         * @param resultCacheTtl Number of milliseconds to keep each cached result.
+         * @return This object.
+         */
+        public Builder setResultCacheTtl(final long resultCacheTtl) {
+            this.resultCacheTtl = resultCacheTtl;
+            return this;
+        }
+
+        /**
+         * Set the directory to keep a persistent cache of search and prediction responses in. The disk cache sits
+         * behind the in-memory result cache and survives restarts of the JVM, so repeated requests after a restart are
+         * answered without going to the site. Only one client at a time can use a directory. Defaults to a null
+         * pointer, which disables the disk cache.
+         *
+         * @param diskCacheDirectory {@link Path} to the cache directory.
+         * @return This object.
+         */
+        public Builder setDiskCacheDirectory(final Path diskCacheDirectory) {
+            this.diskCacheDirectory = diskCacheDirectory;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of bytes of compressed responses to keep in the disk cache. The least recently used
+         * responses are dropped when this is exceeded. Defaults to 256 MB.
+         *
+         * @param diskCacheMaxBytes Maximum size of the disk cache in bytes.
+         * @return This object.
+         * @throws IllegalArgumentException if diskCacheMaxBytes is not positive.
+         */
+        public Builder setDiskCacheMaxBytes(final long diskCacheMaxBytes) {
+            if (diskCacheMaxBytes <= 0) {
+                throw new IllegalArgumentException("'diskCacheMaxBytes' must be positive");
+            }
+            this.diskCacheMaxBytes = diskCacheMaxBytes;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of responses to keep in the disk cache. This sets the size of the index file, which
+         * takes about 100 bytes per entry. Changing it discards the contents of an existing cache. Defaults to 65536.
+         *
+         * @param diskCacheMaxEntries Maximum number of responses in the disk cache.
+         * @return This object.
+         * @throws IllegalArgumentException if diskCacheMaxEntries is not positive.
+         */
+        public Builder setDiskCacheMaxEntries(final int diskCacheMaxEntries) {
+            if (diskCacheMaxEntries <= 0) {
+                throw new IllegalArgumentException("'diskCacheMaxEntries' must be positive");
+            }
+            this.diskCacheMaxEntries = diskCacheMaxEntries;
+            return this;
+        }
+
+        /**
+         * Set the number of milliseconds that a response is kept in the disk cache. A non-positive number keeps
+         * responses until they are evicted to make room for others. Defaults to one day.
+         *
+         * @param diskCacheTtl Number of milliseconds to keep each cached response.
+         * @return This object.
+         */
+        public Builder setDiskCacheTtl(final long diskCacheTtl) {
+            this.diskCacheTtl = diskCacheTtl;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of candidate predictions to keep in the prediction cache. Predictions are cached per
+         * candidate, keyed on the model name, the usePriors and predictionSource settings of the request and the
+         * content of the candidate, so a request only sends the candidates that have not been predicted recently.
+         * Defaults to 0, which disables the cache.
+         *
+         * @param predictionCacheMaxEntries Maximum number of cached candidate predictions.
+         * @return This object.
+         */
+        public Builder setPredictionCacheMaxEntries(final long predictionCacheMaxEntries) {
+            this.predictionCacheMaxEntries = predictionCacheMaxEntries;
+            return this;
+        }
+
+        /**
+         * Set the number of milliseconds that a candidate prediction is kept in the prediction cache. A non-positive
+         * number keeps predictions until they are evicted to make room for others. Defaults to one hour.
+         *
+         * @param predictionCacheTtl Number of milliseconds to keep each cached prediction.
+         * @return This object.
+         */
+        public Builder setPredictionCacheTtl(final long predictionCacheTtl) {
+            this.predictionCacheTtl = predictionCacheTtl;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of candidates that are sent in a single prediction request. Larger requests are split
+         * into chunks that are run concurrently and the predictions are returned in the original order. Defaults to 0,
+         * which disables splitting by count.
+         *
+         * @param predictChunkSize Maximum number of candidates in each request.
+         * @return This object.
+         */
+        public Builder setPredictChunkSize(final int predictChunkSize) {
+            this.predictChunkSize = predictChunkSize;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of bytes of serialized candidates that are sent in a single prediction request. Larger
+         * requests are split into chunks in the same way as {@link #setPredictChunkSize(int)}. Defaults to 0, which
+         * disables splitting by size.
+         *
+         * @param predictChunkBytes Maximum number of serialized bytes in each request.
+         * @return This object.
+         */
+        public Builder setPredictChunkBytes(final long predictChunkBytes) {
+            this.predictChunkBytes = predictChunkBytes;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of chunks of a prediction request that are run at once. Defaults to 4.
+         *
+         * @param predictParallelism Maximum number of concurrent chunk requests.
+         * @return This object.
+         * @throws IllegalArgumentException if predictParallelism is not positive.
+         */
+        public Builder setPredictParallelism(final int predictParallelism) {
+            if (predictParallelism <= 0) {
+                throw new IllegalArgumentException("'predictParallelism' must be positive");
+            }
+            this.predictParallelism = predictParallelism;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of times that a chunk of a prediction request is retried after it fails with an
+         * {@link IOException} or a 429 or 5xx response. Only the failed chunk is sent again, after a random delay
+         * whose limit doubles with each retry. Defaults to 2.
+         *
+         * @param predictMaxRetries Maximum number of retries for each chunk.
+         * @return This object.
+         * @throws IllegalArgumentException if predictMaxRetries is negative.
+         */
+        public Builder setPredictMaxRetries(final int predictMaxRetries) {
+            if (predictMaxRetries < 0) {
+                throw new IllegalArgumentException("'predictMaxRetries' cannot be negative");
+            }
+            this.predictMaxRetries = predictMaxRetries;
+            return this;
+        }
+
+        /** Host to connect to. */
+        private String host;
+
+        /** Project to connect to. */
+        private String project;
+
+        /** API key for making the connection. */
+        private String apiKey;
+
+        /** Maximum number of pooled connections per host. */
+        private int maxConnectionsPerRoute = 20;
+
+        /** Maximum number of pooled connections. */
+        private int maxConnectionsTotal = 50;
+
+        /** Number of milliseconds before an idle connection is evicted. */
+        private long maxIdleTime = 30000L;
+
+        /** Number of milliseconds of inactivity before a connection is validated. */
+        private int validateAfterInactivity = 2000;
+
+        /** Number of I/O dispatch threads used for asynchronous requests. */
+        private int ioThreadCount = Runtime.getRuntime().availableProcessors();
+
+        /** Executor on which responses to asynchronous requests are converted. */
+        private Executor executor = ForkJoinPool.commonPool();
+
+        /** Default number of hits in each page when streaming over all hits of a query. */
+        private int pageSize = 100;
+
+        /** Maximum number of pages that are requested or held at once when streaming over all hits of a query. */
+        private int maxBufferedPages = 2;
+
+        /** Maximum number of single queries that are combined into one multi-query. */
+        private int batchMaxSize;
+
+        /** Maximum number of queries in each chunk of a multi-query. */
+        private int multiQueryChunkSize;
+
+        /** Maximum number of serialized bytes in each chunk of a multi-query. */
+        private long multiQueryChunkBytes;
+
+        /** Whether repeated queries within a multi-search are only sent once. */
+        private boolean multiQueryDeduplication;
+
+        /** Maximum number of milliseconds that a query waits for other queries to join its batch. */
+        private long batchMaxDelay = 5L;
+
+        /** Whether the system of each search hit is bound on first access. */
+        private boolean lazySystemBinding;
+
+        /** Size in bytes above which request bodies are compressed. */
+        private int requestCompressionThreshold;
+
+        /** Whether concurrent searches with the same query share a single request. */
+        private boolean searchCoalescing;
+
+        /** Maximum total weight of cached results. */
+        private long resultCacheMaxWeight;
+
+        /** Number of milliseconds to keep each cached result. */
+        private long resultCacheTtl = 60000L;
+
+        /** Directory to keep the disk cache in. */
+        private Path diskCacheDirectory;
+
+        /** Maximum size of the disk cache in bytes. */
+        private long diskCacheMaxBytes = 256L << 20;
+
+        /** Maximum number of responses in the disk cache. */
+        private int diskCacheMaxEntries = 65536;
+
+        /** Number of milliseconds to keep each response in the disk cache. */
+        private long diskCacheTtl = 86400000L;
+
+        /** Maximum number of cached candidate predictions. */
+        private long predictionCacheMaxEntries;
+
+        /** Number of milliseconds to keep each cached prediction. */
+        private long predictionCacheTtl = 3600000L;
+
+        /** Maximum number of candidates in each chunk of a prediction request. */
+        private int predictChunkSize;
+
+        /** Maximum number of serialized bytes in each chunk of a prediction request. */
+        private long predictChunkBytes;
+
+        /** Maximum number of chunks of a prediction request that are run at once. */
+        private int predictParallelism = 4;
+
+        /** Maximum number of times that a failed chunk of a prediction request is retried. */
+        private int predictMaxRetries = 2;
+    }
+
+    /**
+     * Callback that converts the response to an asynchronous request and completes a future with the result.
+     *
+     * @param <T> Type of the converted response.
+     * @author Kyle Michel
+     */
+    private static class AsyncResponseCallback<T> implements FutureCallback<HttpResponse> {
+
+        /**
+         * Constructor.
+         *
+         * @param result {@link CompletableFuture} to complete.
+         * @param handler {@link ResponseHandler} used to convert the response.
+         * @param executor {@link Executor} on which to convert the response.
+         */
+        AsyncResponseCallback(
+                final CompletableFuture<T> result, final ResponseHandler<T> handler, final Executor executor) {
+            this.result = result;
+            this.handler = handler;
+            this.executor = executor;
+        }
+
+        @Override
+        public void completed(final HttpResponse response) {
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        this.result.complete(this.handler.handleResponse(decodeContent(response)));
+                    } catch (Exception e) {
+                        this.result.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                this.result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void failed(final Exception e) {
+            this.result.completeExceptionally(e);
+        }
+
+        @Override
+        public void cancelled() {
+            this.result.cancel(false);
+        }
+
+        /** Future to complete with the converted response. */
+        private final CompletableFuture<T> result;
+
+        /** Handler used to convert the response. */
+        private final ResponseHandler<T> handler;
+
+        /** Executor on which to convert the response. */
+        private final Executor executor;
+    }
+
+    /**
+     * Object that wraps the response received from an API request.
+     *
+     * @author Kyle Michel
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class PifMultiSearchResponseWrapper {
+
+        /** Results field. */
+        @JsonProperty("results")
+        public PifMultiSearchResult pifMultiSearchResult;
+    }
+
+    /**
+     * Object that wraps the response received from a dataset multi-search request.
+     *
+     * @author Kyle Michel
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class DatasetMultiSearchResponseWrapper {
+
+        /** Results field. */
+        @JsonProperty("results")
+        public DatasetMultiSearchResult datasetMultiSearchResult;
     }
 }
\ No newline at end of file
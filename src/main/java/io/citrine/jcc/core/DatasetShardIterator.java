@@ -0,0 +1,130 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifSearchHit;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Iterator over every hit of a set of dataset shards of a {@link PifQuery}. The pages of every shard are planned up
+ * front from the expected number of hits in each shard, so pages from different shards are requested at the same
+ * time without waiting for the first page of each shard. If the last planned page of a shard finds that the shard has
+ * more hits than expected, then pages for the remaining hits are added to the end of the plan.
+ *
+ * @author Kyle Michel
+ */
+class DatasetShardIterator extends PagedIterator<PifSearchHit> {
+
+    /**
+     * Constructor.
+     *
+     * @param shards List of {@link DatasetShardPlanner.Shard} objects to get all hits for.
+     * @param pageSize Number of hits to request in each page.
+     * @param maxPages Maximum number of pages that can be requested or held at once.
+     * @param ordered True to return hits in the order that pages are planned, false to return pages of hits in the
+     *                order that they complete.
+     * @param search Function that runs a single page query.
+     * @throws IllegalArgumentException if pageSize or maxPages is not positive.
+     */
+    DatasetShardIterator(final List<DatasetShardPlanner.Shard> shards, final int pageSize, final int maxPages,
+            final boolean ordered, final Function<PifQuery, CompletableFuture<PifSearchResult>> search) {
+        super(maxPages, ordered);
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("'pageSize' must be positive");
+        }
+        this.pageSize = pageSize;
+        this.search = search;
+        this.plannedEnds = new long[shards.size()];
+        for (int i = 0; i < shards.size(); ++i) {
+            planPages(shards.get(i), i, 0, Math.max(shards.get(i).getExpectedNumHits(), 1L));
+        }
+    }
+
+    @Override
+    protected CompletableFuture<PifSearchResult> fetchNext() {
+        final Page page;
+        synchronized (this.planned) {
+            page = this.planned.poll();
+        }
+        if (page == null) {
+            return null;
+        }
+        final PifQuery pageQuery = page.shard.buildPageQuery(page.from, this.pageSize);
+        return this.search.apply(pageQuery).thenApply(result -> {
+            final Long totalNumHits = result.getTotalNumHits();
+            synchronized (this.planned) {
+                final long plannedEnd = this.plannedEnds[page.index];
+                if ((totalNumHits != null) && (page.from + this.pageSize >= plannedEnd)
+                        && (totalNumHits > plannedEnd)) {
+                    planPages(page.shard, page.index, plannedEnd, totalNumHits);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Add pages for a range of the hits of a shard to the end of the plan.
+     *
+     * @param shard {@link DatasetShardPlanner.Shard} to plan pages for.
+     * @param index Index of the shard.
+     * @param start Index of the first hit to plan a page for.
+     * @param end Index after the last hit to plan a page for.
+     */
+    private void planPages(final DatasetShardPlanner.Shard shard, final int index, final long start, final long end) {
+        final long limit = Math.min(end, Integer.MAX_VALUE);
+        synchronized (this.planned) {
+            for (long from = start; from < limit; from += this.pageSize) {
+                this.planned.add(new Page(shard, index, (int) from));
+                this.plannedEnds[index] = from + this.pageSize;
+            }
+        }
+    }
+
+    /** Number of hits in each page. */
+    private final int pageSize;
+
+    /** Function that runs a single page query. */
+    private final Function<PifQuery, CompletableFuture<PifSearchResult>> search;
+
+    /** Pages that have been planned but not requested, in the order that they should be requested. */
+    private final Deque<Page> planned = new ArrayDeque<>();
+
+    /** Index after the last hit of each shard that a page has been planned for. */
+    private final long[] plannedEnds;
+
+    /**
+     * Single page of a shard.
+     *
+     * @author Kyle Michel
+     */
+    private static class Page {
+
+        /**
+         * Constructor.
+         *
+         * @param shard {@link DatasetShardPlanner.Shard} that the page belongs to.
+         * @param index Index of the shard.
+         * @param from Index of the first hit in the page.
+         */
+        Page(final DatasetShardPlanner.Shard shard, final int index, final int from) {
+            this.shard = shard;
+            this.index = index;
+            this.from = from;
+        }
+
+        /** Shard that the page belongs to. */
+        private final DatasetShardPlanner.Shard shard;
+
+        /** Index of the shard. */
+        private final int index;
+
+        /** Index of the first hit in the page. */
+        private final int from;
+    }
+}
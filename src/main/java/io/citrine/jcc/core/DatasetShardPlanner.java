@@ -0,0 +1,178 @@
+package io.citrine.jcc.core;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.citrine.jcc.search.dataset.query.DatasetQuery;
+import io.citrine.jcc.search.dataset.result.DatasetSearchHit;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.query.core.SystemQuery;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Utility methods for splitting a {@link PifQuery} that spans many datasets into sub-queries that are each restricted
+ * to a group of datasets with {@link PifQuery#includeDataset(Long)}. Datasets are grouped using the number of matching
+ * PIFs in each one, so that no sub-query has to page deeper than a fixed number of hits.
+ *
+ * @author Kyle Michel
+ */
+abstract class DatasetShardPlanner {
+
+    /**
+     * Build the dataset query that finds the datasets with PIFs that match a PIF query, along with the number of
+     * matching PIFs in each.
+     *
+     * @param pifQuery {@link PifQuery} to find the datasets for.
+     * @return {@link DatasetQuery} with the same system queries as the input.
+     */
+    static DatasetQuery buildDatasetQuery(final PifQuery pifQuery) {
+        final DatasetQuery res = new DatasetQuery().setCountPifs(true);
+        for (SystemQuery system : pifQuery.system()) {
+            res.system(system);
+        }
+        return res;
+    }
+
+    /**
+     * Group datasets into shards. Datasets are placed from the largest to the smallest into the first shard that has
+     * room for them (first-fit decreasing), and a dataset that is larger than the maximum shard size is placed in a
+     * shard by itself. Datasets whose number of matching PIFs is not known are counted as a single PIF. Datasets that
+     * are not allowed by the include and exclude lists of the query, or that have no matching PIFs, are dropped.
+     *
+     * <p>Each shard is ranked on its own, so the hits of all shards together are not in the global order of the
+     * input query. The query for each shard is built once, and each page copies it with {@link PifQuery#copy()}.
+     *
+     * @param pifQuery {@link PifQuery} to split.
+     * @param datasets List of {@link DatasetSearchHit} objects with the datasets that match the query.
+     * @param maxShardSize Maximum number of matching PIFs in each shard.
+     * @return List of {@link Shard} objects with the sub-query for each shard.
+     * @throws IOException if the query cannot be copied for a shard.
+     * @throws IllegalArgumentException if maxShardSize is not positive.
+     */
+    static List<Shard> plan(final PifQuery pifQuery, final List<DatasetSearchHit> datasets, final long maxShardSize)
+            throws IOException {
+        if (maxShardSize <= 0) {
+            throw new IllegalArgumentException("'maxShardSize' must be positive");
+        }
+        final Set<Long> included = toSet(pifQuery.includeDatasets());
+        final Set<Long> excluded = toSet(pifQuery.excludeDatasets());
+        final List<DatasetSearchHit> sorted = new ArrayList<>();
+        final Set<Long> seen = new HashSet<>();
+        for (DatasetSearchHit dataset : datasets) {
+            final Long id = dataset.getId();
+            if ((id != null) && (included.isEmpty() || included.contains(id)) && !excluded.contains(id)
+                    && ((dataset.getNumPifs() == null) || (dataset.getNumPifs() > 0)) && seen.add(id)) {
+                sorted.add(dataset);
+            }
+        }
+        sorted.sort(Comparator.comparingLong(DatasetShardPlanner::getSize).reversed());
+
+        final List<List<Long>> groups = new ArrayList<>();
+        final List<Long> sizes = new ArrayList<>();
+        for (DatasetSearchHit dataset : sorted) {
+            final long size = getSize(dataset);
+            int group = 0;
+            while ((group < groups.size()) && (sizes.get(group) + size > maxShardSize)) {
+                ++group;
+            }
+            if (group == groups.size()) {
+                groups.add(new ArrayList<>());
+                sizes.add(0L);
+            }
+            groups.get(group).add(dataset.getId());
+            sizes.set(group, sizes.get(group) + size);
+        }
+
+        final ObjectNode template = CitrinationClient.OBJECT_MAPPER.valueToTree(pifQuery);
+        template.remove("fromIndex");
+        template.remove("size");
+        template.remove("includeDatasets");
+        template.remove("excludeDatasets");
+        final List<Shard> res = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); ++i) {
+            final ObjectNode query = template.deepCopy();
+            final ArrayNode ids = query.putArray("includeDatasets");
+            for (Long id : groups.get(i)) {
+                ids.add(id);
+            }
+            res.add(new Shard(CitrinationClient.OBJECT_MAPPER.treeToValue(query, PifQuery.class), sizes.get(i)));
+        }
+        return res;
+    }
+
+    /**
+     * Get the number of matching PIFs in a dataset. Datasets whose count is not known are counted as a single PIF so
+     * that they are grouped with others, and the true number of hits is found when the shard is run.
+     *
+     * @param dataset {@link DatasetSearchHit} to get the size of.
+     * @return Number of matching PIFs in the dataset.
+     */
+    private static long getSize(final DatasetSearchHit dataset) {
+        return (dataset.getNumPifs() == null) ? 1L : dataset.getNumPifs();
+    }
+
+    /**
+     * Copy the values of an iterable into a set.
+     *
+     * @param values Iterable with the values to copy.
+     * @return Set with the values.
+     */
+    private static Set<Long> toSet(final Iterable<Long> values) {
+        final Set<Long> res = new HashSet<>();
+        values.forEach(res::add);
+        return res;
+    }
+
+    /**
+     * Sub-query that is restricted to a group of datasets.
+     *
+     * @author Kyle Michel
+     */
+    static class Shard {
+
+        /**
+         * Build the query for a single page of the shard.
+         *
+         * @param from Index of the first hit in the page.
+         * @param size Number of hits in the page.
+         * @return {@link PifQuery} for the page.
+         */
+        PifQuery buildPageQuery(final int from, final int size) {
+            return this.template.copy()
+                    .fromIndex(from)
+                    .size(size);
+        }
+
+        /**
+         * Get the number of hits that the shard is expected to have.
+         *
+         * @return Sum of the number of matching PIFs in each dataset of the shard.
+         */
+        long getExpectedNumHits() {
+            return this.expectedNumHits;
+        }
+
+        /**
+         * Constructor. The template is frozen, so each page only copies the top level of the query.
+         *
+         * @param template {@link PifQuery} for the shard that pages are copied from.
+         * @param expectedNumHits Sum of the number of matching PIFs in each dataset of the shard.
+         */
+        Shard(final PifQuery template, final long expectedNumHits) {
+            template.freeze();
+            this.template = template;
+            this.expectedNumHits = expectedNumHits;
+        }
+
+        /** Frozen query for the shard that pages are copied from. */
+        private final PifQuery template;
+
+        /** Sum of the number of matching PIFs in each dataset of the shard. */
+        private final long expectedNumHits;
+    }
+}
@@ -0,0 +1,849 @@
+package io.citrine.jcc.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent cache of response bodies that is kept in a directory on disk and survives restarts of the JVM.
+ *
+ * <p>Bodies are compressed with GZIP and appended to segment files. A fixed-size hash table that maps the digest of
+ * each key to the location of its body is kept in a memory-mapped index file, so lookups do not read anything but the
+ * body itself. A body is forced to disk before the slot that points to it is written, so the index never points to a
+ * body that was lost in a crash. When the cache holds more bytes or entries than its limits, or when too much of the
+ * segment files is taken up by replaced or expired bodies, the cache is compacted on a background thread: the most
+ * recently used bodies are copied to new segment files, the index is updated to point to the copies and the old
+ * segments are deleted.
+ *
+ * <p>The lock on this object is only held while the index is read or changed. Bodies are read, written and copied
+ * without holding it, so a compaction or a slow disk does not block other users of the cache. A body that is being
+ * read while its segment is deleted by a compaction is treated as a cache miss.
+ *
+ * <p>Only one cache can use a directory at a time. A damaged body is treated as a cache miss and removed.
+ *
+ * @author Kyle Michel
+ */
+class DiskCache implements Closeable {
+
+    /**
+     * Constructor. This opens the cache in the input directory, creating it if it does not exist.
+     *
+     * @param directory {@link Path} to the directory to keep the cache in.
+     * @param maxBytes Maximum number of bytes of compressed bodies to keep.
+     * @param maxEntries Maximum number of bodies to keep.
+     * @param ttl Number of milliseconds that a body is kept after it was added or a non-positive number to keep
+     *            bodies until they are evicted.
+     * @throws IOException if the cache cannot be opened.
+     * @throws IllegalArgumentException if maxBytes or maxEntries is not positive.
+     */
+    DiskCache(final Path directory, final long maxBytes, final int maxEntries, final long ttl) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("'maxBytes' must be positive");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("'maxEntries' must be positive");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.segmentSize = Math.max(MIN_SEGMENT_SIZE, maxBytes / 8);
+        this.numSlots = Integer.highestOneBit(Math.min(maxEntries, 1 << 24) * 2 - 1) << 1;
+        Files.createDirectories(directory);
+        this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock acquired;
+            try {
+                acquired = this.indexChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                acquired = null;  // Held by another cache in this process
+            }
+            if (acquired == null) {
+                throw new IOException("Disk cache directory " + directory + " is already in use");
+            }
+            this.lock = acquired;
+            this.index = openIndex();
+        } catch (IOException | RuntimeException e) {
+            this.indexChannel.close();
+            throw e;
+        }
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "citrination-disk-cache-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the body saved for a key.
+     *
+     * @param key Key to look up.
+     * @return {@link InputStream} with the uncompressed body or a null pointer if it is not cached or has expired.
+     */
+    InputStream get(final String key) {
+        final long[] digest = digest(key);
+        final FileChannel channel;
+        final int segment;
+        final long position;
+        final int length;
+        synchronized (this) {
+            if (this.closed) {
+                return null;
+            }
+            final int slot = find(digest[0], digest[1]);
+            if (slot < 0) {
+                return null;
+            }
+            final long now = System.currentTimeMillis();
+            if (isExpired(slot, now)) {
+                remove(slot);
+                return null;
+            }
+            final int offset = slotOffset(slot);
+            segment = this.index.getInt(offset + SEGMENT_OFFSET);
+            position = this.index.getLong(offset + POSITION_OFFSET);
+            length = this.index.getInt(offset + LENGTH_OFFSET);
+            try {
+                channel = getSegment(this.segments, segment);
+            } catch (IOException e) {
+                remove(slot);
+                return null;
+            }
+            this.index.putLong(offset + ACCESSED_OFFSET, now);
+        }
+        try {
+            return new GZIPInputStream(new ByteArrayInputStream(read(channel, segment, position, length)));
+        } catch (ClosedChannelException e) {
+            return null;  // The segment was deleted by a compaction while it was being read
+        } catch (IOException e) {
+            synchronized (this) {
+                final int slot = this.closed ? -1 : find(digest[0], digest[1]);
+                if ((slot >= 0) && (this.index.getInt(slotOffset(slot) + SEGMENT_OFFSET) == segment)
+                        && (this.index.getLong(slotOffset(slot) + POSITION_OFFSET) == position)) {
+                    remove(slot);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Save the body for a key, replacing any existing body. The body is written and forced to disk without holding
+     * the lock on this object, and the index is only updated once the body is on disk.
+     *
+     * @param key Key to save the body under.
+     * @param body Uncompressed body to save.
+     * @throws IOException if the body cannot be written.
+     */
+    void put(final String key, final byte[] body) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(32, body.length / 4));
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        final byte[] record = compressed.toByteArray();
+        final long[] digest = digest(key);
+        final FileChannel channel;
+        final int segment;
+        final long position;
+        synchronized (this) {
+            if (this.closed || (record.length > this.maxBytes)) {
+                return;
+            }
+            channel = reserve(record.length);
+            segment = this.activeSegment;
+            position = this.activeSize - record.length;
+        }
+        try {
+            write(channel, position, record);
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            return;  // The segment was deleted by a compaction or the cache was closed
+        }
+        synchronized (this) {
+            if (this.closed || (this.segments.get(segment) != channel)) {
+                return;
+            }
+            final int existing = find(digest[0], digest[1]);
+            if (existing >= 0) {
+                remove(existing);
+            }
+            if (this.liveEntries >= this.numSlots - 1) {
+                return;  // The index is full until the next compaction
+            }
+            final long now = System.currentTimeMillis();
+            insert(digest[0], digest[1], segment, position, record.length, now,
+                    (this.ttl > 0) ? now + this.ttl : Long.MAX_VALUE);
+            scheduleCompaction();
+        }
+    }
+
+    /**
+     * Get the number of bodies in the cache.
+     *
+     * @return Number of bodies that have not been removed or evicted, including any that have expired.
+     */
+    synchronized int size() {
+        return this.liveEntries;
+    }
+
+    /**
+     * Write the index to disk and close all files. The cache cannot be used after it has been closed. A compaction
+     * that is running is abandoned, and the segments that it was writing are deleted the next time that the cache is
+     * opened.
+     *
+     * @throws IOException if the files cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+        }
+        this.compactor.shutdownNow();
+        synchronized (this) {
+            try {
+                this.index.force();
+                for (FileChannel i : this.segments.values()) {
+                    i.close();
+                }
+                this.segments.clear();
+            } finally {
+                this.indexChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Rewrite the cache so that it only holds the most recently used bodies that have not expired. Enough bodies are
+     * dropped to leave room for growth before the next compaction. The lock on this object is only held while the
+     * bodies to keep are chosen and while the index is updated, not while the bodies are copied, and bodies that are
+     * added or removed during the copy are handled when the index is updated.
+     *
+     * @throws IOException if the bodies cannot be copied.
+     */
+    void compact() throws IOException {
+        synchronized (this.compactionLock) {
+            final List<long[]> kept = new ArrayList<>();
+            final int boundary;
+            final long oldBytes;
+            synchronized (this) {
+                if (this.closed) {
+                    return;
+                }
+                final long now = System.currentTimeMillis();
+                final List<long[]> live = new ArrayList<>(this.liveEntries);
+                for (int i = 0; i < this.numSlots; ++i) {
+                    final int offset = slotOffset(i);
+                    if ((this.index.getInt(offset + SEGMENT_OFFSET) > 0) && !isExpired(i, now)) {
+                        live.add(new long[] {
+                                this.index.getLong(offset + KEY_OFFSET),
+                                this.index.getLong(offset + KEY_OFFSET + 8),
+                                this.index.getInt(offset + SEGMENT_OFFSET),
+                                this.index.getLong(offset + POSITION_OFFSET),
+                                this.index.getInt(offset + LENGTH_OFFSET),
+                                this.index.getLong(offset + ACCESSED_OFFSET),
+                                0L});
+                    }
+                }
+                live.sort(Comparator.comparingLong((long[] entry) -> entry[5]).reversed());
+                final long targetBytes = this.maxBytes * 3 / 4;
+                final long targetEntries = this.maxEntries * 3L / 4;
+                long keptBytes = 0;
+                for (long[] i : live) {
+                    if ((keptBytes + i[4] > targetBytes) || (kept.size() >= targetEntries)) {
+                        break;
+                    }
+                    keptBytes += i[4];
+                    kept.add(i);
+                }
+
+                // Bodies that are added from now on go to segments that this compaction leaves alone
+                oldBytes = this.diskBytes;
+                startSegment();
+                boundary = this.activeSegment;
+            }
+
+            // Copy the bodies to keep to new segments without holding the lock. Once copied, the fifth and sixth
+            // elements of each entry hold the new segment and position of its body.
+            final Map<Integer, FileChannel> reading = new HashMap<>();
+            final Map<Integer, FileChannel> written = new HashMap<>();
+            long copiedBytes = 0;
+            try {
+                int segment = -1;
+                long size = 0;
+                for (long[] i : kept) {
+                    i[5] = -1;
+                    final byte[] record;
+                    try {
+                        record = read(getSegment(reading, (int) i[2]), (int) i[2], i[3], (int) i[4]);
+                    } catch (IOException e) {
+                        continue;  // Drop bodies that cannot be read
+                    }
+                    if ((segment < 0) || ((size > 0) && (size + record.length > this.segmentSize))) {
+                        synchronized (this) {
+                            segment = this.nextSegment++;
+                        }
+                        size = 0;
+                    }
+                    write(getSegment(written, segment), size, record);
+                    i[5] = segment;
+                    i[6] = size;
+                    size += record.length;
+                    copiedBytes += record.length;
+                }
+                for (FileChannel i : written.values()) {
+                    i.force(false);
+                }
+            } catch (IOException | RuntimeException e) {
+                closeAll(reading.values());
+                closeAll(written.values());
+                throw e;
+            }
+            closeAll(reading.values());
+
+            // Point the index at the copies and drop every other body in the old segments
+            final List<FileChannel> retired = new ArrayList<>();
+            synchronized (this) {
+                if (this.closed) {
+                    closeAll(written.values());
+                    return;
+                }
+                final Map<Long, long[]> moved = new HashMap<>(2 * kept.size());
+                for (long[] i : kept) {
+                    if (i[5] > 0) {
+                        moved.put(i[1], i);
+                    }
+                }
+                final List<long[]> entries = new ArrayList<>(this.liveEntries);
+                for (int i = 0; i < this.numSlots; ++i) {
+                    final int offset = slotOffset(i);
+                    final int segment = this.index.getInt(offset + SEGMENT_OFFSET);
+                    if (segment <= 0) {
+                        continue;
+                    }
+                    final long[] entry = new long[] {
+                            this.index.getLong(offset + KEY_OFFSET),
+                            this.index.getLong(offset + KEY_OFFSET + 8),
+                            segment,
+                            this.index.getLong(offset + POSITION_OFFSET),
+                            this.index.getInt(offset + LENGTH_OFFSET),
+                            this.index.getLong(offset + ACCESSED_OFFSET),
+                            this.index.getLong(offset + EXPIRES_OFFSET)};
+                    if (segment < boundary) {
+                        final long[] copy = moved.get(entry[1]);
+                        if ((copy == null) || (copy[0] != entry[0]) || (copy[2] != segment) || (copy[3] != entry[3])) {
+                            continue;  // Evicted, or replaced while the bodies were being copied
+                        }
+                        entry[2] = copy[5];
+                        entry[3] = copy[6];
+                    }
+                    entries.add(entry);
+                }
+                clearIndex(this.index);
+                this.liveEntries = 0;
+                this.liveBytes = 0L;
+                this.usedSlots = 0;
+                for (long[] i : entries) {
+                    insert(i[0], i[1], (int) i[2], i[3], (int) i[4], i[5], i[6]);
+                }
+                this.index.force();
+                for (Iterator<Map.Entry<Integer, FileChannel>> i = this.segments.entrySet().iterator(); i.hasNext();) {
+                    final Map.Entry<Integer, FileChannel> segment = i.next();
+                    if (segment.getKey() < boundary) {
+                        retired.add(segment.getValue());
+                        i.remove();
+                    }
+                }
+                this.segments.putAll(written);
+                this.diskBytes += copiedBytes - oldBytes;
+            }
+
+            // Delete the old segments now that nothing points to them
+            closeAll(retired);
+            try (final DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, SEGMENT_PREFIX + "*")) {
+                for (Path i : files) {
+                    final Integer segment = parseSegment(i.getFileName().toString());
+                    if ((segment == null) || (segment < boundary)) {
+                        Files.deleteIfExists(i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Map the index file into memory, resetting the cache if the file is new or was written with different settings,
+     * and load the state of the cache from it.
+     *
+     * @return {@link MappedByteBuffer} over the index file.
+     * @throws IOException if the index cannot be opened.
+     */
+    private MappedByteBuffer openIndex() throws IOException {
+        final long size = HEADER_SIZE + (long) this.numSlots * SLOT_SIZE;
+        final boolean valid = (this.indexChannel.size() == size) && hasValidHeader();
+        final MappedByteBuffer res = this.indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (!valid) {
+            clearIndex(res);
+            res.putInt(0, MAGIC);
+            res.putInt(4, VERSION);
+            res.putInt(8, this.numSlots);
+            res.putInt(12, 1);
+        }
+        this.activeSegment = res.getInt(12);
+
+        // Load the state of each live slot and the sizes of the segments they point to
+        final Set<Integer> referenced = new HashSet<>();
+        referenced.add(this.activeSegment);
+        for (int i = 0; i < this.numSlots; ++i) {
+            final int segment = res.getInt(slotOffset(i) + SEGMENT_OFFSET);
+            if (segment != EMPTY) {
+                ++this.usedSlots;
+            }
+            if (segment > 0) {
+                ++this.liveEntries;
+                this.liveBytes += res.getInt(slotOffset(i) + LENGTH_OFFSET);
+                referenced.add(segment);
+            }
+        }
+
+        // Delete segments that are not referenced, which can be left over from a compaction that was interrupted
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, SEGMENT_PREFIX + "*")) {
+            for (Path i : files) {
+                final Integer segment = parseSegment(i.getFileName().toString());
+                if ((segment == null) || !referenced.contains(segment)) {
+                    Files.deleteIfExists(i);
+                } else {
+                    final long bytes = Files.size(i);
+                    this.diskBytes += bytes;
+                    if (segment == this.activeSegment) {
+                        this.activeSize = bytes;
+                    }
+                }
+            }
+        }
+        this.nextSegment = Collections.max(referenced) + 1;
+        return res;
+    }
+
+    /**
+     * Check whether the header of the index file matches the settings of this cache.
+     *
+     * @return True if the header is valid.
+     * @throws IOException if the header cannot be read.
+     */
+    private boolean hasValidHeader() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && (this.indexChannel.read(header, header.position()) >= 0)) {
+            // Keep reading until the header is full
+        }
+        return (header.getInt(0) == MAGIC) && (header.getInt(4) == VERSION) && (header.getInt(8) == this.numSlots)
+                && (header.getInt(12) > 0);
+    }
+
+    /**
+     * Start a compaction in the background if the cache needs one and none is scheduled yet. A compaction that
+     * finishes while the cache still needs one, because bodies were added while it ran, schedules the next one. This
+     * must be called while holding the lock on this object.
+     */
+    private void scheduleCompaction() {
+        if (this.closed || this.compactionScheduled || !needsCompaction()) {
+            return;
+        }
+        this.compactionScheduled = true;
+        this.compactor.execute(() -> {
+            boolean compacted = false;
+            try {
+                compact();
+                compacted = true;
+            } catch (IOException | RuntimeException e) {
+                // The cache keeps working without compaction and tries again after the next put
+            } finally {
+                synchronized (this) {
+                    this.compactionScheduled = false;
+                    if (compacted) {
+                        scheduleCompaction();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Check whether the cache holds more bytes or entries than its limits or whether too much of the index or of the
+     * segment files is taken up by removed bodies.
+     *
+     * @return True if the cache should be compacted.
+     */
+    private boolean needsCompaction() {
+        return (this.liveBytes > this.maxBytes) || (this.liveEntries > this.maxEntries)
+                || (this.usedSlots > this.numSlots * 3L / 4)
+                || (this.diskBytes > 2 * this.maxBytes + this.segmentSize);
+    }
+
+    /**
+     * Reserve room for a compressed body at the end of the active segment, starting a new segment if the active one is
+     * full. The body starts at {@link #activeSize} minus its length once this returns.
+     *
+     * @param length Length of the body.
+     * @return {@link FileChannel} for the segment to write the body to.
+     * @throws IOException if the segment cannot be opened.
+     */
+    private FileChannel reserve(final int length) throws IOException {
+        if ((this.activeSize > 0) && (this.activeSize + length > this.segmentSize)) {
+            startSegment();
+        }
+        final FileChannel res = getSegment(this.segments, this.activeSegment);
+        this.activeSize += length;
+        this.diskBytes += length;
+        return res;
+    }
+
+    /**
+     * Start a new, empty segment that bodies are appended to.
+     */
+    private void startSegment() {
+        this.activeSegment = this.nextSegment++;
+        this.activeSize = 0L;
+        this.index.putInt(12, this.activeSegment);
+    }
+
+    /**
+     * Write a compressed body to a segment.
+     *
+     * @param channel {@link FileChannel} for the segment.
+     * @param position Position to write the body at.
+     * @param record Compressed body to write.
+     * @throws IOException if the body cannot be written.
+     */
+    private static void write(final FileChannel channel, final long position, final byte[] record) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Read a compressed body from a segment.
+     *
+     * @param channel {@link FileChannel} for the segment.
+     * @param segment Number of the segment.
+     * @param position Position of the body in the segment.
+     * @param length Length of the body.
+     * @return Compressed body.
+     * @throws IOException if the body cannot be read.
+     */
+    private static byte[] read(final FileChannel channel, final int segment, final long position, final int length)
+            throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment " + segment);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Close segment files, ignoring any that fail to close.
+     *
+     * @param channels {@link FileChannel} objects to close.
+     */
+    private static void closeAll(final Collection<FileChannel> channels) {
+        for (FileChannel i : channels) {
+            try {
+                i.close();
+            } catch (IOException e) {
+                // Nothing is written through a channel after it is forced, so there is nothing to lose
+            }
+        }
+    }
+
+    /**
+     * Get the open file of a segment, opening it if needed.
+     *
+     * @param channels Map of open segment files.
+     * @param segment Number of the segment.
+     * @return {@link FileChannel} for the segment.
+     * @throws IOException if the segment cannot be opened.
+     */
+    private FileChannel getSegment(final Map<Integer, FileChannel> channels, final int segment) throws IOException {
+        FileChannel res = channels.get(segment);
+        if (res == null) {
+            res = FileChannel.open(this.directory.resolve(SEGMENT_PREFIX + segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channels.put(segment, res);
+        }
+        return res;
+    }
+
+    /**
+     * Find the slot that holds a key.
+     *
+     * @param keyHigh High bits of the digest of the key.
+     * @param keyLow Low bits of the digest of the key.
+     * @return Index of the slot or -1 if the key is not in the cache.
+     */
+    private int find(final long keyHigh, final long keyLow) {
+        final int mask = this.numSlots - 1;
+        for (int i = (int) keyLow & mask, probes = 0; probes < this.numSlots; i = (i + 1) & mask, ++probes) {
+            final int offset = slotOffset(i);
+            final int segment = this.index.getInt(offset + SEGMENT_OFFSET);
+            if (segment == EMPTY) {
+                return -1;
+            }
+            if ((segment > 0) && (this.index.getLong(offset + KEY_OFFSET) == keyHigh)
+                    && (this.index.getLong(offset + KEY_OFFSET + 8) == keyLow)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Save the location of a body in the first free slot for its key. The key must not already be in the cache.
+     *
+     * @param keyHigh High bits of the digest of the key.
+     * @param keyLow Low bits of the digest of the key.
+     * @param segment Number of the segment that holds the body.
+     * @param position Position of the body in the segment.
+     * @param length Length of the body.
+     * @param accessed Time in milliseconds that the body was last used.
+     * @param expires Time in milliseconds that the body expires.
+     */
+    private void insert(final long keyHigh, final long keyLow, final int segment, final long position,
+            final int length, final long accessed, final long expires) {
+        final int mask = this.numSlots - 1;
+        int i = (int) keyLow & mask;
+        while (this.index.getInt(slotOffset(i) + SEGMENT_OFFSET) > 0) {
+            i = (i + 1) & mask;
+        }
+        final int offset = slotOffset(i);
+        if (this.index.getInt(offset + SEGMENT_OFFSET) == EMPTY) {
+            ++this.usedSlots;
+        }
+        this.index.putLong(offset + KEY_OFFSET, keyHigh);
+        this.index.putLong(offset + KEY_OFFSET + 8, keyLow);
+        this.index.putLong(offset + POSITION_OFFSET, position);
+        this.index.putInt(offset + LENGTH_OFFSET, length);
+        this.index.putLong(offset + ACCESSED_OFFSET, accessed);
+        this.index.putLong(offset + EXPIRES_OFFSET, expires);
+        this.index.putInt(offset + SEGMENT_OFFSET, segment);  // Written last so the slot is only live once complete
+        ++this.liveEntries;
+        this.liveBytes += length;
+    }
+
+    /**
+     * Mark a slot as removed. Its body stays in its segment until the next compaction.
+     *
+     * @param slot Index of the slot.
+     */
+    private void remove(final int slot) {
+        final int offset = slotOffset(slot);
+        this.index.putInt(offset + SEGMENT_OFFSET, REMOVED);
+        --this.liveEntries;
+        this.liveBytes -= this.index.getInt(offset + LENGTH_OFFSET);
+    }
+
+    /**
+     * Check whether the body in a slot has expired.
+     *
+     * @param slot Index of the slot.
+     * @param now Current time in milliseconds.
+     * @return True if the body has expired.
+     */
+    private boolean isExpired(final int slot, final long now) {
+        return this.index.getLong(slotOffset(slot) + EXPIRES_OFFSET) <= now;
+    }
+
+    /**
+     * Mark every slot of an index as empty.
+     *
+     * @param index {@link MappedByteBuffer} over the index file.
+     */
+    private void clearIndex(final MappedByteBuffer index) {
+        for (int i = 0; i < this.numSlots; ++i) {
+            index.putInt(slotOffset(i) + SEGMENT_OFFSET, EMPTY);
+        }
+    }
+
+    /**
+     * Get the offset of a slot in the index file.
+     *
+     * @param slot Index of the slot.
+     * @return Offset of the slot in bytes.
+     */
+    private static int slotOffset(final int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * Get the number of a segment from its file name.
+     *
+     * @param fileName Name of the segment file.
+     * @return Number of the segment or a null pointer if the name is not that of a segment.
+     */
+    private static Integer parseSegment(final String fileName) {
+        try {
+            return Integer.valueOf(fileName.substring(SEGMENT_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the 128-bit digest of a key.
+     *
+     * @param key Key to get the digest of.
+     * @return Array with the high and low bits of the digest.
+     */
+    private static long[] digest(final String key) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        final ByteBuffer res = ByteBuffer.wrap(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        return new long[] {res.getLong(), res.getLong()};
+    }
+
+    /** Name of the index file. */
+    private static final String INDEX_FILE = "index";
+
+    /** Prefix of the names of segment files. */
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    /** Value at the start of a valid index file. */
+    private static final int MAGIC = 0x4A434344;
+
+    /** Version of the layout of the index file. */
+    private static final int VERSION = 1;
+
+    /** Number of bytes in the header of the index file. */
+    private static final int HEADER_SIZE = 32;
+
+    /** Number of bytes in each slot of the index file. */
+    private static final int SLOT_SIZE = 48;
+
+    /** Offset of the digest of the key within a slot. */
+    private static final int KEY_OFFSET = 0;
+
+    /** Offset of the segment number within a slot. */
+    private static final int SEGMENT_OFFSET = 16;
+
+    /** Offset of the length of the body within a slot. */
+    private static final int LENGTH_OFFSET = 20;
+
+    /** Offset of the position of the body in its segment within a slot. */
+    private static final int POSITION_OFFSET = 24;
+
+    /** Offset of the time that the body was last used within a slot. */
+    private static final int ACCESSED_OFFSET = 32;
+
+    /** Offset of the time that the body expires within a slot. */
+    private static final int EXPIRES_OFFSET = 40;
+
+    /** Segment number of a slot that has never been used. */
+    private static final int EMPTY = 0;
+
+    /** Segment number of a slot whose body has been removed. */
+    private static final int REMOVED = -1;
+
+    /** Smallest size in bytes that a segment is allowed to grow to before a new one is started. */
+    private static final long MIN_SEGMENT_SIZE = 1L << 20;
+
+    /** Directory that the cache is kept in. */
+    private final Path directory;
+
+    /** Maximum number of bytes of compressed bodies to keep. */
+    private final long maxBytes;
+
+    /** Maximum number of bodies to keep. */
+    private final int maxEntries;
+
+    /** Number of milliseconds that a body is kept or a non-positive number to keep bodies until they are evicted. */
+    private final long ttl;
+
+    /** Size in bytes at which a new segment is started. */
+    private final long segmentSize;
+
+    /** Number of slots in the index. This is a power of two. */
+    private final int numSlots;
+
+    /** Open index file. */
+    private final FileChannel indexChannel;
+
+    /** Lock that keeps other processes from using the same directory. */
+    private final FileLock lock;
+
+    /** Memory-mapped contents of the index file. */
+    private final MappedByteBuffer index;
+
+    /** Open segment files by number. */
+    private final Map<Integer, FileChannel> segments = new HashMap<>();
+
+    /** Number of the segment that bodies are appended to. */
+    private int activeSegment;
+
+    /** Number of bytes reserved in the active segment. */
+    private long activeSize;
+
+    /** Number to give the next segment that is started. */
+    private int nextSegment;
+
+    /** Number of bodies in the cache. */
+    private int liveEntries;
+
+    /** Number of bytes of compressed bodies in the cache. */
+    private long liveBytes;
+
+    /** Number of slots that are live or have been removed. */
+    private int usedSlots;
+
+    /** Number of bytes in all segment files. */
+    private long diskBytes;
+
+    /** Whether the cache has been closed. */
+    private boolean closed;
+
+    /** Whether a compaction has been handed to {@link #compactor} and has not finished yet. */
+    private boolean compactionScheduled;
+
+    /** Lock that keeps two compactions from running at the same time. */
+    private final Object compactionLock = new Object();
+
+    /** Thread that compacts the cache in the background. */
+    private final ExecutorService compactor;
+}
@@ -0,0 +1,50 @@
+package io.citrine.jcc.core;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
+
+/**
+ * Exception that is thrown when the site responds to a request with a status other than 200.
+ *
+ * @author Kyle Michel
+ */
+public class HttpStatusException extends RuntimeException {
+
+    /**
+     * Get the status code of the response.
+     *
+     * @return Status code of the response.
+     */
+    public int getStatusCode() {
+        return this.statusCode;
+    }
+
+    /**
+     * Check whether the request might succeed if it is sent again. This is the case for server errors and for
+     * responses that ask the client to slow down.
+     *
+     * @return True if the status is 429 or a 5xx status.
+     */
+    public boolean isRetryable() {
+        return (this.statusCode == HTTP_TOO_MANY_REQUESTS) || (this.statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param statusLine {@link StatusLine} of the response.
+     */
+    public HttpStatusException(final StatusLine statusLine) {
+        super("Received " + statusLine.getStatusCode() + " response: " + statusLine.getReasonPhrase());
+        this.statusCode = statusLine.getStatusCode();
+    }
+
+    /** Status code of a response that asks the client to slow down, which {@link HttpStatus} does not define. */
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /** Status code of the response. */
+    private final int statusCode;
+
+    /** Version of the serialized form of this class. */
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,104 @@
+package io.citrine.jcc.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.http.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * HTTP entity whose content is an object serialized to JSON. By default the object is written straight to the output
+ * stream of the connection when the request is sent, so the serialized form is never held in memory. The content
+ * length is not known in advance in that case, so the entity is sent with chunked transfer encoding. Calling
+ * {@link #serialize()} writes the object to bytes right away instead, after which the entity has a known length and is
+ * not chunked.
+ *
+ * @author Kyle Michel
+ */
+class JsonEntity extends AbstractHttpEntity {
+
+    /**
+     * Constructor.
+     *
+     * @param writer {@link ObjectWriter} used to serialize the object.
+     * @param value Object to serialize.
+     */
+    JsonEntity(final ObjectWriter writer, final Object value) {
+        this.writer = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.value = value;
+    }
+
+    /**
+     * Serialize the object to bytes now rather than when the request is sent. This is used by the non-blocking client,
+     * which reads the content of the entity on its I/O threads, so that serialization happens on the thread that
+     * submits the request and captures the object as it was at that time.
+     *
+     * @throws IOException if the object cannot be serialized.
+     */
+    synchronized void serialize() throws IOException {
+        if (this.serialized == null) {
+            this.serialized = this.writer.writeValueAsBytes(this.value);
+        }
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isChunked() {
+        return this.serialized == null;
+    }
+
+    @Override
+    public synchronized long getContentLength() {
+        return (this.serialized == null) ? -1L : this.serialized.length;
+    }
+
+    /**
+     * Get a stream over the serialized object, serializing it first if that has not been done yet.
+     *
+     * @return {@link InputStream} with the serialized object.
+     * @throws IOException if the object cannot be serialized.
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        serialize();
+        return new ByteArrayInputStream(this.serialized);
+    }
+
+    @Override
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        if (outputStream == null) {
+            throw new IllegalArgumentException("'outputStream' cannot be null");
+        }
+        final byte[] bytes;
+        synchronized (this) {
+            bytes = this.serialized;
+        }
+        if (bytes != null) {
+            outputStream.write(bytes);
+        } else {
+            this.writer.writeValue(outputStream, this.value);
+        }
+        outputStream.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /** Writer used to serialize the object. */
+    private final ObjectWriter writer;
+
+    /** Object to serialize. */
+    private final Object value;
+
+    /** Serialized object or a null pointer if it is written to the connection when the request is sent. */
+    private byte[] serialized;
+}
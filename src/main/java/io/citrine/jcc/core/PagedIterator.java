@@ -0,0 +1,159 @@
+package io.citrine.jcc.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Iterator over the elements of a sequence of pages that are fetched asynchronously. Pages are requested ahead of the
+ * consumer so that the next page is usually available by the time the current one has been consumed, but no more than
+ * a fixed number of pages are held at any one time, including the page that is currently being consumed.
+ *
+ * <p>In ordered mode, pages are consumed in the order that they were requested. Pages that complete early wait in a
+ * reorder buffer until the pages before them have been consumed, and they count against the maximum number of pages.
+ * In unordered mode, pages are consumed in the order that they complete.
+ *
+ * @param <T> Type of the elements in each page.
+ * @author Kyle Michel
+ */
+abstract class PagedIterator<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * Constructor.
+     *
+     * @param maxPages Maximum number of pages that can be requested or held at once.
+     * @param ordered True to consume pages in the order that they were requested, false to consume them in the order
+     *                that they complete.
+     * @throws IllegalArgumentException if maxPages is not positive.
+     */
+    PagedIterator(final int maxPages, final boolean ordered) {
+        if (maxPages <= 0) {
+            throw new IllegalArgumentException("'maxPages' must be positive");
+        }
+        this.maxPages = maxPages;
+        this.completed = ordered ? null : new LinkedBlockingQueue<>();
+    }
+
+    /**
+     * Request the next page. This is only called when there is room for another page. Implementations should return a
+     * null pointer when no more pages exist or when the next page cannot be requested until an outstanding page has
+     * completed; it will be called again after each page is taken by the consumer.
+     *
+     * @return {@link CompletableFuture} with the next page or a null pointer if no page can be requested now.
+     */
+    protected abstract CompletableFuture<? extends Iterable<T>> fetchNext();
+
+    @Override
+    public boolean hasNext() {
+        while ((this.current == null) || !this.current.hasNext()) {
+            this.current = null;
+            fill();
+            if (this.pending.isEmpty()) {
+                return false;
+            }
+            this.current = takeNext().iterator();
+            fill();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return this.current.next();
+    }
+
+    /**
+     * Cancel any pages that are still outstanding. This should be called if the iterator is abandoned before it has
+     * been exhausted.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.current = Collections.emptyIterator();
+        for (CompletableFuture<? extends Iterable<T>> i : this.pending) {
+            i.cancel(true);
+        }
+        this.pending.clear();
+    }
+
+    /**
+     * Request pages until the maximum number of pages are outstanding or no more pages can be requested.
+     */
+    private void fill() {
+        while (!this.closed && (this.pending.size() + ((this.current == null) ? 0 : 1) < this.maxPages)) {
+            final CompletableFuture<? extends Iterable<T>> page = fetchNext();
+            if (page == null) {
+                return;
+            }
+            this.pending.add(page);
+            if (this.completed != null) {
+                page.whenComplete((value, throwable) -> this.completed.add(page));
+            }
+        }
+    }
+
+    /**
+     * Remove the next page from the set of pending pages and wait for it to complete. In ordered mode this is the
+     * oldest pending page and in unordered mode it is the first pending page to complete.
+     *
+     * @return Content of the page.
+     * @throws UncheckedIOException if the page failed with an {@link IOException}.
+     * @throws RuntimeException if the page failed for any other reason.
+     */
+    private Iterable<T> takeNext() {
+        try {
+            final CompletableFuture<? extends Iterable<T>> page;
+            if (this.completed == null) {
+                page = this.pending.poll();
+            } else {
+                page = this.completed.take();
+                this.pending.remove(page);
+            }
+            final Iterable<T> res = page.get();
+            return (res == null) ? Collections.emptyList() : res;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CancellationException("Interrupted while waiting for a page");
+        } catch (ExecutionException | CompletionException e) {
+            close();
+            Throwable cause = (e.getCause() == null) ? e : e.getCause();
+            while ((cause instanceof CompletionException) && (cause.getCause() != null)) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("Failed to fetch page", cause);
+        }
+    }
+
+    /** Maximum number of pages that can be requested or held at once. */
+    private final int maxPages;
+
+    /** Pages that have been requested but not yet taken by the consumer, in the order that they were requested. */
+    private final Deque<CompletableFuture<? extends Iterable<T>>> pending = new ArrayDeque<>();
+
+    /** Pages in the order that they completed. This is a null pointer in ordered mode. */
+    private final LinkedBlockingQueue<CompletableFuture<? extends Iterable<T>>> completed;
+
+    /** Iterator over the page that is currently being consumed. */
+    private Iterator<T> current;
+
+    /** Whether this iterator has been closed. */
+    private boolean closed;
+}
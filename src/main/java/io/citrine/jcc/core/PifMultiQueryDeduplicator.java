@@ -0,0 +1,141 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.pif.query.PifMultiQuery;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifMultiSearchResult;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+import io.citrine.jcc.util.Fingerprint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Utility methods for removing repeated queries from a {@link PifMultiQuery} before it is sent and for copying the
+ * result of each unique query back to every position that it appeared in. Queries are compared by
+ * {@link PifQuery#fingerprint()}, which is the same key that the result cache and request sharing use, so queries
+ * that only differ in the order of sub-queries that are combined using their logic values are sent once. Queries are
+ * compared with {@link PifQuery#equals(Object)} first, so a query that is equal to an earlier one is matched without
+ * being fingerprinted.
+ *
+ * @author Kyle Michel
+ */
+abstract class PifMultiQueryDeduplicator {
+
+    /**
+     * Find the unique queries of a multi-query.
+     *
+     * @param pifMultiQuery {@link PifMultiQuery} to remove repeated queries from.
+     * @return {@link Plan} with the unique queries and the position of the result of each original query.
+     * @throws IOException if a query cannot be serialized.
+     */
+    static Plan plan(final PifMultiQuery pifMultiQuery) throws IOException {
+        final int numQueries = pifMultiQuery.getNumQueries();
+        final Map<PifQuery, Integer> seenQueries = new HashMap<>(2 * numQueries);
+        final Map<Fingerprint, Integer> seenFingerprints = new HashMap<>(2 * numQueries);
+        final PifMultiQuery unique = new PifMultiQuery();
+        final int[] indices = new int[numQueries];
+        for (int i = 0; i < numQueries; ++i) {
+            final PifQuery pifQuery = pifMultiQuery.getQuery(i);
+            final Integer equalIndex = seenQueries.get(pifQuery);
+            if (equalIndex != null) {
+                indices[i] = equalIndex;
+                continue;
+            }
+            final Fingerprint fingerprint;
+            try {
+                fingerprint = pifQuery.fingerprint();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            final Integer index = seenFingerprints.get(fingerprint);
+            if (index == null) {
+                indices[i] = unique.getNumQueries();
+                seenFingerprints.put(fingerprint, indices[i]);
+                unique.addQuery(pifQuery);
+            } else {
+                indices[i] = index;
+            }
+            seenQueries.put(pifQuery, indices[i]);
+        }
+        return (unique.getNumQueries() == numQueries) ? new Plan(pifMultiQuery, null) : new Plan(unique, indices);
+    }
+
+    /**
+     * Get a plan that sends every query of a multi-query.
+     *
+     * @param pifMultiQuery {@link PifMultiQuery} to send as it is.
+     * @return {@link Plan} that sends the multi-query and returns its result unchanged.
+     */
+    static Plan keepAll(final PifMultiQuery pifMultiQuery) {
+        return new Plan(pifMultiQuery, null);
+    }
+
+    /**
+     * Unique queries of a multi-query along with the position of the result of each original query.
+     *
+     * @author Kyle Michel
+     */
+    static class Plan {
+
+        /**
+         * Get the multi-query with only the unique queries, in the order that each first appeared.
+         *
+         * @return {@link PifMultiQuery} to send.
+         */
+        PifMultiQuery getUniqueQuery() {
+            return this.uniqueQuery;
+        }
+
+        /**
+         * Copy the result of each unique query to every position that the query appeared in the original multi-query.
+         * The first position of a query gets the result that was received and each later position gets its own copy,
+         * so a caller can change the result at one position without affecting the others.
+         *
+         * @param result {@link PifMultiSearchResult} with the results of the unique queries.
+         * @param copier Function that makes a copy of a result that can be changed without affecting the original.
+         * @return {@link PifMultiSearchResult} with a result for each query of the original multi-query.
+         * @throws IOException if a result was not returned for each unique query.
+         */
+        PifMultiSearchResult expand(final PifMultiSearchResult result, final UnaryOperator<PifSearchResult> copier)
+                throws IOException {
+            if (this.indices == null) {
+                return result;
+            }
+            if (result.getNumResults() != this.uniqueQuery.getNumQueries()) {
+                throw new IOException("Received " + result.getNumResults() + " results for "
+                        + this.uniqueQuery.getNumQueries() + " queries");
+            }
+            final PifMultiSearchResult res = new PifMultiSearchResult().setTook(result.getTook());
+            final boolean[] used = new boolean[result.getNumResults()];
+            for (int i : this.indices) {
+                final PifSearchResult unique = result.getResult(i);
+                res.addResult((used[i] && (unique != null)) ? copier.apply(unique) : unique);
+                used[i] = true;
+            }
+            return res;
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param uniqueQuery {@link PifMultiQuery} with only the unique queries.
+         * @param indices Index of the result of each original query or a null pointer if there were no repeats.
+         */
+        Plan(final PifMultiQuery uniqueQuery, final int[] indices) {
+            this.uniqueQuery = uniqueQuery;
+            this.indices = indices;
+        }
+
+        /** Multi-query with only the unique queries. */
+        private final PifMultiQuery uniqueQuery;
+
+        /** Index of the result of each original query or a null pointer if there were no repeats. */
+        private final int[] indices;
+    }
+
+    // Make sure that objects of this class cannot be instantiated
+    private PifMultiQueryDeduplicator() {}
+}
@@ -0,0 +1,179 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.pif.query.PifMultiQuery;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifMultiSearchResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Utility methods for splitting a large {@link PifMultiQuery} into smaller ones and for stitching the results of those
+ * smaller queries back together.
+ *
+ * @author Kyle Michel
+ */
+abstract class PifMultiQuerySplitter {
+
+    /**
+     * Split a multi-query into chunks that each contain no more than the maximum number of queries and whose
+     * serialized bodies, including the enclosing object and the separators between queries, take up no more than
+     * the maximum number of bytes. A single query that does not fit in the byte budget is sent in a chunk by itself.
+     * When there is a byte budget, the bytes that were measured are kept as the body of each chunk so that the queries
+     * are not serialized a second time when they are sent.
+     *
+     * @param pifMultiQuery {@link PifMultiQuery} to split.
+     * @param maxQueries Maximum number of queries in each chunk or a non-positive number for no limit.
+     * @param maxBytes Maximum number of bytes in the serialized body of each chunk or a non-positive number for no
+     *                 limit.
+     * @return List of {@link Chunk} objects in the order that their queries appear in the input.
+     * @throws IOException if a query cannot be serialized to measure its size.
+     */
+    static List<Chunk> split(final PifMultiQuery pifMultiQuery, final int maxQueries, final long maxBytes)
+            throws IOException {
+        final int numQueries = pifMultiQuery.getNumQueries();
+        if (((maxQueries <= 0) || (numQueries <= maxQueries)) && (maxBytes <= 0)) {
+            return Collections.singletonList(new Chunk(pifMultiQuery, null));
+        }
+        final List<Chunk> res = new ArrayList<>();
+        PifMultiQuery chunk = new PifMultiQuery();
+        List<byte[]> chunkQueries = new ArrayList<>();
+        long chunkBytes = EMPTY_BYTES;
+        for (int i = 0; i < numQueries; ++i) {
+            final PifQuery pifQuery = pifMultiQuery.getQuery(i);
+            final byte[] serialized = (maxBytes > 0)
+                    ? CitrinationClient.OBJECT_MAPPER.writeValueAsBytes(pifQuery)
+                    : null;
+            final long queryBytes = (serialized == null) ? 0 : serialized.length;
+            final long separatorBytes = (chunk.getNumQueries() > 0) ? 1 : 0;
+            final boolean full = ((maxQueries > 0) && (chunk.getNumQueries() >= maxQueries))
+                    || ((maxBytes > 0) && (chunkBytes + separatorBytes + queryBytes > maxBytes));
+            if (full && (chunk.getNumQueries() > 0)) {
+                res.add(new Chunk(chunk, buildBody(chunkQueries)));
+                chunk = new PifMultiQuery();
+                chunkQueries = new ArrayList<>();
+                chunkBytes = EMPTY_BYTES + queryBytes;
+            } else {
+                chunkBytes += separatorBytes + queryBytes;
+            }
+            chunk.addQuery(pifQuery);
+            chunkQueries.add(serialized);
+        }
+        if ((chunk.getNumQueries() > 0) || res.isEmpty()) {
+            res.add(new Chunk(chunk, buildBody(chunkQueries)));
+        }
+        return res;
+    }
+
+    /**
+     * Stitch the results of the chunks of a multi-query back together. Results are kept in the order of the chunks.
+     * Chunks run concurrently, so the time taken is that of the slowest chunk rather than the sum over all chunks.
+     *
+     * @param chunks List of {@link Chunk} objects that were run.
+     * @param results List of {@link PifMultiSearchResult} objects with the result of each chunk.
+     * @return {@link PifMultiSearchResult} with all of the results.
+     * @throws IOException if a chunk did not return a result for each of its queries.
+     */
+    static PifMultiSearchResult merge(final List<Chunk> chunks, final List<PifMultiSearchResult> results)
+            throws IOException {
+        final PifMultiSearchResult res = new PifMultiSearchResult();
+        Long took = null;
+        for (int i = 0; i < chunks.size(); ++i) {
+            final PifMultiSearchResult result = results.get(i);
+            final int numQueries = chunks.get(i).getQuery().getNumQueries();
+            if (result.getNumResults() != numQueries) {
+                throw new IOException("Received " + result.getNumResults() + " results for " + numQueries
+                        + " queries");
+            }
+            if (result.getTook() != null) {
+                took = (took == null) ? result.getTook() : Math.max(took, result.getTook());
+            }
+            for (int j = 0; j < result.getNumResults(); ++j) {
+                res.addResult(result.getResult(j));
+            }
+        }
+        return res.setTook(took);
+    }
+
+    /**
+     * Build the serialized body of a multi-query from its serialized queries.
+     *
+     * @param queries List with the serialized form of each query. Entries are null if the queries were not measured.
+     * @return Array of bytes with the serialized multi-query or a null pointer if the queries were not measured.
+     */
+    static byte[] buildBody(final List<byte[]> queries) {
+        if (queries.isEmpty() || (queries.get(0) == null)) {
+            return null;
+        }
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        res.write(QUERIES_START, 0, QUERIES_START.length);
+        for (int i = 0; i < queries.size(); ++i) {
+            if (i > 0) {
+                res.write(',');
+            }
+            res.write(queries.get(i), 0, queries.get(i).length);
+        }
+        res.write(QUERIES_END, 0, QUERIES_END.length);
+        return res.toByteArray();
+    }
+
+    /** Bytes that start a serialized multi-query, before the first query. */
+    private static final byte[] QUERIES_START = "{\"queries\":[".getBytes(StandardCharsets.UTF_8);
+
+    /** Bytes that end a serialized multi-query, after the last query. */
+    private static final byte[] QUERIES_END = "]}".getBytes(StandardCharsets.UTF_8);
+
+    /** Number of bytes in the serialized form of a multi-query without any queries. */
+    private static final long EMPTY_BYTES = QUERIES_START.length + QUERIES_END.length;
+
+    /**
+     * Chunk of a multi-query along with its serialized form if it was measured while splitting.
+     *
+     * @author Kyle Michel
+     */
+    static class Chunk {
+
+        /**
+         * Get the queries in this chunk.
+         *
+         * @return {@link PifMultiQuery} with the queries in this chunk.
+         */
+        PifMultiQuery getQuery() {
+            return this.query;
+        }
+
+        /**
+         * Get the serialized form of this chunk.
+         *
+         * @return Array of bytes with the serialized multi-query or a null pointer if it was not serialized while
+         *      splitting.
+         */
+        byte[] getBody() {
+            return this.body;
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param query {@link PifMultiQuery} with the queries in the chunk.
+         * @param body Serialized form of the chunk or a null pointer if it was not serialized while splitting.
+         */
+        Chunk(final PifMultiQuery query, final byte[] body) {
+            this.query = query;
+            this.body = body;
+        }
+
+        /** Queries in the chunk. */
+        private final PifMultiQuery query;
+
+        /** Serialized form of the chunk or a null pointer if it was not serialized while splitting. */
+        private final byte[] body;
+    }
+
+    // Make sure that objects of this class cannot be instantiated
+    private PifMultiQuerySplitter() {}
+}
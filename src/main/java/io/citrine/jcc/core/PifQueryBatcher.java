@@ -0,0 +1,205 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.pif.query.PifMultiQuery;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifMultiSearchResult;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Class that gathers single {@link PifQuery} requests that arrive close together and sends them as one
+ * {@link PifMultiQuery}. A batch is sent when it reaches the maximum batch size or when the maximum delay has passed
+ * since the first query was added to it, whichever comes first. Each caller receives its own {@link PifSearchResult}
+ * from the combined response.
+ *
+ * <p>Each query is serialized when it is submitted and the batch is sent from those bytes, so a caller that changes
+ * or reuses its query while it waits for the batch does not change what is sent.
+ *
+ * @author Kyle Michel
+ */
+class PifQueryBatcher implements AutoCloseable {
+
+    /**
+     * Constructor.
+     *
+     * @param maxBatchSize Maximum number of queries to send in a single request.
+     * @param maxDelay Maximum number of milliseconds that a query waits for other queries to join its batch.
+     * @param multiSearch Function that sends the serialized body of a multi-query.
+     * @throws IllegalArgumentException if maxBatchSize is less than 2 or maxDelay is negative.
+     */
+    PifQueryBatcher(final int maxBatchSize, final long maxDelay,
+            final Function<byte[], CompletableFuture<PifMultiSearchResult>> multiSearch) {
+        if (maxBatchSize < 2) {
+            throw new IllegalArgumentException("'maxBatchSize' must be at least 2");
+        }
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("'maxDelay' cannot be negative");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.multiSearch = multiSearch;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "citrination-query-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Add a query to the current batch. The query is serialized on the calling thread, so the batch sends the query as
+     * it is at the time of this call.
+     *
+     * @param pifQuery {@link PifQuery} to run.
+     * @return {@link CompletableFuture} that completes with the {@link PifSearchResult} for the input query.
+     */
+    CompletableFuture<PifSearchResult> submit(final PifQuery pifQuery) {
+        final Entry entry;
+        try {
+            entry = new Entry(CitrinationClient.OBJECT_MAPPER.writeValueAsBytes(pifQuery));
+        } catch (IOException e) {
+            final CompletableFuture<PifSearchResult> res = new CompletableFuture<>();
+            res.completeExceptionally(e);
+            return res;
+        }
+        List<Entry> full = null;
+        synchronized (this) {
+            if (this.closed) {
+                entry.result.completeExceptionally(new IllegalStateException("Client has been closed"));
+                return entry.result;
+            }
+            if (this.batch == null) {
+                this.batch = new ArrayList<>(this.maxBatchSize);
+                scheduleFlush(this.batch);
+            }
+            this.batch.add(entry);
+            if (this.batch.size() >= this.maxBatchSize) {
+                full = this.batch;
+                this.batch = null;
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return entry.result;
+    }
+
+    /**
+     * Stop accepting queries. Queries that are waiting for their batch to be sent are failed.
+     */
+    @Override
+    public void close() {
+        final List<Entry> remaining;
+        synchronized (this) {
+            this.closed = true;
+            remaining = this.batch;
+            this.batch = null;
+        }
+        this.scheduler.shutdownNow();
+        if (remaining != null) {
+            for (Entry i : remaining) {
+                i.result.completeExceptionally(new IllegalStateException("Client has been closed"));
+            }
+        }
+    }
+
+    /**
+     * Schedule a batch to be sent after the maximum delay if it has not filled up before then.
+     *
+     * @param batch List of {@link Entry} objects in the batch.
+     */
+    private void scheduleFlush(final List<Entry> batch) {
+        this.scheduler.schedule(() -> {
+            synchronized (this) {
+                if (this.batch != batch) {
+                    return;  // Already sent because it filled up
+                }
+                this.batch = null;
+            }
+            send(batch);
+        }, this.maxDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Send a batch of queries and complete the future of each with its result. A failure to start the request fails
+     * every query in the batch rather than being thrown to the caller that happened to fill the batch.
+     *
+     * @param batch List of {@link Entry} objects to send.
+     */
+    private void send(final List<Entry> batch) {
+        final List<byte[]> queries = new ArrayList<>(batch.size());
+        for (Entry i : batch) {
+            queries.add(i.serialized);
+        }
+        final CompletableFuture<PifMultiSearchResult> response;
+        try {
+            response = this.multiSearch.apply(PifMultiQuerySplitter.buildBody(queries));
+        } catch (Throwable e) {
+            for (Entry i : batch) {
+                i.result.completeExceptionally(e);
+            }
+            return;
+        }
+        response.whenComplete((result, throwable) -> {
+            for (int i = 0; i < batch.size(); ++i) {
+                final CompletableFuture<PifSearchResult> future = batch.get(i).result;
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else if (i < result.getNumResults()) {
+                    future.complete(result.getResult(i));
+                } else {
+                    future.completeExceptionally(new IOException(
+                            "Received " + result.getNumResults() + " results for " + batch.size() + " queries"));
+                }
+            }
+        });
+    }
+
+    /** Maximum number of queries to send in a single request. */
+    private final int maxBatchSize;
+
+    /** Maximum number of milliseconds that a query waits for other queries to join its batch. */
+    private final long maxDelay;
+
+    /** Function that sends the serialized body of a multi-query. */
+    private final Function<byte[], CompletableFuture<PifMultiSearchResult>> multiSearch;
+
+    /** Scheduler used to send batches that have not filled up. */
+    private final ScheduledExecutorService scheduler;
+
+    /** Batch that is currently accepting queries or a null pointer if no queries are waiting. */
+    private List<Entry> batch;
+
+    /** Whether this object has been closed. */
+    private boolean closed;
+
+    /**
+     * Serialized query that is waiting to be sent along with the future for its result.
+     *
+     * @author Kyle Michel
+     */
+    private static class Entry {
+
+        /**
+         * Constructor.
+         *
+         * @param serialized Serialized form of the {@link PifQuery} to run.
+         */
+        Entry(final byte[] serialized) {
+            this.serialized = serialized;
+        }
+
+        /** Serialized form of the query to run. */
+        private final byte[] serialized;
+
+        /** Future to complete with the result of the query. */
+        private final CompletableFuture<PifSearchResult> result = new CompletableFuture<>();
+    }
+}
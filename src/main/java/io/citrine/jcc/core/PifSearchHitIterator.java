@@ -0,0 +1,94 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifSearchHit;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Iterator over every hit that matches a {@link PifQuery}. The input query is copied and frozen once, and pages of
+ * hits are requested by adjusting the {@link PifQuery#fromIndex(Integer)} and {@link PifQuery#size(Integer)} values of
+ * copies of the frozen query, which share all of their sub-queries with it. The first page is used to find the total
+ * number of hits, after which later pages are requested ahead of the consumer.
+ *
+ * @author Kyle Michel
+ */
+class PifSearchHitIterator extends PagedIterator<PifSearchHit> {
+
+    /**
+     * Constructor. The input query is copied, so later changes to it do not affect this iterator, and it is not
+     * changed by this iterator.
+     *
+     * @param pifQuery {@link PifQuery} to get all hits for.
+     * @param pageSize Number of hits to request in each page.
+     * @param maxPages Maximum number of pages that can be requested or held at once.
+     * @param ordered True to return hits in order, false to return pages of hits in the order that they complete.
+     * @param search Function that runs a single page query.
+     * @throws IllegalArgumentException if pageSize or maxPages is not positive.
+     */
+    PifSearchHitIterator(final PifQuery pifQuery, final int pageSize, final int maxPages, final boolean ordered,
+            final Function<PifQuery, CompletableFuture<PifSearchResult>> search) {
+        super(maxPages, ordered);
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("'pageSize' must be positive");
+        }
+        this.template = pifQuery.copy();
+        this.template.freeze();
+        this.pageSize = pageSize;
+        this.search = search;
+        this.start = (pifQuery.fromIndex() == null) ? 0 : pifQuery.fromIndex();
+        this.nextFrom = this.start;
+    }
+
+    @Override
+    protected CompletableFuture<PifSearchResult> fetchNext() {
+        if (this.end == null) {
+            if (this.nextFrom > this.start) {
+                return null;  // Wait for the first page to find the total number of hits
+            }
+        } else if (this.nextFrom >= this.end) {
+            return null;
+        }
+        final int from = this.nextFrom;
+        this.nextFrom += this.pageSize;
+        final CompletableFuture<PifSearchResult> page = this.search.apply(buildPageQuery(from));
+        return (this.end != null) ? page : page.thenApply(result -> {
+            final Long totalNumHits = result.getTotalNumHits();
+            final long end = (totalNumHits == null) ? from + result.getNumHits() : totalNumHits;
+            this.end = (int) Math.min(end, Integer.MAX_VALUE);
+            return result;
+        });
+    }
+
+    /**
+     * Build the query for a single page.
+     *
+     * @param from Index of the first hit in the page.
+     * @return {@link PifQuery} for the page.
+     */
+    private PifQuery buildPageQuery(final int from) {
+        return this.template.copy()
+                .fromIndex(from)
+                .size(this.pageSize);
+    }
+
+    /** Frozen query that pages are copied from. */
+    private final PifQuery template;
+
+    /** Number of hits in each page. */
+    private final int pageSize;
+
+    /** Function that runs a single page query. */
+    private final Function<PifQuery, CompletableFuture<PifSearchResult>> search;
+
+    /** Index of the first hit to return. */
+    private final int start;
+
+    /** Index of the first hit of the next page to request. */
+    private int nextFrom;
+
+    /** Index after the last hit to return or a null pointer if the first page has not completed. */
+    private volatile Integer end;
+}
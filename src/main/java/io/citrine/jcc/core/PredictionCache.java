@@ -0,0 +1,154 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.predict.PredictedValue;
+import io.citrine.jcc.predict.PredictionRequest;
+import io.citrine.jcc.predict.PredictionResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of the predictions for single candidates. Predictions are keyed on the model name, the settings of the request
+ * that change the prediction and a digest of the candidate, so a request only needs to send the candidates that have
+ * not been predicted recently.
+ *
+ * @author Kyle Michel
+ */
+class PredictionCache {
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries Maximum number of candidate predictions to keep.
+     * @param ttl Number of milliseconds that a prediction is kept or a non-positive number to keep predictions until
+     *            they are evicted.
+     * @throws IllegalArgumentException if maxEntries is not positive.
+     */
+    PredictionCache(final long maxEntries, final long ttl) {
+        this.cache = new ResultCache<>(maxEntries, ttl, i -> 1L);
+    }
+
+    /**
+     * Look up the prediction for each candidate of a request.
+     *
+     * @param modelName Name of the model to make the prediction against.
+     * @param inputs {@link PredictionRequest} with the candidates to look up.
+     * @return {@link Lookup} with the cached predictions and a request for the candidates that were not found.
+     * @throws IOException if a candidate cannot be serialized.
+     */
+    Lookup lookup(final String modelName, final PredictionRequest inputs) throws IOException {
+        final List<Map<String, Object>> candidates = inputs.getCandidates();
+        final String prefix = modelName + "/" + inputs.getUsePriors() + "/" + inputs.getPredictionSource() + "/";
+        final Lookup res = new Lookup(candidates.size());
+        final Map<String, Integer> missing = new HashMap<>();
+        for (int i = 0; i < candidates.size(); ++i) {
+            final String key = prefix + CitrinationClient.digest(candidates.get(i));
+            final Map<String, PredictedValue> cached = this.cache.get(key);
+            res.keys[i] = key;
+            if (cached != null) {
+                res.cached.add(cached);
+                res.missIndex[i] = -1;
+            } else {
+                res.cached.add(null);
+                Integer index = missing.get(key);
+                if (index == null) {  // Identical candidates in the same request are only sent once
+                    index = res.missing.size();
+                    missing.put(key, index);
+                    res.missing.add(candidates.get(i));
+                    res.missingKeys.add(key);
+                }
+                res.missIndex[i] = index;
+            }
+        }
+        if (!res.missing.isEmpty()) {
+            res.request = new PredictionRequest()
+                    .setUsePriors(inputs.getUsePriors())
+                    .setPredictionSource(inputs.getPredictionSource())
+                    .setCandidates(res.missing);
+        }
+        return res;
+    }
+
+    /**
+     * Save the predictions for the candidates that were missing from the cache and merge them with the cached
+     * predictions in the order of the original request.
+     *
+     * @param lookup {@link Lookup} that was returned by {@link #lookup(String, PredictionRequest)}.
+     * @param fresh {@link PredictionResult} for {@link Lookup#getRequest()} or a null pointer if nothing was missing.
+     * @return {@link PredictionResult} with a prediction for every candidate of the original request.
+     * @throws IOException if the fresh result does not have a prediction for each missing candidate.
+     */
+    PredictionResult merge(final Lookup lookup, final PredictionResult fresh) throws IOException {
+        final List<Map<String, PredictedValue>> freshCandidates = (fresh == null) ? null : fresh.getCandidates();
+        final int numFresh = (freshCandidates == null) ? 0 : freshCandidates.size();
+        if (numFresh != lookup.missing.size()) {
+            throw new IOException("Received " + numFresh + " predictions for " + lookup.missing.size() + " candidates");
+        }
+        for (int i = 0; i < numFresh; ++i) {
+            if (freshCandidates.get(i) != null) {
+                this.cache.put(lookup.missingKeys.get(i), new LinkedHashMap<>(freshCandidates.get(i)));
+            }
+        }
+        final List<Map<String, PredictedValue>> candidates = new ArrayList<>(lookup.keys.length);
+        for (int i = 0; i < lookup.keys.length; ++i) {
+            final Map<String, PredictedValue> prediction = (lookup.missIndex[i] < 0)
+                    ? lookup.cached.get(i)
+                    : freshCandidates.get(lookup.missIndex[i]);
+            candidates.add((prediction == null) ? null : new LinkedHashMap<>(prediction));
+        }
+        return new PredictionResult().setCandidates(candidates);
+    }
+
+    /** Cache of predictions by key. */
+    private final ResultCache<String, Map<String, PredictedValue>> cache;
+
+    /**
+     * Result of looking up the candidates of a request in the cache.
+     *
+     * @author Kyle Michel
+     */
+    static class Lookup {
+
+        /**
+         * Constructor.
+         *
+         * @param numCandidates Number of candidates in the request.
+         */
+        Lookup(final int numCandidates) {
+            this.keys = new String[numCandidates];
+            this.missIndex = new int[numCandidates];
+            this.cached = new ArrayList<>(numCandidates);
+        }
+
+        /**
+         * Get the request with the candidates that were not found in the cache.
+         *
+         * @return {@link PredictionRequest} with the missing candidates or a null pointer if every candidate was found.
+         */
+        PredictionRequest getRequest() {
+            return this.request;
+        }
+
+        /** Cache key of each candidate. */
+        private final String[] keys;
+
+        /** Index of each candidate in the missing candidates or -1 if it was found in the cache. */
+        private final int[] missIndex;
+
+        /** Cached prediction of each candidate or a null pointer if it was not found. */
+        private final List<Map<String, PredictedValue>> cached;
+
+        /** Candidates that were not found in the cache. */
+        private final List<Map<String, Object>> missing = new ArrayList<>();
+
+        /** Cache keys of the candidates that were not found in the cache. */
+        private final List<String> missingKeys = new ArrayList<>();
+
+        /** Request with the missing candidates or a null pointer if every candidate was found. */
+        private PredictionRequest request;
+    }
+}
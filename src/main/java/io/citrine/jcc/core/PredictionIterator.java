@@ -0,0 +1,64 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.predict.PredictedValue;
+import io.citrine.jcc.predict.PredictionRequest;
+import io.citrine.jcc.predict.PredictionResult;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Iterator over the predictions for a lazily generated sequence of candidates. Candidates are pulled from the source
+ * in chunks only when there is room for another chunk request, so generating candidates, sending requests and parsing
+ * responses overlap while the number of candidates and predictions held in memory stays bounded.
+ *
+ * @author Kyle Michel
+ */
+class PredictionIterator extends PagedIterator<Map<String, PredictedValue>> {
+
+    /**
+     * Constructor.
+     *
+     * @param candidates Iterator over the candidates to make predictions on.
+     * @param chunkSize Number of candidates to send in each request.
+     * @param maxChunks Maximum number of chunks that can be requested or held at once.
+     * @param predict Function that runs a single prediction request.
+     * @throws IllegalArgumentException if chunkSize or maxChunks is not positive.
+     */
+    PredictionIterator(final Iterator<Map<String, Object>> candidates, final int chunkSize, final int maxChunks,
+            final Function<PredictionRequest, CompletableFuture<PredictionResult>> predict) {
+        super(maxChunks, true);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("'chunkSize' must be positive");
+        }
+        this.candidates = candidates;
+        this.chunkSize = chunkSize;
+        this.predict = predict;
+    }
+
+    @Override
+    protected CompletableFuture<List<Map<String, PredictedValue>>> fetchNext() {
+        if (!this.candidates.hasNext()) {
+            return null;
+        }
+        final List<Map<String, Object>> chunk = new ArrayList<>(this.chunkSize);
+        while ((chunk.size() < this.chunkSize) && this.candidates.hasNext()) {
+            chunk.add(this.candidates.next());
+        }
+        return this.predict.apply(new PredictionRequest().setCandidates(chunk))
+                .thenApply(PredictionResult::getCandidates);
+    }
+
+    /** Iterator over the candidates to make predictions on. */
+    private final Iterator<Map<String, Object>> candidates;
+
+    /** Number of candidates to send in each request. */
+    private final int chunkSize;
+
+    /** Function that runs a single prediction request. */
+    private final Function<PredictionRequest, CompletableFuture<PredictionResult>> predict;
+}
@@ -0,0 +1,103 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.predict.PredictedValue;
+import io.citrine.jcc.predict.PredictionRequest;
+import io.citrine.jcc.predict.PredictionResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility methods for splitting a large {@link PredictionRequest} into smaller ones and for stitching the results of
+ * those smaller requests back together.
+ *
+ * @author Kyle Michel
+ */
+abstract class PredictionRequestSplitter {
+
+    /**
+     * Split a prediction request into chunks that each contain no more than the maximum number of candidates and whose
+     * serialized candidates take up no more than the maximum number of bytes. A single candidate that is larger than
+     * the byte budget is sent in a chunk by itself. Each chunk keeps the settings of the input request.
+     *
+     * @param inputs {@link PredictionRequest} to split.
+     * @param maxCandidates Maximum number of candidates in each chunk or a non-positive number for no limit.
+     * @param maxBytes Maximum number of bytes of serialized candidates in each chunk or a non-positive number for no
+     *                 limit.
+     * @return List of {@link PredictionRequest} objects in the order that their candidates appear in the input.
+     * @throws IOException if a candidate cannot be serialized to measure its size.
+     */
+    static List<PredictionRequest> split(final PredictionRequest inputs, final int maxCandidates, final long maxBytes)
+            throws IOException {
+        final List<Map<String, Object>> candidates = inputs.getCandidates();
+        if ((candidates == null)
+                || (((maxCandidates <= 0) || (candidates.size() <= maxCandidates)) && (maxBytes <= 0))) {
+            return Collections.singletonList(inputs);
+        }
+        final List<PredictionRequest> res = new ArrayList<>();
+        int start = 0;
+        long chunkBytes = 0;
+        for (int i = 0; i < candidates.size(); ++i) {
+            final long candidateBytes = (maxBytes > 0)
+                    ? CitrinationClient.OBJECT_MAPPER.writeValueAsBytes(candidates.get(i)).length + 1
+                    : 0;
+            final boolean full = ((maxCandidates > 0) && (i - start >= maxCandidates))
+                    || ((maxBytes > 0) && (chunkBytes + candidateBytes > maxBytes));
+            if (full && (i > start)) {
+                res.add(buildChunk(inputs, start, i));
+                start = i;
+                chunkBytes = 0;
+            }
+            chunkBytes += candidateBytes;
+        }
+        if ((start < candidates.size()) || res.isEmpty()) {
+            res.add(buildChunk(inputs, start, candidates.size()));
+        }
+        return res;
+    }
+
+    /**
+     * Stitch the results of the chunks of a prediction request back together. Predictions are kept in the order of
+     * the chunks.
+     *
+     * @param chunks List of {@link PredictionRequest} objects that were run.
+     * @param results List of {@link PredictionResult} objects with the result of each chunk.
+     * @return {@link PredictionResult} with all of the predictions.
+     * @throws IOException if a chunk did not return a prediction for each of its candidates.
+     */
+    static PredictionResult merge(final List<PredictionRequest> chunks, final List<PredictionResult> results)
+            throws IOException {
+        final List<Map<String, PredictedValue>> candidates = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); ++i) {
+            final List<Map<String, PredictedValue>> predictions = results.get(i).getCandidates();
+            final int numPredictions = (predictions == null) ? 0 : predictions.size();
+            if (numPredictions != chunks.get(i).getCandidates().size()) {
+                throw new IOException("Received " + numPredictions + " predictions for "
+                        + chunks.get(i).getCandidates().size() + " candidates");
+            }
+            candidates.addAll(predictions);
+        }
+        return new PredictionResult().setCandidates(candidates);
+    }
+
+    /**
+     * Build a request with a range of the candidates of another request.
+     *
+     * @param inputs {@link PredictionRequest} to take candidates from.
+     * @param from Index of the first candidate to include.
+     * @param to Index after the last candidate to include.
+     * @return New {@link PredictionRequest} object.
+     */
+    private static PredictionRequest buildChunk(final PredictionRequest inputs, final int from, final int to) {
+        return new PredictionRequest()
+                .setUsePriors(inputs.getUsePriors())
+                .setPredictionSource(inputs.getPredictionSource())
+                .setCandidates(inputs.getCandidates().subList(from, to));
+    }
+
+    // Make sure that objects of this class cannot be instantiated
+    private PredictionRequestSplitter() {}
+}
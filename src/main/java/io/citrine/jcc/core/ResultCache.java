@@ -0,0 +1,166 @@
+package io.citrine.jcc.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded in-memory cache of results. Each entry has a weight and the least recently used entries are evicted when the
+ * total weight of the cache goes over its limit. Entries also expire a fixed amount of time after they were added.
+ *
+ * @param <K> Type of the keys.
+ * @param <V> Type of the cached values.
+ * @author Kyle Michel
+ */
+class ResultCache<K, V> {
+
+    /**
+     * Constructor.
+     *
+     * @param maxWeight Maximum total weight of the entries in the cache.
+     * @param ttl Number of milliseconds that an entry is kept after it was added or a non-positive number to keep
+     *            entries until they are evicted.
+     * @param weigher Function that returns the weight of a value. Weights must be positive.
+     * @throws IllegalArgumentException if maxWeight is not positive.
+     */
+    ResultCache(final long maxWeight, final long ttl, final ToLongFunction<? super V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("'maxWeight' must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.ttlNanos = (ttl > 0) ? TimeUnit.MILLISECONDS.toNanos(ttl) : 0L;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Get the value saved for a key.
+     *
+     * @param key Key to look up.
+     * @return Value for the key or a null pointer if it is not cached or has expired.
+     */
+    synchronized V get(final K key) {
+        final Entry<V> entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, System.nanoTime())) {
+            remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Save the value for a key, replacing any existing value. Values that weigh more than the maximum weight of the
+     * cache are not saved.
+     *
+     * @param key Key to save the value under.
+     * @param value Value to save.
+     */
+    synchronized void put(final K key, final V value) {
+        remove(key);
+        final long weight = Math.max(1L, this.weigher.applyAsLong(value));
+        if (weight > this.maxWeight) {
+            return;
+        }
+        this.entries.put(key, new Entry<>(value, weight, System.nanoTime()));
+        this.totalWeight += weight;
+        evict();
+    }
+
+    /**
+     * Remove every entry from the cache.
+     */
+    synchronized void clear() {
+        this.entries.clear();
+        this.totalWeight = 0L;
+    }
+
+    /**
+     * Remove the entry for a key if it exists.
+     *
+     * @param key Key to remove.
+     */
+    private void remove(final K key) {
+        final Entry<V> entry = this.entries.remove(key);
+        if (entry != null) {
+            this.totalWeight -= entry.weight;
+        }
+    }
+
+    /**
+     * Remove least recently used entries until the total weight is under the limit. Expired entries at the least
+     * recently used end of the cache are removed as well; other expired entries are removed when they are looked up.
+     */
+    private void evict() {
+        final long now = System.nanoTime();
+        final Iterator<Entry<V>> iterator = this.entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry<V> entry = iterator.next();
+            if ((this.totalWeight <= this.maxWeight) && !isExpired(entry, now)) {
+                return;
+            }
+            iterator.remove();
+            this.totalWeight -= entry.weight;
+        }
+    }
+
+    /**
+     * Check whether an entry has expired.
+     *
+     * @param entry Entry to check.
+     * @param now Current value of {@link System#nanoTime()}.
+     * @return True if the entry has expired.
+     */
+    private boolean isExpired(final Entry<V> entry, final long now) {
+        return (this.ttlNanos > 0) && (now - entry.created >= this.ttlNanos);
+    }
+
+    /** Maximum total weight of the entries in the cache. */
+    private final long maxWeight;
+
+    /** Number of nanoseconds that an entry is kept or 0 to keep entries until they are evicted. */
+    private final long ttlNanos;
+
+    /** Function that returns the weight of a value. */
+    private final ToLongFunction<? super V> weigher;
+
+    /** Entries in order from least to most recently used. */
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Total weight of the entries in the cache. */
+    private long totalWeight;
+
+    /**
+     * Value saved in the cache along with its weight and the time that it was added.
+     *
+     * @param <V> Type of the value.
+     * @author Kyle Michel
+     */
+    private static class Entry<V> {
+
+        /**
+         * Constructor.
+         *
+         * @param value Value that was saved.
+         * @param weight Weight of the value.
+         * @param created Value of {@link System#nanoTime()} when the value was saved.
+         */
+        Entry(final V value, final long weight, final long created) {
+            this.value = value;
+            this.weight = weight;
+            this.created = created;
+        }
+
+        /** Value that was saved. */
+        private final V value;
+
+        /** Weight of the value. */
+        private final long weight;
+
+        /** Value of {@link System#nanoTime()} when the value was saved. */
+        private final long created;
+    }
+}
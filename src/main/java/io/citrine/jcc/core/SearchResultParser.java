@@ -0,0 +1,134 @@
+package io.citrine.jcc.core;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.citrine.jcc.search.core.result.BaseSearchResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Streaming parser for the response to a search request. The response is read token by token and each hit is bound
+ * and handed off as soon as it has been read, so the full list of hits never has to be held in memory and the first
+ * hit is available while the rest of the response is still arriving.
+ *
+ * @param <T> Type of the hits.
+ * @param <R> Type of the search result.
+ * @author Kyle Michel
+ */
+class SearchResultParser<T, R extends BaseSearchResult<T>> {
+
+    /**
+     * Constructor.
+     *
+     * @param hitReader {@link ObjectReader} that binds each hit.
+     * @param resultSupplier Supplier of empty search result objects.
+     */
+    SearchResultParser(final ObjectReader hitReader, final Supplier<R> resultSupplier) {
+        this.hitReader = hitReader;
+        this.resultSupplier = resultSupplier;
+    }
+
+    /**
+     * Parse the response to a search request.
+     *
+     * @param content {@link InputStream} with the body of the response.
+     * @param hitConsumer Consumer that is called with each hit in the order that they appear in the response, or a
+     *                    null pointer to add the hits to the returned result.
+     * @return Search result with the took and total number of hits values, or a null pointer if the response does
+     *      not contain a result. The result only contains hits if hitConsumer is a null pointer.
+     * @throws IOException if the response cannot be parsed.
+     */
+    R parse(final InputStream content, final Consumer<? super T> hitConsumer) throws IOException {
+        try (final JsonParser parser = CitrinationClient.OBJECT_MAPPER.getFactory().createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected the response to start with an object");
+            }
+            R result = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                if ((parser.nextToken() == JsonToken.START_OBJECT) && "results".equals(field)) {
+                    result = parseResult(parser, hitConsumer);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Parse the search result object. The parser must be positioned at the start of the object.
+     *
+     * @param parser {@link JsonParser} to read from.
+     * @param hitConsumer Consumer that is called with each hit or a null pointer to add the hits to the result.
+     * @return Search result object.
+     * @throws IOException if the result cannot be parsed.
+     */
+    private R parseResult(final JsonParser parser, final Consumer<? super T> hitConsumer) throws IOException {
+        final R result = this.resultSupplier.get();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+            switch (field) {
+                case "took":
+                    result.setTook((token == JsonToken.VALUE_NULL) ? null : parser.getValueAsLong());
+                    break;
+                case "totalNumHits":
+                    result.setTotalNumHits((token == JsonToken.VALUE_NULL) ? null : parser.getValueAsLong());
+                    break;
+                case "hits":
+                    if (token == JsonToken.START_ARRAY) {
+                        JsonToken next = parser.nextToken();
+                        if ((next == JsonToken.END_ARRAY) && (hitConsumer == null)) {
+                            // Keep the empty list of hits that binding the whole response gives
+                            CitrinationClient.OBJECT_MAPPER.readerForUpdating(result).readValue(EMPTY_HITS);
+                        }
+                        for (; next != JsonToken.END_ARRAY; next = parser.nextToken()) {
+                            emit(parser, result, hitConsumer);
+                        }
+                    } else if (token == JsonToken.START_OBJECT) {
+                        emit(parser, result, hitConsumer);
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Bind the hit at the current position of the parser and pass it to the consumer or add it to the result.
+     *
+     * @param parser {@link JsonParser} positioned at the start of a hit.
+     * @param result Search result to add the hit to if hitConsumer is a null pointer.
+     * @param hitConsumer Consumer that is called with the hit.
+     * @throws IOException if the hit cannot be bound.
+     */
+    private void emit(final JsonParser parser, final R result, final Consumer<? super T> hitConsumer)
+            throws IOException {
+        final T hit = this.hitReader.readValue(parser);
+        if (hitConsumer == null) {
+            result.addHit(hit);
+        } else {
+            hitConsumer.accept(hit);
+        }
+    }
+
+    /** Reader used to bind each hit. */
+    private final ObjectReader hitReader;
+
+    /** Supplier of empty search result objects. */
+    private final Supplier<R> resultSupplier;
+
+    /** Result with an empty list of hits, used to set the hits of a result that has none. */
+    private static final JsonNode EMPTY_HITS = JsonNodeFactory.instance.objectNode()
+            .set("hits", JsonNodeFactory.instance.arrayNode());
+}
@@ -0,0 +1,125 @@
+package io.citrine.jcc.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces concurrent calls that have the same key, so that only one of them is in flight at a time. The first call
+ * for a key runs and every call for the same key that starts before it completes waits for its result instead of
+ * running again. Once a call completes, the next call for its key runs again.
+ *
+ * <p>Results are mutable objects, so every caller, including the one that ran the call, receives its own copy of the
+ * result. The original is never returned, so no caller can change the result that another one receives.
+ *
+ * @param <K> Type of the keys.
+ * @param <V> Type of the results.
+ * @author Kyle Michel
+ */
+class SingleFlight<K, V> {
+
+    /**
+     * Constructor.
+     *
+     * @param copier Function that makes a copy of a result that can be changed without affecting the original.
+     */
+    SingleFlight(final UnaryOperator<V> copier) {
+        this.copier = copier;
+    }
+
+    /**
+     * Run a call unless a call with the same key is already in flight, in which case wait for the result of that call.
+     * The call is started on the calling thread, so a call that blocks until it has a result has completed by the time
+     * this method returns. Cancelling the returned future does not cancel the call that is shared with other callers.
+     *
+     * @param key Key of the call.
+     * @param call Function that starts the call and returns a future with its result.
+     * @return {@link CompletableFuture} that completes with a copy of the result of the call.
+     */
+    CompletableFuture<V> execute(final K key, final Supplier<CompletableFuture<V>> call) {
+        final Flight<V> flight = new Flight<>();
+        Flight<V> existing;
+        while ((existing = this.flights.putIfAbsent(key, flight)) != null) {
+            final CompletableFuture<V> joined = existing.join(this.copier);
+            if (joined != null) {
+                return joined;
+            }
+            this.flights.remove(key, existing);  // The call has completed but has not been removed yet
+        }
+        CompletableFuture<V> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+        }
+        return result
+                .whenComplete((value, throwable) -> {
+                    this.flights.remove(key, flight);
+                    flight.close(value, throwable);
+                })
+                .thenApply(i -> (i == null) ? null : this.copier.apply(i));
+    }
+
+    /** Function that makes a copy of a result for each caller. */
+    private final UnaryOperator<V> copier;
+
+    /** Calls that are in flight by key. */
+    private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Single call that is in flight along with the callers that are waiting for it.
+     *
+     * @param <V> Type of the result.
+     * @author Kyle Michel
+     */
+    private static class Flight<V> {
+
+        /**
+         * Wait for the result of this call.
+         *
+         * @param copier Function that makes a copy of the result.
+         * @return {@link CompletableFuture} that completes with a copy of the result or a null pointer if the call
+         *      has already completed.
+         */
+        synchronized CompletableFuture<V> join(final UnaryOperator<V> copier) {
+            if (this.closed) {
+                return null;
+            }
+            if (this.shared == null) {
+                this.shared = new CompletableFuture<>();
+            }
+            return this.shared.thenApply(i -> (i == null) ? null : copier.apply(i));
+        }
+
+        /**
+         * Pass the result of this call to every waiting caller, each of which makes its own copy of it.
+         *
+         * @param value Result of the call.
+         * @param throwable {@link Throwable} that the call failed with or a null pointer if it succeeded.
+         */
+        void close(final V value, final Throwable throwable) {
+            final CompletableFuture<V> waiting;
+            synchronized (this) {
+                this.closed = true;
+                waiting = this.shared;
+            }
+            if (waiting == null) {
+                return;
+            }
+            if (throwable != null) {
+                waiting.completeExceptionally(throwable);
+            } else {
+                waiting.complete(value);
+            }
+        }
+
+        /** Future that is completed with the result for waiting callers or a null pointer if none are waiting. */
+        private CompletableFuture<V> shared;
+
+        /** Whether the call has completed. */
+        private boolean closed;
+    }
+}
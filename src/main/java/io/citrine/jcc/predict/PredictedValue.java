@@ -1,28 +1,231 @@
 package io.citrine.jcc.predict;
 
-import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
+ * A single predicted property, deserialized from a [value, loss] pair. Numeric values and losses are held as primitive
+ * doubles, and a string is only kept for categorical values. The text of a numeric value is built when it is asked
+ * for, so it has the same numeric value as the text that the site returned but may be formatted differently.
+ *
  * Created by maxhutch on 1/31/17.
  */
+@JsonDeserialize(using = PredictedValue.Deserializer.class)
 public class PredictedValue {
 
-    String value;
-    Double loss;
+    /** Numeric value or NaN if the value is categorical or missing. */
+    double value;
 
-    @JsonCreator
+    /** Categorical value or a null pointer if the value is numeric or missing. */
+    String category;
+
+    /** Whether the numeric value was written as an integer. */
+    boolean integral;
+
+    /** Loss of the prediction or NaN if it is not known. */
+    double loss;
+
+    /**
+     * Constructor for a [value, loss] pair whose elements are both strings. This is the form that predictions were
+     * deserialized from before they were read straight from the response, and it is kept for callers that still
+     * build predictions from lists.
+     *
+     * @param args List with the predicted value and, optionally, the loss of the prediction.
+     * @throws NumberFormatException if the loss is not a number.
+     */
     public PredictedValue(List<String> args) {
-        value = args.get(0);
-        loss = Double.parseDouble(args.get(1));
+        final String text = args.get(0);
+        this.value = parseDouble(text);
+        this.category = Double.isNaN(this.value) ? text : null;
+        this.integral = isInteger(text);
+        this.loss = ((args.size() < 2) || (args.get(1) == null)) ? Double.NaN : Double.parseDouble(args.get(1));
     }
 
+    /**
+     * Constructor for a numeric prediction.
+     *
+     * @param value Predicted value.
+     * @param loss Loss of the prediction or NaN if it is not known.
+     */
+    public PredictedValue(double value, double loss) {
+        this(value, null, false, loss);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param value Numeric value or NaN if the value is categorical or missing.
+     * @param category Categorical value or a null pointer if the value is numeric or missing.
+     * @param integral Whether the numeric value was written as an integer.
+     * @param loss Loss of the prediction or NaN if it is not known.
+     */
+    PredictedValue(double value, String category, boolean integral, double loss) {
+        this.value = value;
+        this.category = category;
+        this.integral = integral;
+        this.loss = loss;
+    }
+
+    /**
+     * Get the predicted value as text. Categorical values are returned as the site sent them. Numeric values are
+     * formatted on each call, as an integer if the site sent an integer and in the form of
+     * {@link Double#toString(double)} otherwise; use {@link #getValueAsDouble()} to read them without allocating.
+     *
+     * @return String with the predicted value or a null pointer if it is missing.
+     */
     public String getValue() {
-        return value;
+        if ((this.category != null) || Double.isNaN(this.value)) {
+            return this.category;
+        }
+        if (this.integral && (Math.abs(this.value) < MAX_EXACT_INTEGER)) {
+            return Long.toString((long) this.value);
+        }
+        return Double.toString(this.value);
+    }
+
+    /**
+     * Get the predicted value as a primitive double. The value is parsed once when the prediction is read.
+     *
+     * @return Predicted value or NaN if the value is categorical or missing.
+     */
+    @JsonIgnore
+    public double getValueAsDouble() {
+        return this.value;
+    }
+
+    /**
+     * Check whether the predicted value is numeric.
+     *
+     * @return True if the value is numeric, false if it is categorical or missing.
+     */
+    @JsonIgnore
+    public boolean isNumeric() {
+        return (this.category == null) && !Double.isNaN(this.value);
     }
 
+    /**
+     * Get the loss of the prediction. The loss is boxed on each call; use {@link #getLossAsDouble()} to read it
+     * without allocating.
+     *
+     * @return Loss of the prediction or a null pointer if it is not known.
+     */
     public Double getLoss() {
-        return loss;
+        return Double.isNaN(this.loss) ? null : this.loss;
+    }
+
+    /**
+     * Get the loss of the prediction as a primitive double.
+     *
+     * @return Loss of the prediction or NaN if it is not known.
+     */
+    @JsonIgnore
+    public double getLossAsDouble() {
+        return this.loss;
+    }
+
+    /**
+     * Parse a string to a double without throwing.
+     *
+     * @param value String to parse.
+     * @return Parsed value or NaN if the string is not a number.
+     */
+    private static double parseDouble(final String value) {
+        if ((value == null) || value.isEmpty()) {
+            return Double.NaN;
+        }
+        final char first = value.charAt(0);
+        if (!Character.isDigit(first) && (first != '-') && (first != '+') && (first != '.') && (first != 'N')
+                && (first != 'I')) {
+            return Double.NaN;  // Skip the exception for values that are obviously not numbers
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Check whether a string is an integer: an optional sign followed by digits.
+     *
+     * @param value String to check.
+     * @return True if the string is an integer.
+     */
+    private static boolean isInteger(final String value) {
+        if (value == null) {
+            return false;
+        }
+        final int start = (!value.isEmpty() && ((value.charAt(0) == '-') || (value.charAt(0) == '+'))) ? 1 : 0;
+        if (start == value.length()) {
+            return false;
+        }
+        for (int i = start; i < value.length(); ++i) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Magnitude below which every integer can be held exactly in a double. */
+    private static final double MAX_EXACT_INTEGER = 9007199254740992.0;
+
+    /**
+     * Deserializer that reads a [value, loss] pair straight from the tokens of the response without building an
+     * intermediate list. Either element can be a JSON number or a string. Numbers are read into primitive doubles and
+     * only categorical values are kept as strings.
+     *
+     * @author Kyle Michel
+     */
+    static class Deserializer extends JsonDeserializer<PredictedValue> {
+
+        @Override
+        public PredictedValue deserialize(final JsonParser parser, final DeserializationContext context)
+                throws IOException {
+            if (!parser.isExpectedStartArrayToken()) {
+                throw context.mappingException(PredictedValue.class, parser.getCurrentToken());
+            }
+            final JsonToken valueToken = parser.nextToken();
+            if (valueToken == JsonToken.END_ARRAY) {
+                return new PredictedValue(Double.NaN, null, false, Double.NaN);
+            }
+            double value = Double.NaN;
+            String category = null;
+            boolean integral = false;
+            if (valueToken.isNumeric()) {
+                value = parser.getDoubleValue();
+                integral = (valueToken == JsonToken.VALUE_NUMBER_INT);
+            } else if (valueToken == JsonToken.VALUE_STRING) {
+                final String text = parser.getText();
+                value = parseDouble(text);
+                if (Double.isNaN(value)) {
+                    category = text;
+                } else {
+                    integral = isInteger(text);
+                }
+            } else if (valueToken != JsonToken.VALUE_NULL) {
+                throw context.mappingException(PredictedValue.class, parser.getCurrentToken());
+            }
+            double loss = Double.NaN;
+            final JsonToken lossToken = parser.nextToken();
+            if (lossToken != JsonToken.END_ARRAY) {
+                if (lossToken.isNumeric()) {
+                    loss = parser.getDoubleValue();
+                } else if (lossToken == JsonToken.VALUE_STRING) {
+                    loss = parseDouble(parser.getText());
+                }
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                }
+            }
+            return new PredictedValue(value, category, integral, loss);
+        }
     }
 }
@@ -0,0 +1,309 @@
+package io.citrine.jcc.predict;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+
+/**
+ * Columnar view of a {@link PredictionResult}. Each predicted property is stored as a primitive array of values and a
+ * primitive array of losses, both indexed by the position of the candidate in the result, so that sorting, ranking
+ * and filtering over many predictions does not have to touch a map per candidate. Values of candidates that do not
+ * have a property, and categorical values, are stored as NaN.
+ *
+ * <p>The arrays returned by this class are the backing arrays of the view and must not be modified.
+ *
+ * @author Kyle Michel
+ */
+public class PredictionColumns {
+
+    /**
+     * Get the number of candidates in the view.
+     *
+     * @return Number of candidates.
+     */
+    public int getNumCandidates() {
+        return this.numCandidates;
+    }
+
+    /**
+     * Get the names of the predicted properties.
+     *
+     * @return Set with the names of the properties in the order that they were first seen.
+     */
+    public Set<String> getPropertyNames() {
+        return Collections.unmodifiableSet(this.columns.keySet());
+    }
+
+    /**
+     * Get the predicted values of a property.
+     *
+     * @param property Name of the property.
+     * @return Array with the value for each candidate.
+     * @throws IllegalArgumentException if the property was not predicted.
+     */
+    public double[] getValues(final String property) {
+        return getColumn(property).values;
+    }
+
+    /**
+     * Get the losses of the predictions of a property.
+     *
+     * @param property Name of the property.
+     * @return Array with the loss for each candidate.
+     * @throws IllegalArgumentException if the property was not predicted.
+     */
+    public double[] getLosses(final String property) {
+        return getColumn(property).losses;
+    }
+
+    /**
+     * Get the categorical values of a property.
+     *
+     * @param property Name of the property.
+     * @return Array with the categorical value for each candidate, with null pointers for numeric values, or a null
+     *      pointer if every value of the property is numeric.
+     * @throws IllegalArgumentException if the property was not predicted.
+     */
+    public String[] getCategoricalValues(final String property) {
+        return getColumn(property).categories;
+    }
+
+    /**
+     * Get the indices of the candidates sorted by the value of a property. Candidates without a numeric value are
+     * placed at the end.
+     *
+     * @param property Name of the property to sort by.
+     * @param descending True to sort from the largest to the smallest value.
+     * @return Array with the indices of all candidates in sorted order.
+     * @throws IllegalArgumentException if the property was not predicted.
+     */
+    public int[] sortedIndices(final String property, final boolean descending) {
+        return topK(property, this.numCandidates, descending);
+    }
+
+    /**
+     * Get the indices of the candidates with the k best values of a property. Candidates without a numeric value are
+     * never included ahead of those with one.
+     *
+     * @param property Name of the property to rank by.
+     * @param k Number of candidates to return.
+     * @param descending True to return the largest values, false to return the smallest.
+     * @return Array with the indices of no more than k candidates, best first.
+     * @throws IllegalArgumentException if the property was not predicted or k is negative.
+     */
+    public int[] topK(final String property, final int k, final boolean descending) {
+        if (k < 0) {
+            throw new IllegalArgumentException("'k' cannot be negative");
+        }
+        final double[] values = getValues(property);
+        final int size = Math.min(k, this.numCandidates);
+
+        // Keep the best candidates seen so far in a heap whose root is the worst of them
+        final int[] heap = new int[size];
+        int heapSize = 0;
+        for (int i = 0; (i < this.numCandidates) && (size > 0); ++i) {
+            if (heapSize < size) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, values, descending);
+            } else if (compare(values, i, heap[0], descending) < 0) {
+                heap[0] = i;
+                siftDown(heap, heapSize, values, descending);
+            }
+        }
+
+        // Empty the heap from the worst candidate to the best
+        final int[] res = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; --i) {
+            res[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, values, descending);
+        }
+        return res;
+    }
+
+    /**
+     * Get the indices of the candidates whose value of a property matches a predicate.
+     *
+     * @param property Name of the property to filter on.
+     * @param predicate Predicate that is called with each value.
+     * @return Array with the indices of the matching candidates in increasing order.
+     * @throws IllegalArgumentException if the property was not predicted.
+     */
+    public int[] filter(final String property, final DoublePredicate predicate) {
+        final double[] values = getValues(property);
+        final int[] res = new int[this.numCandidates];
+        int count = 0;
+        for (int i = 0; i < this.numCandidates; ++i) {
+            if (predicate.test(values[i])) {
+                res[count++] = i;
+            }
+        }
+        return Arrays.copyOf(res, count);
+    }
+
+    /**
+     * Get the column of a property.
+     *
+     * @param property Name of the property.
+     * @return {@link Column} for the property.
+     * @throws IllegalArgumentException if the property was not predicted.
+     */
+    private Column getColumn(final String property) {
+        final Column res = this.columns.get(property);
+        if (res == null) {
+            throw new IllegalArgumentException("No predictions for property '" + property + "'");
+        }
+        return res;
+    }
+
+    /**
+     * Compare the values of two candidates so that better values come first and NaN values come last.
+     *
+     * @param values Array of values.
+     * @param a Index of the first candidate.
+     * @param b Index of the second candidate.
+     * @param descending True if larger values are better.
+     * @return Negative number if a is better than b, positive if it is worse, and 0 if they are tied.
+     */
+    private static int compare(final double[] values, final int a, final int b, final boolean descending) {
+        final boolean aNan = Double.isNaN(values[a]);
+        final boolean bNan = Double.isNaN(values[b]);
+        if (aNan || bNan) {
+            return (aNan == bNan) ? Integer.compare(a, b) : (aNan ? 1 : -1);
+        }
+        final int res = descending ? Double.compare(values[b], values[a]) : Double.compare(values[a], values[b]);
+        return (res != 0) ? res : Integer.compare(a, b);
+    }
+
+    /**
+     * Move an element of a heap up until its parent is not better than it.
+     *
+     * @param heap Heap of candidate indices whose root is the worst candidate.
+     * @param index Position of the element to move.
+     * @param values Array of values.
+     * @param descending True if larger values are better.
+     */
+    private static void siftUp(final int[] heap, final int index, final double[] values, final boolean descending) {
+        int i = index;
+        while (i > 0) {
+            final int parent = (i - 1) / 2;
+            if (compare(values, heap[i], heap[parent], descending) <= 0) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    /**
+     * Move the root of a heap down until neither of its children is worse than it.
+     *
+     * @param heap Heap of candidate indices whose root is the worst candidate.
+     * @param size Number of elements in the heap.
+     * @param values Array of values.
+     * @param descending True if larger values are better.
+     */
+    private static void siftDown(final int[] heap, final int size, final double[] values, final boolean descending) {
+        int i = 0;
+        while (true) {
+            final int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            final int right = left + 1;
+            final int worst = ((right < size) && (compare(values, heap[right], heap[left], descending) > 0))
+                    ? right
+                    : left;
+            if (compare(values, heap[worst], heap[i], descending) <= 0) {
+                return;
+            }
+            swap(heap, i, worst);
+            i = worst;
+        }
+    }
+
+    /**
+     * Swap two elements of an array.
+     *
+     * @param array Array to change.
+     * @param a Index of the first element.
+     * @param b Index of the second element.
+     */
+    private static void swap(final int[] array, final int a, final int b) {
+        final int temp = array[a];
+        array[a] = array[b];
+        array[b] = temp;
+    }
+
+    /**
+     * Constructor. Columns are built in a single pass over the candidates.
+     *
+     * @param candidates List of maps of property names to predicted values for each candidate.
+     */
+    PredictionColumns(final List<Map<String, PredictedValue>> candidates) {
+        this.numCandidates = (candidates == null) ? 0 : candidates.size();
+        for (int i = 0; i < this.numCandidates; ++i) {
+            final Map<String, PredictedValue> candidate = candidates.get(i);
+            if (candidate == null) {
+                continue;
+            }
+            for (Map.Entry<String, PredictedValue> entry : candidate.entrySet()) {
+                Column column = this.columns.get(entry.getKey());
+                if (column == null) {
+                    column = new Column(this.numCandidates);
+                    this.columns.put(entry.getKey(), column);
+                }
+                final PredictedValue value = entry.getValue();
+                if (value != null) {
+                    column.values[i] = value.value;
+                    column.losses[i] = value.loss;
+                    if (value.category != null) {
+                        if (column.categories == null) {
+                            column.categories = new String[this.numCandidates];
+                        }
+                        column.categories[i] = value.category;
+                    }
+                }
+            }
+        }
+    }
+
+    /** Number of candidates in the view. */
+    private final int numCandidates;
+
+    /** Columns by property name. */
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    /**
+     * Values and losses of a single property.
+     *
+     * @author Kyle Michel
+     */
+    private static class Column {
+
+        /**
+         * Constructor. All values and losses start as NaN.
+         *
+         * @param numCandidates Number of candidates.
+         */
+        Column(final int numCandidates) {
+            this.values = new double[numCandidates];
+            this.losses = new double[numCandidates];
+            Arrays.fill(this.values, Double.NaN);
+            Arrays.fill(this.losses, Double.NaN);
+        }
+
+        /** Value for each candidate. */
+        private final double[] values;
+
+        /** Loss for each candidate. */
+        private final double[] losses;
+
+        /** Categorical value for each candidate or a null pointer if every value is numeric. */
+        private String[] categories;
+    }
+}
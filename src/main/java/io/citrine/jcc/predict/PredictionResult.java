@@ -1,5 +1,7 @@
 package io.citrine.jcc.predict;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +19,7 @@ public class PredictionResult {
      */
     public PredictionResult setCandidates(List<Map<String, PredictedValue>> candidates) {
         this.candidates = candidates;
+        this.columns = null;
         return this;
     }
 
@@ -28,6 +31,23 @@ public class PredictionResult {
         return this.candidates;
     }
 
+    /**
+     * Get a columnar view of the candidates with a primitive array of values and of losses for each property. The view
+     * is built on the first call and reused until the candidates are replaced; changes made to the candidate maps
+     * after that are not reflected in it.
+     * @return {@link PredictionColumns} view of the candidates
+     */
+    @JsonIgnore
+    public PredictionColumns getColumns() {
+        if (this.columns == null) {
+            this.columns = new PredictionColumns(this.candidates);
+        }
+        return this.columns;
+    }
+
     /** The candidates. */
     List<Map<String, PredictedValue>> candidates;
+
+    /** Columnar view of the candidates or a null pointer if it has not been built. */
+    private PredictionColumns columns;
 }
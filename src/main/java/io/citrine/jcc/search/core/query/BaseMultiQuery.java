@@ -4,8 +4,9 @@ import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonSetter;
+import io.citrine.jcc.util.Freezable;
+import io.citrine.jcc.util.ListUtil;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,7 +16,7 @@ import java.util.List;
  * @author Kyle Michel
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public abstract class BaseMultiQuery<T> {
+public abstract class BaseMultiQuery<T> implements Freezable, Cloneable {
 
     /**
      * Set the list of queries. This overwrites any queries that are already saved.
@@ -25,7 +26,8 @@ public abstract class BaseMultiQuery<T> {
      */
     @JsonSetter("queries")
     protected BaseMultiQuery<T> setQueries(final List<T> queries) {
-        this.queries = queries;
+        checkNotFrozen();
+        this.queries = ListUtil.add(queries, (List<T>) null);
         return this;
     }
 
@@ -37,10 +39,8 @@ public abstract class BaseMultiQuery<T> {
      */
     @JsonIgnore
     public BaseMultiQuery<T> addQuery(final T query) {
-        if (this.queries == null) {
-            this.queries = new ArrayList<>();
-        }
-        this.queries.add(query);
+        checkNotFrozen();
+        this.queries = ListUtil.add(query, this.queries);
         return this;
     }
 
@@ -79,6 +79,76 @@ public abstract class BaseMultiQuery<T> {
         return this.queries.get(index);
     }
 
+    /**
+     * Freeze this object and every query that it holds. Methods that would change a frozen object or its list of
+     * queries throw an exception, so it can be shared between threads and between the copies that are made from it.
+     */
+    @Override
+    public void freeze() {
+        if (!this.frozen) {
+            ListUtil.freeze(this.queries);
+            this.frozen = true;  // Set last so that an object that is seen as frozen holds only frozen queries
+        }
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Get a copy of this object that can be changed. The copy shares the list of queries of this one if it is frozen
+     * and holds a copy of it otherwise, and it shares the queries that are frozen and holds copies of the rest, so
+     * queries that are added to either one afterwards do not affect the other.
+     *
+     * @return Copy of this object.
+     */
+    @Override
+    @JsonIgnore
+    @SuppressWarnings("unchecked")
+    public BaseMultiQuery<T> copy() {
+        try {
+            final BaseMultiQuery<T> res = (BaseMultiQuery<T>) super.clone();
+            res.queries = ListUtil.copy(this.queries);
+            res.frozen = false;
+            return res;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);  // Not possible since this class is cloneable
+        }
+    }
+
+    /**
+     * Throw if this object is frozen. Every method that changes this object calls this first.
+     *
+     * @throws IllegalStateException if this object is frozen.
+     */
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("Frozen multi-queries cannot be changed; change a copy instead");
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        final BaseMultiQuery<?> rhs = (BaseMultiQuery<?>) obj;
+        return ListUtil.equalsInOrder(this.queries, rhs.queries);
+    }
+
+    @Override
+    public int hashCode() {
+        return ListUtil.hashCodeInOrder(this.queries);
+    }
+
     /** List of queries that were generated. */
     private List<T> queries;
+
+    /** Whether this object can no longer be changed. */
+    private volatile boolean frozen;
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ public abstract class HasSystemsPaginatedQuery extends PaginatedQuery {
      */
     @JsonSetter("system")
     private void system(final List<SystemQuery> system) {  // Private since only Jackson should use it
+        checkNotFrozen();
         this.system = ListUtil.add(system, this.system);
     }
 
@@ -35,10 +36,27 @@ public abstract class HasSystemsPaginatedQuery extends PaginatedQuery {
      */
     @JsonIgnore
     public HasSystemsPaginatedQuery system(final SystemQuery system) {
+        checkNotFrozen();
         this.system = ListUtil.add(system, this.system);
         return this;
     }
 
+    /**
+     * Replace one of the system queries. This is how a system query of a copy is changed without changing the
+     * original: copy the system query, change the copy, and put it in place of the original one.
+     *
+     * @param index Index of the system query to replace, in the order that the system queries were added.
+     * @param system {@link SystemQuery} to put in its place.
+     * @return This object.
+     * @throws IndexOutOfBoundsException if there is no system query at the index.
+     */
+    @JsonIgnore
+    public HasSystemsPaginatedQuery replaceSystem(final int index, final SystemQuery system) {
+        checkNotFrozen();
+        this.system = ListUtil.replace(index, system, this.system);
+        return this;
+    }
+
     /**
      * Get the system queries.
      *
@@ -59,6 +77,48 @@ public abstract class HasSystemsPaginatedQuery extends PaginatedQuery {
         return ListUtil.hasContent(this.system);
     }
 
+    /**
+     * Get a copy of this query that can be changed. The copy shares the system queries of this one that are frozen and
+     * holds copies of the rest, so values that are set or queries that are added on either one afterwards do not
+     * affect the other. To change a frozen system query of the copy, copy the system query as well and put it in place
+     * with {@link #replaceSystem(int, SystemQuery)}.
+     *
+     * @return Copy of this object.
+     */
+    @Override
+    @JsonIgnore
+    public HasSystemsPaginatedQuery copy() {
+        return (HasSystemsPaginatedQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.system);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.system = ListUtil.copy(this.system);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final HasSystemsPaginatedQuery rhs = (HasSystemsPaginatedQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.system, rhs.system);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.system);
+        return res;
+    }
+
     /** PIF system queries to apply. */
     private List<SystemQuery> system;
-}
\ No newline at end of file
+}
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonSetter;
+import io.citrine.jcc.util.Freezable;
+
+import java.util.Objects;
 
 /**
  * Base class for all queries that support pagination.
@@ -11,7 +14,7 @@ import com.fasterxml.jackson.annotation.JsonSetter;
  * @author Kyle Michel
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public abstract class PaginatedQuery {
+public abstract class PaginatedQuery implements Freezable, Cloneable {
 
     /**
      * Index of the first hit that should be returned. This method is here just to be compatible with the python
@@ -22,6 +25,7 @@ public abstract class PaginatedQuery {
      */
     @JsonSetter("fromIndex")
     public PaginatedQuery fromIndex(final Integer fromIndex) {
+        checkNotFrozen();
         this.fromIndex = fromIndex;
         return this;
     }
@@ -67,6 +71,7 @@ public abstract class PaginatedQuery {
      */
     @JsonSetter("size")
     public PaginatedQuery size(final Integer size) {
+        checkNotFrozen();
         this.size = size;
         return this;
     }
@@ -90,6 +95,7 @@ public abstract class PaginatedQuery {
      */
     @JsonSetter("randomResults")
     public PaginatedQuery randomResults(final Boolean randomResults) {
+        checkNotFrozen();
         this.randomResults = randomResults;
         return this;
     }
@@ -104,6 +110,92 @@ public abstract class PaginatedQuery {
         return this.randomResults;
     }
 
+    /**
+     * Freeze this query and every query that it holds. Methods that would change a frozen query or one of its lists
+     * throw an exception, so it can be shared between threads and between the copies that are made from it.
+     */
+    @Override
+    public void freeze() {
+        if (!this.frozen) {
+            freezeChildren();
+            this.frozen = true;  // Set last so that a query that is seen as frozen holds only frozen queries
+        }
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Get a copy of this query that can be changed. The pagination values are held by value, so a page of a query can
+     * be built by copying it and setting new values on the copy. The copy shares the lists and queries of this one
+     * that are frozen and holds copies of the rest, and this query is not changed by copying it, so a frozen query can
+     * be copied for each page from any number of threads while only allocating the copy itself.
+     *
+     * @return Copy of this object.
+     */
+    @Override
+    @JsonIgnore
+    public PaginatedQuery copy() {
+        try {
+            final PaginatedQuery res = (PaginatedQuery) super.clone();
+            res.copyChildren();
+            res.frozen = false;
+            return res;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);  // Not possible since this class is cloneable
+        }
+    }
+
+    /**
+     * Freeze the lists and queries that this object holds. Subclasses that hold lists or queries override this; this
+     * class only holds values.
+     */
+    protected void freezeChildren() {}
+
+    /**
+     * Replace the lists and queries that this object holds with copies from
+     * {@link io.citrine.jcc.util.ListUtil#copy(java.util.List)}. This is called on a new copy, which still shares
+     * everything with the object that it was copied from. Subclasses that hold lists or queries override this; this
+     * class only holds values.
+     */
+    protected void copyChildren() {}
+
+    /**
+     * Throw if this query is frozen. Every method that changes a query calls this first.
+     *
+     * @throws IllegalStateException if this query is frozen.
+     */
+    protected void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("Frozen queries cannot be changed; change a copy instead");
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        final PaginatedQuery rhs = (PaginatedQuery) obj;
+        return Objects.equals(this.fromIndex, rhs.fromIndex)
+                && Objects.equals(this.size, rhs.size)
+                && Objects.equals(this.randomResults, rhs.randomResults);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = Objects.hashCode(this.fromIndex);
+        res = 31 * res + Objects.hashCode(this.size);
+        res = 31 * res + Objects.hashCode(this.randomResults);
+        return res;
+    }
+
     /** Index of the first hit that should be returned. */
     private Integer fromIndex;
 
@@ -112,4 +204,7 @@ public abstract class PaginatedQuery {
 
     /** Whether to return a random set of records. */
     private Boolean randomResults;
+
+    /** Whether this query can no longer be changed. */
+    private volatile boolean frozen;
 }
\ No newline at end of file
@@ -26,4 +26,10 @@ public class DatasetMultiQuery extends BaseMultiQuery<DatasetQuery> {
         super.addQuery(query);
         return this;
     }
+
+    @Override
+    @JsonIgnore
+    public DatasetMultiQuery copy() {
+        return (DatasetMultiQuery) super.copy();
+    }
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import com.fasterxml.jackson.annotation.JsonSetter;
 import io.citrine.jcc.search.core.query.HasSystemsPaginatedQuery;
 import io.citrine.jcc.search.pif.query.core.SystemQuery;
 
+import java.util.Objects;
+
 /**
  * Class for defining a query against datasets on Citrination.
  *
@@ -48,6 +50,13 @@ public class DatasetQuery extends HasSystemsPaginatedQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public DatasetQuery replaceSystem(final int index, final SystemQuery system) {
+        super.replaceSystem(index, system);
+        return this;
+    }
+
     /**
      * Set whether relevancy should be used in results.
      *
@@ -56,6 +65,7 @@ public class DatasetQuery extends HasSystemsPaginatedQuery {
      */
     @JsonSetter("scoreRelevance")
     public DatasetQuery scoreRelevance(final Boolean scoreRelevance) {
+        checkNotFrozen();
         this.scoreRelevance = scoreRelevance;
         return this;
     }
@@ -78,6 +88,7 @@ public class DatasetQuery extends HasSystemsPaginatedQuery {
      */
     @JsonSetter("countPifs")
     public DatasetQuery setCountPifs(final Boolean countPifs) {
+        checkNotFrozen();
         this.countPifs = countPifs;
         return this;
     }
@@ -92,6 +103,30 @@ public class DatasetQuery extends HasSystemsPaginatedQuery {
         return this.countPifs;
     }
 
+    @Override
+    @JsonIgnore
+    public DatasetQuery copy() {
+        return (DatasetQuery) super.copy();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final DatasetQuery rhs = (DatasetQuery) obj;
+        return Objects.equals(this.scoreRelevance, rhs.scoreRelevance)
+                && Objects.equals(this.countPifs, rhs.countPifs);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + Objects.hashCode(this.scoreRelevance);
+        res = 31 * res + Objects.hashCode(this.countPifs);
+        return res;
+    }
+
     /** Whether to use relevance scoring. */
     private Boolean scoreRelevance;
 
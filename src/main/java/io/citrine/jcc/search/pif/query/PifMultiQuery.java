@@ -26,4 +26,10 @@ public class PifMultiQuery extends BaseMultiQuery<PifQuery> {
         super.addQuery(query);
         return this;
     }
+
+    @Override
+    @JsonIgnore
+    public PifMultiQuery copy() {
+        return (PifMultiQuery) super.copy();
+    }
 }
\ No newline at end of file
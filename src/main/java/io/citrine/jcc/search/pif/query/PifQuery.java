@@ -6,9 +6,11 @@ import com.fasterxml.jackson.annotation.JsonSetter;
 import io.citrine.jcc.search.core.query.HasSystemsPaginatedQuery;
 import io.citrine.jcc.search.pif.query.core.SortExtracted;
 import io.citrine.jcc.search.pif.query.core.SystemQuery;
+import io.citrine.jcc.util.Fingerprint;
 import io.citrine.jcc.util.ListUtil;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Class for defining queries against PIF records on Citrination.
@@ -52,6 +54,13 @@ public class PifQuery extends HasSystemsPaginatedQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public PifQuery replaceSystem(final int index, final SystemQuery system) {
+        super.replaceSystem(index, system);
+        return this;
+    }
+
     /**
      * Whether to return the actual record that was matched. If extractions are being made in the query, then it may
      * not be necessary to actually return the system. Defaults to true.
@@ -61,6 +70,7 @@ public class PifQuery extends HasSystemsPaginatedQuery {
      */
     @JsonSetter("returnSystem")
     public PifQuery returnSystem(final Boolean returnSystem) {
+        checkNotFrozen();
         this.returnSystem = returnSystem;
         return this;
     }
@@ -83,6 +93,7 @@ public class PifQuery extends HasSystemsPaginatedQuery {
      */
     @JsonSetter("addLatex")
     public PifQuery addLatex(final Boolean addLatex) {
+        checkNotFrozen();
         this.addLatex = addLatex;
         return this;
     }
@@ -105,6 +116,7 @@ public class PifQuery extends HasSystemsPaginatedQuery {
      */
     @JsonSetter("scoreRelevance")
     public PifQuery scoreRelevance(final Boolean scoreRelevance) {
+        checkNotFrozen();
         this.scoreRelevance = scoreRelevance;
         return this;
     }
@@ -126,6 +138,7 @@ public class PifQuery extends HasSystemsPaginatedQuery {
      */
     @JsonSetter("sortExtracted")
     private void sortExtracted(final List<SortExtracted> sortExtracted) {  // Private since only Jackson should use it
+        checkNotFrozen();
         this.sortExtracted = ListUtil.add(sortExtracted, this.sortExtracted);
     }
 
@@ -137,6 +150,7 @@ public class PifQuery extends HasSystemsPaginatedQuery {
      */
     @JsonIgnore
     public PifQuery sortExtracted(final SortExtracted sortExtracted) {
+        checkNotFrozen();
         this.sortExtracted = ListUtil.add(sortExtracted, this.sortExtracted);
         return this;
     }
@@ -169,6 +183,7 @@ public class PifQuery extends HasSystemsPaginatedQuery {
      */
     @JsonIgnore
     public PifQuery includeDataset(final Long includeDataset) {
+        checkNotFrozen();
         this.includeDatasets = ListUtil.add(includeDataset, this.includeDatasets);
         return this;
     }
@@ -180,6 +195,7 @@ public class PifQuery extends HasSystemsPaginatedQuery {
      */
     @JsonSetter("includeDatasets")
     private void includeDatasets(final List<Long> includeDatasets) {  // Private since only Jackson should use it
+        checkNotFrozen();
         this.includeDatasets = ListUtil.add(includeDatasets, this.includeDatasets);
     }
 
@@ -211,6 +227,7 @@ public class PifQuery extends HasSystemsPaginatedQuery {
      */
     @JsonIgnore
     public PifQuery excludeDataset(final Long excludeDataset) {
+        checkNotFrozen();
         this.excludeDatasets = ListUtil.add(excludeDataset, this.excludeDatasets);
         return this;
     }
@@ -222,6 +239,7 @@ public class PifQuery extends HasSystemsPaginatedQuery {
      */
     @JsonSetter("excludeDatasets")
     private void excludeDatasets(final List<Long> excludeDatasets) {  // Private since only Jackson should use it
+        checkNotFrozen();
         this.excludeDatasets = ListUtil.add(excludeDatasets, this.excludeDatasets);
     }
 
@@ -245,6 +263,79 @@ public class PifQuery extends HasSystemsPaginatedQuery {
         return ListUtil.hasContent(this.excludeDatasets);
     }
 
+    /**
+     * Get the fingerprint of this query. The fingerprint of a {@link #freeze() frozen} query is computed once and kept,
+     * since neither the query nor any of its sub-queries can change. The fingerprint of any other query is computed
+     * from its current state each time that this is called, so it is never stale, and callers that need it more than
+     * once for the same search should keep the result. Two queries that are {@link #equals(Object) equal} have the
+     * same fingerprint; see {@link Fingerprint} for the rules about which lists are ordered.
+     *
+     * @return {@link Fingerprint} of the canonical form of this query.
+     * @throws java.io.UncheckedIOException if the query cannot be serialized.
+     */
+    @JsonIgnore
+    public Fingerprint fingerprint() {
+        if (!isFrozen()) {
+            return Fingerprint.of(this);
+        }
+        Fingerprint res = this.fingerprint;
+        if (res == null) {
+            res = Fingerprint.of(this);
+            this.fingerprint = res;  // Racing threads compute the same value, so either one can be kept
+        }
+        return res;
+    }
+
+    @Override
+    @JsonIgnore
+    public PifQuery copy() {
+        final PifQuery res = (PifQuery) super.copy();
+        res.fingerprint = null;  // The copy can be changed, so it cannot keep the fingerprint of this query
+        return res;
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.sortExtracted);
+        ListUtil.freeze(this.includeDatasets);
+        ListUtil.freeze(this.excludeDatasets);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.sortExtracted = ListUtil.copy(this.sortExtracted);
+        this.includeDatasets = ListUtil.copy(this.includeDatasets);
+        this.excludeDatasets = ListUtil.copy(this.excludeDatasets);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final PifQuery rhs = (PifQuery) obj;
+        return Objects.equals(this.returnSystem, rhs.returnSystem)
+                && Objects.equals(this.addLatex, rhs.addLatex)
+                && Objects.equals(this.scoreRelevance, rhs.scoreRelevance)
+                && ListUtil.equalsInOrder(this.sortExtracted, rhs.sortExtracted)
+                && ListUtil.equalsIgnoreOrder(this.includeDatasets, rhs.includeDatasets)
+                && ListUtil.equalsIgnoreOrder(this.excludeDatasets, rhs.excludeDatasets);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + Objects.hashCode(this.returnSystem);
+        res = 31 * res + Objects.hashCode(this.addLatex);
+        res = 31 * res + Objects.hashCode(this.scoreRelevance);
+        res = 31 * res + ListUtil.hashCodeInOrder(this.sortExtracted);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.includeDatasets);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.excludeDatasets);
+        return res;
+    }
+
     /** Whether to include the system in the results. */
     private Boolean returnSystem;
 
@@ -262,4 +353,7 @@ public class PifQuery extends HasSystemsPaginatedQuery {
 
     /** List of datasets to exclude. */
     private List<Long> excludeDatasets;
+
+    /** Fingerprint of this query, which is only kept once the query is frozen. */
+    private volatile Fingerprint fingerprint;
 }
\ No newline at end of file
@@ -0,0 +1,409 @@
+package io.citrine.jcc.search.pif.query;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Query that is serialized once and then filled in with different values for each request. A template is compiled
+ * from a {@link PifQuery} in which string values, such as {@link io.citrine.jcc.search.pif.query.core.Filter#min}
+ * or {@link io.citrine.jcc.search.pif.query.chemical.ChemicalFilter#equal}, have been set to placeholders from
+ * {@link #placeholder(String)}. The serialized query is split into pre-encoded byte segments around the placeholders,
+ * so filling in a template only encodes the new values and copies the segments, rather than serializing the whole
+ * query again. The {@link PifQuery#fromIndex(Integer)} and {@link PifQuery#size(Integer)} values are parameters of
+ * every template.
+ *
+ * <pre>
+ * {@code
+ * QueryTemplate template = client.compileTemplate(new PifQuery()
+ *         .system(new SystemQuery()
+ *                 .chemicalFormula(new ChemicalFieldQuery()
+ *                         .filter(new ChemicalFilter().equal(QueryTemplate.placeholder("formula"))))));
+ * PifSearchResult result = client.search(template.bind().set("formula", "Fe2O3").size(10));
+ * }
+ * </pre>
+ *
+ * <p>Searches with a bound template skip the result cache and the sharing of concurrent identical searches. Both are
+ * keyed by the fingerprint of the canonical form of a query, which takes a full query object to compute, and avoiding
+ * that work is the reason to use a template. A key built from the bytes of the binding would not match the same query
+ * sent as a {@link PifQuery}, so repeated bindings that should be cached are better sent as queries.
+ *
+ * <p>Templates are immutable and can be shared between threads. Each {@link Binding} should only be used by a single
+ * thread.
+ *
+ * @author Kyle Michel
+ */
+public class QueryTemplate {
+
+    /**
+     * Get the placeholder for a parameter. The placeholder must be the whole value of a string field.
+     *
+     * @param name Name of the parameter. This can only contain letters, digits, underscores, periods and dashes.
+     * @return String to set as the value of a field that should be filled in when the template is bound.
+     * @throws IllegalArgumentException if the name is not valid.
+     */
+    public static String placeholder(final String name) {
+        if ((name == null) || !NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid placeholder name: " + name);
+        }
+        return PLACEHOLDER_START + name + PLACEHOLDER_END;
+    }
+
+    /**
+     * Compile a query into a template. The query is serialized when this method is called, so later changes to it do
+     * not affect the template. Clients compile templates with
+     * {@link io.citrine.jcc.core.CitrinationClient#compileTemplate(PifQuery)}, which passes the writer that they use
+     * for every other query.
+     *
+     * @param pifQuery {@link PifQuery} with placeholders for the values that change between requests. Its from
+     *                 index and size are used as the defaults for bindings that do not set them.
+     * @param writer {@link ObjectWriter} to serialize the query with.
+     * @return {@link QueryTemplate} for the query.
+     * @throws JsonProcessingException if the query cannot be serialized.
+     * @throws IllegalArgumentException if a placeholder is not the whole value of a field.
+     */
+    public static QueryTemplate compile(final PifQuery pifQuery, final ObjectWriter writer)
+            throws JsonProcessingException {
+        final String serialized = writer.writeValueAsString(pifQuery.copy().fromIndex(null).size(null));
+        final Map<String, Integer> parameters = new HashMap<>();
+        final List<byte[]> segments = new ArrayList<>();
+        final List<Integer> slots = new ArrayList<>();
+        final Matcher matcher = QUOTED_PLACEHOLDER_PATTERN.matcher(serialized);
+        int start = 1;  // Skip the opening brace, which is written before the pagination parameters
+        while (matcher.find()) {
+            segments.add(encodeSegment(serialized.substring(start, matcher.start())));
+            Integer index = parameters.get(matcher.group(1));
+            if (index == null) {
+                index = parameters.size();
+                parameters.put(matcher.group(1), index);
+            }
+            slots.add(index);
+            start = matcher.end();
+        }
+        segments.add(encodeSegment(serialized.substring(start)));
+        return new QueryTemplate(segments, slots, parameters, pifQuery.fromIndex(), pifQuery.size(),
+                serialized.length() <= 2);
+    }
+
+    /**
+     * Start binding values to the parameters of this template.
+     *
+     * @return New {@link Binding} with no values set.
+     */
+    public Binding bind() {
+        return new Binding(this);
+    }
+
+    /**
+     * Get the names of the parameters of this template, not including the from index and size.
+     *
+     * @return Set with the names of the parameters.
+     */
+    public Set<String> getParameterNames() {
+        return this.parameters.keySet();
+    }
+
+    /**
+     * Encode a segment of serialized JSON as UTF-8.
+     *
+     * @param segment String with the segment to encode.
+     * @return Array of bytes with the encoded segment.
+     * @throws IllegalArgumentException if the segment contains a placeholder.
+     */
+    private static byte[] encodeSegment(final String segment) {
+        if (segment.indexOf(PLACEHOLDER_START) >= 0) {
+            throw new IllegalArgumentException("Placeholders must be the whole value of a string field");
+        }
+        return segment.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param segments Encoded segments of the query around each placeholder, after its opening brace.
+     * @param slots Index of the parameter that goes between each pair of segments.
+     * @param parameters Map of parameter names to indices.
+     * @param fromIndex Default from index or a null pointer to not set one.
+     * @param size Default size or a null pointer to not set one.
+     * @param empty True if the query has no fields other than the from index and size.
+     */
+    private QueryTemplate(final List<byte[]> segments, final List<Integer> slots, final Map<String, Integer> parameters,
+            final Integer fromIndex, final Integer size, final boolean empty) {
+        this.segments = segments.toArray(new byte[segments.size()][]);
+        this.slots = new int[slots.size()];
+        for (int i = 0; i < this.slots.length; ++i) {
+            this.slots[i] = slots.get(i);
+        }
+        this.parameters = Collections.unmodifiableMap(parameters);
+        this.fromIndex = fromIndex;
+        this.size = size;
+        this.empty = empty;
+        int length = 0;
+        for (byte[] i : this.segments) {
+            length += i.length;
+        }
+        this.segmentsLength = length;
+    }
+
+    /** Encoded segments of the query around each placeholder, after its opening brace. */
+    private final byte[][] segments;
+
+    /** Index of the parameter that goes between each pair of segments. */
+    private final int[] slots;
+
+    /** Map of parameter names to indices. */
+    private final Map<String, Integer> parameters;
+
+    /** Default from index or a null pointer to not set one. */
+    private final Integer fromIndex;
+
+    /** Default size or a null pointer to not set one. */
+    private final Integer size;
+
+    /** Whether the query has no fields other than the from index and size. */
+    private final boolean empty;
+
+    /** Total number of bytes in all segments. */
+    private final int segmentsLength;
+
+    /** Character that starts a placeholder. This is in a private use area, so it is not escaped in JSON. */
+    private static final char PLACEHOLDER_START = '\uE000';
+
+    /** Character that ends a placeholder. */
+    private static final char PLACEHOLDER_END = '\uE001';
+
+    /** Pattern for valid parameter names. */
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_.\\-]+");
+
+    /** Pattern for a placeholder that is the whole value of a string in serialized JSON. */
+    private static final Pattern QUOTED_PLACEHOLDER_PATTERN = Pattern.compile(
+            "\"" + PLACEHOLDER_START + "(" + NAME_PATTERN.pattern() + ")" + PLACEHOLDER_END + "\"");
+
+    /** Encoded JSON null value. */
+    private static final byte[] NULL_BYTES = "null".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Values for the parameters of a {@link QueryTemplate}.
+     *
+     * @author Kyle Michel
+     */
+    public static class Binding {
+
+        /**
+         * Set the value of a parameter.
+         *
+         * @param name Name of the parameter.
+         * @param value String with the value of the parameter or a null pointer to unset the field.
+         * @return This object.
+         * @throws IllegalArgumentException if the template does not have a parameter with the name.
+         */
+        public Binding set(final String name, final String value) {
+            this.values[getIndex(name)] = (value == null)
+                    ? NULL_BYTES
+                    : quote(JsonStringEncoder.getInstance().quoteAsUTF8(value));
+            return this;
+        }
+
+        /**
+         * Set the value of a parameter to a number. Numeric values of queries, such as the bounds of a filter, are
+         * strings, so the number is written as a string in plain decimal notation rather than, e.g., as 1.0E-7.
+         *
+         * @param name Name of the parameter.
+         * @param value Value of the parameter.
+         * @return This object.
+         * @throws IllegalArgumentException if the template does not have a parameter with the name or the value is
+         *      not finite.
+         */
+        public Binding set(final String name, final double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException("Value of parameter '" + name + "' is not finite: " + value);
+            }
+            return set(name, BigDecimal.valueOf(value).toPlainString());
+        }
+
+        /**
+         * Set the value of a parameter to an integer. The integer is written as a string in the same way as
+         * {@link #set(String, double)}.
+         *
+         * @param name Name of the parameter.
+         * @param value Value of the parameter.
+         * @return This object.
+         * @throws IllegalArgumentException if the template does not have a parameter with the name.
+         */
+        public Binding set(final String name, final long value) {
+            return set(name, Long.toString(value));
+        }
+
+        /**
+         * Set the index of the first hit that should be returned.
+         *
+         * @param fromIndex Index of the first hit or a null pointer to not set it.
+         * @return This object.
+         */
+        public Binding fromIndex(final Integer fromIndex) {
+            this.fromIndex = fromIndex;
+            return this;
+        }
+
+        /**
+         * Get the index of the first hit that should be returned.
+         *
+         * @return Index of the first hit or a null pointer if it is not set.
+         */
+        public Integer fromIndex() {
+            return this.fromIndex;
+        }
+
+        /**
+         * Set the number of hits that should be returned.
+         *
+         * @param size Number of hits or a null pointer to not set it.
+         * @return This object.
+         */
+        public Binding size(final Integer size) {
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * Get the number of hits that should be returned.
+         *
+         * @return Number of hits or a null pointer if it is not set.
+         */
+        public Integer size() {
+            return this.size;
+        }
+
+        /**
+         * Get the serialized query with the values of this binding filled in.
+         *
+         * @return Array of bytes with the query encoded as UTF-8 JSON.
+         * @throws IllegalStateException if a parameter has not been set.
+         */
+        public byte[] toBytes() {
+            final QueryTemplate template = this.template;
+            final byte[] pagination = encodePagination();
+            int length = 1 + pagination.length + template.segmentsLength;
+            for (int i = 0; i < template.slots.length; ++i) {
+                final byte[] value = this.values[template.slots[i]];
+                if (value == null) {
+                    throw new IllegalStateException("Parameter '" + getName(template.slots[i]) + "' has not been set");
+                }
+                length += value.length;
+            }
+            final byte[] res = new byte[length];
+            res[0] = '{';
+            int offset = 1;
+            System.arraycopy(pagination, 0, res, offset, pagination.length);
+            offset += pagination.length;
+            for (int i = 0; i < template.segments.length; ++i) {
+                if (i > 0) {
+                    final byte[] value = this.values[template.slots[i - 1]];
+                    System.arraycopy(value, 0, res, offset, value.length);
+                    offset += value.length;
+                }
+                System.arraycopy(template.segments[i], 0, res, offset, template.segments[i].length);
+                offset += template.segments[i].length;
+            }
+            return res;
+        }
+
+        /**
+         * Encode the from index and size fields, each followed by a comma unless it is the last field of the query.
+         *
+         * @return Array of bytes with the encoded fields.
+         */
+        private byte[] encodePagination() {
+            final StringBuilder res = new StringBuilder();
+            if (this.fromIndex != null) {
+                res.append("\"fromIndex\":").append(this.fromIndex).append(',');
+            }
+            if (this.size != null) {
+                res.append("\"size\":").append(this.size).append(',');
+            }
+            if (this.template.empty && (res.length() > 0)) {
+                res.setLength(res.length() - 1);
+            }
+            return res.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Get the index of a parameter.
+         *
+         * @param name Name of the parameter.
+         * @return Index of the parameter.
+         * @throws IllegalArgumentException if the template does not have a parameter with the name.
+         */
+        private int getIndex(final String name) {
+            final Integer res = this.template.parameters.get(name);
+            if (res == null) {
+                throw new IllegalArgumentException("Template does not have a parameter named '" + name + "'");
+            }
+            return res;
+        }
+
+        /**
+         * Get the name of a parameter.
+         *
+         * @param index Index of the parameter.
+         * @return Name of the parameter.
+         */
+        private String getName(final int index) {
+            for (Map.Entry<String, Integer> i : this.template.parameters.entrySet()) {
+                if (i.getValue() == index) {
+                    return i.getKey();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Wrap an encoded string value in quotes.
+         *
+         * @param value Array of bytes with the escaped value.
+         * @return Array of bytes with the quoted value.
+         */
+        private static byte[] quote(final byte[] value) {
+            final byte[] res = new byte[value.length + 2];
+            res[0] = '"';
+            System.arraycopy(value, 0, res, 1, value.length);
+            res[res.length - 1] = '"';
+            return res;
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param template {@link QueryTemplate} to bind values to.
+         */
+        private Binding(final QueryTemplate template) {
+            this.template = template;
+            this.values = new byte[template.parameters.size()][];
+            this.fromIndex = template.fromIndex;
+            this.size = template.size;
+        }
+
+        /** Template to bind values to. */
+        private final QueryTemplate template;
+
+        /** Encoded value of each parameter by index or a null pointer if it has not been set. */
+        private final byte[][] values;
+
+        /** Index of the first hit that should be returned. */
+        private Integer fromIndex;
+
+        /** Number of hits that should be returned. */
+        private Integer size;
+    }
+}
@@ -20,6 +20,13 @@ public class ChemicalFieldOperation extends ChemicalFieldQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public ChemicalFieldOperation replaceFilter(final int index, final ChemicalFilter filter) {
+        super.replaceFilter(index, filter);
+        return this;
+    }
+
     @Override
     public ChemicalFieldOperation extractAs(final String extractAs) {
         super.extractAs(extractAs);
@@ -79,4 +86,10 @@ public class ChemicalFieldOperation extends ChemicalFieldQuery {
         super.offset(filter);
         return this;
     }
+
+    @Override
+    @JsonIgnore
+    public ChemicalFieldOperation copy() {
+        return (ChemicalFieldOperation) super.copy();
+    }
 }
\ No newline at end of file
@@ -43,16 +43,26 @@ public class ChemicalFieldQuery extends BaseFieldQuery implements HasChemicalFil
      */
     @JsonSetter("filter")
     private void filter(final List<ChemicalFilter> filter) {  // Private since only Jackson should use it
+        checkNotFrozen();
         this.filter = ListUtil.add(filter, this.filter);
     }
 
     @Override
     @JsonIgnore
     public ChemicalFieldQuery filter(final ChemicalFilter filter) {
+        checkNotFrozen();
         this.filter = ListUtil.add(filter, this.filter);
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public ChemicalFieldQuery replaceFilter(final int index, final ChemicalFilter filter) {
+        checkNotFrozen();
+        this.filter = ListUtil.replace(index, filter, this.filter);
+        return this;
+    }
+
     @Override
     @JsonGetter("filter")
     public Iterable<ChemicalFilter> filter() {
@@ -128,6 +138,40 @@ public class ChemicalFieldQuery extends BaseFieldQuery implements HasChemicalFil
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public ChemicalFieldQuery copy() {
+        return (ChemicalFieldQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.filter);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.filter = ListUtil.copy(this.filter);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final ChemicalFieldQuery rhs = (ChemicalFieldQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.filter, rhs.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.filter);
+        return res;
+    }
+
     /** List of filters. */
     private List<ChemicalFilter> filter;
 }
\ No newline at end of file
@@ -5,20 +5,23 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import io.citrine.jcc.search.core.query.HasLogic;
 import io.citrine.jcc.search.core.query.Logic;
+import io.citrine.jcc.util.Freezable;
 import io.citrine.jcc.util.ListUtil;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Filter that can be applied to any object.
  * 
  * @author Kyle Michel
  */
-public class ChemicalFilter implements HasLogic, HasChemicalFilter {
+public class ChemicalFilter implements HasLogic, HasChemicalFilter, Freezable, Cloneable {
 
     @Override
     @JsonSetter("logic")
     public ChemicalFilter logic(final Logic logic) {
+        checkNotFrozen();
         this.logic = logic;
         return this;
     }
@@ -37,6 +40,7 @@ public class ChemicalFilter implements HasLogic, HasChemicalFilter {
      */
     @JsonSetter("exists")
     public ChemicalFilter exists(final Boolean exists) {
+        checkNotFrozen();
         this.exists = exists;
         return this;
     }
@@ -59,6 +63,7 @@ public class ChemicalFilter implements HasLogic, HasChemicalFilter {
      */
     @JsonSetter("equal")
     public ChemicalFilter equal(final String equal) {
+        checkNotFrozen();
         this.equal = equal;
         return this;
     }
@@ -81,6 +86,7 @@ public class ChemicalFilter implements HasLogic, HasChemicalFilter {
      */
     @JsonSetter("element")
     public ChemicalFilter element(final Boolean element) {
+        checkNotFrozen();
         this.element = element;
         return this;
     }
@@ -103,6 +109,7 @@ public class ChemicalFilter implements HasLogic, HasChemicalFilter {
      */
     @JsonSetter("partial")
     public ChemicalFilter partial(final Boolean partial) {
+        checkNotFrozen();
         this.partial = partial;
         return this;
     }
@@ -125,6 +132,7 @@ public class ChemicalFilter implements HasLogic, HasChemicalFilter {
      */
     @JsonSetter("exact")
     public ChemicalFilter exact(final Boolean exact) {
+        checkNotFrozen();
         this.exact = exact;
         return this;
     }
@@ -146,16 +154,26 @@ public class ChemicalFilter implements HasLogic, HasChemicalFilter {
      */
     @JsonSetter("filter")
     private void filter(final List<ChemicalFilter> filter) {
+        checkNotFrozen();
         this.filter = ListUtil.add(filter, this.filter);
     }
 
     @Override
     @JsonIgnore
     public ChemicalFilter filter(final ChemicalFilter filter) {
+        checkNotFrozen();
         this.filter = ListUtil.add(filter, this.filter);
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public ChemicalFilter replaceFilter(final int index, final ChemicalFilter filter) {
+        checkNotFrozen();
+        this.filter = ListUtil.replace(index, filter, this.filter);
+        return this;
+    }
+
     @Override
     @JsonGetter("filter")
     public Iterable<ChemicalFilter> filter() {
@@ -168,6 +186,102 @@ public class ChemicalFilter implements HasLogic, HasChemicalFilter {
         return ListUtil.hasContent(this.filter);
     }
 
+    /**
+     * Freeze this filter and every filter that is nested in it. Methods that would change a frozen filter or its list
+     * of nested filters throw an exception, so it can be shared between threads and between the copies that are made
+     * from it.
+     */
+    @Override
+    public void freeze() {
+        if (!this.frozen) {
+            freezeChildren();
+            this.frozen = true;  // Set last so that a filter that is seen as frozen holds only frozen filters
+        }
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Get a copy of this filter that can be changed. The copy shares the nested filters of this one that are frozen and
+     * holds copies of the rest, so values that are set or filters that are added on either one afterwards do not affect
+     * the other, and this filter is not changed by copying it. To change a frozen nested filter of the copy, copy the
+     * nested filter as well and put it in place with {@link #replaceFilter(int, ChemicalFilter)}.
+     *
+     * @return Copy of this object.
+     */
+    @Override
+    @JsonIgnore
+    public ChemicalFilter copy() {
+        try {
+            final ChemicalFilter res = (ChemicalFilter) super.clone();
+            res.copyChildren();
+            res.frozen = false;
+            return res;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);  // Not possible since this class is cloneable
+        }
+    }
+
+    /**
+     * Freeze the nested filters of this object.
+     */
+    private void freezeChildren() {
+        ListUtil.freeze(this.filter);
+    }
+
+    /**
+     * Replace the nested filters of this object with copies from {@link ListUtil#copy(List)}. This is called on a new
+     * copy, which still shares everything with the object that it was copied from.
+     */
+    private void copyChildren() {
+        this.filter = ListUtil.copy(this.filter);
+    }
+
+    /**
+     * Throw if this filter is frozen. Every method that changes a filter calls this first.
+     *
+     * @throws IllegalStateException if this filter is frozen.
+     */
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("Frozen filters cannot be changed; change a copy instead");
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        final ChemicalFilter rhs = (ChemicalFilter) obj;
+        return Objects.equals(this.logic, rhs.logic)
+                && Objects.equals(this.exists, rhs.exists)
+                && Objects.equals(this.equal, rhs.equal)
+                && Objects.equals(this.element, rhs.element)
+                && Objects.equals(this.partial, rhs.partial)
+                && Objects.equals(this.exact, rhs.exact)
+                && ListUtil.equalsIgnoreOrder(this.filter, rhs.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = Objects.hashCode(this.logic);
+        res = 31 * res + Objects.hashCode(this.exists);
+        res = 31 * res + Objects.hashCode(this.equal);
+        res = 31 * res + Objects.hashCode(this.element);
+        res = 31 * res + Objects.hashCode(this.partial);
+        res = 31 * res + Objects.hashCode(this.exact);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.filter);
+        return res;
+    }
+
     /** Logic for applying the filters. */
     private Logic logic;
 
@@ -188,4 +302,7 @@ public class ChemicalFilter implements HasLogic, HasChemicalFilter {
 
     /** List of sub-filters. */
     private List<ChemicalFilter> filter;
-}
\ No newline at end of file
+
+    /** Whether this filter can no longer be changed. */
+    private volatile boolean frozen;
+}
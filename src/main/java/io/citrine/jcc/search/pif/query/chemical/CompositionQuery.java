@@ -25,6 +25,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonSetter("element")
     private void element(final List<ChemicalFieldQuery> element) {
+        checkNotFrozen();
         this.element = ListUtil.add(element, this.element);
     }
 
@@ -36,6 +37,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery element(final ChemicalFieldQuery fieldQuery) {
+        checkNotFrozen();
         this.element = ListUtil.add(fieldQuery, this.element);
         return this;
     }
@@ -48,6 +50,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery element(final String extractAs) {
+        checkNotFrozen();
         this.element = ListUtil.add(new ChemicalFieldQuery().extractAs(extractAs), this.element);
         return this;
     }
@@ -60,6 +63,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery element(final ChemicalFilter filter) {
+        checkNotFrozen();
         this.element = ListUtil.add(new ChemicalFieldQuery().filter(filter), this.element);
         return this;
     }
@@ -91,6 +95,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonSetter("actualWeightPercent")
     private void actualWeightPercent(final List<FieldQuery> actualWeightPercent) {
+        checkNotFrozen();
         this.actualWeightPercent = ListUtil.add(actualWeightPercent, this.actualWeightPercent);
     }
 
@@ -102,7 +107,8 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery actualWeightPercent(final FieldQuery fieldQuery) {
-        this.actualWeightPercent = ListUtil.add(fieldQuery, this.actualAtomicPercent);
+        checkNotFrozen();
+        this.actualWeightPercent = ListUtil.add(fieldQuery, this.actualWeightPercent);
         return this;
     }
 
@@ -114,7 +120,8 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery actualWeightPercent(final String extractAs) {
-        this.actualWeightPercent = ListUtil.add(new FieldQuery().extractAs(extractAs), this.actualWeightPercent);
+        this.actualWeightPercent =
+                ListUtil.add(new FieldQuery().extractAs(extractAs), this.actualWeightPercent);
         return this;
     }
 
@@ -158,6 +165,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonSetter("actualAtomicPercent")
     private void actualAtomicPercent(final List<FieldQuery> actualAtomicPercent) {
+        checkNotFrozen();
         this.actualAtomicPercent = ListUtil.add(actualAtomicPercent, this.actualAtomicPercent);
     }
 
@@ -169,6 +177,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery actualAtomicPercent(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.actualAtomicPercent = ListUtil.add(fieldQuery, this.actualAtomicPercent);
         return this;
     }
@@ -181,7 +190,8 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery actualAtomicPercent(final String extractAs) {
-        this.actualAtomicPercent = ListUtil.add(new FieldQuery().extractAs(extractAs), this.actualAtomicPercent);
+        this.actualAtomicPercent =
+                ListUtil.add(new FieldQuery().extractAs(extractAs), this.actualAtomicPercent);
         return this;
     }
 
@@ -193,6 +203,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery actualAtomicPercent(final Filter filter) {
+        checkNotFrozen();
         this.actualAtomicPercent = ListUtil.add(new FieldQuery().filter(filter), this.actualAtomicPercent);
         return this;
     }
@@ -224,6 +235,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonSetter("idealWeightPercent")
     private void idealWeightPercent(final List<FieldQuery> idealWeightPercent) {
+        checkNotFrozen();
         this.idealWeightPercent = ListUtil.add(idealWeightPercent, this.idealWeightPercent);
     }
 
@@ -235,6 +247,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery idealWeightPercent(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.idealWeightPercent = ListUtil.add(fieldQuery, this.idealWeightPercent);
         return this;
     }
@@ -247,7 +260,8 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery idealWeightPercent(final String extractAs) {
-        this.idealWeightPercent = ListUtil.add(new FieldQuery().extractAs(extractAs), this.idealWeightPercent);
+        this.idealWeightPercent =
+                ListUtil.add(new FieldQuery().extractAs(extractAs), this.idealWeightPercent);
         return this;
     }
 
@@ -291,6 +305,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonSetter("idealAtomicPercent")
     private void idealAtomicPercent(final List<FieldQuery> idealAtomicPercent) {
+        checkNotFrozen();
         this.idealAtomicPercent = ListUtil.add(idealAtomicPercent, this.idealAtomicPercent);
     }
 
@@ -302,6 +317,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery idealAtomicPercent(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.idealAtomicPercent = ListUtil.add(fieldQuery, this.idealAtomicPercent);
         return this;
     }
@@ -314,7 +330,8 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery idealAtomicPercent(final String extractAs) {
-        this.idealAtomicPercent = ListUtil.add(new FieldQuery().extractAs(extractAs), this.idealAtomicPercent);
+        this.idealAtomicPercent =
+                ListUtil.add(new FieldQuery().extractAs(extractAs), this.idealAtomicPercent);
         return this;
     }
 
@@ -326,6 +343,7 @@ public class CompositionQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public CompositionQuery idealAtomicPercent(final Filter filter) {
+        checkNotFrozen();
         this.idealAtomicPercent = ListUtil.add(new FieldQuery().filter(filter), this.idealAtomicPercent);
         return this;
     }
@@ -441,6 +459,56 @@ public class CompositionQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public CompositionQuery copy() {
+        return (CompositionQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.element);
+        ListUtil.freeze(this.actualWeightPercent);
+        ListUtil.freeze(this.actualAtomicPercent);
+        ListUtil.freeze(this.idealWeightPercent);
+        ListUtil.freeze(this.idealAtomicPercent);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.element = ListUtil.copy(this.element);
+        this.actualWeightPercent = ListUtil.copy(this.actualWeightPercent);
+        this.actualAtomicPercent = ListUtil.copy(this.actualAtomicPercent);
+        this.idealWeightPercent = ListUtil.copy(this.idealWeightPercent);
+        this.idealAtomicPercent = ListUtil.copy(this.idealAtomicPercent);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final CompositionQuery rhs = (CompositionQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.element, rhs.element)
+                && ListUtil.equalsIgnoreOrder(this.actualWeightPercent, rhs.actualWeightPercent)
+                && ListUtil.equalsIgnoreOrder(this.actualAtomicPercent, rhs.actualAtomicPercent)
+                && ListUtil.equalsIgnoreOrder(this.idealWeightPercent, rhs.idealWeightPercent)
+                && ListUtil.equalsIgnoreOrder(this.idealAtomicPercent, rhs.idealAtomicPercent);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.element);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.actualWeightPercent);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.actualAtomicPercent);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.idealWeightPercent);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.idealAtomicPercent);
+        return res;
+    }
+
     /** Element for the composition. */
     private List<ChemicalFieldQuery> element;
 
@@ -71,4 +71,10 @@ public abstract class BaseFieldOperation extends BaseFieldQuery {
         super.offset(filter);
         return this;
     }
+
+    @Override
+    @JsonIgnore
+    public BaseFieldOperation copy() {
+        return (BaseFieldOperation) super.copy();
+    }
 }
\ No newline at end of file
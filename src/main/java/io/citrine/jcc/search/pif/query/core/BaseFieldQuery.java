@@ -5,9 +5,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import io.citrine.jcc.search.core.query.HasLogic;
 import io.citrine.jcc.search.core.query.Logic;
+import io.citrine.jcc.util.Freezable;
 import io.citrine.jcc.util.ListUtil;
 
 import java.util.List;
+import java.util.Objects;
 
 
 /**
@@ -15,11 +17,12 @@ import java.util.List;
  *
  * @author Kyle Michel
  */
-public abstract class BaseFieldQuery implements HasLogic {
+public abstract class BaseFieldQuery implements HasLogic, Freezable, Cloneable {
 
     @Override
     @JsonSetter("logic")
     public BaseFieldQuery logic(final Logic logic) {
+        checkNotFrozen();
         this.logic = logic;
         return this;
     }
@@ -38,6 +41,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonSetter("extractAs")
     public BaseFieldQuery extractAs(final String extractAs) {
+        checkNotFrozen();
         this.extractAs = extractAs;
         return this;
     }
@@ -60,6 +64,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonSetter("extractAll")
     public BaseFieldQuery extractAll(final Boolean extractAll) {
+        checkNotFrozen();
         this.extractAll = extractAll;
         return this;
     }
@@ -83,6 +88,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonSetter("extractWhenMissing")
     public BaseFieldQuery extractWhenMissing(final Object extractWhenMissing) {
+        checkNotFrozen();
         this.extractWhenMissing = extractWhenMissing;
         return this;
     }
@@ -105,6 +111,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonSetter("floatTopFilters")
     private void floatTopFilters(final Boolean floatTopFilters) {  // Private since only Jackson should use it
+        checkNotFrozen();
         this.floatTopFilters = floatTopFilters;
     }
 
@@ -125,6 +132,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonSetter("length")
     private void length(final List<FieldQuery> length) {  // Private since only Jackson should use it
+        checkNotFrozen();
         this.length = ListUtil.add(length, this.length);
     }
 
@@ -136,6 +144,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseFieldQuery length(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.length = ListUtil.add(fieldQuery, this.length);
         return this;
     }
@@ -148,6 +157,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseFieldQuery length(final String extractAs) {
+        checkNotFrozen();
         this.length = ListUtil.add(new FieldQuery().extractAs(extractAs), this.length);
         return this;
     }
@@ -160,6 +170,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseFieldQuery length(final Filter filter) {
+        checkNotFrozen();
         this.length = ListUtil.add(new FieldQuery().filter(filter), this.length);
         return this;
     }
@@ -191,6 +202,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonSetter("offset")
     private void offset(final List<FieldQuery> offset) {  // Private since only Jackson should use it
+        checkNotFrozen();
         this.offset = ListUtil.add(offset, this.offset);
     }
 
@@ -202,6 +214,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseFieldQuery offset(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.offset = ListUtil.add(fieldQuery, this.offset);
         return this;
     }
@@ -214,6 +227,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseFieldQuery offset(final String extractAs) {
+        checkNotFrozen();
         this.offset = ListUtil.add(new FieldQuery().extractAs(extractAs), this.offset);
         return this;
     }
@@ -226,6 +240,7 @@ public abstract class BaseFieldQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseFieldQuery offset(final Filter filter) {
+        checkNotFrozen();
         this.offset = ListUtil.add(new FieldQuery().filter(filter), this.offset);
         return this;
     }
@@ -250,6 +265,104 @@ public abstract class BaseFieldQuery implements HasLogic {
         return ListUtil.hasContent(this.offset);
     }
 
+    /**
+     * Freeze this query and every query that it holds. Methods that would change a frozen query or one of its lists
+     * throw an exception, so it can be shared between threads and between the copies that are made from it.
+     */
+    @Override
+    public void freeze() {
+        if (!this.frozen) {
+            freezeChildren();
+            this.frozen = true;  // Set last so that a query that is seen as frozen holds only frozen queries
+        }
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Get a copy of this field query that can be changed. The copy shares the lists, filters and queries of this one
+     * that are frozen and holds copies of the rest, so values that are set or queries that are added on either one
+     * afterwards do not affect the other, and this query is not changed by copying it.
+     *
+     * @return Copy of this object.
+     */
+    @Override
+    @JsonIgnore
+    public BaseFieldQuery copy() {
+        try {
+            final BaseFieldQuery res = (BaseFieldQuery) super.clone();
+            res.copyChildren();
+            res.frozen = false;
+            return res;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);  // Not possible since this class is cloneable
+        }
+    }
+
+    /**
+     * Freeze the lists and queries that this object holds. Subclasses that hold lists or queries override this to
+     * include them.
+     */
+    protected void freezeChildren() {
+        ListUtil.freeze(this.length);
+        ListUtil.freeze(this.offset);
+    }
+
+    /**
+     * Replace the lists and queries that this object holds with copies from {@link ListUtil#copy(List)}. This is
+     * called on a new copy, which still shares everything with the object that it was copied from. Subclasses that
+     * hold lists or queries override this to include them.
+     */
+    protected void copyChildren() {
+        this.length = ListUtil.copy(this.length);
+        this.offset = ListUtil.copy(this.offset);
+    }
+
+    /**
+     * Throw if this query is frozen. Every method that changes a query calls this first.
+     *
+     * @throws IllegalStateException if this query is frozen.
+     */
+    protected void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("Frozen queries cannot be changed; change a copy instead");
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        final BaseFieldQuery rhs = (BaseFieldQuery) obj;
+        return Objects.equals(this.logic, rhs.logic)
+                && Objects.equals(this.extractAs, rhs.extractAs)
+                && Objects.equals(this.extractAll, rhs.extractAll)
+                && Objects.equals(this.extractWhenMissing, rhs.extractWhenMissing)
+                && Objects.equals(this.floatTopFilters, rhs.floatTopFilters)
+                && ListUtil.equalsIgnoreOrder(this.length, rhs.length)
+                && ListUtil.equalsIgnoreOrder(this.offset, rhs.offset);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = Objects.hashCode(this.logic);
+        res = 31 * res + Objects.hashCode(this.extractAs);
+        res = 31 * res + Objects.hashCode(this.extractAll);
+        res = 31 * res + Objects.hashCode(this.extractWhenMissing);
+        res = 31 * res + Objects.hashCode(this.floatTopFilters);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.length);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.offset);
+        return res;
+    }
+
     /** Logic that applies to the entire query. */
     private Logic logic;
 
@@ -270,4 +383,7 @@ public abstract class BaseFieldQuery implements HasLogic {
 
     /** Offset of this object in the array that it appears in. */
     private List<FieldQuery> offset;
-}
\ No newline at end of file
+
+    /** Whether this query can no longer be changed. */
+    private volatile boolean frozen;
+}
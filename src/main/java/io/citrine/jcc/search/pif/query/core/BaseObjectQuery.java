@@ -5,20 +5,23 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import io.citrine.jcc.search.core.query.HasLogic;
 import io.citrine.jcc.search.core.query.Logic;
+import io.citrine.jcc.util.Freezable;
 import io.citrine.jcc.util.ListUtil;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Base class for all PIF object queries.
  * 
  * @author Kyle Michel
  */
-public abstract class BaseObjectQuery implements HasLogic {
+public abstract class BaseObjectQuery implements HasLogic, Freezable, Cloneable {
 
     @Override
     @JsonSetter("logic")
     public BaseObjectQuery logic(final Logic logic) {
+        checkNotFrozen();
         this.logic = logic;
         return this;
     }
@@ -37,6 +40,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonSetter("extractAs")
     public BaseObjectQuery extractAs(final String extractAs) {
+        checkNotFrozen();
         this.extractAs = extractAs;
         return this;
     }
@@ -59,6 +63,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonSetter("extractAll")
     public BaseObjectQuery extractAll(final Boolean extractAll) {
+        checkNotFrozen();
         this.extractAll = extractAll;
         return this;
     }
@@ -82,6 +87,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonSetter("extractWhenMissing")
     public BaseObjectQuery extractWhenMissing(final Object extractWhenMissing) {
+        checkNotFrozen();
         this.extractWhenMissing = extractWhenMissing;
         return this;
     }
@@ -103,6 +109,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonSetter("tags")
     private void tags(final List<FieldQuery> tags) {
+        checkNotFrozen();
         this.tags = ListUtil.add(tags, this.tags);
     }
 
@@ -114,6 +121,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseObjectQuery tags(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.tags = ListUtil.add(fieldQuery, this.tags);
         return this;
     }
@@ -126,6 +134,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseObjectQuery tags(final String extractAs) {
+        checkNotFrozen();
         this.tags = ListUtil.add(new FieldQuery().extractAs(extractAs), this.tags);
         return this;
     }
@@ -138,6 +147,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseObjectQuery tags(final Filter filter) {
+        checkNotFrozen();
         this.tags = ListUtil.add(new FieldQuery().filter(filter), this.tags);
         return this;
     }
@@ -169,6 +179,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonSetter("length")
     private void length(final List<FieldQuery> length) {
+        checkNotFrozen();
         this.length = ListUtil.add(length, this.length);
     }
 
@@ -180,6 +191,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseObjectQuery length(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.length = ListUtil.add(fieldQuery, this.length);
         return this;
     }
@@ -192,6 +204,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseObjectQuery length(final String extractAs) {
+        checkNotFrozen();
         this.length = ListUtil.add(new FieldQuery().extractAs(extractAs), this.length);
         return this;
     }
@@ -204,6 +217,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseObjectQuery length(final Filter filter) {
+        checkNotFrozen();
         this.length = ListUtil.add(new FieldQuery().filter(filter), this.length);
         return this;
     }
@@ -235,6 +249,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonSetter("offset")
     private void offset(final List<FieldQuery> offset) {
+        checkNotFrozen();
         this.offset = ListUtil.add(offset, this.offset);
     }
 
@@ -246,6 +261,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseObjectQuery offset(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.offset = ListUtil.add(fieldQuery, this.offset);
         return this;
     }
@@ -258,6 +274,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseObjectQuery offset(final String extractAs) {
+        checkNotFrozen();
         this.offset = ListUtil.add(new FieldQuery().extractAs(extractAs), this.offset);
         return this;
     }
@@ -270,6 +287,7 @@ public abstract class BaseObjectQuery implements HasLogic {
      */
     @JsonIgnore
     public BaseObjectQuery offset(final Filter filter) {
+        checkNotFrozen();
         this.offset = ListUtil.add(new FieldQuery().filter(filter), this.offset);
         return this;
     }
@@ -294,6 +312,107 @@ public abstract class BaseObjectQuery implements HasLogic {
         return ListUtil.hasContent(this.offset);
     }
 
+    /**
+     * Freeze this query and every query that it holds. Methods that would change a frozen query or one of its lists
+     * throw an exception, so it can be shared between threads and between the copies that are made from it.
+     */
+    @Override
+    public void freeze() {
+        if (!this.frozen) {
+            freezeChildren();
+            this.frozen = true;  // Set last so that a query that is seen as frozen holds only frozen queries
+        }
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Get a copy of this object query that can be changed. The copy shares the lists and queries of this one that are
+     * frozen and holds copies of the rest, so values that are set or queries that are added on either one afterwards do
+     * not affect the other, and this query is not changed by copying it. To change a frozen query that the copy holds,
+     * copy that query as well and put the copy in its place.
+     *
+     * @return Copy of this object.
+     */
+    @Override
+    @JsonIgnore
+    public BaseObjectQuery copy() {
+        try {
+            final BaseObjectQuery res = (BaseObjectQuery) super.clone();
+            res.copyChildren();
+            res.frozen = false;
+            return res;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);  // Not possible since this class is cloneable
+        }
+    }
+
+    /**
+     * Freeze the lists and queries that this object holds. Subclasses that hold lists or queries override this to
+     * include them.
+     */
+    protected void freezeChildren() {
+        ListUtil.freeze(this.tags);
+        ListUtil.freeze(this.length);
+        ListUtil.freeze(this.offset);
+    }
+
+    /**
+     * Replace the lists and queries that this object holds with copies from {@link ListUtil#copy(List)}. This is
+     * called on a new copy, which still shares everything with the object that it was copied from. Subclasses that
+     * hold lists or queries override this to include them.
+     */
+    protected void copyChildren() {
+        this.tags = ListUtil.copy(this.tags);
+        this.length = ListUtil.copy(this.length);
+        this.offset = ListUtil.copy(this.offset);
+    }
+
+    /**
+     * Throw if this query is frozen. Every method that changes a query calls this first.
+     *
+     * @throws IllegalStateException if this query is frozen.
+     */
+    protected void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("Frozen queries cannot be changed; change a copy instead");
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        final BaseObjectQuery rhs = (BaseObjectQuery) obj;
+        return Objects.equals(this.logic, rhs.logic)
+                && Objects.equals(this.extractAs, rhs.extractAs)
+                && Objects.equals(this.extractAll, rhs.extractAll)
+                && Objects.equals(this.extractWhenMissing, rhs.extractWhenMissing)
+                && ListUtil.equalsIgnoreOrder(this.tags, rhs.tags)
+                && ListUtil.equalsIgnoreOrder(this.length, rhs.length)
+                && ListUtil.equalsIgnoreOrder(this.offset, rhs.offset);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = Objects.hashCode(this.logic);
+        res = 31 * res + Objects.hashCode(this.extractAs);
+        res = 31 * res + Objects.hashCode(this.extractAll);
+        res = 31 * res + Objects.hashCode(this.extractWhenMissing);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.tags);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.length);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.offset);
+        return res;
+    }
+
     /** Logic that applies to the entire query. */
     private Logic logic;
 
@@ -314,4 +433,7 @@ public abstract class BaseObjectQuery implements HasLogic {
 
     /** Offset for this object in the array that it appears in. */
     private List<FieldQuery> offset;
-}
\ No newline at end of file
+
+    /** Whether this query can no longer be changed. */
+    private volatile boolean frozen;
+}
@@ -50,6 +50,7 @@ public class ClassificationQuery extends BaseObjectQuery {
      */
     @JsonSetter("name")
     private void name(final List<FieldQuery> name) {
+        checkNotFrozen();
         this.name = ListUtil.add(name, this.name);
     }
 
@@ -61,6 +62,7 @@ public class ClassificationQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ClassificationQuery name(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.name = ListUtil.add(fieldQuery, this.name);
         return this;
     }
@@ -73,6 +75,7 @@ public class ClassificationQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ClassificationQuery name(final String extractAs) {
+        checkNotFrozen();
         this.name = ListUtil.add(new FieldQuery().extractAs(extractAs), this.name);
         return this;
     }
@@ -85,6 +88,7 @@ public class ClassificationQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ClassificationQuery name(final Filter filter) {
+        checkNotFrozen();
         this.name = ListUtil.add(new FieldQuery().filter(filter), this.name);
         return this;
     }
@@ -116,6 +120,7 @@ public class ClassificationQuery extends BaseObjectQuery {
      */
     @JsonSetter("value")
     private void value(final List<FieldQuery> value) {
+        checkNotFrozen();
         this.value = ListUtil.add(value, this.value);
     }
 
@@ -127,6 +132,7 @@ public class ClassificationQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ClassificationQuery value(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.value = ListUtil.add(fieldQuery, this.value);
         return this;
     }
@@ -139,6 +145,7 @@ public class ClassificationQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ClassificationQuery value(final String extractAs) {
+        checkNotFrozen();
         this.value = ListUtil.add(new FieldQuery().extractAs(extractAs), this.value);
         return this;
     }
@@ -151,6 +158,7 @@ public class ClassificationQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ClassificationQuery value(final Filter filter) {
+        checkNotFrozen();
         this.value = ListUtil.add(new FieldQuery().filter(filter), this.value);
         return this;
     }
@@ -238,6 +246,44 @@ public class ClassificationQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public ClassificationQuery copy() {
+        return (ClassificationQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.name);
+        ListUtil.freeze(this.value);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.name = ListUtil.copy(this.name);
+        this.value = ListUtil.copy(this.value);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final ClassificationQuery rhs = (ClassificationQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.name, rhs.name)
+                && ListUtil.equalsIgnoreOrder(this.value, rhs.value);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.name);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.value);
+        return res;
+    }
+
     /** Name of the classification. */
     private List<FieldQuery> name;
 
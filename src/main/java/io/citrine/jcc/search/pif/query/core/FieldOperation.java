@@ -18,6 +18,13 @@ public class FieldOperation extends FieldQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public FieldOperation replaceFilter(final int index, final Filter filter) {
+        super.replaceFilter(index, filter);
+        return this;
+    }
+
     @Override
     public FieldOperation extractAs(final String extractAs) {
         super.extractAs(extractAs);
@@ -77,4 +84,10 @@ public class FieldOperation extends FieldQuery {
         super.offset(filter);
         return this;
     }
+
+    @Override
+    @JsonIgnore
+    public FieldOperation copy() {
+        return (FieldOperation) super.copy();
+    }
 }
\ No newline at end of file
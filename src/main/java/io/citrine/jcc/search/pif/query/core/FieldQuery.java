@@ -39,16 +39,26 @@ public class FieldQuery extends BaseFieldQuery implements HasFilter {
      */
     @JsonSetter("filter")
     private void filter(final List<Filter> filter) {
+        checkNotFrozen();
         this.filter = ListUtil.add(filter, this.filter);
     }
 
     @Override
     @JsonIgnore
     public FieldQuery filter(final Filter filter) {
+        checkNotFrozen();
         this.filter = ListUtil.add(filter, this.filter);
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public FieldQuery replaceFilter(final int index, final Filter filter) {
+        checkNotFrozen();
+        this.filter = ListUtil.replace(index, filter, this.filter);
+        return this;
+    }
+
     @Override
     @JsonGetter("filter")
     public Iterable<Filter> filter() {
@@ -124,6 +134,40 @@ public class FieldQuery extends BaseFieldQuery implements HasFilter {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public FieldQuery copy() {
+        return (FieldQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.filter);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.filter = ListUtil.copy(this.filter);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final FieldQuery rhs = (FieldQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.filter, rhs.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.filter);
+        return res;
+    }
+
     /** List of filters. */
     private List<Filter> filter;
 }
\ No newline at end of file
@@ -50,6 +50,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("relativePath")
     private void relativePath(final List<FieldQuery> relativePath) {
+        checkNotFrozen();
         this.relativePath = ListUtil.add(relativePath, this.relativePath);
     }
 
@@ -61,6 +62,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery relativePath(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.relativePath = ListUtil.add(fieldQuery, this.relativePath);
         return this;
     }
@@ -73,6 +75,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery relativePath(final String extractAs) {
+        checkNotFrozen();
         this.relativePath = ListUtil.add(new FieldQuery().extractAs(extractAs), this.relativePath);
         return this;
     }
@@ -85,6 +88,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery relativePath(final Filter filter) {
+        checkNotFrozen();
         this.relativePath = ListUtil.add(new FieldQuery().filter(filter), this.relativePath);
         return this;
     }
@@ -116,6 +120,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("mimeType")
     private void mimeType(final List<FieldQuery> mimeType) {
+        checkNotFrozen();
         this.mimeType = ListUtil.add(mimeType, this.mimeType);
     }
 
@@ -127,6 +132,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery mimeType(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.mimeType = ListUtil.add(fieldQuery, this.mimeType);
         return this;
     }
@@ -139,6 +145,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery mimeType(final String extractAs) {
+        checkNotFrozen();
         this.mimeType = ListUtil.add(new FieldQuery().extractAs(extractAs), this.mimeType);
         return this;
     }
@@ -151,6 +158,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery mimeType(final Filter filter) {
+        checkNotFrozen();
         this.mimeType = ListUtil.add(new FieldQuery().filter(filter), this.mimeType);
         return this;
     }
@@ -182,6 +190,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("sha256")
     private void sha256(final List<FieldQuery> sha256) {
+        checkNotFrozen();
         this.sha256 = ListUtil.add(sha256, this.sha256);
     }
 
@@ -193,6 +202,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery sha256(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.sha256 = ListUtil.add(fieldQuery, this.sha256);
         return this;
     }
@@ -205,6 +215,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery sha256(final String extractAs) {
+        checkNotFrozen();
         this.sha256 = ListUtil.add(new FieldQuery().extractAs(extractAs), this.sha256);
         return this;
     }
@@ -217,6 +228,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery sha256(final Filter filter) {
+        checkNotFrozen();
         this.sha256 = ListUtil.add(new FieldQuery().filter(filter), this.sha256);
         return this;
     }
@@ -248,6 +260,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("md5")
     private void md5(final List<FieldQuery> md5) {
+        checkNotFrozen();
         this.md5 = ListUtil.add(md5, this.md5);
     }
 
@@ -259,6 +272,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery md5(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.md5 = ListUtil.add(fieldQuery, this.md5);
         return this;
     }
@@ -271,6 +285,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery md5(final String extractAs) {
+        checkNotFrozen();
         this.md5 = ListUtil.add(new FieldQuery().extractAs(extractAs), this.md5);
         return this;
     }
@@ -283,6 +298,7 @@ public class FileReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public FileReferenceQuery md5(final Filter filter) {
+        checkNotFrozen();
         this.md5 = ListUtil.add(new FieldQuery().filter(filter), this.md5);
         return this;
     }
@@ -370,6 +386,52 @@ public class FileReferenceQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public FileReferenceQuery copy() {
+        return (FileReferenceQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.relativePath);
+        ListUtil.freeze(this.mimeType);
+        ListUtil.freeze(this.sha256);
+        ListUtil.freeze(this.md5);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.relativePath = ListUtil.copy(this.relativePath);
+        this.mimeType = ListUtil.copy(this.mimeType);
+        this.sha256 = ListUtil.copy(this.sha256);
+        this.md5 = ListUtil.copy(this.md5);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final FileReferenceQuery rhs = (FileReferenceQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.relativePath, rhs.relativePath)
+                && ListUtil.equalsIgnoreOrder(this.mimeType, rhs.mimeType)
+                && ListUtil.equalsIgnoreOrder(this.sha256, rhs.sha256)
+                && ListUtil.equalsIgnoreOrder(this.md5, rhs.md5);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.relativePath);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.mimeType);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.sha256);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.md5);
+        return res;
+    }
+
     /** Operations against the relative path. */
     private List<FieldQuery> relativePath;
 
@@ -5,20 +5,23 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import io.citrine.jcc.search.core.query.HasLogic;
 import io.citrine.jcc.search.core.query.Logic;
+import io.citrine.jcc.util.Freezable;
 import io.citrine.jcc.util.ListUtil;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Filter that can be applied to any object.
  * 
  * @author Kyle Michel
  */
-public class Filter implements HasLogic, HasFilter {
+public class Filter implements HasLogic, HasFilter, Freezable, Cloneable {
 
     @Override
     @JsonSetter("logic")
     public Filter logic(final Logic logic) {
+        checkNotFrozen();
         this.logic = logic;
         return this;
     }
@@ -37,6 +40,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonSetter("exists")
     public Filter exists(final Boolean exists) {
+        checkNotFrozen();
         this.exists = exists;
         return this;
     }
@@ -59,6 +63,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonSetter("equal")
     public Filter equal(final String equal) {
+        checkNotFrozen();
         this.equal = equal;
         return this;
     }
@@ -81,6 +86,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonSetter("min")
     public Filter min(final String min) {
+        checkNotFrozen();
         this.min = min;
         return this;
     }
@@ -93,6 +99,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonIgnore
     public Filter min(final Integer min) {
+        checkNotFrozen();
         this.min = Integer.toString(min);
         return this;
     }
@@ -105,6 +112,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonIgnore
     public Filter min(final Long min) {
+        checkNotFrozen();
         this.min = Long.toString(min);
         return this;
     }
@@ -117,6 +125,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonIgnore
     public Filter min(final Float min) {
+        checkNotFrozen();
         this.min = Float.toString(min);
         return this;
     }
@@ -129,6 +138,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonIgnore
     public Filter min(final Double min) {
+        checkNotFrozen();
         this.min = Double.toString(min);
         return this;
     }
@@ -151,6 +161,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonSetter("max")
     public Filter max(final String max) {
+        checkNotFrozen();
         this.max = max;
         return this;
     }
@@ -163,6 +174,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonIgnore
     public Filter max(final Integer max) {
+        checkNotFrozen();
         this.max = Integer.toString(max);
         return this;
     }
@@ -175,6 +187,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonIgnore
     public Filter max(final Long max) {
+        checkNotFrozen();
         this.max = Long.toString(max);
         return this;
     }
@@ -187,6 +200,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonIgnore
     public Filter max(final Float max) {
+        checkNotFrozen();
         this.max = Float.toString(max);
         return this;
     }
@@ -199,6 +213,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonIgnore
     public Filter max(final Double max) {
+        checkNotFrozen();
         this.max = Double.toString(max);
         return this;
     }
@@ -221,6 +236,7 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonSetter("exact")
     public Filter exact(final Boolean exact) {
+        checkNotFrozen();
         this.exact = exact;
         return this;
     }
@@ -242,16 +258,26 @@ public class Filter implements HasLogic, HasFilter {
      */
     @JsonSetter("filter")
     private void filter(final List<Filter> filter) {
+        checkNotFrozen();
         this.filter = ListUtil.add(filter, this.filter);
     }
 
     @Override
     @JsonIgnore
     public Filter filter(final Filter filter) {
+        checkNotFrozen();
         this.filter = ListUtil.add(filter, this.filter);
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public Filter replaceFilter(final int index, final Filter filter) {
+        checkNotFrozen();
+        this.filter = ListUtil.replace(index, filter, this.filter);
+        return this;
+    }
+
     @Override
     @JsonGetter("filter")
     public Iterable<Filter> filter() {
@@ -264,6 +290,102 @@ public class Filter implements HasLogic, HasFilter {
         return ListUtil.hasContent(this.filter);
     }
 
+    /**
+     * Freeze this filter and every filter that is nested in it. Methods that would change a frozen filter or its list
+     * of nested filters throw an exception, so it can be shared between threads and between the copies that are made
+     * from it.
+     */
+    @Override
+    public void freeze() {
+        if (!this.frozen) {
+            freezeChildren();
+            this.frozen = true;  // Set last so that a filter that is seen as frozen holds only frozen filters
+        }
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Get a copy of this filter that can be changed. The copy shares the nested filters of this one that are frozen and
+     * holds copies of the rest, so values that are set or filters that are added on either one afterwards do not affect
+     * the other, and this filter is not changed by copying it. To change a frozen nested filter of the copy, copy the
+     * nested filter as well and put it in place with {@link #replaceFilter(int, Filter)}.
+     *
+     * @return Copy of this object.
+     */
+    @Override
+    @JsonIgnore
+    public Filter copy() {
+        try {
+            final Filter res = (Filter) super.clone();
+            res.copyChildren();
+            res.frozen = false;
+            return res;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);  // Not possible since this class is cloneable
+        }
+    }
+
+    /**
+     * Freeze the nested filters of this object.
+     */
+    private void freezeChildren() {
+        ListUtil.freeze(this.filter);
+    }
+
+    /**
+     * Replace the nested filters of this object with copies from {@link ListUtil#copy(List)}. This is called on a new
+     * copy, which still shares everything with the object that it was copied from.
+     */
+    private void copyChildren() {
+        this.filter = ListUtil.copy(this.filter);
+    }
+
+    /**
+     * Throw if this filter is frozen. Every method that changes a filter calls this first.
+     *
+     * @throws IllegalStateException if this filter is frozen.
+     */
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("Frozen filters cannot be changed; change a copy instead");
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        final Filter rhs = (Filter) obj;
+        return Objects.equals(this.logic, rhs.logic)
+                && Objects.equals(this.exists, rhs.exists)
+                && Objects.equals(this.equal, rhs.equal)
+                && Objects.equals(this.min, rhs.min)
+                && Objects.equals(this.max, rhs.max)
+                && Objects.equals(this.exact, rhs.exact)
+                && ListUtil.equalsIgnoreOrder(this.filter, rhs.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = Objects.hashCode(this.logic);
+        res = 31 * res + Objects.hashCode(this.exists);
+        res = 31 * res + Objects.hashCode(this.equal);
+        res = 31 * res + Objects.hashCode(this.min);
+        res = 31 * res + Objects.hashCode(this.max);
+        res = 31 * res + Objects.hashCode(this.exact);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.filter);
+        return res;
+    }
+
     /** Logic for applying the filters. */
     private Logic logic;
 
@@ -284,4 +406,7 @@ public class Filter implements HasLogic, HasFilter {
 
     /** List of sub-filters. */
     private List<Filter> filter;
-}
\ No newline at end of file
+
+    /** Whether this filter can no longer be changed. */
+    private volatile boolean frozen;
+}
@@ -15,6 +15,17 @@ public interface HasFilter {
      */
     HasFilter filter(final Filter filter);
 
+    /**
+     * Replace one of the nested filters. This is how a nested filter of a copy is changed without changing the
+     * original: copy the nested filter, change the copy, and put it in place of the original one.
+     *
+     * @param index Index of the filter to replace, in the order that the filters were added.
+     * @param filter {@link Filter} object to put in its place.
+     * @return This object.
+     * @throws IndexOutOfBoundsException if there is no filter at the index.
+     */
+    HasFilter replaceFilter(final int index, final Filter filter);
+
     /**
      * Get an iterable over the list of nested filters.
      *
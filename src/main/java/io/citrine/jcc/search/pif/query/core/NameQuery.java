@@ -50,6 +50,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonSetter("given")
     private void given(final List<FieldQuery> given) {
+        checkNotFrozen();
         this.given = ListUtil.add(given, this.given);
     }
 
@@ -61,6 +62,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery given(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.given = ListUtil.add(fieldQuery, this.given);
         return this;
     }
@@ -73,6 +75,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery given(final String extractAs) {
+        checkNotFrozen();
         this.given = ListUtil.add(new FieldQuery().extractAs(extractAs), this.given);
         return this;
     }
@@ -85,6 +88,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery given(final Filter filter) {
+        checkNotFrozen();
         this.given = ListUtil.add(new FieldQuery().filter(filter), this.given);
         return this;
     }
@@ -116,6 +120,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonSetter("family")
     private void family(final List<FieldQuery> family) {
+        checkNotFrozen();
         this.family = ListUtil.add(family, this.family);
     }
 
@@ -127,6 +132,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery family(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.family = ListUtil.add(fieldQuery, this.family);
         return this;
     }
@@ -139,6 +145,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery family(final String extractAs) {
+        checkNotFrozen();
         this.family = ListUtil.add(new FieldQuery().extractAs(extractAs), this.family);
         return this;
     }
@@ -151,6 +158,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery family(final Filter filter) {
+        checkNotFrozen();
         this.family = ListUtil.add(new FieldQuery().filter(filter), this.family);
         return this;
     }
@@ -182,6 +190,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonSetter("title")
     private void title(final List<FieldQuery> title) {
+        checkNotFrozen();
         this.title = ListUtil.add(title, this.title);
     }
 
@@ -193,6 +202,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery title(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.title = ListUtil.add(fieldQuery, this.title);
         return this;
     }
@@ -205,6 +215,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery title(final String extractAs) {
+        checkNotFrozen();
         this.title = ListUtil.add(new FieldQuery().extractAs(extractAs), this.title);
         return this;
     }
@@ -217,6 +228,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery title(final Filter filter) {
+        checkNotFrozen();
         this.title = ListUtil.add(new FieldQuery().filter(filter), this.title);
         return this;
     }
@@ -248,6 +260,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonSetter("suffix")
     private void suffix(final List<FieldQuery> suffix) {
+        checkNotFrozen();
         this.suffix = ListUtil.add(suffix, this.suffix);
     }
 
@@ -259,6 +272,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery suffix(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.suffix = ListUtil.add(fieldQuery, this.suffix);
         return this;
     }
@@ -271,6 +285,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery suffix(final String extractAs) {
+        checkNotFrozen();
         this.suffix = ListUtil.add(new FieldQuery().extractAs(extractAs), this.suffix);
         return this;
     }
@@ -283,6 +298,7 @@ public class NameQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public NameQuery suffix(final Filter filter) {
+        checkNotFrozen();
         this.suffix = ListUtil.add(new FieldQuery().filter(filter), this.suffix);
         return this;
     }
@@ -370,6 +386,52 @@ public class NameQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public NameQuery copy() {
+        return (NameQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.given);
+        ListUtil.freeze(this.family);
+        ListUtil.freeze(this.title);
+        ListUtil.freeze(this.suffix);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.given = ListUtil.copy(this.given);
+        this.family = ListUtil.copy(this.family);
+        this.title = ListUtil.copy(this.title);
+        this.suffix = ListUtil.copy(this.suffix);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final NameQuery rhs = (NameQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.given, rhs.given)
+                && ListUtil.equalsIgnoreOrder(this.family, rhs.family)
+                && ListUtil.equalsIgnoreOrder(this.title, rhs.title)
+                && ListUtil.equalsIgnoreOrder(this.suffix, rhs.suffix);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.given);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.family);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.title);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.suffix);
+        return res;
+    }
+
     /** Given name for the query. */
     private List<FieldQuery> given;
 
@@ -51,6 +51,7 @@ public class PagesQuery extends BaseObjectQuery {
      */
     @JsonSetter("start")
     private void start(final List<FieldQuery> start) {
+        checkNotFrozen();
         this.start = ListUtil.add(start, this.start);
     }
 
@@ -62,6 +63,7 @@ public class PagesQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public PagesQuery start(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.start = ListUtil.add(fieldQuery, this.start);
         return this;
     }
@@ -74,6 +76,7 @@ public class PagesQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public PagesQuery start(final String extractAs) {
+        checkNotFrozen();
         this.start = ListUtil.add(new FieldQuery().extractAs(extractAs), this.start);
         return this;
     }
@@ -86,6 +89,7 @@ public class PagesQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public PagesQuery start(final Filter filter) {
+        checkNotFrozen();
         this.start = ListUtil.add(new FieldQuery().filter(filter), this.start);
         return this;
     }
@@ -117,6 +121,7 @@ public class PagesQuery extends BaseObjectQuery {
      */
     @JsonSetter("end")
     private void end(final List<FieldQuery> end) {
+        checkNotFrozen();
         this.end = ListUtil.add(end, this.end);
     }
 
@@ -128,6 +133,7 @@ public class PagesQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public PagesQuery end(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.end = ListUtil.add(fieldQuery, this.end);
         return this;
     }
@@ -140,6 +146,7 @@ public class PagesQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public PagesQuery end(final String extractAs) {
+        checkNotFrozen();
         this.end = ListUtil.add(new FieldQuery().extractAs(extractAs), this.end);
         return this;
     }
@@ -152,6 +159,7 @@ public class PagesQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public PagesQuery end(final Filter filter) {
+        checkNotFrozen();
         this.end = ListUtil.add(new FieldQuery().filter(filter), this.end);
         return this;
     }
@@ -239,6 +247,44 @@ public class PagesQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public PagesQuery copy() {
+        return (PagesQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.start);
+        ListUtil.freeze(this.end);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.start = ListUtil.copy(this.start);
+        this.end = ListUtil.copy(this.end);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final PagesQuery rhs = (PagesQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.start, rhs.start)
+                && ListUtil.equalsIgnoreOrder(this.end, rhs.end);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.start);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.end);
+        return res;
+    }
+
     /** Operations against the starting page. */
     private List<FieldQuery> start;
 
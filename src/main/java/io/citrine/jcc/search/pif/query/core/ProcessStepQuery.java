@@ -22,6 +22,7 @@ public class ProcessStepQuery extends BaseObjectQuery {
      */
     @JsonSetter("name")
     private void name(final List<FieldQuery> name) {
+        checkNotFrozen();
         this.name = ListUtil.add(name, this.name);
     }
 
@@ -33,6 +34,7 @@ public class ProcessStepQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ProcessStepQuery name(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.name = ListUtil.add(fieldQuery, this.name);
         return this;
     }
@@ -45,6 +47,7 @@ public class ProcessStepQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ProcessStepQuery name(final String extractAs) {
+        checkNotFrozen();
         this.name = ListUtil.add(new FieldQuery().extractAs(extractAs), this.name);
         return this;
     }
@@ -57,6 +60,7 @@ public class ProcessStepQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ProcessStepQuery name(final Filter filter) {
+        checkNotFrozen();
         this.name = ListUtil.add(new FieldQuery().filter(filter), this.name);
         return this;
     }
@@ -88,6 +92,7 @@ public class ProcessStepQuery extends BaseObjectQuery {
      */
     @JsonSetter("details")
     private void details(final List<ValueQuery> details) {
+        checkNotFrozen();
         this.details = ListUtil.add(details, this.details);
     }
 
@@ -99,6 +104,7 @@ public class ProcessStepQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ProcessStepQuery details(final ValueQuery details) {
+        checkNotFrozen();
         this.details = ListUtil.add(details, this.details);
         return this;
     }
@@ -214,6 +220,44 @@ public class ProcessStepQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public ProcessStepQuery copy() {
+        return (ProcessStepQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.name);
+        ListUtil.freeze(this.details);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.name = ListUtil.copy(this.name);
+        this.details = ListUtil.copy(this.details);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final ProcessStepQuery rhs = (ProcessStepQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.name, rhs.name)
+                && ListUtil.equalsIgnoreOrder(this.details, rhs.details);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.name);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.details);
+        return res;
+    }
+
     /** Name of the step. */
     private List<FieldQuery> name;
 
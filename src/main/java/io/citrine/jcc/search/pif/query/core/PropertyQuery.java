@@ -190,6 +190,7 @@ public class PropertyQuery extends ValueQuery {
      */
     @JsonSetter("conditions")
     private void conditions(final List<ValueQuery> conditions) {
+        checkNotFrozen();
         this.conditions = ListUtil.add(conditions, this.conditions);
     }
 
@@ -201,6 +202,7 @@ public class PropertyQuery extends ValueQuery {
      */
     @JsonIgnore
     public PropertyQuery conditions(final ValueQuery conditions) {
+        checkNotFrozen();
         this.conditions = ListUtil.add(conditions, this.conditions);
         return this;
     }
@@ -232,6 +234,7 @@ public class PropertyQuery extends ValueQuery {
      */
     @JsonSetter("dataType")
     private void dataType(final List<FieldQuery> dataType) {
+        checkNotFrozen();
         this.dataType = ListUtil.add(dataType, this.dataType);
     }
 
@@ -243,6 +246,7 @@ public class PropertyQuery extends ValueQuery {
      */
     @JsonIgnore
     public PropertyQuery dataType(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.dataType = ListUtil.add(fieldQuery, this.dataType);
         return this;
     }
@@ -255,6 +259,7 @@ public class PropertyQuery extends ValueQuery {
      */
     @JsonIgnore
     public PropertyQuery dataType(final String extractAs) {
+        checkNotFrozen();
         this.dataType = ListUtil.add(new FieldQuery().extractAs(extractAs), this.dataType);
         return this;
     }
@@ -267,6 +272,7 @@ public class PropertyQuery extends ValueQuery {
      */
     @JsonIgnore
     public PropertyQuery dataType(final Filter filter) {
+        checkNotFrozen();
         this.dataType = ListUtil.add(new FieldQuery().filter(filter), this.dataType);
         return this;
     }
@@ -291,6 +297,44 @@ public class PropertyQuery extends ValueQuery {
         return ListUtil.hasContent(this.dataType);
     }
 
+    @Override
+    @JsonIgnore
+    public PropertyQuery copy() {
+        return (PropertyQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.conditions);
+        ListUtil.freeze(this.dataType);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.conditions = ListUtil.copy(this.conditions);
+        this.dataType = ListUtil.copy(this.dataType);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final PropertyQuery rhs = (PropertyQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.conditions, rhs.conditions)
+                && ListUtil.equalsIgnoreOrder(this.dataType, rhs.dataType);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.conditions);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.dataType);
+        return res;
+    }
+
     /** List of conditions queries. */
     private List<ValueQuery> conditions;
 
@@ -22,6 +22,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonSetter("actualMassPercent")
     private void actualMassPercent(final List<FieldQuery> actualMassPercent) {
+        checkNotFrozen();
         this.actualMassPercent = ListUtil.add(actualMassPercent, this.actualMassPercent);
     }
 
@@ -33,6 +34,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery actualMassPercent(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.actualMassPercent = ListUtil.add(fieldQuery, this.actualMassPercent);
         return this;
     }
@@ -45,7 +47,8 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery actualMassPercent(final String extractAs) {
-        this.actualMassPercent = ListUtil.add(new FieldQuery().extractAs(extractAs), this.actualMassPercent);
+        this.actualMassPercent =
+                ListUtil.add(new FieldQuery().extractAs(extractAs), this.actualMassPercent);
         return this;
     }
 
@@ -57,6 +60,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery actualMassPercent(final Filter filter) {
+        checkNotFrozen();
         this.actualMassPercent = ListUtil.add(new FieldQuery().filter(filter), this.actualMassPercent);
         return this;
     }
@@ -88,6 +92,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonSetter("actualVolumePercent")
     private void actualVolumePercent(final List<FieldQuery> actualVolumePercent) {
+        checkNotFrozen();
         this.actualVolumePercent = ListUtil.add(actualVolumePercent, this.actualVolumePercent);
     }
 
@@ -99,6 +104,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery actualVolumePercent(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.actualVolumePercent = ListUtil.add(fieldQuery, this.actualVolumePercent);
         return this;
     }
@@ -111,7 +117,8 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery actualVolumePercent(final String extractAs) {
-        this.actualVolumePercent = ListUtil.add(new FieldQuery().extractAs(extractAs), this.actualVolumePercent);
+        this.actualVolumePercent =
+                ListUtil.add(new FieldQuery().extractAs(extractAs), this.actualVolumePercent);
         return this;
     }
 
@@ -123,6 +130,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery actualVolumePercent(final Filter filter) {
+        checkNotFrozen();
         this.actualVolumePercent = ListUtil.add(new FieldQuery().filter(filter), this.actualVolumePercent);
         return this;
     }
@@ -154,6 +162,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonSetter("actualNumberPercent")
     private void actualNumberPercent(final List<FieldQuery> actualNumberPercent) {
+        checkNotFrozen();
         this.actualNumberPercent = ListUtil.add(actualNumberPercent, this.actualNumberPercent);
     }
 
@@ -165,6 +174,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery actualNumberPercent(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.actualNumberPercent = ListUtil.add(fieldQuery, this.actualNumberPercent);
         return this;
     }
@@ -177,7 +187,8 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery actualNumberPercent(final String extractAs) {
-        this.actualNumberPercent = ListUtil.add(new FieldQuery().extractAs(extractAs), this.actualNumberPercent);
+        this.actualNumberPercent =
+                ListUtil.add(new FieldQuery().extractAs(extractAs), this.actualNumberPercent);
         return this;
     }
 
@@ -189,6 +200,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery actualNumberPercent(final Filter filter) {
+        checkNotFrozen();
         this.actualNumberPercent = ListUtil.add(new FieldQuery().filter(filter), this.actualNumberPercent);
         return this;
     }
@@ -220,6 +232,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonSetter("idealMassPercent")
     private void idealMassPercent(final List<FieldQuery> idealMassPercent) {
+        checkNotFrozen();
         this.idealMassPercent = ListUtil.add(idealMassPercent, this.idealMassPercent);
     }
 
@@ -231,6 +244,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery idealMassPercent(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.idealMassPercent = ListUtil.add(fieldQuery, this.idealMassPercent);
         return this;
     }
@@ -243,6 +257,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery idealMassPercent(final String extractAs) {
+        checkNotFrozen();
         this.idealMassPercent = ListUtil.add(new FieldQuery().extractAs(extractAs), this.idealMassPercent);
         return this;
     }
@@ -255,6 +270,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery idealMassPercent(final Filter filter) {
+        checkNotFrozen();
         this.idealMassPercent = ListUtil.add(new FieldQuery().filter(filter), this.idealMassPercent);
         return this;
     }
@@ -286,6 +302,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonSetter("idealVolumePercent")
     private void idealVolumePercent(final List<FieldQuery> idealVolumePercent) {
+        checkNotFrozen();
         this.idealVolumePercent = ListUtil.add(idealVolumePercent, this.idealVolumePercent);
     }
 
@@ -297,6 +314,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery idealVolumePercent(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.idealVolumePercent = ListUtil.add(fieldQuery, this.idealVolumePercent);
         return this;
     }
@@ -309,7 +327,8 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery idealVolumePercent(final String extractAs) {
-        this.idealVolumePercent = ListUtil.add(new FieldQuery().extractAs(extractAs), this.idealVolumePercent);
+        this.idealVolumePercent =
+                ListUtil.add(new FieldQuery().extractAs(extractAs), this.idealVolumePercent);
         return this;
     }
 
@@ -321,6 +340,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery idealVolumePercent(final Filter filter) {
+        checkNotFrozen();
         this.idealVolumePercent = ListUtil.add(new FieldQuery().filter(filter), this.idealVolumePercent);
         return this;
     }
@@ -352,6 +372,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonSetter("idealNumberPercent")
     private void idealNumberPercent(final List<FieldQuery> idealNumberPercent) {
+        checkNotFrozen();
         this.idealNumberPercent = ListUtil.add(idealNumberPercent, this.idealNumberPercent);
     }
 
@@ -363,6 +384,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery idealNumberPercent(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.idealNumberPercent = ListUtil.add(fieldQuery, this.idealNumberPercent);
         return this;
     }
@@ -375,7 +397,8 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery idealNumberPercent(final String extractAs) {
-        this.idealNumberPercent = ListUtil.add(new FieldQuery().extractAs(extractAs), this.idealNumberPercent);
+        this.idealNumberPercent =
+                ListUtil.add(new FieldQuery().extractAs(extractAs), this.idealNumberPercent);
         return this;
     }
 
@@ -387,6 +410,7 @@ public class QuantityQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public QuantityQuery idealNumberPercent(final Filter filter) {
+        checkNotFrozen();
         this.idealNumberPercent = ListUtil.add(new FieldQuery().filter(filter), this.idealNumberPercent);
         return this;
     }
@@ -502,6 +526,60 @@ public class QuantityQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public QuantityQuery copy() {
+        return (QuantityQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.actualMassPercent);
+        ListUtil.freeze(this.actualVolumePercent);
+        ListUtil.freeze(this.actualNumberPercent);
+        ListUtil.freeze(this.idealMassPercent);
+        ListUtil.freeze(this.idealVolumePercent);
+        ListUtil.freeze(this.idealNumberPercent);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.actualMassPercent = ListUtil.copy(this.actualMassPercent);
+        this.actualVolumePercent = ListUtil.copy(this.actualVolumePercent);
+        this.actualNumberPercent = ListUtil.copy(this.actualNumberPercent);
+        this.idealMassPercent = ListUtil.copy(this.idealMassPercent);
+        this.idealVolumePercent = ListUtil.copy(this.idealVolumePercent);
+        this.idealNumberPercent = ListUtil.copy(this.idealNumberPercent);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final QuantityQuery rhs = (QuantityQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.actualMassPercent, rhs.actualMassPercent)
+                && ListUtil.equalsIgnoreOrder(this.actualVolumePercent, rhs.actualVolumePercent)
+                && ListUtil.equalsIgnoreOrder(this.actualNumberPercent, rhs.actualNumberPercent)
+                && ListUtil.equalsIgnoreOrder(this.idealMassPercent, rhs.idealMassPercent)
+                && ListUtil.equalsIgnoreOrder(this.idealVolumePercent, rhs.idealVolumePercent)
+                && ListUtil.equalsIgnoreOrder(this.idealNumberPercent, rhs.idealNumberPercent);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.actualMassPercent);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.actualVolumePercent);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.actualNumberPercent);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.idealMassPercent);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.idealVolumePercent);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.idealNumberPercent);
+        return res;
+    }
+
     /** Actual percent of the total mass. */
     private List<FieldQuery> actualMassPercent;
 
@@ -22,6 +22,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("doi")
     private void doi(final List<FieldQuery> doi) {
+        checkNotFrozen();
         this.doi = ListUtil.add(doi, this.doi);
     }
 
@@ -33,6 +34,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery doi(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.doi = ListUtil.add(fieldQuery, this.doi);
         return this;
     }
@@ -45,6 +47,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery doi(final String extractAs) {
+        checkNotFrozen();
         this.doi = ListUtil.add(new FieldQuery().extractAs(extractAs), this.doi);
         return this;
     }
@@ -57,6 +60,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery doi(final Filter filter) {
+        checkNotFrozen();
         this.doi = ListUtil.add(new FieldQuery().filter(filter), this.doi);
         return this;
     }
@@ -88,6 +92,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("isbn")
     private void isbn(final List<FieldQuery> isbn) {
+        checkNotFrozen();
         this.isbn = ListUtil.add(isbn, this.isbn);
     }
 
@@ -99,6 +104,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery isbn(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.isbn = ListUtil.add(fieldQuery, this.isbn);
         return this;
     }
@@ -111,6 +117,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery isbn(final String extractAs) {
+        checkNotFrozen();
         this.isbn = ListUtil.add(new FieldQuery().extractAs(extractAs), this.isbn);
         return this;
     }
@@ -123,6 +130,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery isbn(final Filter filter) {
+        checkNotFrozen();
         this.isbn = ListUtil.add(new FieldQuery().filter(filter), this.isbn);
         return this;
     }
@@ -154,6 +162,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("issn")
     private void issn(final List<FieldQuery> issn) {
+        checkNotFrozen();
         this.issn = ListUtil.add(issn, this.issn);
     }
 
@@ -165,6 +174,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery issn(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.issn = ListUtil.add(fieldQuery, this.issn);
         return this;
     }
@@ -177,6 +187,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery issn(final String extractAs) {
+        checkNotFrozen();
         this.issn = ListUtil.add(new FieldQuery().extractAs(extractAs), this.issn);
         return this;
     }
@@ -189,6 +200,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery issn(final Filter filter) {
+        checkNotFrozen();
         this.issn = ListUtil.add(new FieldQuery().filter(filter), this.issn);
         return this;
     }
@@ -220,6 +232,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("url")
     private void url(final List<FieldQuery> url) {
+        checkNotFrozen();
         this.url = ListUtil.add(url, this.url);
     }
 
@@ -231,6 +244,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery url(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.url = ListUtil.add(fieldQuery, this.url);
         return this;
     }
@@ -243,6 +257,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery url(final String extractAs) {
+        checkNotFrozen();
         this.url = ListUtil.add(new FieldQuery().extractAs(extractAs), this.url);
         return this;
     }
@@ -255,6 +270,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery url(final Filter filter) {
+        checkNotFrozen();
         this.url = ListUtil.add(new FieldQuery().filter(filter), this.url);
         return this;
     }
@@ -286,6 +302,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("title")
     private void title(final List<FieldQuery> title) {
+        checkNotFrozen();
         this.title = ListUtil.add(title, this.title);
     }
 
@@ -297,6 +314,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery title(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.title = ListUtil.add(fieldQuery, this.title);
         return this;
     }
@@ -309,6 +327,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery title(final String extractAs) {
+        checkNotFrozen();
         this.title = ListUtil.add(new FieldQuery().extractAs(extractAs), this.title);
         return this;
     }
@@ -321,6 +340,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery title(final Filter filter) {
+        checkNotFrozen();
         this.title = ListUtil.add(new FieldQuery().filter(filter), this.title);
         return this;
     }
@@ -352,6 +372,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("publisher")
     private void publisher(final List<FieldQuery> publisher) {
+        checkNotFrozen();
         this.publisher = ListUtil.add(publisher, this.publisher);
     }
 
@@ -363,6 +384,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery publisher(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.publisher = ListUtil.add(fieldQuery, this.publisher);
         return this;
     }
@@ -375,6 +397,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery publisher(final String extractAs) {
+        checkNotFrozen();
         this.publisher = ListUtil.add(new FieldQuery().extractAs(extractAs), this.publisher);
         return this;
     }
@@ -387,6 +410,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery publisher(final Filter filter) {
+        checkNotFrozen();
         this.publisher = ListUtil.add(new FieldQuery().filter(filter), this.publisher);
         return this;
     }
@@ -418,6 +442,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("journal")
     private void journal(final List<FieldQuery> journal) {
+        checkNotFrozen();
         this.journal = ListUtil.add(journal, this.journal);
     }
 
@@ -429,6 +454,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery journal(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.journal = ListUtil.add(fieldQuery, this.journal);
         return this;
     }
@@ -441,6 +467,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery journal(final String extractAs) {
+        checkNotFrozen();
         this.journal = ListUtil.add(new FieldQuery().extractAs(extractAs), this.journal);
         return this;
     }
@@ -453,6 +480,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery journal(final Filter filter) {
+        checkNotFrozen();
         this.journal = ListUtil.add(new FieldQuery().filter(filter), this.journal);
         return this;
     }
@@ -484,6 +512,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("volume")
     private void volume(final List<FieldQuery> volume) {
+        checkNotFrozen();
         this.volume = ListUtil.add(volume, this.volume);
     }
 
@@ -495,6 +524,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery volume(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.volume = ListUtil.add(fieldQuery, this.volume);
         return this;
     }
@@ -507,6 +537,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery volume(final String extractAs) {
+        checkNotFrozen();
         this.volume = ListUtil.add(new FieldQuery().extractAs(extractAs), this.volume);
         return this;
     }
@@ -519,6 +550,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery volume(final Filter filter) {
+        checkNotFrozen();
         this.volume = ListUtil.add(new FieldQuery().filter(filter), this.volume);
         return this;
     }
@@ -550,6 +582,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("issue")
     private void issue(final List<FieldQuery> issue) {
+        checkNotFrozen();
         this.issue = ListUtil.add(issue, this.issue);
     }
 
@@ -561,6 +594,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery issue(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.issue = ListUtil.add(fieldQuery, this.issue);
         return this;
     }
@@ -573,6 +607,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery issue(final String extractAs) {
+        checkNotFrozen();
         this.issue = ListUtil.add(new FieldQuery().extractAs(extractAs), this.issue);
         return this;
     }
@@ -585,6 +620,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery issue(final Filter filter) {
+        checkNotFrozen();
         this.issue = ListUtil.add(new FieldQuery().filter(filter), this.issue);
         return this;
     }
@@ -616,6 +652,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("year")
     private void year(final List<FieldQuery> year) {
+        checkNotFrozen();
         this.year = ListUtil.add(year, this.year);
     }
 
@@ -627,6 +664,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery year(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.year = ListUtil.add(fieldQuery, this.year);
         return this;
     }
@@ -639,6 +677,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery year(final String extractAs) {
+        checkNotFrozen();
         this.year = ListUtil.add(new FieldQuery().extractAs(extractAs), this.year);
         return this;
     }
@@ -651,6 +690,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery year(final Filter filter) {
+        checkNotFrozen();
         this.year = ListUtil.add(new FieldQuery().filter(filter), this.year);
         return this;
     }
@@ -682,6 +722,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("pages")
     private void pages(final List<PagesQuery> pages) {
+        checkNotFrozen();
         this.pages = ListUtil.add(pages, this.pages);
     }
 
@@ -693,6 +734,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery pages(final PagesQuery page) {
+        checkNotFrozen();
         this.pages = ListUtil.add(page, this.pages);
         return this;
     }
@@ -724,6 +766,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("authors")
     private void authors(final List<NameQuery> authors) {
+        checkNotFrozen();
         this.authors = ListUtil.add(authors, this.authors);
     }
 
@@ -735,6 +778,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery authors(final NameQuery author) {
+        checkNotFrozen();
         this.authors = ListUtil.add(author, this.authors);
         return this;
     }
@@ -766,6 +810,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("editors")
     private void editors(final List<NameQuery> editors) {
+        checkNotFrozen();
         this.editors = ListUtil.add(editors, this.editors);
     }
 
@@ -777,6 +822,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery editors(final NameQuery author) {
+        checkNotFrozen();
         this.editors = ListUtil.add(author, this.editors);
         return this;
     }
@@ -808,6 +854,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("affiliations")
     private void affiliations(final List<FieldQuery> affiliations) {
+        checkNotFrozen();
         this.affiliations = ListUtil.add(affiliations, this.affiliations);
     }
 
@@ -819,6 +866,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery affiliations(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.affiliations = ListUtil.add(fieldQuery, this.affiliations);
         return this;
     }
@@ -831,6 +879,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery affiliations(final String extractAs) {
+        checkNotFrozen();
         this.affiliations = ListUtil.add(new FieldQuery().extractAs(extractAs), this.affiliations);
         return this;
     }
@@ -843,6 +892,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery affiliations(final Filter filter) {
+        checkNotFrozen();
         this.affiliations = ListUtil.add(new FieldQuery().filter(filter), this.affiliations);
         return this;
     }
@@ -874,6 +924,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("acknowledgements")
     private void acknowledgements(final List<FieldQuery> acknowledgements) {
+        checkNotFrozen();
         this.acknowledgements = ListUtil.add(acknowledgements, this.acknowledgements);
     }
 
@@ -885,6 +936,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery acknowledgements(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.acknowledgements = ListUtil.add(fieldQuery, this.acknowledgements);
         return this;
     }
@@ -897,6 +949,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery acknowledgements(final String extractAs) {
+        checkNotFrozen();
         this.acknowledgements = ListUtil.add(new FieldQuery().extractAs(extractAs), this.acknowledgements);
         return this;
     }
@@ -909,6 +962,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery acknowledgements(final Filter filter) {
+        checkNotFrozen();
         this.acknowledgements = ListUtil.add(new FieldQuery().filter(filter), this.acknowledgements);
         return this;
     }
@@ -940,6 +994,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonSetter("references")
     private void references(final List<ReferenceQuery> references) {
+        checkNotFrozen();
         this.references = ListUtil.add(references, this.references);
     }
 
@@ -951,6 +1006,7 @@ public class ReferenceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ReferenceQuery references(final ReferenceQuery reference) {
+        checkNotFrozen();
         this.references = ListUtil.add(reference, this.references);
         return this;
     }
@@ -1066,6 +1122,100 @@ public class ReferenceQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public ReferenceQuery copy() {
+        return (ReferenceQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.doi);
+        ListUtil.freeze(this.isbn);
+        ListUtil.freeze(this.issn);
+        ListUtil.freeze(this.url);
+        ListUtil.freeze(this.title);
+        ListUtil.freeze(this.publisher);
+        ListUtil.freeze(this.journal);
+        ListUtil.freeze(this.volume);
+        ListUtil.freeze(this.issue);
+        ListUtil.freeze(this.year);
+        ListUtil.freeze(this.pages);
+        ListUtil.freeze(this.authors);
+        ListUtil.freeze(this.editors);
+        ListUtil.freeze(this.affiliations);
+        ListUtil.freeze(this.acknowledgements);
+        ListUtil.freeze(this.references);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.doi = ListUtil.copy(this.doi);
+        this.isbn = ListUtil.copy(this.isbn);
+        this.issn = ListUtil.copy(this.issn);
+        this.url = ListUtil.copy(this.url);
+        this.title = ListUtil.copy(this.title);
+        this.publisher = ListUtil.copy(this.publisher);
+        this.journal = ListUtil.copy(this.journal);
+        this.volume = ListUtil.copy(this.volume);
+        this.issue = ListUtil.copy(this.issue);
+        this.year = ListUtil.copy(this.year);
+        this.pages = ListUtil.copy(this.pages);
+        this.authors = ListUtil.copy(this.authors);
+        this.editors = ListUtil.copy(this.editors);
+        this.affiliations = ListUtil.copy(this.affiliations);
+        this.acknowledgements = ListUtil.copy(this.acknowledgements);
+        this.references = ListUtil.copy(this.references);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final ReferenceQuery rhs = (ReferenceQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.doi, rhs.doi)
+                && ListUtil.equalsIgnoreOrder(this.isbn, rhs.isbn)
+                && ListUtil.equalsIgnoreOrder(this.issn, rhs.issn)
+                && ListUtil.equalsIgnoreOrder(this.url, rhs.url)
+                && ListUtil.equalsIgnoreOrder(this.title, rhs.title)
+                && ListUtil.equalsIgnoreOrder(this.publisher, rhs.publisher)
+                && ListUtil.equalsIgnoreOrder(this.journal, rhs.journal)
+                && ListUtil.equalsIgnoreOrder(this.volume, rhs.volume)
+                && ListUtil.equalsIgnoreOrder(this.issue, rhs.issue)
+                && ListUtil.equalsIgnoreOrder(this.year, rhs.year)
+                && ListUtil.equalsIgnoreOrder(this.pages, rhs.pages)
+                && ListUtil.equalsIgnoreOrder(this.authors, rhs.authors)
+                && ListUtil.equalsIgnoreOrder(this.editors, rhs.editors)
+                && ListUtil.equalsIgnoreOrder(this.affiliations, rhs.affiliations)
+                && ListUtil.equalsIgnoreOrder(this.acknowledgements, rhs.acknowledgements)
+                && ListUtil.equalsIgnoreOrder(this.references, rhs.references);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.doi);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.isbn);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.issn);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.url);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.title);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.publisher);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.journal);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.volume);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.issue);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.year);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.pages);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.authors);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.editors);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.affiliations);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.acknowledgements);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.references);
+        return res;
+    }
+
     /** DOI of the reference. */
     private List<FieldQuery> doi;
 
@@ -1,15 +1,19 @@
 package io.citrine.jcc.search.pif.query.core;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import io.citrine.jcc.search.core.query.Sort;
+import io.citrine.jcc.util.Freezable;
+
+import java.util.Objects;
 
 /**
  * Information about sorting on an extracted field.
  *
  * @author Kyle Michel
  */
-public class SortExtracted {
+public class SortExtracted implements Freezable, Cloneable {
 
     /**
      * Set the name of the extracted field to sort by.
@@ -19,6 +23,7 @@ public class SortExtracted {
      */
     @JsonSetter("extractAs")
     public SortExtracted extractAs(final String extractAs) {
+        checkNotFrozen();
         this.extractAs = extractAs;
         return this;
     }
@@ -41,6 +46,7 @@ public class SortExtracted {
      */
     @JsonSetter("sort")
     public SortExtracted sort(final Sort sort) {
+        checkNotFrozen();
         this.sort = sort;
         return this;
     }
@@ -55,9 +61,76 @@ public class SortExtracted {
         return this.sort;
     }
 
+    /**
+     * Freeze this object. Methods that would change a frozen object throw an exception, so it can be shared between
+     * threads and between the copies of the queries that hold it.
+     */
+    @Override
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Get a copy of this object that can be changed. Its values are held by value, so the copy can be changed without
+     * affecting this object.
+     *
+     * @return Copy of this object.
+     */
+    @Override
+    @JsonIgnore
+    public SortExtracted copy() {
+        try {
+            final SortExtracted res = (SortExtracted) super.clone();
+            res.frozen = false;
+            return res;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);  // Not possible since this class is cloneable
+        }
+    }
+
+    /**
+     * Throw if this object is frozen. Every method that changes this object calls this first.
+     *
+     * @throws IllegalStateException if this object is frozen.
+     */
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("Frozen objects cannot be changed; change a copy instead");
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        final SortExtracted rhs = (SortExtracted) obj;
+        return Objects.equals(this.extractAs, rhs.extractAs)
+                && Objects.equals(this.sort, rhs.sort);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = Objects.hashCode(this.extractAs);
+        res = 31 * res + Objects.hashCode(this.sort);
+        return res;
+    }
+
     /** Name of the extracted field. */
     private String extractAs;
 
     /** Sort order. */
     private Sort sort;
-}
\ No newline at end of file
+
+    /** Whether this object can no longer be changed. */
+    private volatile boolean frozen;
+}
@@ -22,6 +22,7 @@ public class SourceQuery extends BaseObjectQuery {
      */
     @JsonSetter("producer")
     private void producer(final List<FieldQuery> producer) {
+        checkNotFrozen();
         this.producer = ListUtil.add(producer, this.producer);
     }
 
@@ -33,6 +34,7 @@ public class SourceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SourceQuery producer(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.producer = ListUtil.add(fieldQuery, this.producer);
         return this;
     }
@@ -45,6 +47,7 @@ public class SourceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SourceQuery producer(final String extractAs) {
+        checkNotFrozen();
         this.producer = ListUtil.add(new FieldQuery().extractAs(extractAs), this.producer);
         return this;
     }
@@ -57,6 +60,7 @@ public class SourceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SourceQuery producer(final Filter filter) {
+        checkNotFrozen();
         this.producer = ListUtil.add(new FieldQuery().filter(filter), this.producer);
         return this;
     }
@@ -88,6 +92,7 @@ public class SourceQuery extends BaseObjectQuery {
      */
     @JsonSetter("url")
     private void url(final List<FieldQuery> url) {
+        checkNotFrozen();
         this.url = ListUtil.add(url, this.url);
     }
 
@@ -99,6 +104,7 @@ public class SourceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SourceQuery url(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.url = ListUtil.add(fieldQuery, this.url);
         return this;
     }
@@ -111,6 +117,7 @@ public class SourceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SourceQuery url(final String extractAs) {
+        checkNotFrozen();
         this.url = ListUtil.add(new FieldQuery().extractAs(extractAs), this.url);
         return this;
     }
@@ -123,6 +130,7 @@ public class SourceQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SourceQuery url(final Filter filter) {
+        checkNotFrozen();
         this.url = ListUtil.add(new FieldQuery().filter(filter), this.url);
         return this;
     }
@@ -238,6 +246,44 @@ public class SourceQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public SourceQuery copy() {
+        return (SourceQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.producer);
+        ListUtil.freeze(this.url);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.producer = ListUtil.copy(this.producer);
+        this.url = ListUtil.copy(this.url);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final SourceQuery rhs = (SourceQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.producer, rhs.producer)
+                && ListUtil.equalsIgnoreOrder(this.url, rhs.url);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.producer);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.url);
+        return res;
+    }
+
     /** Producer of the system. */
     private List<FieldQuery> producer;
 
@@ -25,6 +25,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("names")
     private void names(final List<FieldQuery> names) {
+        checkNotFrozen();
         this.names = ListUtil.add(names, this.names);
     }
 
@@ -36,6 +37,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery names(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.names = ListUtil.add(fieldQuery, this.names);
         return this;
     }
@@ -48,6 +50,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery names(final String extractAs) {
+        checkNotFrozen();
         this.names = ListUtil.add(new FieldQuery().extractAs(extractAs), this.names);
         return this;
     }
@@ -60,6 +63,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery names(final Filter filter) {
+        checkNotFrozen();
         this.names = ListUtil.add(new FieldQuery().filter(filter), this.names);
         return this;
     }
@@ -91,6 +95,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("ids")
     private void ids(final List<IdQuery> ids) {
+        checkNotFrozen();
         this.ids = ListUtil.add(ids, this.ids);
     }
 
@@ -102,6 +107,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery ids(final IdQuery ids) {
+        checkNotFrozen();
         this.ids = ListUtil.add(ids, this.ids);
         return this;
     }
@@ -133,6 +139,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("classifications")
     private void classifications(final List<ClassificationQuery> classifications) {
+        checkNotFrozen();
         this.classifications = ListUtil.add(classifications, this.classifications);
     }
 
@@ -144,6 +151,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery classifications(final ClassificationQuery classifications) {
+        checkNotFrozen();
         this.classifications = ListUtil.add(classifications, this.classifications);
         return this;
     }
@@ -175,6 +183,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("source")
     private void source(final List<SourceQuery> source) {
+        checkNotFrozen();
         this.source = ListUtil.add(source, this.source);
     }
 
@@ -186,6 +195,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery source(final SourceQuery source) {
+        checkNotFrozen();
         this.source = ListUtil.add(source, this.source);
         return this;
     }
@@ -217,6 +227,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("quantity")
     private void quantity(final List<QuantityQuery> quantity) {
+        checkNotFrozen();
         this.quantity = ListUtil.add(quantity, this.quantity);
     }
 
@@ -228,6 +239,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery quantity(final QuantityQuery quantity) {
+        checkNotFrozen();
         this.quantity = ListUtil.add(quantity, this.quantity);
         return this;
     }
@@ -259,6 +271,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("chemicalFormula")
     private void chemicalFormula(final List<ChemicalFieldQuery> chemicalFormula) {
+        checkNotFrozen();
         this.chemicalFormula = ListUtil.add(chemicalFormula, this.chemicalFormula);
     }
 
@@ -270,6 +283,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery chemicalFormula(final ChemicalFieldQuery fieldQuery) {
+        checkNotFrozen();
         this.chemicalFormula = ListUtil.add(fieldQuery, this.chemicalFormula);
         return this;
     }
@@ -282,7 +296,8 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery chemicalFormula(final String extractAs) {
-        this.chemicalFormula = ListUtil.add(new ChemicalFieldQuery().extractAs(extractAs), this.chemicalFormula);
+        this.chemicalFormula =
+                ListUtil.add(new ChemicalFieldQuery().extractAs(extractAs), this.chemicalFormula);
         return this;
     }
 
@@ -294,6 +309,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery chemicalFormula(final ChemicalFilter filter) {
+        checkNotFrozen();
         this.chemicalFormula = ListUtil.add(new ChemicalFieldQuery().filter(filter), this.chemicalFormula);
         return this;
     }
@@ -325,6 +341,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("composition")
     private void composition(final List<CompositionQuery> composition) {
+        checkNotFrozen();
         this.composition = ListUtil.add(composition, this.composition);
     }
 
@@ -336,6 +353,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery composition(final CompositionQuery composition) {
+        checkNotFrozen();
         this.composition = ListUtil.add(composition, this.composition);
         return this;
     }
@@ -367,6 +385,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("properties")
     private void properties(final List<PropertyQuery> properties) {
+        checkNotFrozen();
         this.properties = ListUtil.add(properties, this.properties);
     }
 
@@ -378,6 +397,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery properties(final PropertyQuery properties) {
+        checkNotFrozen();
         this.properties = ListUtil.add(properties, this.properties);
         return this;
     }
@@ -409,6 +429,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("preparation")
     private void preparation(final List<ProcessStepQuery> preparation) {
+        checkNotFrozen();
         this.preparation = ListUtil.add(preparation, this.preparation);
     }
 
@@ -420,6 +441,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery preparation(final ProcessStepQuery preparation) {
+        checkNotFrozen();
         this.preparation = ListUtil.add(preparation, this.preparation);
         return this;
     }
@@ -451,6 +473,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("references")
     private void references(final List<ReferenceQuery> references) {
+        checkNotFrozen();
         this.references = ListUtil.add(references, this.references);
     }
 
@@ -462,6 +485,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery references(final ReferenceQuery references) {
+        checkNotFrozen();
         this.references = ListUtil.add(references, this.references);
         return this;
     }
@@ -493,6 +517,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonSetter("subSystems")
     private void subSystems(final List<SystemQuery> subSystems) {
+        checkNotFrozen();
         this.subSystems = ListUtil.add(subSystems, this.subSystems);
     }
 
@@ -504,6 +529,7 @@ public class SystemQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public SystemQuery subSystems(final SystemQuery subSystems) {
+        checkNotFrozen();
         this.subSystems = ListUtil.add(subSystems, this.subSystems);
         return this;
     }
@@ -619,6 +645,80 @@ public class SystemQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public SystemQuery copy() {
+        return (SystemQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.names);
+        ListUtil.freeze(this.ids);
+        ListUtil.freeze(this.classifications);
+        ListUtil.freeze(this.source);
+        ListUtil.freeze(this.quantity);
+        ListUtil.freeze(this.chemicalFormula);
+        ListUtil.freeze(this.composition);
+        ListUtil.freeze(this.properties);
+        ListUtil.freeze(this.preparation);
+        ListUtil.freeze(this.references);
+        ListUtil.freeze(this.subSystems);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.names = ListUtil.copy(this.names);
+        this.ids = ListUtil.copy(this.ids);
+        this.classifications = ListUtil.copy(this.classifications);
+        this.source = ListUtil.copy(this.source);
+        this.quantity = ListUtil.copy(this.quantity);
+        this.chemicalFormula = ListUtil.copy(this.chemicalFormula);
+        this.composition = ListUtil.copy(this.composition);
+        this.properties = ListUtil.copy(this.properties);
+        this.preparation = ListUtil.copy(this.preparation);
+        this.references = ListUtil.copy(this.references);
+        this.subSystems = ListUtil.copy(this.subSystems);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final SystemQuery rhs = (SystemQuery) obj;
+        return ListUtil.equalsIgnoreOrder(this.names, rhs.names)
+                && ListUtil.equalsIgnoreOrder(this.ids, rhs.ids)
+                && ListUtil.equalsIgnoreOrder(this.classifications, rhs.classifications)
+                && ListUtil.equalsIgnoreOrder(this.source, rhs.source)
+                && ListUtil.equalsIgnoreOrder(this.quantity, rhs.quantity)
+                && ListUtil.equalsIgnoreOrder(this.chemicalFormula, rhs.chemicalFormula)
+                && ListUtil.equalsIgnoreOrder(this.composition, rhs.composition)
+                && ListUtil.equalsIgnoreOrder(this.properties, rhs.properties)
+                && ListUtil.equalsIgnoreOrder(this.preparation, rhs.preparation)
+                && ListUtil.equalsIgnoreOrder(this.references, rhs.references)
+                && ListUtil.equalsIgnoreOrder(this.subSystems, rhs.subSystems);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.names);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.ids);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.classifications);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.source);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.quantity);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.chemicalFormula);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.composition);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.properties);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.preparation);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.references);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.subSystems);
+        return res;
+    }
+
     /** List of names operations. */
     private List<FieldQuery> names;
     
@@ -3,13 +3,16 @@ package io.citrine.jcc.search.pif.query.core;
 import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSetter;
+import io.citrine.jcc.util.Freezable;
+
+import java.util.Objects;
 
 /**
  * Configuration for normalization of units.
  *
  * @author Kyle Michel
  */
-public class UnitsNormalization {
+public class UnitsNormalization implements Freezable, Cloneable {
 
     /**
      * Set the units that the query is being run against.
@@ -19,6 +22,7 @@ public class UnitsNormalization {
      */
     @JsonSetter("search")
     public UnitsNormalization search(final String search) {
+        checkNotFrozen();
         this.search = search;
         return this;
     }
@@ -51,6 +55,7 @@ public class UnitsNormalization {
      */
     @JsonSetter("extract")
     public UnitsNormalization extract(final String extract) {
+        checkNotFrozen();
         this.extract = extract;
         return this;
     }
@@ -75,9 +80,76 @@ public class UnitsNormalization {
         return this.extract != null;
     }
 
+    /**
+     * Freeze this object. Methods that would change a frozen object throw an exception, so it can be shared between
+     * threads and between the copies of the queries that hold it.
+     */
+    @Override
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Get a copy of this object that can be changed. Its values are held by value, so the copy can be changed without
+     * affecting this object.
+     *
+     * @return Copy of this object.
+     */
+    @Override
+    @JsonIgnore
+    public UnitsNormalization copy() {
+        try {
+            final UnitsNormalization res = (UnitsNormalization) super.clone();
+            res.frozen = false;
+            return res;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);  // Not possible since this class is cloneable
+        }
+    }
+
+    /**
+     * Throw if this object is frozen. Every method that changes this object calls this first.
+     *
+     * @throws IllegalStateException if this object is frozen.
+     */
+    private void checkNotFrozen() {
+        if (this.frozen) {
+            throw new IllegalStateException("Frozen objects cannot be changed; change a copy instead");
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        final UnitsNormalization rhs = (UnitsNormalization) obj;
+        return Objects.equals(this.search, rhs.search)
+                && Objects.equals(this.extract, rhs.extract);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = Objects.hashCode(this.search);
+        res = 31 * res + Objects.hashCode(this.extract);
+        return res;
+    }
+
     /** Set of units being searched on. */
     private String search;
 
     /** Set of units to normalize extractions to. */
     private String extract;
-}
\ No newline at end of file
+
+    /** Whether this object can no longer be changed. */
+    private volatile boolean frozen;
+}
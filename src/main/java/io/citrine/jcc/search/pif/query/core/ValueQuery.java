@@ -7,6 +7,7 @@ import io.citrine.jcc.search.core.query.Logic;
 import io.citrine.jcc.util.ListUtil;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Class for querying against a single value.
@@ -22,6 +23,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonSetter("name")
     private void name(final List<FieldQuery> name) {
+        checkNotFrozen();
         this.name = ListUtil.add(name, this.name);
     }
 
@@ -33,6 +35,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ValueQuery name(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.name = ListUtil.add(fieldQuery, this.name);
         return this;
     }
@@ -45,6 +48,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ValueQuery name(final String extractAs) {
+        checkNotFrozen();
         this.name = ListUtil.add(new FieldQuery().extractAs(extractAs), this.name);
         return this;
     }
@@ -57,6 +61,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ValueQuery name(final Filter filter) {
+        checkNotFrozen();
         this.name = ListUtil.add(new FieldQuery().filter(filter), this.name);
         return this;
     }
@@ -88,6 +93,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonSetter("value")
     private void value(final List<FieldQuery> value) {
+        checkNotFrozen();
         this.value = ListUtil.add(value, this.value);
     }
 
@@ -99,6 +105,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ValueQuery value(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.value = ListUtil.add(fieldQuery, this.value);
         return this;
     }
@@ -111,6 +118,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ValueQuery value(final String extractAs) {
+        checkNotFrozen();
         this.value = ListUtil.add(new FieldQuery().extractAs(extractAs), this.value);
         return this;
     }
@@ -123,6 +131,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ValueQuery value(final Filter filter) {
+        checkNotFrozen();
         this.value = ListUtil.add(new FieldQuery().filter(filter), this.value);
         return this;
     }
@@ -154,6 +163,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonSetter("file")
     private void file(final List<FileReferenceQuery> file) {
+        checkNotFrozen();
         this.file = ListUtil.add(file, this.file);
     }
 
@@ -165,6 +175,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ValueQuery file(final FileReferenceQuery file) {
+        checkNotFrozen();
         this.file = ListUtil.add(file, this.file);
         return this;
     }
@@ -196,6 +207,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonSetter("units")
     private void units(final List<FieldQuery> units) {
+        checkNotFrozen();
         this.units = ListUtil.add(units, this.units);
     }
 
@@ -207,6 +219,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ValueQuery units(final FieldQuery fieldQuery) {
+        checkNotFrozen();
         this.units = ListUtil.add(fieldQuery, this.units);
         return this;
     }
@@ -219,6 +232,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ValueQuery units(final String extractAs) {
+        checkNotFrozen();
         this.units = ListUtil.add(new FieldQuery().extractAs(extractAs), this.units);
         return this;
     }
@@ -231,6 +245,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonIgnore
     public ValueQuery units(final Filter filter) {
+        checkNotFrozen();
         this.units = ListUtil.add(new FieldQuery().filter(filter), this.units);
         return this;
     }
@@ -263,6 +278,7 @@ public class ValueQuery extends BaseObjectQuery {
      */
     @JsonSetter("unitsNormalization")
     public ValueQuery unitsNormalization(final UnitsNormalization unitsNormalization) {
+        checkNotFrozen();
         this.unitsNormalization = unitsNormalization;
         return this;
     }
@@ -378,6 +394,56 @@ public class ValueQuery extends BaseObjectQuery {
         return this;
     }
 
+    @Override
+    @JsonIgnore
+    public ValueQuery copy() {
+        return (ValueQuery) super.copy();
+    }
+
+    @Override
+    protected void freezeChildren() {
+        super.freezeChildren();
+        ListUtil.freeze(this.name);
+        ListUtil.freeze(this.value);
+        ListUtil.freeze(this.file);
+        ListUtil.freeze(this.units);
+        ListUtil.freeze(this.unitsNormalization);
+    }
+
+    @Override
+    protected void copyChildren() {
+        super.copyChildren();
+        this.name = ListUtil.copy(this.name);
+        this.value = ListUtil.copy(this.value);
+        this.file = ListUtil.copy(this.file);
+        this.units = ListUtil.copy(this.units);
+        this.unitsNormalization = ListUtil.copy(this.unitsNormalization);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        final ValueQuery rhs = (ValueQuery) obj;
+        return Objects.equals(this.unitsNormalization, rhs.unitsNormalization)
+                && ListUtil.equalsIgnoreOrder(this.name, rhs.name)
+                && ListUtil.equalsIgnoreOrder(this.value, rhs.value)
+                && ListUtil.equalsIgnoreOrder(this.file, rhs.file)
+                && ListUtil.equalsIgnoreOrder(this.units, rhs.units);
+    }
+
+    @Override
+    public int hashCode() {
+        int res = super.hashCode();
+        res = 31 * res + Objects.hashCode(this.unitsNormalization);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.name);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.value);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.file);
+        res = 31 * res + ListUtil.hashCodeIgnoreOrder(this.units);
+        return res;
+    }
+
     /** List of name operations. */
     private List<FieldQuery> name;
 
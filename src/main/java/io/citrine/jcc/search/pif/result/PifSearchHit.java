@@ -4,11 +4,21 @@ import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import io.citrine.jpif.obj.common.Pio;
 import io.citrine.jpif.obj.system.System;
 import io.citrine.jpif.util.PifObjectMapper;
 
 import javax.validation.constraints.Null;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -16,11 +26,28 @@ import java.util.Set;
 /**
  * Class to store a single PIF search hit.
  *
+ * <p>If the {@link #LAZY_SYSTEM_BINDING} attribute is set to true on the reader that binds a hit, then the system is
+ * kept as a buffer of JSON tokens and is only bound to a {@link System} object the first time that
+ * {@link #getSystem()} is called. This makes hits whose system is never read much cheaper to create. Serializing a
+ * hit writes an unbound system straight from its buffer without binding it.
+ *
+ * <p>Systems are bound with the configuration of the mapper or reader that read the hit, whether they are bound
+ * eagerly or lazily, so features such as accepting a single value where an array is expected apply in the same way to
+ * both. A buffered system that was read without a codec is bound with a reader that is configured like the mapper of
+ * the client.
+ *
  * @author Kyle Michel
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class PifSearchHit {
 
+    /**
+     * Name of the attribute that can be set to {@link Boolean#TRUE} on an
+     * {@link com.fasterxml.jackson.databind.ObjectReader} to defer binding of the system of each hit until it is
+     * first requested.
+     */
+    public static final String LAZY_SYSTEM_BINDING = PifSearchHit.class.getName() + ".lazySystemBinding";
+
     /**
      * Set the id of the record that was matched.
      *
@@ -115,19 +142,60 @@ public class PifSearchHit {
      * @param system {@link System} to save in the result
      * @return This object.
      */
-    @JsonSetter("system")
-    public PifSearchHit setSystem(final System system) {
+    @JsonIgnore
+    public synchronized PifSearchHit setSystem(final System system) {
         this.system = system;
+        this.systemBuffer = null;
         return this;
     }
 
     /**
-     * Get the system that was matched.
+     * Set the system that was matched. This is either a bound {@link System} object or a {@link TokenBuffer} with the
+     * unbound system, depending on whether lazy binding was requested.
      *
-     * @return {@link System} with the record that was matched or a null pointer if it has not been set.
+     * @param system {@link System} or {@link TokenBuffer} with the system.
+     */
+    @JsonSetter("system")
+    @JsonDeserialize(using = SystemDeserializer.class)
+    private synchronized void system(final Object system) {  // Private since only Jackson should use it
+        if (system instanceof TokenBuffer) {
+            this.system = null;
+            this.systemBuffer = (TokenBuffer) system;
+        } else {
+            this.system = (System) system;
+            this.systemBuffer = null;
+        }
+    }
+
+    /**
+     * Get the system to serialize. A system that has not been bound yet is written from its buffer of JSON tokens, so
+     * serializing a hit, for example to save it in a cache, does not bind it.
+     *
+     * @return {@link System} or {@link TokenBuffer} with the system.
      */
     @JsonGetter("system")
-    public System getSystem() {
+    private synchronized Object system() {  // Private since only Jackson should use it
+        return (this.systemBuffer != null) ? this.systemBuffer : this.system;
+    }
+
+    /**
+     * Get the system that was matched. If the system has not been bound yet, then it is bound by this call.
+     *
+     * @return {@link System} with the record that was matched or a null pointer if it has not been set.
+     * @throws RuntimeException if the system cannot be bound.
+     */
+    @JsonIgnore
+    public synchronized System getSystem() {
+        if (this.systemBuffer != null) {
+            try (final JsonParser parser = this.systemBuffer.asParser()) {
+                parser.nextToken();
+                final ObjectCodec codec = this.systemBuffer.getCodec();
+                this.system = (codec == null) ? SYSTEM_READER.readValue(parser) : codec.readValue(parser, System.class);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to bind system", e);
+            }
+            this.systemBuffer = null;
+        }
         return this.system;
     }
 
@@ -140,6 +208,7 @@ public class PifSearchHit {
     @JsonSetter("extracted")
     protected PifSearchHit setExtracted(final Map<String, Object> extracted) {
         this.extracted = extracted;
+        clearConverted();
         return this;
     }
 
@@ -156,6 +225,7 @@ public class PifSearchHit {
                 this.extracted = new HashMap<>();
             }
             this.extracted.putAll(extracted);
+            clearConverted();
         }
         return this;
     }
@@ -173,6 +243,7 @@ public class PifSearchHit {
             this.extracted = new HashMap<>();
         }
         this.extracted.put(key, value);
+        clearConverted();
         return this;
     }
 
@@ -209,7 +280,8 @@ public class PifSearchHit {
 
     /**
      * Get an extracted value an convert it to the type of valueClass. This method assumes that the value can be
-     * converted to the specified class by serialized the value to JSON then deserializing to the class type.
+     * converted to the specified class by binding the parsed value to the class type. Converted values are saved, so
+     * repeated calls with the same key and class return the same object.
      *
      * @param key String with the key of the extracted value.
      * @param valueClass Class to convert the extracted value to.
@@ -219,7 +291,7 @@ public class PifSearchHit {
      */
     @JsonIgnore
     public <T extends Pio> T getExtractValue(final String key, final Class<T> valueClass) {
-        return (this.extracted == null) ? null : convert(this.extracted.get(key), valueClass);
+        return (this.extracted == null) ? null : convert(key, valueClass);
     }
 
     /**
@@ -246,34 +318,50 @@ public class PifSearchHit {
     @JsonIgnore
     public <T extends Pio> T getExtractedValueOrDefault(
             final String key, final T defaultValue, final Class<T> valueClass) {
-        final T converted = (this.extracted == null) ? defaultValue : convert(this.extracted.get(key), valueClass);
+        final T converted = (this.extracted == null) ? defaultValue : convert(key, valueClass);
         return (converted == null) ? defaultValue : converted;
     }
 
     /**
-     * Convert the input object to an instance of the specified class by serializing it to JSON then deserializing to
-     * the requested class.
+     * Convert the extracted value with the input key to an instance of the specified class. The parsed form of the
+     * value is written to a buffer of JSON tokens once, and every class that the value is converted to is bound from
+     * that buffer. The result is saved so that later calls for the same key and class do not repeat the conversion.
+     * Saved conversions are discarded if the extracted value changes.
      *
-     * @param object Object to convert.
+     * @param key String with the key of the extracted value.
      * @param objectClass Class to convert the extracted value to.
      * @param <T> Type of the value to convert to.
-     * @return Converted value.
+     * @return Converted value or a null pointer if the key is not available.
      * @throws RuntimeException if the value cannot be converted.
      */
-    @JsonIgnore
-    private <T extends Pio> T convert(final Object object, final Class<T> objectClass) {
+    private <T extends Pio> T convert(final String key, final Class<T> objectClass) {
+        final Object object = this.extracted.get(key);
         if (object == null) {
             return null;
         }
-        else {
-            try {
-                final byte[] serialized = PifObjectMapper.getInstance().writeValueAsBytes(object);
-                return PifObjectMapper.getInstance().readValue(serialized, objectClass);
+        if (objectClass.isInstance(object)) {
+            return objectClass.cast(object);
+        }
+        final Conversions conversions;
+        synchronized (this) {
+            if (this.converted == null) {
+                this.converted = new HashMap<>();
             }
-            catch (Exception e) {
-                throw new RuntimeException("Failed to convert value", e);
+            Conversions existing = this.converted.get(key);
+            if ((existing == null) || (existing.source != object)) {
+                existing = new Conversions(object);
+                this.converted.put(key, existing);
             }
+            conversions = existing;
         }
+        return conversions.get(objectClass);
+    }
+
+    /**
+     * Discard all saved conversions of extracted values.
+     */
+    private synchronized void clearConverted() {
+        this.converted = null;
     }
 
     /** Id of the record. */
@@ -291,6 +379,108 @@ public class PifSearchHit {
     /** Pif system that was matched. */
     private System system;
 
+    /** Unbound JSON tokens of the system that was matched or a null pointer if it has been bound. */
+    private TokenBuffer systemBuffer;
+
     /** Map of extracted fields. */
     private Map<String, Object> extracted = new HashMap<>();
+
+    /** Saved conversions of extracted values by key or a null pointer if no values have been converted. */
+    private Map<String, Conversions> converted;
+
+    /** Mapper used to write extracted values to buffers of JSON tokens. */
+    private static final ObjectMapper PIF_MAPPER = PifObjectMapper.getInstance();
+
+    /** Reader used to bind extracted values. Unknown properties are ignored in the same way as for systems. */
+    private static final ObjectReader PIF_READER = PIF_MAPPER.reader()
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    /**
+     * Reader used to bind a buffered system that has no codec. It is configured like the mapper of the client, which
+     * ignores unknown properties and accepts single values in place of arrays and the other way around.
+     */
+    private static final ObjectReader SYSTEM_READER = new ObjectMapper().readerFor(System.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .with(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+            .with(DeserializationFeature.UNWRAP_SINGLE_VALUE_ARRAYS);
+
+    /**
+     * Converted forms of a single extracted value.
+     *
+     * @author Kyle Michel
+     */
+    private static class Conversions {
+
+        /**
+         * Get the extracted value converted to a class, converting it if this is the first request for that class.
+         *
+         * @param objectClass Class to convert the extracted value to.
+         * @param <T> Type of the value to convert to.
+         * @return Converted value.
+         * @throws RuntimeException if the value cannot be converted.
+         */
+        synchronized <T extends Pio> T get(final Class<T> objectClass) {
+            final Pio saved = this.values.get(objectClass);
+            if (saved != null) {
+                return objectClass.cast(saved);
+            }
+            final T value;
+            try {
+                if (this.tokens == null) {
+                    final TokenBuffer tokens = new TokenBuffer(PIF_MAPPER, false);
+                    PIF_MAPPER.writeValue(tokens, this.source);
+                    this.tokens = tokens;
+                }
+                try (final JsonParser parser = this.tokens.asParser(PIF_MAPPER)) {
+                    parser.nextToken();
+                    value = PIF_READER.forType(objectClass).readValue(parser);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to convert value", e);
+            }
+            if (value != null) {
+                this.values.put(objectClass, value);
+            }
+            return value;
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param source Extracted value that the conversions were made from.
+         */
+        Conversions(final Object source) {
+            this.source = source;
+        }
+
+        /** Extracted value that the conversions were made from. */
+        private final Object source;
+
+        /** JSON tokens of the extracted value or a null pointer if it has not been converted yet. */
+        private TokenBuffer tokens;
+
+        /** Map of classes to the extracted value converted to that class. */
+        private final Map<Class<?>, Pio> values = new HashMap<>();
+    }
+
+    /**
+     * Deserializer for the system of a hit. This binds the system to a {@link System} object unless the
+     * {@link #LAZY_SYSTEM_BINDING} attribute is set, in which case the tokens of the system are copied to a
+     * {@link TokenBuffer} to be bound later. The buffer keeps the codec of the parser, so a system that is bound later
+     * is bound with the same configuration as one that is bound now.
+     *
+     * @author Kyle Michel
+     */
+    private static class SystemDeserializer extends JsonDeserializer<Object> {
+
+        @Override
+        public Object deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+            if (Boolean.TRUE.equals(context.getAttribute(LAZY_SYSTEM_BINDING))) {
+                final TokenBuffer buffer = new TokenBuffer(parser, context);
+                buffer.copyCurrentStructure(parser);
+                return buffer;
+            }
+            return context.readValue(parser, System.class);
+        }
+    }
 }
\ No newline at end of file
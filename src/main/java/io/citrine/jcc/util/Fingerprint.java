@@ -0,0 +1,264 @@
+package io.citrine.jcc.util;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 128-bit fingerprint of the canonical form of a query. Fingerprints do not depend on the JVM that computed them, so
+ * they can be used as keys of caches that are saved to disk.
+ *
+ * <p>Two queries that are equal have the same fingerprint. This class and the {@code equals} methods of the queries
+ * follow the same rules, which are kept here:
+ * <ul>
+ *     <li>A null list is the same as an empty list.</li>
+ *     <li>The order of a list matters only for {@code sortExtracted}, where it is the priority of the sorts, and for
+ *     the {@code queries} of a multi-query, where it is the order of the results. These are compared with
+ *     {@link ListUtil#equalsInOrder(java.util.List, java.util.List)}.</li>
+ *     <li>Every other list holds sub-queries or values that are combined using their
+ *     {@link io.citrine.jcc.search.core.query.Logic} values, so its order does not change the result. These are
+ *     compared with {@link ListUtil#equalsIgnoreOrder(java.util.List, java.util.List)}, which also counts repeats.</li>
+ *     <li>{@code extractWhenMissing} is a value rather than a query, so its lists keep their order and their null
+ *     elements. Only the order of the keys of its maps is ignored.</li>
+ * </ul>
+ * A new field with a list whose order matters must be added to {@code ORDERED_FIELDS} and compared in order.
+ *
+ * @author Kyle Michel
+ */
+public final class Fingerprint {
+
+    /**
+     * Compute the fingerprint of a query. The query is converted to its canonical form, in which fields are sorted by
+     * name, null values and empty lists are dropped, and lists whose order does not matter are sorted, and the
+     * canonical form is then hashed with SHA-256. The canonical form is written as compact JSON from the leaves up, so
+     * each element of a list is converted once and unordered lists are sorted on the text of their elements.
+     *
+     * @param query Query to get the fingerprint of.
+     * @return {@link Fingerprint} of the query.
+     * @throws UncheckedIOException if the query cannot be serialized.
+     */
+    public static Fingerprint of(final Object query) {
+        try {
+            final String canonical = canonicalize(OBJECT_MAPPER.valueToTree(query), true);
+            final byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(((canonical == null) ? NULL : canonical).getBytes(StandardCharsets.UTF_8));
+            final ByteBuffer buffer = ByteBuffer.wrap(hash);
+            return new Fingerprint(buffer.getLong(), buffer.getLong());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalArgumentException e) {
+            throw new UncheckedIOException(new IOException("Failed to serialize query", e));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Get the high 64 bits of the fingerprint.
+     *
+     * @return High 64 bits of the fingerprint.
+     */
+    public long getHigh() {
+        return this.high;
+    }
+
+    /**
+     * Get the low 64 bits of the fingerprint.
+     *
+     * @return Low 64 bits of the fingerprint.
+     */
+    public long getLow() {
+        return this.low;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        final Fingerprint rhs = (Fingerprint) obj;
+        return (this.high == rhs.high) && (this.low == rhs.low);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (this.low ^ (this.low >>> 32));
+    }
+
+    /**
+     * Get the fingerprint as a string of 32 hexadecimal digits.
+     *
+     * @return String with the fingerprint.
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", this.high, this.low);
+    }
+
+    /**
+     * Convert a serialized query to the compact JSON text of its canonical form.
+     *
+     * @param node {@link JsonNode} to convert.
+     * @param ordered True if the order of the elements matters when the node is a list.
+     * @return Canonical form of the node or a null pointer if the node is null or an empty list.
+     * @throws IOException if a value cannot be written.
+     */
+    private static String canonicalize(final JsonNode node, final boolean ordered) throws IOException {
+        if ((node == null) || node.isNull()) {
+            return null;
+        } else if (node.isObject()) {
+            final TreeMap<String, String> fields = new TreeMap<>();
+            final Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+            while (entries.hasNext()) {
+                final Map.Entry<String, JsonNode> entry = entries.next();
+                final String name = entry.getKey();
+                final String value = VERBATIM_FIELDS.contains(name)
+                        ? (entry.getValue().isNull() ? null : canonicalizeValue(entry.getValue()))
+                        : canonicalize(entry.getValue(), ORDERED_FIELDS.contains(name));
+                if (value != null) {
+                    fields.put(name, value);
+                }
+            }
+            return writeObject(fields);
+        } else if (node.isArray()) {
+            if (node.size() == 0) {
+                return null;
+            }
+            final String[] elements = new String[node.size()];
+            for (int i = 0; i < elements.length; ++i) {
+                final String element = canonicalize(node.get(i), true);
+                elements[i] = (element == null) ? NULL : element;
+            }
+            if (!ordered) {
+                Arrays.sort(elements);  // Each element is converted once, so its text is the precomputed sort key
+            }
+            return writeArray(elements);
+        }
+        return writeScalar(node);
+    }
+
+    /**
+     * Convert a value that is kept exactly as it is to the compact JSON text of its canonical form. Only the fields of
+     * objects are sorted by name, since that order is not kept by {@link java.util.Map#equals(Object)}.
+     *
+     * @param node {@link JsonNode} to convert.
+     * @return Canonical form of the node.
+     * @throws IOException if a value cannot be written.
+     */
+    private static String canonicalizeValue(final JsonNode node) throws IOException {
+        if (node.isObject()) {
+            final TreeMap<String, String> fields = new TreeMap<>();
+            final Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+            while (entries.hasNext()) {
+                final Map.Entry<String, JsonNode> entry = entries.next();
+                fields.put(entry.getKey(), canonicalizeValue(entry.getValue()));
+            }
+            return writeObject(fields);
+        } else if (node.isArray()) {
+            final String[] elements = new String[node.size()];
+            for (int i = 0; i < elements.length; ++i) {
+                elements[i] = canonicalizeValue(node.get(i));
+            }
+            return writeArray(elements);
+        }
+        return writeScalar(node);
+    }
+
+    /**
+     * Write an object as compact JSON.
+     *
+     * @param fields Map of field names to the JSON text of their values, in the order to write them.
+     * @return JSON text of the object.
+     */
+    private static String writeObject(final Map<String, String> fields) {
+        final StringBuilder res = new StringBuilder().append('{');
+        for (Map.Entry<String, String> i : fields.entrySet()) {
+            if (res.length() > 1) {
+                res.append(',');
+            }
+            res.append('"').append(ENCODER.quoteAsString(i.getKey())).append("\":").append(i.getValue());
+        }
+        return res.append('}').toString();
+    }
+
+    /**
+     * Write an array as compact JSON.
+     *
+     * @param elements JSON text of the elements, in the order to write them.
+     * @return JSON text of the array.
+     */
+    private static String writeArray(final String[] elements) {
+        final StringBuilder res = new StringBuilder().append('[');
+        for (int i = 0; i < elements.length; ++i) {
+            if (i > 0) {
+                res.append(',');
+            }
+            res.append(elements[i]);
+        }
+        return res.append(']').toString();
+    }
+
+    /**
+     * Write a value that is not a container as compact JSON.
+     *
+     * @param node {@link JsonNode} to write.
+     * @return JSON text of the value.
+     * @throws IOException if the value cannot be written.
+     */
+    private static String writeScalar(final JsonNode node) throws IOException {
+        if (node.isTextual()) {
+            return '"' + new String(ENCODER.quoteAsString(node.textValue())) + '"';
+        }
+        return OBJECT_MAPPER.writeValueAsString(node);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param high High 64 bits of the fingerprint.
+     * @param low Low 64 bits of the fingerprint.
+     */
+    public Fingerprint(final long high, final long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /** High 64 bits of the fingerprint. */
+    private final long high;
+
+    /** Low 64 bits of the fingerprint. */
+    private final long low;
+
+    /** Mapper used to serialize queries. */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /** Encoder used to quote strings in the same way as the generators of {@link #OBJECT_MAPPER}. */
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+    /** JSON text of a null value. */
+    private static final String NULL = "null";
+
+    /** Fields with lists whose order matters, such as the priority of sorts or the results of a multi-query. */
+    private static final Set<String> ORDERED_FIELDS = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("sortExtracted", "queries")));
+
+    /** Fields that hold values rather than queries, and so are kept exactly as they are. */
+    private static final Set<String> VERBATIM_FIELDS = Collections.singleton("extractWhenMissing");
+}
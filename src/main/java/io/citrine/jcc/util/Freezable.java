@@ -0,0 +1,34 @@
+package io.citrine.jcc.util;
+
+/**
+ * Object that can be frozen so that it can no longer be changed. A frozen object and everything that it holds is
+ * immutable, so it can be shared between threads and between the copies that are derived from it. Copies of an object
+ * share the parts of it that are frozen and copy the rest, so deriving a variant of a frozen object only allocates
+ * along the path to the values that change.
+ *
+ * @author Kyle Michel
+ */
+public interface Freezable {
+
+    /**
+     * Freeze this object and every object that it holds. Methods that would change a frozen object throw an
+     * {@link IllegalStateException}. Freezing an object that is already frozen does nothing.
+     */
+    void freeze();
+
+    /**
+     * Return whether this object is frozen.
+     *
+     * @return True if this object can no longer be changed.
+     */
+    boolean isFrozen();
+
+    /**
+     * Get a copy of this object that can be changed. The copy shares the objects that this one holds if they are
+     * frozen and holds copies of them otherwise, so changes to either object afterwards do not affect the other, and
+     * this object is never changed by copying it.
+     *
+     * @return Copy of this object that is not frozen.
+     */
+    Freezable copy();
+}
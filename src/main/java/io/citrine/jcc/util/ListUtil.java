@@ -1,8 +1,14 @@
 package io.citrine.jcc.util;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * Utility methods for working with lists.
@@ -12,43 +18,136 @@ import java.util.List;
 public abstract class ListUtil {
 
     /**
-     * If the input element is not null, then add it to the list, otherwise do nothing. If the list is null and the
-     * element is being added, then create a new one.
+     * If the input element is not null, then add it to the end of the list, otherwise do nothing. The element is
+     * added in place if the list was created by this class and is not frozen, and otherwise a new list is returned
+     * with the elements of the input list followed by the element. Lists that are shared by copies of an object are
+     * frozen with {@link #freeze(List)}, so each copy builds its own list, while an object that is not copied builds
+     * its lists in linear time.
      *
      * @param value Value to add to the list.
      * @param list List to add the value to.
      * @param <T> Type of the value to add.
-     * @return Either the input list or a newly created one if that list was a null pointer.
+     * @return List with the value added, which is the input list if the value is a null pointer.
      */
-    public static <T> List<T> add(final T value, List<T> list) {
+    public static <T> List<T> add(final T value, final List<T> list) {
         if (value == null) {
             return list;
         }
-        if (list == null) {
-            list = new ArrayList<>();
-        }
-        list.add(value);
-        return list;
+        final List<T> res = writable(list, 1);
+        res.add(value);
+        return res;
     }
 
     /**
-     * If the input list is not null, then add all elements that it contains to the output list, otherwise do nothing.
-     * If the output list is null and values are being added, then create a new one.
+     * If the input list of values is not null, then add them to the end of the list, otherwise do nothing. Values are
+     * added in place or to a new list in the same way as {@link #add(Object, List)}, and the list of values is never
+     * changed, so this is the way to add many values at once.
      *
      * @param values Values to add to the list.
-     * @param list List to add the value to.
+     * @param list List to add the values to.
      * @param <T> Type of the values to add.
-     * @return Either the input list or a newly created one if that list was a null pointer.
+     * @return List with the values added, which is the input list if the values are a null pointer.
      */
-    public static <T> List<T> add(final List<T> values, List<T> list) {
+    public static <T> List<T> add(final List<T> values, final List<T> list) {
         if (values == null) {
             return list;
         }
+        final List<T> res = writable(list, values.size());
+        res.addAll(values);
+        return res;
+    }
+
+    /**
+     * Replace the element at an index of a list. The element is replaced in place or in a new list in the same way as
+     * {@link #add(Object, List)}. This is used to change a nested query of a copy without changing the original: copy
+     * the nested query, change the copy, and put it in place of the original one.
+     *
+     * @param index Index of the element to replace.
+     * @param value Value to put at the index.
+     * @param list List to replace the element of.
+     * @param <T> Type of the value.
+     * @return List with the element replaced.
+     * @throws IndexOutOfBoundsException if the index is not in the list.
+     * @throws NullPointerException if the value is a null pointer.
+     */
+    public static <T> List<T> replace(final int index, final T value, final List<T> list) {
+        Objects.requireNonNull(value, "value");
+        if ((index < 0) || (index >= length(list))) {
+            throw new IndexOutOfBoundsException("Index out of range: " + index + " of " + length(list));
+        }
+        final List<T> res = writable(list, 0);
+        res.set(index, value);
+        return res;
+    }
+
+    /**
+     * Freeze a list and every {@link Freezable} element of it. A frozen list that was created by this class throws an
+     * {@link UnsupportedOperationException} from every method that would change it, and the methods of this class
+     * that add to it return a new list instead. Lists that were not created by this class are never changed by it,
+     * so only their elements are frozen.
+     *
+     * @param list List to freeze.
+     */
+    public static void freeze(final List<?> list) {
         if (list == null) {
-            list = new ArrayList<>();
+            return;
+        }
+        final FreezableList<?> freezable = (list instanceof FreezableList) ? (FreezableList<?>) list : null;
+        if ((freezable != null) && freezable.frozen) {
+            return;
+        }
+        for (Object i : list) {
+            freeze(i);
+        }
+        if (freezable != null) {
+            freezable.frozen = true;  // Set last so that a list that is seen as frozen holds only frozen elements
+        }
+    }
+
+    /**
+     * Freeze an object if it is {@link Freezable}, otherwise do nothing.
+     *
+     * @param obj Object to freeze, which may be a null pointer.
+     */
+    public static void freeze(final Object obj) {
+        if (obj instanceof Freezable) {
+            ((Freezable) obj).freeze();
+        }
+    }
+
+    /**
+     * Get a copy of a list for a copy of the object that holds it. A frozen list is returned as is, since it cannot
+     * change and is copied by this class before anything is added to it. Otherwise a new list is returned in which
+     * every {@link Freezable} element that is not frozen is replaced by its {@link Freezable#copy()}. The input list
+     * is never changed.
+     *
+     * @param list List to copy.
+     * @param <T> Type of the values in the list.
+     * @return List with the same values that can be changed without affecting the input list, or a null pointer if
+     *      the input list is a null pointer.
+     */
+    public static <T> List<T> copy(final List<T> list) {
+        if ((list == null) || ((list instanceof FreezableList) && ((FreezableList<T>) list).frozen)) {
+            return list;
+        }
+        final FreezableList<T> res = new FreezableList<>(list.size());
+        for (T i : list) {
+            res.add(copy(i));
         }
-        list.addAll(values);
-        return list;
+        return res;
+    }
+
+    /**
+     * Get a copy of an object for a copy of the object that holds it. Objects that are frozen or that are not
+     * {@link Freezable} are returned as is.
+     *
+     * @param obj Object to copy.
+     * @param <T> Type of the object.
+     * @return Copy of the object or the object itself if it can be shared.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T copy(final T obj) {
+        return ((obj instanceof Freezable) && !((Freezable) obj).isFrozen()) ? (T) ((Freezable) obj).copy() : obj;
     }
 
     /**
@@ -105,6 +204,176 @@ public abstract class ListUtil {
         return (list == null) ? 0 : list.size();
     }
 
+    /**
+     * Return whether two lists contain the same elements in the same order. A null pointer is equal to an empty list.
+     * See {@link Fingerprint} for which lists of a query are compared in order.
+     *
+     * @param lhs First list to compare.
+     * @param rhs Second list to compare.
+     * @return True if the lists contain equal elements in the same order.
+     */
+    public static boolean equalsInOrder(final List<?> lhs, final List<?> rhs) {
+        final int size = length(lhs);
+        return (size == length(rhs)) && ((size == 0) || lhs.equals(rhs));
+    }
+
+    /**
+     * Get a hash code for a list that is consistent with {@link #equalsInOrder(List, List)}.
+     *
+     * @param list List to get the hash code of.
+     * @return Hash code of the list or 0 if it is a null pointer or empty.
+     */
+    public static int hashCodeInOrder(final List<?> list) {
+        return hasContent(list) ? list.hashCode() : 0;
+    }
+
+    /**
+     * Return whether two lists contain the same elements, and the same number of each element, in any order. This
+     * is used for lists of queries that are combined using their {@link io.citrine.jcc.search.core.query.Logic}
+     * values, where the order of the queries does not change the result. A null pointer is equal to an empty list.
+     * See {@link Fingerprint} for which lists of a query are compared in order.
+     *
+     * @param lhs First list to compare.
+     * @param rhs Second list to compare.
+     * @param <T> Type of the values in the lists.
+     * @return True if the lists contain the same elements.
+     */
+    public static <T> boolean equalsIgnoreOrder(final List<T> lhs, final List<T> rhs) {
+        final int size = length(lhs);
+        if (size != length(rhs)) {
+            return false;
+        }
+        if ((size == 0) || lhs.equals(rhs)) {
+            return true;
+        }
+        final Map<T, Integer> counts = new HashMap<>(2 * size);
+        for (T i : lhs) {
+            counts.merge(i, 1, Integer::sum);
+        }
+        for (T i : rhs) {
+            final Integer count = counts.get(i);
+            if (count == null) {
+                return false;
+            } else if (count == 1) {
+                counts.remove(i);
+            } else {
+                counts.put(i, count - 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get a hash code for a list that is consistent with {@link #equalsIgnoreOrder(List, List)}.
+     *
+     * @param list List to get the hash code of.
+     * @return Hash code of the list that does not depend on the order of its elements, or 0 if it is a null pointer
+     *      or empty.
+     */
+    public static int hashCodeIgnoreOrder(final List<?> list) {
+        int res = 0;
+        if (list != null) {
+            for (Object i : list) {
+                res += Objects.hashCode(i);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Get a list that can be changed in place. This is the input list if it was created by this class and is not
+     * frozen, otherwise it is a new list with the same elements.
+     *
+     * @param list List to get a version of that can be changed.
+     * @param extra Number of elements that are about to be added.
+     * @param <T> Type of the values in the list.
+     * @return List that can be changed in place.
+     */
+    private static <T> List<T> writable(final List<T> list, final int extra) {
+        if ((list instanceof FreezableList) && !((FreezableList<T>) list).frozen) {
+            return list;
+        }
+        final FreezableList<T> res = new FreezableList<>(length(list) + extra);
+        if (list != null) {
+            res.addAll(list);
+        }
+        return res;
+    }
+
     // Make sure that objects of this class cannot be instantiated
     private ListUtil() {}
-}
\ No newline at end of file
+
+    /**
+     * List that can be frozen so that it can no longer be changed. Every change to an {@link java.util.AbstractList}
+     * goes through {@link #add(int, Object)}, {@link #set(int, Object)} or {@link #remove(int)}, including changes
+     * made through iterators and sub-lists, so checking in those methods is enough to make a frozen list immutable.
+     *
+     * @param <T> Type of the values in the list.
+     * @author Kyle Michel
+     */
+    private static class FreezableList<T> extends AbstractList<T> implements RandomAccess {
+
+        @Override
+        public T get(final int index) {
+            return this.values.get(index);
+        }
+
+        @Override
+        public int size() {
+            return this.values.size();
+        }
+
+        @Override
+        public T set(final int index, final T value) {
+            checkNotFrozen();
+            return this.values.set(index, value);
+        }
+
+        @Override
+        public void add(final int index, final T value) {
+            checkNotFrozen();
+            ++this.modCount;
+            this.values.add(index, value);
+        }
+
+        @Override
+        public boolean addAll(final Collection<? extends T> values) {
+            checkNotFrozen();
+            ++this.modCount;
+            return this.values.addAll(values);
+        }
+
+        @Override
+        public T remove(final int index) {
+            checkNotFrozen();
+            ++this.modCount;
+            return this.values.remove(index);
+        }
+
+        /**
+         * Throw if this list is frozen.
+         *
+         * @throws UnsupportedOperationException if this list is frozen.
+         */
+        private void checkNotFrozen() {
+            if (this.frozen) {
+                throw new UnsupportedOperationException("List is frozen");
+            }
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param capacity Initial capacity of the list.
+         */
+        FreezableList(final int capacity) {
+            this.values = new ArrayList<>(capacity);
+        }
+
+        /** Values in the list. */
+        private final ArrayList<T> values;
+
+        /** Whether the list can no longer be changed. */
+        private volatile boolean frozen;
+    }
+}
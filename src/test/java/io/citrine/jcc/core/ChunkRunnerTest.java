@@ -0,0 +1,136 @@
+package io.citrine.jcc.core;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link ChunkRunner}.
+ *
+ * @author Kyle Michel
+ */
+public class ChunkRunnerTest {
+
+    @Test
+    public void testResultsInOrder() throws Exception {
+        final List<Integer> results = new ChunkRunner<>(Arrays.asList(1, 2, 3, 4, 5), 2, 0,
+                (Integer chunk) -> CompletableFuture.completedFuture(chunk * 10))
+                .run().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(Arrays.asList(10, 20, 30, 40, 50), results);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        final List<Integer> results = new ChunkRunner<>(Collections.<Integer>emptyList(), 2, 0,
+                (Integer chunk) -> CompletableFuture.completedFuture(chunk))
+                .run().get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void testRetriesRetryableFailures() throws Exception {
+        final ConcurrentHashMap<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        final List<Integer> results = new ChunkRunner<>(Arrays.asList(1, 2, 3), 3, 3, 1, 4,
+                (Integer chunk) -> {
+                    final int attempt = attempts.computeIfAbsent(chunk, i -> new AtomicInteger()).getAndIncrement();
+                    if (attempt == 0) {
+                        return failed((chunk == 1) ? new IOException("reset")
+                                : (chunk == 2) ? status(503) : status(429));
+                    }
+                    return CompletableFuture.completedFuture(chunk);
+                })
+                .run().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(Arrays.asList(1, 2, 3), results);
+        for (int i = 1; i <= 3; ++i) {
+            Assert.assertEquals(2, attempts.get(i).get());
+        }
+    }
+
+    @Test
+    public void testDoesNotRetryClientErrors() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final CompletableFuture<List<Integer>> result = new ChunkRunner<>(Collections.singletonList(1), 1, 3, 1, 4,
+                (Integer chunk) -> {
+                    attempts.incrementAndGet();
+                    return failed(status(400));
+                })
+                .run();
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected the chunk to fail");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(400, ((HttpStatusException) e.getCause()).getStatusCode());
+        }
+        Assert.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testGivesUpAfterMaxRetries() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final CompletableFuture<List<Integer>> result = new ChunkRunner<>(Collections.singletonList(1), 1, 2, 1, 4,
+                (Integer chunk) -> {
+                    attempts.incrementAndGet();
+                    return failed(status(500));
+                })
+                .run();
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected the chunk to fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof HttpStatusException);
+        }
+        Assert.assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testFailureCancelsOtherChunks() throws Exception {
+        final CompletableFuture<Integer> slow = new CompletableFuture<>();
+        final CompletableFuture<List<Integer>> result = new ChunkRunner<>(Arrays.asList(1, 2), 2, 0,
+                (Integer chunk) -> (chunk == 1) ? slow : failed(status(400)))
+                .run();
+        Assert.assertTrue(result.isCompletedExceptionally());
+        Assert.assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    public void testIsRetryable() {
+        Assert.assertTrue(ChunkRunner.isRetryable(new IOException()));
+        Assert.assertTrue(ChunkRunner.isRetryable(status(429)));
+        Assert.assertTrue(ChunkRunner.isRetryable(status(502)));
+        Assert.assertFalse(ChunkRunner.isRetryable(status(404)));
+        Assert.assertFalse(ChunkRunner.isRetryable(new IllegalStateException()));
+    }
+
+    /**
+     * Build the exception for a response with a status code.
+     *
+     * @param statusCode Status code of the response.
+     * @return {@link HttpStatusException} for the status.
+     */
+    private static HttpStatusException status(final int statusCode) {
+        return new HttpStatusException(new BasicStatusLine(HttpVersion.HTTP_1_1, statusCode, "status"));
+    }
+
+    /**
+     * Build a future that has failed.
+     *
+     * @param throwable {@link Throwable} that the future fails with.
+     * @return {@link CompletableFuture} that has failed.
+     */
+    private static CompletableFuture<Integer> failed(final Throwable throwable) {
+        final CompletableFuture<Integer> res = new CompletableFuture<>();
+        res.completeExceptionally(throwable);
+        return res;
+    }
+}
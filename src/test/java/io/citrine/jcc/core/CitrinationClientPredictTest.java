@@ -0,0 +1,240 @@
+package io.citrine.jcc.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.citrine.jcc.predict.PredictedValue;
+import io.citrine.jcc.predict.PredictionRequest;
+import io.citrine.jcc.predict.PredictionResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Tests for sending prediction requests with {@link CitrinationClient}.
+ *
+ * @author Kyle Michel
+ */
+public class CitrinationClientPredictTest {
+
+    @After
+    public void tearDown() throws IOException {
+        if (this.client != null) {
+            this.client.close();
+        }
+        if (this.server != null) {
+            this.server.close();
+        }
+    }
+
+    @Test
+    public void testSingleChunkIsRetried() throws IOException {
+        final AtomicInteger failures = new AtomicInteger(2);
+        start(request -> (failures.getAndDecrement() > 0) ? TestServer.Response.of(503, "") : predict(request),
+                builder -> builder.setPredictMaxRetries(2));
+        assertPredictions(this.client.predict("model", candidates(3)).getCandidates(), 3);
+        Assert.assertEquals(3, this.server.getRequests().size());
+    }
+
+    @Test
+    public void testRetriesRunOut() throws IOException {
+        start(request -> TestServer.Response.of(500, ""), builder -> builder.setPredictMaxRetries(1));
+        try {
+            this.client.predict("model", candidates(1));
+            Assert.fail("Expected the prediction to fail");
+        } catch (HttpStatusException e) {
+            Assert.assertEquals(500, e.getStatusCode());
+        }
+        Assert.assertEquals(2, this.server.getRequests().size());
+    }
+
+    @Test
+    public void testClientErrorIsNotRetried() throws IOException {
+        start(request -> TestServer.Response.of(400, ""), builder -> builder.setPredictMaxRetries(3));
+        try {
+            this.client.predict("model", candidates(1));
+            Assert.fail("Expected the prediction to fail");
+        } catch (HttpStatusException e) {
+            Assert.assertEquals(400, e.getStatusCode());
+        }
+        Assert.assertEquals(1, this.server.getRequests().size());
+    }
+
+    @Test
+    public void testChunksKeepOrder() throws IOException {
+        start(CitrinationClientPredictTest::predict, builder -> builder.setPredictChunkSize(2));
+        assertPredictions(this.client.predict("model", candidates(7)).getCandidates(), 7);
+        Assert.assertEquals(4, this.server.getRequests().size());
+    }
+
+    @Test
+    public void testPredictAsync() throws Exception {
+        start(CitrinationClientPredictTest::predict, builder -> builder);
+        final PredictionResult res = this.client.predictAsync("model", candidates(4)).get(10, TimeUnit.SECONDS);
+        assertPredictions(res.getCandidates(), 4);
+        Assert.assertEquals("/api/csv_to_models/model/predict", this.server.getRequests().get(0).getPath());
+    }
+
+    @Test
+    public void testPredictAsyncFailure() throws Exception {
+        start(request -> TestServer.Response.of(404, ""), builder -> builder);
+        try {
+            this.client.predictAsync("model", candidates(1)).get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected the prediction to fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof HttpStatusException);
+        }
+    }
+
+    @Test
+    public void testPredictStream() throws IOException {
+        start(CitrinationClientPredictTest::predict,
+                builder -> builder.setPredictChunkSize(3).setPredictParallelism(2));
+        final AtomicInteger pulled = new AtomicInteger();
+        final Stream<Map<String, Object>> candidates = IntStream.range(0, 10)
+                .peek(i -> pulled.incrementAndGet())
+                .mapToObj(CitrinationClientPredictTest::candidate);
+        try (final Stream<Map<String, PredictedValue>> res = this.client.predictStream("model", candidates)) {
+            assertPredictions(res.collect(Collectors.toList()), 10);
+        }
+        Assert.assertEquals(10, pulled.get());
+        Assert.assertEquals(4, this.server.getRequests().size());
+    }
+
+    @Test
+    public void testPredictStreamIsLazy() throws IOException {
+        start(CitrinationClientPredictTest::predict,
+                builder -> builder.setPredictChunkSize(2).setPredictParallelism(1));
+        final AtomicInteger pulled = new AtomicInteger();
+        final Stream<Map<String, Object>> candidates = IntStream.iterate(0, i -> i + 1)
+                .peek(i -> pulled.incrementAndGet())
+                .mapToObj(CitrinationClientPredictTest::candidate);
+        try (final Stream<Map<String, PredictedValue>> res = this.client.predictStream("model", candidates)) {
+            assertPredictions(res.limit(3).collect(Collectors.toList()), 3);
+        }
+        Assert.assertTrue(pulled.get() <= 8);
+    }
+
+    @Test
+    public void testPredictStreamClosesCandidates() throws IOException {
+        start(CitrinationClientPredictTest::predict, builder -> builder.setPredictChunkSize(2));
+        final AtomicInteger closed = new AtomicInteger();
+        final Stream<Map<String, Object>> candidates = IntStream.range(0, 5)
+                .mapToObj(CitrinationClientPredictTest::candidate)
+                .onClose(closed::incrementAndGet);
+        try (final Stream<Map<String, PredictedValue>> res = this.client.predictStream("model", candidates)) {
+            Assert.assertEquals(0, closed.get());
+            assertPredictions(res.limit(1).collect(Collectors.toList()), 1);
+        }
+        Assert.assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testPredictStreamWithoutCandidates() throws IOException {
+        start(CitrinationClientPredictTest::predict, builder -> builder);
+        try (final Stream<Map<String, PredictedValue>> res = this.client.predictStream("model", Stream.empty())) {
+            Assert.assertEquals(0L, res.count());
+        }
+        Assert.assertTrue(this.server.getRequests().isEmpty());
+    }
+
+    @Test(expected = HttpStatusException.class)
+    public void testPredictStreamFailure() throws IOException {
+        start(request -> TestServer.Response.of(403, ""), builder -> builder.setPredictChunkSize(2));
+        try (final Stream<Map<String, PredictedValue>> res = this.client.predictStream("model",
+                IntStream.range(0, 5).mapToObj(CitrinationClientPredictTest::candidate))) {
+            res.forEach(i -> { });
+        }
+    }
+
+    /**
+     * Start a server and a client that connects to it.
+     *
+     * @param handler Function that gets the response to each request.
+     * @param settings Function that applies the settings of the test to the builder of the client.
+     * @throws IOException if the server cannot be started.
+     */
+    private void start(final Function<TestServer.Request, TestServer.Response> handler,
+            final UnaryOperator<CitrinationClient.Builder> settings) throws IOException {
+        this.server = new TestServer(handler);
+        this.client = settings.apply(this.server.clientBuilder()).build();
+    }
+
+    /**
+     * Build a prediction request with candidates whose "x" values count up from zero.
+     *
+     * @param numCandidates Number of candidates in the request.
+     * @return {@link PredictionRequest} with the candidates.
+     */
+    private static PredictionRequest candidates(final int numCandidates) {
+        return new PredictionRequest().setCandidates(IntStream.range(0, numCandidates)
+                .mapToObj(CitrinationClientPredictTest::candidate)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Build a single candidate.
+     *
+     * @param x Value of "x" for the candidate.
+     * @return Map with the inputs of the candidate.
+     */
+    private static Map<String, Object> candidate(final int x) {
+        return Collections.singletonMap("x", x);
+    }
+
+    /**
+     * Check that predictions are those of {@link #predict(TestServer.Request)} for candidates in order.
+     *
+     * @param predictions List with the predictions for each candidate.
+     * @param numCandidates Number of candidates that were sent.
+     */
+    private static void assertPredictions(final List<Map<String, PredictedValue>> predictions,
+            final int numCandidates) {
+        Assert.assertEquals(numCandidates, predictions.size());
+        for (int i = 0; i < numCandidates; ++i) {
+            Assert.assertEquals(2.0 * i, predictions.get(i).get("y").getValueAsDouble(), 0.0);
+            Assert.assertEquals(0.5, predictions.get(i).get("y").getLoss(), 0.0);
+        }
+    }
+
+    /**
+     * Answer a prediction request with a prediction of twice the value of "x" for each candidate.
+     *
+     * @param request {@link TestServer.Request} with the prediction request.
+     * @return {@link TestServer.Response} with the predictions.
+     */
+    private static TestServer.Response predict(final TestServer.Request request) {
+        try {
+            final JsonNode candidates = CitrinationClient.OBJECT_MAPPER.readTree(request.getBody())
+                    .path("predictionRequest").path("candidates");
+            final List<Map<String, List<String>>> res = new ArrayList<>();
+            for (JsonNode i : candidates) {
+                res.add(Collections.singletonMap("y", Arrays.asList(Integer.toString(2 * i.path("x").asInt()), "0.5")));
+            }
+            return TestServer.Response.of(200, CitrinationClient.OBJECT_MAPPER.writeValueAsString(
+                    Collections.singletonMap("candidates", res)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Server that answers the requests of a test. */
+    private TestServer server;
+
+    /** Client that connects to {@link #server}. */
+    private CitrinationClient client;
+}
@@ -0,0 +1,563 @@
+package io.citrine.jcc.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.citrine.jcc.search.dataset.query.DatasetMultiQuery;
+import io.citrine.jcc.search.dataset.query.DatasetQuery;
+import io.citrine.jcc.search.dataset.result.DatasetMultiSearchResult;
+import io.citrine.jcc.search.dataset.result.DatasetSearchResult;
+import io.citrine.jcc.search.pif.query.PifMultiQuery;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifMultiSearchResult;
+import io.citrine.jcc.search.pif.result.PifSearchHit;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tests for sending search requests with {@link CitrinationClient}.
+ *
+ * @author Kyle Michel
+ */
+public class CitrinationClientSearchTest {
+
+    @After
+    public void tearDown() throws IOException {
+        if (this.client != null) {
+            this.client.close();
+        }
+        if (this.server != null) {
+            this.server.close();
+        }
+    }
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        start(CitrinationClientSearchTest::search, UnaryOperator.identity());
+        for (int i = 1; i <= 3; ++i) {
+            Assert.assertEquals(Long.valueOf(i), this.client.search(new PifQuery().size(i)).getTotalNumHits());
+        }
+        Assert.assertEquals(Long.valueOf(4L), this.client.searchAsync(new PifQuery().size(4)).get()
+                .getTotalNumHits());
+        Assert.assertEquals(Long.valueOf(5L), this.client.searchAsync(new PifQuery().size(5)).get()
+                .getTotalNumHits());
+        final List<TestServer.Request> requests = this.server.getRequests();
+        Assert.assertEquals(requests.get(0).getRemotePort(), requests.get(1).getRemotePort());
+        Assert.assertEquals(requests.get(0).getRemotePort(), requests.get(2).getRemotePort());
+        Assert.assertEquals(requests.get(3).getRemotePort(), requests.get(4).getRemotePort());
+    }
+
+    @Test
+    public void testClosedClientCannotSearch() throws Exception {
+        start(CitrinationClientSearchTest::search, UnaryOperator.identity());
+        this.client.search(new PifQuery().size(1));
+        this.client.close();
+        try {
+            this.client.search(new PifQuery().size(1));
+            Assert.fail("Expected the search to fail");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        try {
+            this.client.searchAsync(new PifQuery().size(1)).get();
+            Assert.fail("Expected the search to fail");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        Assert.assertEquals(1, this.server.getRequests().size());
+    }
+
+    @Test
+    public void testPoolSettingsMustBePositive() {
+        final List<UnaryOperator<CitrinationClient.Builder>> settings = Arrays.asList(
+                builder -> builder.setMaxConnectionsPerRoute(0),
+                builder -> builder.setMaxConnectionsTotal(0),
+                builder -> builder.setMaxIdleTime(0L));
+        for (UnaryOperator<CitrinationClient.Builder> i : settings) {
+            try {
+                i.apply(new CitrinationClient.Builder());
+                Assert.fail("Expected the setting to be rejected");
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testSearchAsyncCompletesOnExecutor() throws Exception {
+        final AtomicInteger numTasks = new AtomicInteger();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            start(CitrinationClientSearchTest::search, builder -> builder.setExecutor(task -> {
+                numTasks.incrementAndGet();
+                executor.execute(task);
+            }));
+            Assert.assertEquals(Long.valueOf(3L), this.client.searchAsync(new PifQuery().size(3))
+                    .get(5L, TimeUnit.SECONDS).getTotalNumHits());
+            Assert.assertEquals(1, numTasks.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMultiSearchAsyncKeepsChunkOrder() throws Exception {
+        start(CitrinationClientSearchTest::search, builder -> builder.setMultiQueryChunkSize(2));
+        final PifMultiQuery pifMultiQuery = new PifMultiQuery();
+        for (int i = 1; i <= 5; ++i) {
+            pifMultiQuery.addQuery(new PifQuery().size(i));
+        }
+        assertTotals(this.client.searchAsync(pifMultiQuery).get(5L, TimeUnit.SECONDS), 1L, 2L, 3L, 4L, 5L);
+        Assert.assertEquals(3, this.server.getRequests().size());
+        assertTotals(this.client.search(pifMultiQuery), 1L, 2L, 3L, 4L, 5L);
+        Assert.assertEquals(6, this.server.getRequests().size());
+    }
+
+    @Test
+    public void testSearchAsyncFailure() throws Exception {
+        start(request -> TestServer.Response.of(500, ""), UnaryOperator.identity());
+        final List<CompletableFuture<?>> futures = Arrays.asList(
+                this.client.searchAsync(new PifQuery().size(1)),
+                this.client.searchAsync(repeatedQueries()));
+        for (CompletableFuture<?> i : futures) {
+            try {
+                i.get(5L, TimeUnit.SECONDS);
+                Assert.fail("Expected the search to fail");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(500, ((HttpStatusException) e.getCause()).getStatusCode());
+            }
+        }
+    }
+
+    @Test
+    public void testStreamPagesThroughEveryHit() throws Exception {
+        start(pages(7L), builder -> builder.setPageSize(3));
+        try (final Stream<PifSearchHit> hits = this.client.stream(new PifQuery())) {
+            Assert.assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5", "6"),
+                    hits.map(PifSearchHit::getId).collect(Collectors.toList()));
+        }
+        Assert.assertEquals(3, this.server.getRequests().size());
+
+        try (final Stream<PifSearchHit> hits = this.client.stream(new PifQuery().fromIndex(2).size(4), 2, true)) {
+            Assert.assertEquals(Arrays.asList("2", "3", "4", "5", "6"),
+                    hits.map(PifSearchHit::getId).collect(Collectors.toList()));
+        }
+        Assert.assertEquals(5, this.server.getRequests().size());
+    }
+
+    @Test
+    public void testStreamIsLazy() throws Exception {
+        start(pages(100L), builder -> builder.setPageSize(10).setMaxBufferedPages(2));
+        try (final Stream<PifSearchHit> hits = this.client.stream(new PifQuery())) {
+            Assert.assertEquals(Arrays.asList("0", "1", "2"),
+                    hits.limit(3).map(PifSearchHit::getId).collect(Collectors.toList()));
+        }
+        Assert.assertTrue(this.server.getRequests().size() <= 3);
+    }
+
+    @Test
+    public void testCompressedResponsesAreAccepted() throws Exception {
+        for (String encoding : new String[] {"gzip", "deflate"}) {
+            start(request -> compress(search(request), encoding), UnaryOperator.identity());
+            Assert.assertEquals(Long.valueOf(3L), this.client.search(new PifQuery().size(3)).getTotalNumHits());
+            Assert.assertEquals(Long.valueOf(4L), this.client.searchAsync(new PifQuery().size(4)).get()
+                    .getTotalNumHits());
+            assertTotals(this.client.search(repeatedQueries()), 1L, 2L, 1L);
+            for (TestServer.Request i : this.server.getRequests()) {
+                Assert.assertTrue(i.getAcceptEncoding(), i.getAcceptEncoding().contains("gzip"));
+                Assert.assertTrue(i.getAcceptEncoding(), i.getAcceptEncoding().contains("deflate"));
+            }
+            tearDown();
+        }
+        this.client = null;
+        this.server = null;
+    }
+
+    @Test
+    public void testLargeRequestsAreCompressed() throws Exception {
+        start(CitrinationClientSearchTest::search, builder -> builder.setRequestCompressionThreshold(200));
+        final PifQuery small = new PifQuery().size(1);
+        final PifQuery large = new PifQuery().size(2);
+        for (long i = 0; i < 100; ++i) {
+            large.includeDataset(i);
+        }
+        this.client.search(small);
+        this.client.search(large);
+        this.client.searchAsync(large).get();
+        final List<TestServer.Request> requests = this.server.getRequests();
+        Assert.assertNull(requests.get(0).getContentEncoding());
+        for (TestServer.Request i : requests.subList(1, 3)) {
+            Assert.assertEquals("gzip", i.getContentEncoding());
+            Assert.assertTrue(i.getRawBody().length < i.getBody().length);
+            Assert.assertEquals(CitrinationClient.OBJECT_MAPPER.readTree(
+                    CitrinationClient.OBJECT_MAPPER.writeValueAsBytes(large)),
+                    CitrinationClient.OBJECT_MAPPER.readTree(i.getBody()));
+        }
+    }
+
+    @Test
+    public void testRequestsAreNotCompressedByDefault() throws Exception {
+        start(CitrinationClientSearchTest::search, UnaryOperator.identity());
+        final PifQuery large = new PifQuery().size(2);
+        for (long i = 0; i < 100; ++i) {
+            large.includeDataset(i);
+        }
+        this.client.search(large);
+        Assert.assertNull(this.server.getRequests().get(0).getContentEncoding());
+    }
+
+    @Test
+    public void testDatasetSearch() throws Exception {
+        start(CitrinationClientSearchTest::searchDatasets, UnaryOperator.identity());
+        assertDatasets(this.client.search(new DatasetQuery().size(3).setCountPifs(true)), 3L, 6L);
+        assertDatasets(this.client.searchAsync(new DatasetQuery().size(4)).get(5L, TimeUnit.SECONDS), 4L, null);
+        Assert.assertEquals("/api/search/dataset_search", this.server.getRequests().get(0).getPath());
+        Assert.assertTrue(CitrinationClient.OBJECT_MAPPER.readTree(this.server.getRequests().get(0).getBody())
+                .path("countPifs").asBoolean());
+    }
+
+    @Test
+    public void testDatasetMultiSearch() throws Exception {
+        start(CitrinationClientSearchTest::searchDatasets, UnaryOperator.identity());
+        final DatasetMultiQuery datasetMultiQuery = new DatasetMultiQuery()
+                .addQuery(new DatasetQuery().size(1).setCountPifs(true))
+                .addQuery(new DatasetQuery().size(2));
+        for (DatasetMultiSearchResult i : Arrays.asList(this.client.search(datasetMultiQuery),
+                this.client.searchAsync(datasetMultiQuery).get(5L, TimeUnit.SECONDS))) {
+            Assert.assertEquals(2, i.getNumResults());
+            assertDatasets(i.getResult(0), 1L, 2L);
+            assertDatasets(i.getResult(1), 2L, null);
+        }
+        Assert.assertEquals("/api/search/dataset_multi_search", this.server.getRequests().get(0).getPath());
+    }
+
+    @Test
+    public void testDatasetSearchFailure() throws Exception {
+        start(request -> TestServer.Response.of(500, ""), UnaryOperator.identity());
+        try {
+            this.client.search(new DatasetQuery());
+            Assert.fail("Expected the search to fail");
+        } catch (HttpStatusException e) {
+            Assert.assertEquals(500, e.getStatusCode());
+        }
+        try {
+            this.client.searchAsync(new DatasetMultiQuery().addQuery(new DatasetQuery())).get(5L, TimeUnit.SECONDS);
+            Assert.fail("Expected the search to fail");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(500, ((HttpStatusException) e.getCause()).getStatusCode());
+        }
+    }
+
+    @Test
+    public void testRepeatedQueriesAreSentByDefault() throws IOException {
+        start(CitrinationClientSearchTest::search, UnaryOperator.identity());
+        final PifMultiSearchResult result = this.client.search(repeatedQueries());
+        assertTotals(result, 1L, 2L, 1L);
+        Assert.assertEquals(3, sentQueries(0).size());
+    }
+
+    @Test
+    public void testDeduplicationSendsRepeatsOnce() throws IOException, ExecutionException, InterruptedException {
+        start(CitrinationClientSearchTest::search, builder -> builder.setMultiQueryDeduplication(true));
+        final PifMultiSearchResult result = this.client.search(repeatedQueries());
+        assertTotals(result, 1L, 2L, 1L);
+        Assert.assertNotSame(result.getResult(0), result.getResult(2));
+        Assert.assertEquals(2, sentQueries(0).size());
+
+        assertTotals(this.client.searchAsync(repeatedQueries()).get(), 1L, 2L, 1L);
+        Assert.assertEquals(2, sentQueries(1).size());
+    }
+
+    @Test
+    public void testCachedResultIsReused() throws IOException, ExecutionException, InterruptedException {
+        start(CitrinationClientSearchTest::search, builder -> builder.setResultCacheMaxWeight(100L));
+        final PifSearchResult first = this.client.search(new PifQuery().size(3).includeDataset(1L));
+        final PifSearchResult second = this.client.search(new PifQuery().size(3).includeDataset(1L));
+        final PifSearchResult third = this.client.searchAsync(new PifQuery().size(3).includeDataset(1L)).get();
+        Assert.assertEquals(1, this.server.getRequests().size());
+        Assert.assertEquals(Long.valueOf(3L), second.getTotalNumHits());
+        Assert.assertEquals(Long.valueOf(3L), third.getTotalNumHits());
+        Assert.assertNotSame(first, second);
+        Assert.assertNotSame(second, third);
+    }
+
+    @Test
+    public void testChangedQueryMissesCache() throws IOException {
+        start(CitrinationClientSearchTest::search, builder -> builder.setResultCacheMaxWeight(100L));
+        final PifQuery pifQuery = new PifQuery().size(3).includeDataset(1L);
+        Assert.assertEquals(Long.valueOf(3L), this.client.search(pifQuery).getTotalNumHits());
+
+        pifQuery.size(4);
+        Assert.assertEquals(Long.valueOf(4L), this.client.search(pifQuery).getTotalNumHits());
+        Assert.assertEquals(2, this.server.getRequests().size());
+
+        pifQuery.includeDataset(2L);
+        Assert.assertEquals(Long.valueOf(4L), this.client.search(pifQuery).getTotalNumHits());
+        Assert.assertEquals(3, this.server.getRequests().size());
+
+        Assert.assertEquals(Long.valueOf(3L), this.client.search(new PifQuery().size(3).includeDataset(1L))
+                .getTotalNumHits());
+        Assert.assertEquals(Long.valueOf(4L), this.client.search(new PifQuery().size(4).includeDataset(2L)
+                .includeDataset(1L)).getTotalNumHits());
+        Assert.assertEquals(3, this.server.getRequests().size());
+    }
+
+    @Test
+    public void testCacheIsDisabledByDefault() throws IOException {
+        start(CitrinationClientSearchTest::search, UnaryOperator.identity());
+        this.client.search(new PifQuery().size(3));
+        this.client.search(new PifQuery().size(3));
+        Assert.assertEquals(2, this.server.getRequests().size());
+    }
+
+    @Test
+    public void testBatchIsSentWhenFull() throws Exception {
+        start(CitrinationClientSearchTest::search,
+                builder -> builder.setBatchMaxSize(3).setBatchMaxDelay(TimeUnit.MINUTES.toMillis(1L)));
+        final List<CompletableFuture<PifSearchResult>> results = new ArrayList<>();
+        for (int i = 1; i <= 3; ++i) {
+            results.add(this.client.searchAsync(new PifQuery().size(i)));
+        }
+        for (int i = 1; i <= 3; ++i) {
+            Assert.assertEquals(Long.valueOf(i), results.get(i - 1).get(5L, TimeUnit.SECONDS).getTotalNumHits());
+        }
+        Assert.assertEquals(1, this.server.getRequests().size());
+        Assert.assertEquals("/api/search/pif_multi_search", this.server.getRequests().get(0).getPath());
+        Assert.assertEquals(3, sentQueries(0).size());
+    }
+
+    @Test
+    public void testBatchIsSentAfterDelay() throws Exception {
+        start(CitrinationClientSearchTest::search, builder -> builder.setBatchMaxSize(10).setBatchMaxDelay(200L));
+        final CompletableFuture<PifSearchResult> first = this.client.searchAsync(new PifQuery().size(1));
+        Assert.assertEquals(Long.valueOf(2L), this.client.search(new PifQuery().size(2)).getTotalNumHits());
+        Assert.assertEquals(Long.valueOf(1L), first.get(5L, TimeUnit.SECONDS).getTotalNumHits());
+        Assert.assertEquals(1, this.server.getRequests().size());
+        Assert.assertEquals(2, sentQueries(0).size());
+    }
+
+    @Test
+    public void testBatchingIsDisabledByDefault() throws Exception {
+        start(CitrinationClientSearchTest::search, UnaryOperator.identity());
+        Assert.assertEquals(Long.valueOf(1L), this.client.searchAsync(new PifQuery().size(1)).get()
+                .getTotalNumHits());
+        Assert.assertEquals("/api/search/pif_search", this.server.getRequests().get(0).getPath());
+    }
+
+    /**
+     * Start a server and a client that connects to it.
+     *
+     * @param handler Function that gets the response to each request.
+     * @param settings Function that applies the settings of the test to the builder of the client.
+     * @throws IOException if the server cannot be started.
+     */
+    private void start(final Function<TestServer.Request, TestServer.Response> handler,
+            final UnaryOperator<CitrinationClient.Builder> settings) throws IOException {
+        this.server = new TestServer(handler);
+        this.client = settings.apply(this.server.clientBuilder()).build();
+    }
+
+    /**
+     * Get the queries that were sent in a multi-search request.
+     *
+     * @param index Index of the request in the order that the server received them.
+     * @return List of {@link JsonNode} objects with the queries of the request.
+     * @throws IOException if the body of the request cannot be read.
+     */
+    private List<JsonNode> sentQueries(final int index) throws IOException {
+        final List<JsonNode> res = new ArrayList<>();
+        CitrinationClient.OBJECT_MAPPER.readTree(this.server.getRequests().get(index).getBody())
+                .path("queries").forEach(res::add);
+        return res;
+    }
+
+    /**
+     * Build a multi-query whose first and last queries are the same.
+     *
+     * @return {@link PifMultiQuery} with three queries, two of which are repeats.
+     */
+    private static PifMultiQuery repeatedQueries() {
+        return new PifMultiQuery()
+                .addQuery(new PifQuery().size(1))
+                .addQuery(new PifQuery().size(2))
+                .addQuery(new PifQuery().size(1));
+    }
+
+    /**
+     * Check the total number of hits of each result of a multi-search.
+     *
+     * @param result {@link PifMultiSearchResult} to check.
+     * @param totals Expected total number of hits of each result, in order.
+     */
+    private static void assertTotals(final PifMultiSearchResult result, final Long... totals) {
+        Assert.assertEquals(totals.length, result.getNumResults());
+        for (int i = 0; i < totals.length; ++i) {
+            Assert.assertEquals(totals[i], result.getResult(i).getTotalNumHits());
+        }
+    }
+
+    /**
+     * Answer a search or multi-search request with a result for each query whose total number of hits is the size of
+     * the query.
+     *
+     * @param request {@link TestServer.Request} with the search request.
+     * @return {@link TestServer.Response} with the results.
+     */
+    private static TestServer.Response search(final TestServer.Request request) {
+        try {
+            final JsonNode body = CitrinationClient.OBJECT_MAPPER.readTree(request.getBody());
+            if (!request.getPath().endsWith("pif_multi_search")) {
+                return TestServer.Response.of(200, CitrinationClient.OBJECT_MAPPER.writeValueAsString(
+                        Collections.singletonMap("results", result(body))));
+            }
+            final List<Map<String, Object>> results = new ArrayList<>();
+            body.path("queries").forEach(i -> results.add(result(i)));
+            final Map<String, Object> multiResult = new HashMap<>();
+            multiResult.put("took", 1);
+            multiResult.put("results", results);
+            return TestServer.Response.of(200, CitrinationClient.OBJECT_MAPPER.writeValueAsString(
+                    Collections.singletonMap("results", multiResult)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Check the result of a dataset search that was answered by {@link #searchDatasets(TestServer.Request)}.
+     *
+     * @param result {@link DatasetSearchResult} to check.
+     * @param size Size of the query that was sent.
+     * @param numPifs Expected number of PIFs in the dataset that was found or a null pointer if it was not counted.
+     */
+    private static void assertDatasets(final DatasetSearchResult result, final long size, final Long numPifs) {
+        Assert.assertEquals(Long.valueOf(size), result.getTotalNumHits());
+        Assert.assertEquals(1, result.getNumHits());
+        Assert.assertEquals(Long.valueOf(size), result.getHit(0).getId());
+        Assert.assertEquals(numPifs, result.getHit(0).getNumPifs());
+    }
+
+    /**
+     * Answer a dataset search or multi-search request with a result for each query that has a single dataset. The
+     * identifier of the dataset is the size of the query, and it has twice that many PIFs if they were counted.
+     *
+     * @param request {@link TestServer.Request} with the dataset search request.
+     * @return {@link TestServer.Response} with the results.
+     */
+    private static TestServer.Response searchDatasets(final TestServer.Request request) {
+        try {
+            final JsonNode body = CitrinationClient.OBJECT_MAPPER.readTree(request.getBody());
+            final Function<JsonNode, Map<String, Object>> result = query -> {
+                final Map<String, Object> dataset = new HashMap<>();
+                dataset.put("id", query.path("size").asLong());
+                if (query.path("countPifs").asBoolean()) {
+                    dataset.put("numPifs", 2L * query.path("size").asLong());
+                }
+                final Map<String, Object> res = new HashMap<>();
+                res.put("totalNumHits", query.path("size").asLong());
+                res.put("hits", Collections.singletonList(dataset));
+                return res;
+            };
+            if (!request.getPath().endsWith("dataset_multi_search")) {
+                return TestServer.Response.of(200, CitrinationClient.OBJECT_MAPPER.writeValueAsString(
+                        Collections.singletonMap("results", result.apply(body))));
+            }
+            final List<Map<String, Object>> results = new ArrayList<>();
+            body.path("queries").forEach(i -> results.add(result.apply(i)));
+            return TestServer.Response.of(200, CitrinationClient.OBJECT_MAPPER.writeValueAsString(
+                    Collections.singletonMap("results", Collections.singletonMap("results", results))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compress the body of a response.
+     *
+     * @param response {@link TestServer.Response} to compress.
+     * @param encoding Either "gzip" or "deflate".
+     * @return {@link TestServer.Response} with the compressed body.
+     */
+    private static TestServer.Response compress(final TestServer.Response response, final String encoding) {
+        try {
+            final ByteArrayOutputStream res = new ByteArrayOutputStream();
+            try (final OutputStream output = "gzip".equals(encoding)
+                    ? new GZIPOutputStream(res)
+                    : new DeflaterOutputStream(res)) {
+                output.write(response.getBody());
+            }
+            return new TestServer.Response(response.getStatus(), res.toByteArray(), encoding);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get a handler that answers each search with the page of hits that it asks for, out of a fixed number of hits
+     * whose identifiers are their indices.
+     *
+     * @param total Total number of hits that match every query.
+     * @return Function that gets the response to each request.
+     */
+    private static Function<TestServer.Request, TestServer.Response> pages(final long total) {
+        return request -> {
+            try {
+                final JsonNode query = CitrinationClient.OBJECT_MAPPER.readTree(request.getBody());
+                final List<Map<String, Object>> hits = new ArrayList<>();
+                final long from = query.path("fromIndex").asLong();
+                for (long i = from; i < Math.min(total, from + query.path("size").asLong()); ++i) {
+                    hits.add(Collections.singletonMap("id", Long.toString(i)));
+                }
+                final Map<String, Object> result = new HashMap<>();
+                result.put("totalNumHits", total);
+                result.put("hits", hits);
+                return TestServer.Response.of(200, CitrinationClient.OBJECT_MAPPER.writeValueAsString(
+                        Collections.singletonMap("results", result)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * Build the result of a single query without any hits.
+     *
+     * @param query {@link JsonNode} with the query.
+     * @return Map with the fields of the result.
+     */
+    private static Map<String, Object> result(final JsonNode query) {
+        final Map<String, Object> res = new HashMap<>();
+        res.put("took", 1);
+        res.put("totalNumHits", query.path("size").asLong());
+        res.put("hits", Collections.emptyList());
+        return res;
+    }
+
+    /** Server that answers the requests of a test. */
+    private TestServer server;
+
+    /** Client that connects to {@link #server}. */
+    private CitrinationClient client;
+}
@@ -0,0 +1,128 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.dataset.result.DatasetSearchHit;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifSearchHit;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Tests for {@link DatasetShardIterator}.
+ *
+ * @author Kyle Michel
+ */
+public class DatasetShardIteratorTest {
+
+    @Test
+    public void testOrderedMergeKeepsPlanOrder() throws IOException {
+        final Map<Long, Long> numHits = new HashMap<>();
+        numHits.put(1L, 5L);
+        numHits.put(2L, 3L);
+        final List<DatasetShardPlanner.Shard> shards = DatasetShardPlanner.plan(new PifQuery(), Arrays.asList(
+                new DatasetSearchHit().setId(1L).setNumPifs(5L), new DatasetSearchHit().setId(2L).setNumPifs(3L)), 5L);
+        final List<String> ids = drain(new DatasetShardIterator(shards, 2, 5, true, delayed(search(numHits))));
+        Assert.assertEquals(Arrays.asList("1-0", "1-1", "1-2", "1-3", "1-4", "2-0", "2-1", "2-2"), ids);
+    }
+
+    @Test
+    public void testUnorderedMergeReturnsEveryHit() throws IOException {
+        final Map<Long, Long> numHits = new HashMap<>();
+        numHits.put(1L, 5L);
+        numHits.put(2L, 3L);
+        final List<DatasetShardPlanner.Shard> shards = DatasetShardPlanner.plan(new PifQuery(), Arrays.asList(
+                new DatasetSearchHit().setId(1L).setNumPifs(5L), new DatasetSearchHit().setId(2L).setNumPifs(3L)), 5L);
+        final List<String> ids = drain(new DatasetShardIterator(shards, 2, 5, false, delayed(search(numHits))));
+        Collections.sort(ids);
+        Assert.assertEquals(Arrays.asList("1-0", "1-1", "1-2", "1-3", "1-4", "2-0", "2-1", "2-2"), ids);
+    }
+
+    @Test
+    public void testExtraPagesAreAddedToTheEnd() throws IOException {
+        final Map<Long, Long> numHits = new HashMap<>();
+        numHits.put(1L, 5L);
+        numHits.put(2L, 2L);
+        final List<DatasetShardPlanner.Shard> shards = DatasetShardPlanner.plan(new PifQuery(), Arrays.asList(
+                new DatasetSearchHit().setId(1L), new DatasetSearchHit().setId(2L).setNumPifs(2L)), 2L);
+        final List<PifQuery> sent = new ArrayList<>();
+        final Function<PifQuery, CompletableFuture<PifSearchResult>> search = search(numHits);
+        final List<String> ids = drain(new DatasetShardIterator(shards, 2, 1, true, i -> {
+            sent.add(i);
+            return search.apply(i);
+        }));
+        Assert.assertEquals(Arrays.asList("2-0", "2-1", "1-0", "1-1", "1-2", "1-3", "1-4"), ids);
+        Assert.assertEquals(4, sent.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPageSizeMustBePositive() {
+        new DatasetShardIterator(Collections.emptyList(), 0, 1, true, search(Collections.emptyMap()));
+    }
+
+    /**
+     * Consume every hit of an iterator.
+     *
+     * @param iterator {@link DatasetShardIterator} to consume.
+     * @return List with the identifiers of the hits in the order that they were returned.
+     */
+    private static List<String> drain(final DatasetShardIterator iterator) {
+        final List<String> res = new ArrayList<>();
+        while (iterator.hasNext()) {
+            res.add(iterator.next().getId());
+        }
+        return res;
+    }
+
+    /**
+     * Get a search function that answers each page of a single-dataset shard with hits whose identifiers are the
+     * dataset and the index of the hit, such as "2-0".
+     *
+     * @param numHits Map from the identifier of each dataset to its number of hits.
+     * @return Function that runs a page query.
+     */
+    private static Function<PifQuery, CompletableFuture<PifSearchResult>> search(final Map<Long, Long> numHits) {
+        return pifQuery -> {
+            final Long dataset = pifQuery.includeDatasets().iterator().next();
+            final long total = numHits.get(dataset);
+            final PifSearchResult res = new PifSearchResult().setTotalNumHits(total);
+            for (long i = pifQuery.fromIndex(); i < Math.min(total, pifQuery.fromIndex() + pifQuery.size()); ++i) {
+                res.addHit(new PifSearchHit().setId(dataset + "-" + i));
+            }
+            return CompletableFuture.completedFuture(res);
+        };
+    }
+
+    /**
+     * Delay the results of a search function so that pages that are requested later complete first.
+     *
+     * @param search Function that runs a page query.
+     * @return Function that runs a page query and completes after a delay that gets shorter with each call.
+     */
+    private static Function<PifQuery, CompletableFuture<PifSearchResult>> delayed(
+            final Function<PifQuery, CompletableFuture<PifSearchResult>> search) {
+        final int[] numCalls = new int[1];
+        return pifQuery -> {
+            final long delay = Math.max(0L, 50L - 10L * numCalls[0]++);
+            final PifSearchResult result = search.apply(pifQuery).join();
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return result;
+            });
+        };
+    }
+}
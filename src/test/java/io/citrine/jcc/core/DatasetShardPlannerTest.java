@@ -0,0 +1,106 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.dataset.result.DatasetSearchHit;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.query.core.FieldQuery;
+import io.citrine.jcc.search.pif.query.core.SystemQuery;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link DatasetShardPlanner}.
+ *
+ * @author Kyle Michel
+ */
+public class DatasetShardPlannerTest {
+
+    @Test
+    public void testFirstFitDecreasing() throws IOException {
+        final List<DatasetShardPlanner.Shard> shards = DatasetShardPlanner.plan(new PifQuery(), Arrays.asList(
+                dataset(1L, 4L), dataset(2L, 7L), dataset(3L, 3L), dataset(4L, 12L), dataset(5L, null)), 10L);
+        Assert.assertEquals(3, shards.size());
+        assertShard(shards.get(0), 12L, 4L);
+        assertShard(shards.get(1), 10L, 2L, 3L);
+        assertShard(shards.get(2), 5L, 1L, 5L);
+    }
+
+    @Test
+    public void testDatasetsAreFiltered() throws IOException {
+        final PifQuery pifQuery = new PifQuery()
+                .includeDataset(1L).includeDataset(2L).includeDataset(3L).includeDataset(4L)
+                .excludeDataset(3L);
+        final List<DatasetShardPlanner.Shard> shards = DatasetShardPlanner.plan(pifQuery, Arrays.asList(
+                dataset(1L, 2L), dataset(2L, 0L), dataset(3L, 2L), dataset(1L, 2L), dataset(5L, 2L),
+                dataset(null, 2L), dataset(4L, 1L)), 10L);
+        Assert.assertEquals(1, shards.size());
+        assertShard(shards.get(0), 3L, 1L, 4L);
+    }
+
+    @Test
+    public void testPageQueries() throws IOException {
+        final PifQuery pifQuery = new PifQuery()
+                .fromIndex(30).size(5).includeDataset(1L).excludeDataset(9L)
+                .system(new SystemQuery().names(new FieldQuery().extractAs("name")));
+        final DatasetShardPlanner.Shard shard = DatasetShardPlanner.plan(
+                pifQuery, Collections.singletonList(dataset(1L, 3L)), 10L).get(0);
+        final PifQuery first = shard.buildPageQuery(0, 2);
+        final PifQuery second = shard.buildPageQuery(2, 2);
+        Assert.assertEquals(new PifQuery()
+                .fromIndex(0).size(2).includeDataset(1L)
+                .system(new SystemQuery().names(new FieldQuery().extractAs("name"))), first);
+        Assert.assertEquals(Integer.valueOf(2), second.fromIndex());
+        Assert.assertFalse(first.isFrozen());
+        first.size(3);
+        Assert.assertEquals(Integer.valueOf(2), shard.buildPageQuery(0, 2).size());
+    }
+
+    @Test
+    public void testNoDatasets() throws IOException {
+        Assert.assertTrue(DatasetShardPlanner.plan(new PifQuery(), Collections.emptyList(), 10L).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxShardSizeMustBePositive() throws IOException {
+        DatasetShardPlanner.plan(new PifQuery(), Collections.emptyList(), 0L);
+    }
+
+    @Test
+    public void testDatasetQueryKeepsSystems() {
+        final SystemQuery system = new SystemQuery().names(new FieldQuery().extractAs("name"));
+        final List<SystemQuery> systems = new ArrayList<>();
+        DatasetShardPlanner.buildDatasetQuery(new PifQuery().system(system)).system().forEach(systems::add);
+        Assert.assertEquals(Collections.singletonList(system), systems);
+    }
+
+    /**
+     * Check the datasets and expected number of hits of a shard.
+     *
+     * @param shard {@link DatasetShardPlanner.Shard} to check.
+     * @param expectedNumHits Expected number of hits of the shard.
+     * @param datasets Identifiers of the datasets that the shard should be restricted to, in order.
+     */
+    private static void assertShard(final DatasetShardPlanner.Shard shard, final long expectedNumHits,
+            final Long... datasets) {
+        Assert.assertEquals(expectedNumHits, shard.getExpectedNumHits());
+        final List<Long> actual = new ArrayList<>();
+        shard.buildPageQuery(0, 1).includeDatasets().forEach(actual::add);
+        Assert.assertEquals(Arrays.asList(datasets), actual);
+    }
+
+    /**
+     * Build a dataset search hit.
+     *
+     * @param id Identifier of the dataset.
+     * @param numPifs Number of matching PIFs in the dataset or a null pointer if it is not known.
+     * @return {@link DatasetSearchHit} for the dataset.
+     */
+    private static DatasetSearchHit dataset(final Long id, final Long numPifs) {
+        return new DatasetSearchHit().setId(id).setNumPifs(numPifs);
+    }
+}
@@ -0,0 +1,191 @@
+package io.citrine.jcc.core;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Tests for {@link DiskCache}.
+ *
+ * @author Kyle Michel
+ */
+public class DiskCacheTest {
+
+    @Before
+    public void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("disk-cache-test");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (final Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(i -> i.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 100, 0)) {
+            Assert.assertNull(cache.get("a"));
+            cache.put("a", bytes("first"));
+            cache.put("b", bytes("second"));
+            Assert.assertEquals("first", read(cache.get("a")));
+            Assert.assertEquals("second", read(cache.get("b")));
+            cache.put("a", bytes("replaced"));
+            Assert.assertEquals("replaced", read(cache.get("a")));
+        }
+    }
+
+    @Test
+    public void testSurvivesReopen() throws IOException {
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 100, 0)) {
+            cache.put("a", bytes("first"));
+        }
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 100, 0)) {
+            Assert.assertEquals("first", read(cache.get("a")));
+            cache.put("b", bytes("second"));
+            Assert.assertEquals("first", read(cache.get("a")));
+            Assert.assertEquals("second", read(cache.get("b")));
+        }
+    }
+
+    @Test
+    public void testExpiry() throws IOException, InterruptedException {
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 100, 1)) {
+            cache.put("a", bytes("first"));
+            Thread.sleep(10);
+            Assert.assertNull(cache.get("a"));
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsMostRecentlyUsed() throws IOException, InterruptedException {
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 8, 0)) {
+            for (int i = 0; i < 8; ++i) {
+                cache.put("key" + i, bytes("value" + i));
+                Thread.sleep(2);
+            }
+            Assert.assertEquals("value0", read(cache.get("key0")));
+            cache.compact();
+            Assert.assertEquals("value0", read(cache.get("key0")));
+            Assert.assertNull(cache.get("key1"));
+            Assert.assertNull(cache.get("key2"));
+            for (int i = 3; i < 8; ++i) {
+                Assert.assertEquals("value" + i, read(cache.get("key" + i)));
+            }
+
+            // Bodies that are added after a compaction are kept by the next one
+            cache.put("key8", bytes("value8"));
+            cache.compact();
+            Assert.assertEquals("value8", read(cache.get("key8")));
+        }
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 8, 0)) {
+            Assert.assertEquals("value8", read(cache.get("key8")));
+        }
+    }
+
+    @Test
+    public void testEvictionInBackground() throws IOException, InterruptedException {
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 4, 0)) {
+            for (int i = 0; i < 100; ++i) {
+                cache.put("key" + i, bytes("value" + i));
+                Thread.sleep(1);
+            }
+            for (int i = 0; (i < 100) && (cache.size() > 4); ++i) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(cache.size() <= 4);
+            Assert.assertEquals("value99", read(cache.get("key99")));
+            Assert.assertNull(cache.get("key0"));
+        }
+    }
+
+    @Test
+    public void testCorruptSegmentIsMiss() throws IOException {
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 100, 0)) {
+            cache.put("a", bytes("first"));
+        }
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "segment-*")) {
+            for (Path i : files) {
+                Files.write(i, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20},
+                        StandardOpenOption.WRITE);
+            }
+        }
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 100, 0)) {
+            Assert.assertNull(cache.get("a"));
+            cache.put("a", bytes("second"));
+            Assert.assertEquals("second", read(cache.get("a")));
+        }
+    }
+
+    @Test
+    public void testTruncatedSegmentIsMiss() throws IOException {
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 100, 0)) {
+            cache.put("a", bytes("first"));
+        }
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "segment-*")) {
+            for (Path i : files) {
+                Files.write(i, new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+            }
+        }
+        try (final DiskCache cache = new DiskCache(this.directory, 1L << 20, 100, 0)) {
+            Assert.assertNull(cache.get("a"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testDirectoryInUse() throws IOException {
+        final DiskCache cache = new DiskCache(this.directory, 1L << 20, 100, 0);
+        try {
+            new DiskCache(this.directory, 1L << 20, 100, 0).close();
+        } finally {
+            cache.close();
+        }
+    }
+
+    /**
+     * Encode a string as UTF-8.
+     *
+     * @param value String to encode.
+     * @return Bytes of the string.
+     */
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a body from a cache as a string.
+     *
+     * @param body {@link InputStream} with the body or a null pointer.
+     * @return String with the body or a null pointer if the body is null.
+     */
+    private static String read(final InputStream body) throws IOException {
+        if (body == null) {
+            return null;
+        }
+        try (final InputStream inputStream = body) {
+            final ByteArrayOutputStream res = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = inputStream.read(buffer)) >= 0) {
+                res.write(buffer, 0, read);
+            }
+            return new String(res.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Temporary directory that each test keeps its cache in. */
+    private Path directory;
+}
@@ -0,0 +1,88 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.pif.query.PifQuery;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Tests for {@link JsonEntity}.
+ *
+ * @author Kyle Michel
+ */
+public class JsonEntityTest {
+
+    @Test
+    public void testObjectIsWrittenWhenSent() throws IOException {
+        final PifQuery pifQuery = new PifQuery().size(1);
+        final JsonEntity entity = new JsonEntity(CitrinationClient.OBJECT_MAPPER.writer(), pifQuery);
+        Assert.assertTrue(entity.isChunked());
+        Assert.assertEquals(-1L, entity.getContentLength());
+        Assert.assertTrue(entity.isRepeatable());
+        Assert.assertFalse(entity.isStreaming());
+
+        pifQuery.size(2);
+        Assert.assertArrayEquals(CitrinationClient.OBJECT_MAPPER.writeValueAsBytes(pifQuery), write(entity));
+        Assert.assertArrayEquals(write(entity), write(entity));
+        Assert.assertTrue(entity.isChunked());
+    }
+
+    @Test
+    public void testSerializedObjectHasLength() throws IOException {
+        final PifQuery pifQuery = new PifQuery().size(1);
+        final byte[] expected = CitrinationClient.OBJECT_MAPPER.writeValueAsBytes(pifQuery);
+        final JsonEntity entity = new JsonEntity(CitrinationClient.OBJECT_MAPPER.writer(), pifQuery);
+        entity.serialize();
+        pifQuery.size(2);
+        entity.serialize();
+        Assert.assertFalse(entity.isChunked());
+        Assert.assertEquals(expected.length, entity.getContentLength());
+        Assert.assertArrayEquals(expected, write(entity));
+        Assert.assertArrayEquals(expected, TestServer.readAll(entity.getContent()));
+    }
+
+    @Test
+    public void testContentSerializesObject() throws IOException {
+        final PifQuery pifQuery = new PifQuery().size(1);
+        final JsonEntity entity = new JsonEntity(CitrinationClient.OBJECT_MAPPER.writer(), pifQuery);
+        Assert.assertArrayEquals(CitrinationClient.OBJECT_MAPPER.writeValueAsBytes(pifQuery),
+                TestServer.readAll(entity.getContent()));
+        Assert.assertFalse(entity.isChunked());
+    }
+
+    @Test
+    public void testOutputIsNotClosed() throws IOException {
+        final boolean[] closed = new boolean[1];
+        final ByteArrayOutputStream output = new ByteArrayOutputStream() {
+
+            @Override
+            public void close() throws IOException {
+                closed[0] = true;
+                super.close();
+            }
+        };
+        new JsonEntity(CitrinationClient.OBJECT_MAPPER.writer(), new PifQuery()).writeTo(output);
+        Assert.assertFalse(closed[0]);
+        Assert.assertTrue(output.size() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutputCannotBeNull() throws IOException {
+        new JsonEntity(CitrinationClient.OBJECT_MAPPER.writer(), new PifQuery()).writeTo(null);
+    }
+
+    /**
+     * Write an entity to bytes.
+     *
+     * @param entity {@link JsonEntity} to write.
+     * @return Array of bytes that the entity wrote.
+     * @throws IOException if the entity cannot be written.
+     */
+    private static byte[] write(final JsonEntity entity) throws IOException {
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        entity.writeTo(res);
+        return res.toByteArray();
+    }
+}
@@ -0,0 +1,159 @@
+package io.citrine.jcc.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tests for {@link PagedIterator}.
+ *
+ * @author Kyle Michel
+ */
+public class PagedIteratorTest {
+
+    @Test
+    public void testOrdered() {
+        final ListIterator iterator = new ListIterator(Arrays.asList(
+                Arrays.asList(1, 2), Collections.<Integer>emptyList(), null, Arrays.asList(3), Arrays.asList(4, 5)),
+                2, true);
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5), drain(iterator));
+    }
+
+    @Test
+    public void testUnordered() {
+        final ListIterator iterator = new ListIterator(Arrays.asList(
+                Arrays.asList(1, 2), Arrays.asList(3), Arrays.asList(4, 5)), 3, false);
+        final List<Integer> res = drain(iterator);
+        Collections.sort(res);
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5), res);
+    }
+
+    @Test
+    public void testEndOfStream() {
+        final ListIterator iterator = new ListIterator(Collections.singletonList(Arrays.asList(1)), 2, true);
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertEquals(1, iterator.next().intValue());
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail("Expected the iterator to be exhausted");
+        } catch (NoSuchElementException e) {
+            // Expected
+        }
+        Assert.assertEquals(1, iterator.numFetched);
+    }
+
+    @Test
+    public void testNoPages() {
+        final ListIterator iterator = new ListIterator(Collections.<List<Integer>>emptyList(), 2, true);
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testOnlyEmptyPages() {
+        final ListIterator iterator = new ListIterator(Arrays.asList(
+                Collections.<Integer>emptyList(), Collections.<Integer>emptyList()), 1, true);
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertEquals(2, iterator.numFetched);
+    }
+
+    @Test
+    public void testFailure() {
+        final PagedIterator<Integer> iterator = new PagedIterator<Integer>(2, true) {
+
+            @Override
+            protected CompletableFuture<? extends Iterable<Integer>> fetchNext() {
+                final CompletableFuture<List<Integer>> res = new CompletableFuture<>();
+                res.completeExceptionally(new IOException("failed"));
+                return res;
+            }
+        };
+        try {
+            iterator.hasNext();
+            Assert.fail("Expected the page to fail");
+        } catch (UncheckedIOException e) {
+            Assert.assertEquals("failed", e.getCause().getMessage());
+        }
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testCloseCancelsPages() {
+        final List<CompletableFuture<List<Integer>>> pages = new ArrayList<>();
+        final PagedIterator<Integer> iterator = new PagedIterator<Integer>(3, true) {
+
+            @Override
+            protected CompletableFuture<? extends Iterable<Integer>> fetchNext() {
+                final CompletableFuture<List<Integer>> res = (pages.isEmpty())
+                        ? CompletableFuture.completedFuture(Arrays.asList(1, 2))
+                        : new CompletableFuture<>();
+                pages.add(res);
+                return res;
+            }
+        };
+        Assert.assertEquals(1, iterator.next().intValue());
+        Assert.assertEquals(3, pages.size());  // The page being consumed and two more
+        iterator.close();
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertEquals(3, pages.size());
+        Assert.assertTrue(pages.get(1).isCancelled());
+        Assert.assertTrue(pages.get(2).isCancelled());
+    }
+
+    /**
+     * Consume every element of an iterator.
+     *
+     * @param iterator {@link PagedIterator} to consume.
+     * @return List with the elements in the order that they were returned.
+     */
+    private static List<Integer> drain(final PagedIterator<Integer> iterator) {
+        final List<Integer> res = new ArrayList<>();
+        while (iterator.hasNext()) {
+            res.add(iterator.next());
+        }
+        return res;
+    }
+
+    /**
+     * Iterator over a fixed list of pages that have already completed.
+     *
+     * @author Kyle Michel
+     */
+    private static class ListIterator extends PagedIterator<Integer> {
+
+        @Override
+        protected CompletableFuture<? extends Iterable<Integer>> fetchNext() {
+            if (this.numFetched >= this.pages.size()) {
+                return null;
+            }
+            return CompletableFuture.completedFuture(this.pages.get(this.numFetched++));
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param pages List of pages to return.
+         * @param maxPages Maximum number of pages that can be requested or held at once.
+         * @param ordered True to consume pages in the order that they were requested.
+         */
+        ListIterator(final List<List<Integer>> pages, final int maxPages, final boolean ordered) {
+            super(maxPages, ordered);
+            this.pages = pages;
+        }
+
+        /** Pages to return. */
+        private final List<List<Integer>> pages;
+
+        /** Number of pages that have been fetched. */
+        private int numFetched;
+    }
+}
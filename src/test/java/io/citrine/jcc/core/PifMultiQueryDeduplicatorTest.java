@@ -0,0 +1,99 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.pif.query.PifMultiQuery;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifMultiSearchResult;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+/**
+ * Tests for {@link PifMultiQueryDeduplicator}.
+ *
+ * @author Kyle Michel
+ */
+public class PifMultiQueryDeduplicatorTest {
+
+    @Test
+    public void testRepeatsAreSentOnce() throws IOException {
+        final PifMultiQuery pifMultiQuery = new PifMultiQuery()
+                .addQuery(new PifQuery().includeDataset(1L).includeDataset(2L))
+                .addQuery(new PifQuery().includeDataset(3L))
+                .addQuery(new PifQuery().includeDataset(2L).includeDataset(1L));
+        final PifMultiQueryDeduplicator.Plan plan = PifMultiQueryDeduplicator.plan(pifMultiQuery);
+        Assert.assertEquals(new PifMultiQuery()
+                .addQuery(new PifQuery().includeDataset(1L).includeDataset(2L))
+                .addQuery(new PifQuery().includeDataset(3L)), plan.getUniqueQuery());
+
+        final PifSearchResult first = new PifSearchResult().setTotalNumHits(1L);
+        final PifSearchResult second = new PifSearchResult().setTotalNumHits(2L);
+        final PifMultiSearchResult res = plan.expand(
+                new PifMultiSearchResult().setTook(5L).addResult(first).addResult(second), this::copy);
+        Assert.assertEquals(3, res.getNumResults());
+        Assert.assertEquals(Long.valueOf(5L), res.getTook());
+        Assert.assertSame(first, res.getResult(0));
+        Assert.assertSame(second, res.getResult(1));
+        Assert.assertNotSame(first, res.getResult(2));
+        Assert.assertEquals(Long.valueOf(1L), res.getResult(2).getTotalNumHits());
+    }
+
+    @Test
+    public void testNoRepeats() throws IOException {
+        final PifMultiQuery pifMultiQuery = new PifMultiQuery()
+                .addQuery(new PifQuery().includeDataset(1L))
+                .addQuery(new PifQuery().includeDataset(2L));
+        final PifMultiQueryDeduplicator.Plan plan = PifMultiQueryDeduplicator.plan(pifMultiQuery);
+        Assert.assertSame(pifMultiQuery, plan.getUniqueQuery());
+        final PifMultiSearchResult result = new PifMultiSearchResult();
+        Assert.assertSame(result, plan.expand(result, this::copy));
+    }
+
+    @Test
+    public void testEqualRepeatsAreSentOnce() throws IOException {
+        final PifMultiQuery pifMultiQuery = new PifMultiQuery()
+                .addQuery(new PifQuery().size(1))
+                .addQuery(new PifQuery().size(1))
+                .addQuery(new PifQuery().size(2))
+                .addQuery(new PifQuery().size(1));
+        final PifMultiQueryDeduplicator.Plan plan = PifMultiQueryDeduplicator.plan(pifMultiQuery);
+        Assert.assertEquals(new PifMultiQuery()
+                .addQuery(new PifQuery().size(1))
+                .addQuery(new PifQuery().size(2)), plan.getUniqueQuery());
+        final PifMultiSearchResult res = plan.expand(new PifMultiSearchResult()
+                .addResult(new PifSearchResult().setTotalNumHits(1L))
+                .addResult(new PifSearchResult().setTotalNumHits(2L)), this::copy);
+        Assert.assertEquals(4, res.getNumResults());
+        Assert.assertEquals(Long.valueOf(1L), res.getResult(1).getTotalNumHits());
+        Assert.assertEquals(Long.valueOf(2L), res.getResult(2).getTotalNumHits());
+        Assert.assertEquals(Long.valueOf(1L), res.getResult(3).getTotalNumHits());
+    }
+
+    @Test
+    public void testKeepAll() throws IOException {
+        final PifQuery pifQuery = new PifQuery().includeDataset(1L);
+        final PifMultiQuery pifMultiQuery = new PifMultiQuery().addQuery(pifQuery).addQuery(pifQuery);
+        final PifMultiQueryDeduplicator.Plan plan = PifMultiQueryDeduplicator.keepAll(pifMultiQuery);
+        Assert.assertSame(pifMultiQuery, plan.getUniqueQuery());
+        final PifMultiSearchResult result = new PifMultiSearchResult();
+        Assert.assertSame(result, plan.expand(result, this::copy));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingResults() throws IOException {
+        final PifQuery pifQuery = new PifQuery().includeDataset(1L);
+        PifMultiQueryDeduplicator.plan(new PifMultiQuery().addQuery(pifQuery).addQuery(pifQuery))
+                .expand(new PifMultiSearchResult(), this::copy);
+    }
+
+    /**
+     * Copy the counts of a search result.
+     *
+     * @param result {@link PifSearchResult} to copy.
+     * @return New {@link PifSearchResult} with the same counts.
+     */
+    private PifSearchResult copy(final PifSearchResult result) {
+        return new PifSearchResult().setTook(result.getTook()).setTotalNumHits(result.getTotalNumHits());
+    }
+}
@@ -0,0 +1,120 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.pif.query.PifMultiQuery;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifMultiSearchResult;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link PifMultiQuerySplitter}.
+ *
+ * @author Kyle Michel
+ */
+public class PifMultiQuerySplitterTest {
+
+    @Test
+    public void testBodiesFitInBudget() throws IOException {
+        final PifMultiQuery pifMultiQuery = new PifMultiQuery();
+        for (long i = 0; i < 50; ++i) {
+            final PifQuery pifQuery = new PifQuery();
+            for (long j = 0; j <= i % 7; ++j) {
+                pifQuery.includeDataset(i * 100 + j);
+            }
+            pifMultiQuery.addQuery(pifQuery);
+        }
+        long single = 0;
+        for (int i = 0; i < pifMultiQuery.getNumQueries(); ++i) {
+            single = Math.max(single, CitrinationClient.OBJECT_MAPPER.writeValueAsBytes(
+                    new PifMultiQuery().addQuery(pifMultiQuery.getQuery(i))).length);
+        }
+        for (long maxBytes = single; maxBytes < 4 * single; maxBytes += 7) {
+            final List<PifMultiQuerySplitter.Chunk> chunks = PifMultiQuerySplitter.split(pifMultiQuery, 0, maxBytes);
+            final PifMultiQuery joined = new PifMultiQuery();
+            for (PifMultiQuerySplitter.Chunk i : chunks) {
+                Assert.assertTrue(i.getBody().length <= maxBytes);
+                Assert.assertEquals(i.getQuery(),
+                        CitrinationClient.OBJECT_MAPPER.readValue(i.getBody(), PifMultiQuery.class));
+                for (int j = 0; j < i.getQuery().getNumQueries(); ++j) {
+                    joined.addQuery(i.getQuery().getQuery(j));
+                }
+            }
+            Assert.assertEquals(pifMultiQuery, joined);
+        }
+    }
+
+    @Test
+    public void testBudgetIsFilled() throws IOException {
+        final PifQuery pifQuery = new PifQuery().includeDataset(1L);
+        final PifMultiQuery pair = new PifMultiQuery().addQuery(pifQuery).addQuery(pifQuery);
+        final long maxBytes = CitrinationClient.OBJECT_MAPPER.writeValueAsBytes(pair).length;
+        Assert.assertEquals(1, PifMultiQuerySplitter.split(pair, 0, maxBytes).size());
+        Assert.assertEquals(2, PifMultiQuerySplitter.split(pair, 0, maxBytes - 1).size());
+    }
+
+    @Test
+    public void testOversizedQueryIsSentAlone() throws IOException {
+        final PifMultiQuery pifMultiQuery = new PifMultiQuery()
+                .addQuery(new PifQuery().includeDataset(1L))
+                .addQuery(new PifQuery().includeDataset(2L));
+        final List<PifMultiQuerySplitter.Chunk> chunks = PifMultiQuerySplitter.split(pifMultiQuery, 0, 1);
+        Assert.assertEquals(2, chunks.size());
+        Assert.assertEquals(1, chunks.get(0).getQuery().getNumQueries());
+        Assert.assertEquals(1, chunks.get(1).getQuery().getNumQueries());
+    }
+
+    @Test
+    public void testSplitByCount() throws IOException {
+        final PifMultiQuery pifMultiQuery = new PifMultiQuery();
+        for (long i = 0; i < 5; ++i) {
+            pifMultiQuery.addQuery(new PifQuery().includeDataset(i));
+        }
+        final List<PifMultiQuerySplitter.Chunk> chunks = PifMultiQuerySplitter.split(pifMultiQuery, 2, 0);
+        Assert.assertEquals(3, chunks.size());
+        Assert.assertNull(chunks.get(0).getBody());
+        Assert.assertEquals(1, chunks.get(2).getQuery().getNumQueries());
+    }
+
+    @Test
+    public void testMergeKeepsOrder() throws IOException {
+        final PifMultiQuery pifMultiQuery = new PifMultiQuery();
+        for (long i = 0; i < 5; ++i) {
+            pifMultiQuery.addQuery(new PifQuery().includeDataset(i));
+        }
+        final List<PifMultiQuerySplitter.Chunk> chunks = PifMultiQuerySplitter.split(pifMultiQuery, 2, 0);
+        final PifMultiSearchResult res = PifMultiQuerySplitter.merge(chunks, Arrays.asList(
+                result(3L, 0L, 1L), result(9L, 2L, 3L), result(null, 4L)));
+        Assert.assertEquals(Long.valueOf(9L), res.getTook());
+        Assert.assertEquals(5, res.getNumResults());
+        for (int i = 0; i < 5; ++i) {
+            Assert.assertEquals(Long.valueOf(i), res.getResult(i).getTotalNumHits());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testMergeMissingResult() throws IOException {
+        final PifMultiQuery pifMultiQuery = new PifMultiQuery().addQuery(new PifQuery()).addQuery(new PifQuery());
+        PifMultiQuerySplitter.merge(PifMultiQuerySplitter.split(pifMultiQuery, 0, 0),
+                Arrays.asList(result(1L, 0L)));
+    }
+
+    /**
+     * Build the result of a chunk.
+     *
+     * @param took Time taken by the chunk or a null pointer if it is not known.
+     * @param totalNumHits Number of hits of each query in the chunk, which identifies the query.
+     * @return {@link PifMultiSearchResult} for the chunk.
+     */
+    private static PifMultiSearchResult result(final Long took, final Long... totalNumHits) {
+        final PifMultiSearchResult res = new PifMultiSearchResult().setTook(took);
+        for (Long i : totalNumHits) {
+            res.addResult(new PifSearchResult().setTotalNumHits(i));
+        }
+        return res;
+    }
+}
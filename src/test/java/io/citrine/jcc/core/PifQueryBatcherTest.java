@@ -0,0 +1,141 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.pif.query.PifMultiQuery;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifMultiSearchResult;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link PifQueryBatcher}.
+ *
+ * @author Kyle Michel
+ */
+public class PifQueryBatcherTest {
+
+    @Test
+    public void testFlushOnSize() throws Exception {
+        try (final PifQueryBatcher batcher = new PifQueryBatcher(2, TimeUnit.HOURS.toMillis(1), this::respond)) {
+            final CompletableFuture<PifSearchResult> first = batcher.submit(new PifQuery().includeDataset(1L));
+            Assert.assertFalse(first.isDone());
+            final CompletableFuture<PifSearchResult> second = batcher.submit(new PifQuery().includeDataset(2L));
+            Assert.assertEquals(Long.valueOf(1L), first.get().getTotalNumHits());
+            Assert.assertEquals(Long.valueOf(2L), second.get().getTotalNumHits());
+            Assert.assertEquals(1, this.sent.size());
+            Assert.assertEquals(2, this.sent.get(0).getNumQueries());
+        }
+    }
+
+    @Test
+    public void testFlushOnTimeout() throws Exception {
+        try (final PifQueryBatcher batcher = new PifQueryBatcher(10, 20, this::respond)) {
+            final CompletableFuture<PifSearchResult> first = batcher.submit(new PifQuery().includeDataset(1L));
+            final CompletableFuture<PifSearchResult> second = batcher.submit(new PifQuery().includeDataset(2L));
+            Assert.assertEquals(Long.valueOf(1L), first.get(10, TimeUnit.SECONDS).getTotalNumHits());
+            Assert.assertEquals(Long.valueOf(2L), second.get(10, TimeUnit.SECONDS).getTotalNumHits());
+            Assert.assertEquals(1, this.sent.size());
+            batcher.submit(new PifQuery().includeDataset(3L)).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(2, this.sent.size());
+        }
+    }
+
+    @Test
+    public void testQueryIsSnapshotOnSubmit() throws Exception {
+        try (final PifQueryBatcher batcher = new PifQueryBatcher(2, TimeUnit.HOURS.toMillis(1), this::respond)) {
+            final PifQuery pifQuery = new PifQuery().includeDataset(1L);
+            final CompletableFuture<PifSearchResult> first = batcher.submit(pifQuery);
+            pifQuery.includeDataset(5L);
+            batcher.submit(pifQuery);
+            Assert.assertEquals(Long.valueOf(1L), first.get().getTotalNumHits());
+            Assert.assertEquals(new PifQuery().includeDataset(1L), this.sent.get(0).getQuery(0));
+            Assert.assertEquals(new PifQuery().includeDataset(1L).includeDataset(5L), this.sent.get(0).getQuery(1));
+        }
+    }
+
+    @Test
+    public void testFailureReachesEveryQuery() throws Exception {
+        final IOException failure = new IOException("failed");
+        try (final PifQueryBatcher batcher = new PifQueryBatcher(2, TimeUnit.HOURS.toMillis(1), body -> {
+            throw new UncheckedIOException(failure);
+        })) {
+            final CompletableFuture<PifSearchResult> first = batcher.submit(new PifQuery());
+            final CompletableFuture<PifSearchResult> second = batcher.submit(new PifQuery());
+            Assert.assertSame(failure, getFailure(first).getCause());
+            Assert.assertSame(failure, getFailure(second).getCause());
+        }
+    }
+
+    @Test
+    public void testMissingResults() throws Exception {
+        try (final PifQueryBatcher batcher = new PifQueryBatcher(2, TimeUnit.HOURS.toMillis(1),
+                body -> CompletableFuture.completedFuture(new PifMultiSearchResult()
+                        .addResult(new PifSearchResult())))) {
+            final CompletableFuture<PifSearchResult> first = batcher.submit(new PifQuery());
+            final CompletableFuture<PifSearchResult> second = batcher.submit(new PifQuery());
+            Assert.assertNotNull(first.get());
+            Assert.assertTrue(getFailure(second) instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testCloseFailsWaitingQueries() throws Exception {
+        final PifQueryBatcher batcher = new PifQueryBatcher(10, TimeUnit.HOURS.toMillis(1), this::respond);
+        final CompletableFuture<PifSearchResult> waiting = batcher.submit(new PifQuery());
+        batcher.close();
+        Assert.assertTrue(getFailure(waiting) instanceof IllegalStateException);
+        Assert.assertTrue(getFailure(batcher.submit(new PifQuery())) instanceof IllegalStateException);
+        Assert.assertTrue(this.sent.isEmpty());
+    }
+
+    /**
+     * Record a batch that was sent and respond with a result for each of its queries whose number of hits is the
+     * first dataset that the query includes.
+     *
+     * @param body Serialized multi-query that was sent.
+     * @return {@link CompletableFuture} that has completed with the result of the batch.
+     */
+    private CompletableFuture<PifMultiSearchResult> respond(final byte[] body) {
+        final PifMultiQuery pifMultiQuery;
+        try {
+            pifMultiQuery = CitrinationClient.OBJECT_MAPPER.readValue(body, PifMultiQuery.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.sent.add(pifMultiQuery);
+        final PifMultiSearchResult res = new PifMultiSearchResult();
+        for (int i = 0; i < pifMultiQuery.getNumQueries(); ++i) {
+            final Iterator<Long> datasets = pifMultiQuery.getQuery(i).includeDatasets().iterator();
+            res.addResult(new PifSearchResult().setTotalNumHits(datasets.hasNext() ? datasets.next() : null));
+        }
+        return CompletableFuture.completedFuture(res);
+    }
+
+    /**
+     * Get the exception that a future failed with.
+     *
+     * @param future {@link CompletableFuture} that is expected to have failed.
+     * @return Throwable that the future failed with.
+     * @throws Exception if the future did not fail.
+     */
+    private static Throwable getFailure(final CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        throw new AssertionError("Expected the future to fail");
+    }
+
+    /** Multi-queries that have been sent, in the order that they were sent. */
+    private final List<PifMultiQuery> sent = new CopyOnWriteArrayList<>();
+}
@@ -0,0 +1,133 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.result.PifSearchHit;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Tests for {@link PifSearchHitIterator}.
+ *
+ * @author Kyle Michel
+ */
+public class PifSearchHitIteratorTest {
+
+    @Test
+    public void testPagesUntilTotal() {
+        final List<PifQuery> sent = new CopyOnWriteArrayList<>();
+        final List<String> ids = drain(new PifSearchHitIterator(
+                new PifQuery().size(10), 3, 2, true, record(sent, search(7L, true))));
+        Assert.assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5", "6"), ids);
+        Assert.assertEquals(3, sent.size());
+        for (int i = 0; i < sent.size(); ++i) {
+            Assert.assertEquals(Integer.valueOf(3 * i), sent.get(i).fromIndex());
+            Assert.assertEquals(Integer.valueOf(3), sent.get(i).size());
+        }
+    }
+
+    @Test
+    public void testStartsFromIndex() {
+        final List<String> ids = drain(new PifSearchHitIterator(
+                new PifQuery().fromIndex(4), 2, 2, true, search(7L, true)));
+        Assert.assertEquals(Arrays.asList("4", "5", "6"), ids);
+    }
+
+    @Test
+    public void testUnorderedReturnsEveryHit() {
+        final List<String> ids = drain(new PifSearchHitIterator(
+                new PifQuery(), 2, 4, false, search(9L, true)));
+        Collections.sort(ids);
+        Assert.assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5", "6", "7", "8"), ids);
+    }
+
+    @Test
+    public void testMissingTotalStopsAfterFirstPage() {
+        final List<PifQuery> sent = new CopyOnWriteArrayList<>();
+        final List<String> ids = drain(new PifSearchHitIterator(
+                new PifQuery(), 3, 4, true, record(sent, search(7L, false))));
+        Assert.assertEquals(Arrays.asList("0", "1", "2"), ids);
+        Assert.assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void testNoHits() {
+        Assert.assertTrue(drain(new PifSearchHitIterator(new PifQuery(), 3, 4, true, search(0L, true))).isEmpty());
+    }
+
+    @Test
+    public void testQueryIsCopied() {
+        final List<PifQuery> sent = new CopyOnWriteArrayList<>();
+        final PifQuery pifQuery = new PifQuery().includeDataset(1L);
+        final PifSearchHitIterator iterator = new PifSearchHitIterator(
+                pifQuery, 3, 2, true, record(sent, search(4L, true)));
+        pifQuery.includeDataset(2L).fromIndex(3);
+        Assert.assertEquals(Arrays.asList("0", "1", "2", "3"), drain(iterator));
+        Assert.assertFalse(pifQuery.isFrozen());
+        for (PifQuery i : sent) {
+            final List<Long> datasets = new ArrayList<>();
+            i.includeDatasets().forEach(datasets::add);
+            Assert.assertEquals(Collections.singletonList(1L), datasets);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPageSizeMustBePositive() {
+        new PifSearchHitIterator(new PifQuery(), 0, 1, true, search(1L, true));
+    }
+
+    /**
+     * Consume every hit of an iterator.
+     *
+     * @param iterator {@link PifSearchHitIterator} to consume.
+     * @return List with the identifiers of the hits in the order that they were returned.
+     */
+    private static List<String> drain(final PifSearchHitIterator iterator) {
+        final List<String> res = new ArrayList<>();
+        while (iterator.hasNext()) {
+            res.add(iterator.next().getId());
+        }
+        return res;
+    }
+
+    /**
+     * Get a search function that records the queries that are passed to another one.
+     *
+     * @param sent List to add each query to.
+     * @param search Function that runs a page query.
+     * @return Function that records the query and then runs it.
+     */
+    private static Function<PifQuery, CompletableFuture<PifSearchResult>> record(final List<PifQuery> sent,
+            final Function<PifQuery, CompletableFuture<PifSearchResult>> search) {
+        return pifQuery -> {
+            sent.add(pifQuery);
+            return search.apply(pifQuery);
+        };
+    }
+
+    /**
+     * Get a search function that answers each page with hits whose identifiers are their indices.
+     *
+     * @param total Total number of hits that match the query.
+     * @param withTotal True to return the total number of hits with each page.
+     * @return Function that runs a page query.
+     */
+    private static Function<PifQuery, CompletableFuture<PifSearchResult>> search(final long total,
+            final boolean withTotal) {
+        return pifQuery -> {
+            final PifSearchResult res = new PifSearchResult().setTotalNumHits(withTotal ? total : null);
+            for (long i = pifQuery.fromIndex(); i < Math.min(total, pifQuery.fromIndex() + pifQuery.size()); ++i) {
+                res.addHit(new PifSearchHit().setId(Long.toString(i)));
+            }
+            return CompletableFuture.supplyAsync(() -> res);
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package io.citrine.jcc.core;
+
+import io.citrine.jcc.predict.PredictedValue;
+import io.citrine.jcc.predict.PredictionRequest;
+import io.citrine.jcc.predict.PredictionResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Tests for {@link PredictionIterator}.
+ *
+ * @author Kyle Michel
+ */
+public class PredictionIteratorTest {
+
+    @Test
+    public void testChunksKeepOrder() {
+        final List<Integer> chunkSizes = new CopyOnWriteArrayList<>();
+        final PredictionIterator iterator = new PredictionIterator(candidates(10, new AtomicInteger()), 3, 4,
+                request -> {
+                    chunkSizes.add(request.getCandidates().size());
+                    return delayed(predict(request), 40L - 10L * chunkSizes.size());
+                });
+        Assert.assertEquals(IntStream.range(0, 10).boxed().collect(Collectors.toList()), drain(iterator));
+        Assert.assertEquals(Arrays.asList(3, 3, 3, 1), chunkSizes);
+    }
+
+    @Test
+    public void testCandidatesArePulledLazily() {
+        final AtomicInteger pulled = new AtomicInteger();
+        final PredictionIterator iterator = new PredictionIterator(candidates(100, pulled), 5, 2,
+                PredictionIteratorTest::predict);
+        Assert.assertEquals(0, pulled.get());
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertEquals(0, iterator.next().get("y").getValueAsDouble(), 0.0);
+        Assert.assertTrue(pulled.get() <= 10);
+    }
+
+    @Test
+    public void testNoCandidates() {
+        final AtomicInteger numRequests = new AtomicInteger();
+        final PredictionIterator iterator = new PredictionIterator(Collections.emptyIterator(), 5, 2, request -> {
+            numRequests.incrementAndGet();
+            return predict(request);
+        });
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertEquals(0, numRequests.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChunkSizeMustBePositive() {
+        new PredictionIterator(Collections.emptyIterator(), 0, 2, PredictionIteratorTest::predict);
+    }
+
+    /**
+     * Consume every prediction of an iterator.
+     *
+     * @param iterator {@link PredictionIterator} to consume.
+     * @return List with the value of "y" of each prediction, halved so that it is the "x" of its candidate.
+     */
+    private static List<Integer> drain(final PredictionIterator iterator) {
+        final List<Integer> res = new ArrayList<>();
+        while (iterator.hasNext()) {
+            res.add((int) (iterator.next().get("y").getValueAsDouble() / 2.0));
+        }
+        return res;
+    }
+
+    /**
+     * Get an iterator over candidates whose "x" values count up from zero.
+     *
+     * @param numCandidates Number of candidates.
+     * @param pulled Counter of the candidates that have been pulled from the iterator.
+     * @return Iterator over the candidates.
+     */
+    private static Iterator<Map<String, Object>> candidates(final int numCandidates, final AtomicInteger pulled) {
+        return IntStream.range(0, numCandidates)
+                .peek(i -> pulled.incrementAndGet())
+                .mapToObj(i -> Collections.<String, Object>singletonMap("x", i))
+                .iterator();
+    }
+
+    /**
+     * Predict twice the value of "x" for each candidate of a request.
+     *
+     * @param request {@link PredictionRequest} with the candidates.
+     * @return {@link CompletableFuture} that is completed with the predictions.
+     */
+    private static CompletableFuture<PredictionResult> predict(final PredictionRequest request) {
+        final List<Map<String, PredictedValue>> candidates = new ArrayList<>();
+        for (Map<String, Object> i : request.getCandidates()) {
+            candidates.add(Collections.singletonMap("y", new PredictedValue(2.0 * (Integer) i.get("x"), 0.5)));
+        }
+        return CompletableFuture.completedFuture(new PredictionResult().setCandidates(candidates));
+    }
+
+    /**
+     * Delay the completion of a future.
+     *
+     * @param future {@link CompletableFuture} to delay.
+     * @param delay Number of milliseconds to delay it by.
+     * @return {@link CompletableFuture} that completes with the same value after the delay.
+     */
+    private static CompletableFuture<PredictionResult> delayed(final CompletableFuture<PredictionResult> future,
+            final long delay) {
+        return future.thenApplyAsync(result -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(Math.max(0L, delay));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        });
+    }
+}
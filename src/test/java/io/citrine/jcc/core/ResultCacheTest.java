@@ -0,0 +1,76 @@
+package io.citrine.jcc.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ResultCache}.
+ *
+ * @author Kyle Michel
+ */
+public class ResultCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        final ResultCache<String, String> cache = new ResultCache<>(3L, 0L, String::length);
+        cache.put("a", "x");
+        cache.put("b", "x");
+        cache.put("c", "x");
+        Assert.assertEquals("x", cache.get("a"));
+        cache.put("d", "x");
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("x", cache.get("a"));
+        Assert.assertEquals("x", cache.get("c"));
+        Assert.assertEquals("x", cache.get("d"));
+    }
+
+    @Test
+    public void testEntriesAreWeighed() {
+        final ResultCache<String, String> cache = new ResultCache<>(4L, 0L, String::length);
+        cache.put("a", "x");
+        cache.put("b", "xxx");
+        Assert.assertEquals("x", cache.get("a"));
+        cache.put("c", "xx");
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("x", cache.get("a"));
+        Assert.assertEquals("xx", cache.get("c"));
+
+        cache.put("d", "xxxxx");
+        Assert.assertNull(cache.get("d"));
+        Assert.assertEquals("x", cache.get("a"));
+    }
+
+    @Test
+    public void testReplacedValueIsReweighed() {
+        final ResultCache<String, String> cache = new ResultCache<>(3L, 0L, String::length);
+        cache.put("a", "xx");
+        cache.put("a", "x");
+        cache.put("b", "xx");
+        Assert.assertEquals("x", cache.get("a"));
+        Assert.assertEquals("xx", cache.get("b"));
+    }
+
+    @Test
+    public void testEntriesExpire() throws InterruptedException {
+        final ResultCache<String, String> cache = new ResultCache<>(10L, 20L, String::length);
+        cache.put("a", "x");
+        Assert.assertEquals("x", cache.get("a"));
+        Thread.sleep(40L);
+        Assert.assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testClear() {
+        final ResultCache<String, String> cache = new ResultCache<>(2L, 0L, String::length);
+        cache.put("a", "xx");
+        cache.clear();
+        Assert.assertNull(cache.get("a"));
+        cache.put("b", "xx");
+        Assert.assertEquals("xx", cache.get("b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxWeightMustBePositive() {
+        new ResultCache<String, String>(0L, 0L, String::length);
+    }
+}
@@ -0,0 +1,115 @@
+package io.citrine.jcc.core;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.citrine.jcc.search.pif.result.PifSearchHit;
+import io.citrine.jcc.search.pif.result.PifSearchResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link SearchResultParser}.
+ *
+ * @author Kyle Michel
+ */
+public class SearchResultParserTest {
+
+    @Test
+    public void testSingleValueArraySystem() throws IOException {
+        final String json = "{\"results\": {\"hits\": [{\"id\": \"a\", \"system\": [{\"names\": \"Steel\"}]}]}}";
+        for (boolean lazy : new boolean[] {false, true}) {
+            final PifSearchResult result = parser(lazy).parse(stream(json), null);
+            final PifSearchHit hit = result.getHit(0);
+            Assert.assertEquals("a", hit.getId());
+            Assert.assertNotNull(hit.getSystem());
+        }
+    }
+
+    @Test
+    public void testLazySystemIsBoundOnRequest() throws IOException {
+        final String json = "{\"results\": {\"hits\": [{\"id\": \"a\", \"system\": {\"names\": [\"Steel\"]}}]}}";
+        final PifSearchHit hit = parser(true).parse(stream(json), null).getHit(0);
+        final String serialized = CitrinationClient.OBJECT_MAPPER.writeValueAsString(hit);
+        Assert.assertTrue(serialized, serialized.contains("\"system\":{\"names\":[\"Steel\"]}"));
+        Assert.assertNotNull(hit.getSystem());
+        Assert.assertSame(hit.getSystem(), hit.getSystem());
+    }
+
+    @Test
+    public void testMatchesTreeParse() throws IOException {
+        final String json = "{\"status\": \"ok\", \"results\": {\"took\": 12, \"unknown\": {\"a\": [1, {}]}, "
+                + "\"totalNumHits\": 40, \"hits\": ["
+                + "{\"id\": \"a\", \"dataset\": 3, \"datasetVersion\": 2, \"score\": 1.5, "
+                + "\"extracted\": {\"x\": 1.25, \"y\": [\"p\", \"q\"], \"z\": {\"k\": null}}}, "
+                + "{\"id\": \"b\", \"dataset\": 4, \"extracted\": {\"x\": \"text\"}}, "
+                + "{\"id\": \"c\", \"score\": null}]}, \"trailing\": [1, 2]}";
+        assertMatchesTreeParse(json);
+        assertMatchesTreeParse("{\"results\": {\"took\": null, \"hits\": {\"id\": \"a\"}}}");
+        assertMatchesTreeParse("{\"results\": {\"took\": 1, \"totalNumHits\": 0, \"hits\": []}}");
+    }
+
+    @Test
+    public void testConsumerReceivesHitsInOrder() throws IOException {
+        final String json = "{\"results\": {\"took\": 2, \"totalNumHits\": 9, "
+                + "\"hits\": [{\"id\": \"a\"}, {\"id\": \"b\"}, {\"id\": \"c\"}]}}";
+        final List<String> ids = new ArrayList<>();
+        final PifSearchResult result = parser(false).parse(stream(json), i -> ids.add(i.getId()));
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), ids);
+        Assert.assertEquals(Long.valueOf(2L), result.getTook());
+        Assert.assertEquals(Long.valueOf(9L), result.getTotalNumHits());
+        Assert.assertEquals(0, result.getNumHits());
+    }
+
+    @Test
+    public void testMissingResult() throws IOException {
+        Assert.assertNull(parser(false).parse(stream("{\"status\": \"ok\"}"), null));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testResponseIsNotAnObject() throws IOException {
+        parser(false).parse(stream("[]"), null);
+    }
+
+    /**
+     * Check that the streaming parser reads a response into the same result as binding the tree of the response.
+     *
+     * @param json String with the body of a response.
+     * @throws IOException if the response cannot be parsed.
+     */
+    private static void assertMatchesTreeParse(final String json) throws IOException {
+        final ObjectMapper mapper = CitrinationClient.OBJECT_MAPPER;
+        final PifSearchResult expected = mapper.treeToValue(mapper.readTree(json).path("results"),
+                PifSearchResult.class);
+        final PifSearchResult actual = parser(false).parse(stream(json), null);
+        Assert.assertEquals(expected.getNumHits(), actual.getNumHits());
+        Assert.assertEquals(mapper.valueToTree(expected), mapper.valueToTree(actual));
+    }
+
+    /**
+     * Get a parser for PIF search responses that is set up in the same way as the parser of the client.
+     *
+     * @param lazySystemBinding Whether systems are bound lazily.
+     * @return {@link SearchResultParser} for PIF search responses.
+     */
+    private static SearchResultParser<PifSearchHit, PifSearchResult> parser(final boolean lazySystemBinding) {
+        return new SearchResultParser<>(CitrinationClient.OBJECT_MAPPER.readerFor(PifSearchHit.class)
+                .withAttribute(PifSearchHit.LAZY_SYSTEM_BINDING, lazySystemBinding), PifSearchResult::new);
+    }
+
+    /**
+     * Get a stream over the bytes of a string.
+     *
+     * @param json String with the body of a response.
+     * @return {@link ByteArrayInputStream} over the UTF-8 bytes of the string.
+     */
+    private static ByteArrayInputStream stream(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
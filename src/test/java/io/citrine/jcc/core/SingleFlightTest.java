@@ -0,0 +1,116 @@
+package io.citrine.jcc.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link SingleFlight}.
+ *
+ * @author Kyle Michel
+ */
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallsAreCoalesced() throws Exception {
+        final SingleFlight<String, StringBuilder> singleFlight = new SingleFlight<>(StringBuilder::new);
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<StringBuilder> call = new CompletableFuture<>();
+        final CompletableFuture<StringBuilder> leader = singleFlight.execute("a", () -> count(calls, call));
+        final CompletableFuture<StringBuilder> waiter = singleFlight.execute("a", () -> count(calls, call));
+        final CompletableFuture<StringBuilder> other = singleFlight.execute("b", () -> count(calls, call));
+        Assert.assertEquals(2, calls.get());
+        Assert.assertFalse(leader.isDone());
+        Assert.assertFalse(waiter.isDone());
+
+        final StringBuilder original = new StringBuilder("result");
+        call.complete(original);
+        Assert.assertEquals("result", leader.get().toString());
+        Assert.assertEquals("result", waiter.get().toString());
+        Assert.assertNotSame(original, leader.get());
+        Assert.assertNotSame(original, waiter.get());
+        Assert.assertNotSame(leader.get(), waiter.get());
+        Assert.assertNotSame(leader.get(), other.get());
+
+        leader.get().append(" changed");
+        Assert.assertEquals("result", waiter.get().toString());
+        Assert.assertEquals("result", original.toString());
+    }
+
+    @Test
+    public void testCallRunsAgainAfterCompletion() throws Exception {
+        final SingleFlight<String, StringBuilder> singleFlight = new SingleFlight<>(StringBuilder::new);
+        final AtomicInteger calls = new AtomicInteger();
+        singleFlight.execute("a", () -> count(calls, completed("1"))).get();
+        final CompletableFuture<StringBuilder> res = singleFlight.execute("a", () -> count(calls, completed("2")));
+        Assert.assertEquals(2, calls.get());
+        Assert.assertEquals("2", res.get().toString());
+    }
+
+    @Test
+    public void testFailureReachesEveryCaller() throws Exception {
+        final SingleFlight<String, StringBuilder> singleFlight = new SingleFlight<>(StringBuilder::new);
+        final CompletableFuture<StringBuilder> call = new CompletableFuture<>();
+        final CompletableFuture<StringBuilder> leader = singleFlight.execute("a", () -> call);
+        final CompletableFuture<StringBuilder> waiter = singleFlight.execute("a", () -> call);
+        final IOException failure = new IOException("failed");
+        call.completeExceptionally(failure);
+        Assert.assertSame(failure, getFailure(leader));
+        Assert.assertSame(failure, getFailure(waiter));
+    }
+
+    @Test
+    public void testThrowingCallFails() throws Exception {
+        final SingleFlight<String, StringBuilder> singleFlight = new SingleFlight<>(StringBuilder::new);
+        final IllegalStateException failure = new IllegalStateException("failed");
+        final CompletableFuture<StringBuilder> res = singleFlight.execute("a", () -> {
+            throw failure;
+        });
+        Assert.assertSame(failure, getFailure(res));
+        Assert.assertEquals("next", singleFlight.execute("a", () -> completed("next")).get().toString());
+    }
+
+    /**
+     * Count a call and return its future.
+     *
+     * @param calls Counter of the calls that have been made.
+     * @param future {@link CompletableFuture} to return.
+     * @return The input future.
+     */
+    private static CompletableFuture<StringBuilder> count(
+            final AtomicInteger calls, final CompletableFuture<StringBuilder> future) {
+        calls.incrementAndGet();
+        return future;
+    }
+
+    /**
+     * Get a future that has completed with a value.
+     *
+     * @param value String with the value of the result.
+     * @return {@link CompletableFuture} that has completed with the value.
+     */
+    private static CompletableFuture<StringBuilder> completed(final String value) {
+        return CompletableFuture.completedFuture(new StringBuilder(value));
+    }
+
+    /**
+     * Get the exception that a future failed with.
+     *
+     * @param future {@link CompletableFuture} that is expected to have failed.
+     * @return Throwable that the future failed with.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    private static Throwable getFailure(final CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        Assert.fail("Expected the future to fail");
+        return null;
+    }
+}
@@ -0,0 +1,290 @@
+package io.citrine.jcc.core;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * HTTP server on the loopback interface that answers requests from a {@link CitrinationClient} in tests.
+ *
+ * @author Kyle Michel
+ */
+class TestServer implements AutoCloseable {
+
+    /**
+     * Get the host to connect a client to.
+     *
+     * @return String with the scheme, address and port of this server.
+     */
+    String getHost() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    /**
+     * Get a client that connects to this server.
+     *
+     * @return {@link CitrinationClient.Builder} that is set up to connect to this server.
+     */
+    CitrinationClient.Builder clientBuilder() {
+        return new CitrinationClient.Builder().setHost(getHost()).setApiKey("key");
+    }
+
+    /**
+     * Get the requests that this server has received.
+     *
+     * @return List of {@link Request} objects in the order that they were received.
+     */
+    List<Request> getRequests() {
+        return this.requests;
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+    }
+
+    /**
+     * Read a request, record it, and send the response to it.
+     *
+     * @param exchange {@link HttpExchange} with the request.
+     * @throws IOException if the request cannot be read or the response cannot be written.
+     */
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            final Request request = new Request(exchange.getRequestURI().getPath(),
+                    exchange.getRequestHeaders().getFirst("Content-Encoding"),
+                    exchange.getRequestHeaders().getFirst("Accept-Encoding"),
+                    exchange.getRemoteAddress().getPort(),
+                    readAll(exchange.getRequestBody()));
+            this.requests.add(request);
+            final Response response = this.handler.apply(request);
+            if (response.contentEncoding != null) {
+                exchange.getResponseHeaders().add("Content-Encoding", response.contentEncoding);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status, (response.body.length == 0) ? -1 : response.body.length);
+            try (final OutputStream output = exchange.getResponseBody()) {
+                output.write(response.body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Read all of the bytes in a stream.
+     *
+     * @param input {@link InputStream} to read.
+     * @return Array of bytes that were read.
+     * @throws IOException if the stream cannot be read.
+     */
+    static byte[] readAll(final InputStream input) throws IOException {
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int numRead;
+        while ((numRead = input.read(buffer)) >= 0) {
+            res.write(buffer, 0, numRead);
+        }
+        return res.toByteArray();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param handler Function that gets the response to each request.
+     * @throws IOException if the server cannot be started.
+     */
+    TestServer(final Function<Request, Response> handler) throws IOException {
+        this.handler = handler;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "test-server");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        this.server.start();
+    }
+
+    /** Function that gets the response to each request. */
+    private final Function<Request, Response> handler;
+
+    /** Server that is listening for requests. */
+    private final HttpServer server;
+
+    /** Requests that have been received, in the order that they were received. */
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    /**
+     * Request that was received by the server.
+     *
+     * @author Kyle Michel
+     */
+    static class Request {
+
+        /**
+         * Get the path of the request.
+         *
+         * @return String with the path of the request.
+         */
+        String getPath() {
+            return this.path;
+        }
+
+        /**
+         * Get the encoding of the body of the request.
+         *
+         * @return String with the value of the Content-Encoding header or a null pointer if it was not set.
+         */
+        String getContentEncoding() {
+            return this.contentEncoding;
+        }
+
+        /**
+         * Get the encodings of the response that the client accepts.
+         *
+         * @return String with the value of the Accept-Encoding header or a null pointer if it was not set.
+         */
+        String getAcceptEncoding() {
+            return this.acceptEncoding;
+        }
+
+        /**
+         * Get the port that the request was sent from, which is the same for requests that share a connection.
+         *
+         * @return Port of the client end of the connection.
+         */
+        int getRemotePort() {
+            return this.remotePort;
+        }
+
+        /**
+         * Get the body of the request, decompressed if it was sent with GZIP.
+         *
+         * @return Array of bytes with the body of the request.
+         * @throws IOException if the body cannot be decompressed.
+         */
+        byte[] getBody() throws IOException {
+            if (!"gzip".equals(this.contentEncoding)) {
+                return this.body;
+            }
+            try (final InputStream input = new GZIPInputStream(new ByteArrayInputStream(this.body))) {
+                return readAll(input);
+            }
+        }
+
+        /**
+         * Get the body of the request as it was sent.
+         *
+         * @return Array of bytes with the body of the request before it is decompressed.
+         */
+        byte[] getRawBody() {
+            return this.body;
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param path String with the path of the request.
+         * @param contentEncoding String with the encoding of the body or a null pointer if it was not set.
+         * @param acceptEncoding String with the accepted encodings of the response or a null pointer if not set.
+         * @param remotePort Port of the client end of the connection.
+         * @param body Array of bytes with the body of the request as it was sent.
+         */
+        Request(final String path, final String contentEncoding, final String acceptEncoding, final int remotePort,
+                final byte[] body) {
+            this.path = path;
+            this.contentEncoding = contentEncoding;
+            this.acceptEncoding = acceptEncoding;
+            this.remotePort = remotePort;
+            this.body = body;
+        }
+
+        /** Path of the request. */
+        private final String path;
+
+        /** Encoding of the body of the request or a null pointer if it was not set. */
+        private final String contentEncoding;
+
+        /** Accepted encodings of the response or a null pointer if they were not set. */
+        private final String acceptEncoding;
+
+        /** Port of the client end of the connection. */
+        private final int remotePort;
+
+        /** Body of the request as it was sent. */
+        private final byte[] body;
+    }
+
+    /**
+     * Response to send to a request.
+     *
+     * @author Kyle Michel
+     */
+    static class Response {
+
+        /**
+         * Get a response with a status code and a JSON body.
+         *
+         * @param status Status code of the response.
+         * @param body String with the body of the response.
+         * @return {@link Response} with the status and body.
+         */
+        static Response of(final int status, final String body) {
+            return new Response(status, body.getBytes(StandardCharsets.UTF_8), null);
+        }
+
+        /**
+         * Get the status code of the response.
+         *
+         * @return Status code of the response.
+         */
+        int getStatus() {
+            return this.status;
+        }
+
+        /**
+         * Get the body of the response.
+         *
+         * @return Array of bytes with the body of the response.
+         */
+        byte[] getBody() {
+            return this.body;
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param status Status code of the response.
+         * @param body Array of bytes with the body of the response.
+         * @param contentEncoding String with the encoding of the body or a null pointer if it is not encoded.
+         */
+        Response(final int status, final byte[] body, final String contentEncoding) {
+            this.status = status;
+            this.body = body;
+            this.contentEncoding = contentEncoding;
+        }
+
+        /** Status code of the response. */
+        private final int status;
+
+        /** Body of the response. */
+        private final byte[] body;
+
+        /** Encoding of the body or a null pointer if it is not encoded. */
+        private final String contentEncoding;
+    }
+}
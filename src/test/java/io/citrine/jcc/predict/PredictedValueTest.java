@@ -0,0 +1,103 @@
+package io.citrine.jcc.predict;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Tests for {@link PredictedValue}.
+ *
+ * @author Kyle Michel
+ */
+public class PredictedValueTest {
+
+    @Test
+    public void testNumericString() throws IOException {
+        final PredictedValue value = read("[\"5.786\", \"0.25\"]");
+        Assert.assertEquals("5.786", value.getValue());
+        Assert.assertTrue(value.isNumeric());
+        Assert.assertEquals(5.786, value.getValueAsDouble(), 0.0);
+        Assert.assertEquals(0.25, value.getLoss(), 0.0);
+    }
+
+    @Test
+    public void testNumericTokensKeepTheirText() throws IOException {
+        final PredictedValue value = read("[1.0E-7, 2]");
+        Assert.assertEquals("1.0E-7", value.getValue());
+        Assert.assertEquals(1.0e-7, value.getValueAsDouble(), 0.0);
+        Assert.assertEquals(2.0, value.getLoss(), 0.0);
+        Assert.assertEquals("10", read("[10, 0.5]").getValue());
+    }
+
+    @Test
+    public void testCategorical() throws IOException {
+        final PredictedValue value = read("[\"Metal\", \"0.1\"]");
+        Assert.assertEquals("Metal", value.getValue());
+        Assert.assertSame(value.getValue(), value.getValue());
+        Assert.assertFalse(value.isNumeric());
+        Assert.assertTrue(Double.isNaN(value.getValueAsDouble()));
+        Assert.assertEquals(0.1, value.getLoss(), 0.0);
+    }
+
+    @Test
+    public void testMissingLoss() throws IOException {
+        Assert.assertNull(read("[\"1.5\"]").getLoss());
+        Assert.assertNull(read("[\"1.5\", null]").getLoss());
+        Assert.assertNull(read("[\"1.5\", \"unknown\"]").getLoss());
+    }
+
+    @Test
+    public void testNumbersAreKeptAsPrimitives() throws IOException {
+        final PredictedValue value = read("[\"1.50\", 1000.5]");
+        Assert.assertNull(value.category);
+        Assert.assertEquals(1.5, value.value, 0.0);
+        Assert.assertEquals(1000.5, value.getLossAsDouble(), 0.0);
+        Assert.assertEquals("1.5", value.getValue());
+        Assert.assertEquals("-42", read("[\"-42\", 1]").getValue());
+        Assert.assertTrue(Double.isNaN(read("[\"1.5\"]").getLossAsDouble()));
+    }
+
+    @Test
+    public void testMissingValue() throws IOException {
+        final PredictedValue value = read("[null, 0.5]");
+        Assert.assertNull(value.getValue());
+        Assert.assertFalse(value.isNumeric());
+        Assert.assertNull(read("[]").getValue());
+    }
+
+    @Test
+    public void testExtraElementsAreSkipped() throws IOException {
+        final PredictedValue value = read("[\"1.5\", \"2.5\", {\"extra\": [1, 2]}, 3]");
+        Assert.assertEquals("1.5", value.getValue());
+        Assert.assertEquals(2.5, value.getLoss(), 0.0);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsObjects() throws IOException {
+        read("{\"value\": 1}");
+    }
+
+    @Test
+    public void testListConstructor() {
+        final PredictedValue value = new PredictedValue(Arrays.asList("7", "0.5"));
+        Assert.assertEquals("7", value.getValue());
+        Assert.assertEquals(7.0, value.getValueAsDouble(), 0.0);
+        Assert.assertEquals(0.5, value.getLoss(), 0.0);
+    }
+
+    /**
+     * Deserialize a predicted value.
+     *
+     * @param json String with the JSON of the value.
+     * @return {@link PredictedValue} that was read.
+     */
+    private static PredictedValue read(final String json) throws IOException {
+        return MAPPER.readValue(json, PredictedValue.class);
+    }
+
+    /** Mapper to read values with. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+}
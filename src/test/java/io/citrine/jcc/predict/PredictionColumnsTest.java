@@ -0,0 +1,125 @@
+package io.citrine.jcc.predict;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests for {@link PredictionColumns}.
+ *
+ * @author Kyle Michel
+ */
+public class PredictionColumnsTest {
+
+    @Test
+    public void testColumns() {
+        final PredictionColumns columns = build(Arrays.asList(
+                candidate("1.5", "0.1", "Metal"),
+                null,
+                candidate("2.5", null, "Oxide")));
+        Assert.assertEquals(3, columns.getNumCandidates());
+        Assert.assertArrayEquals(new double[] {1.5, Double.NaN, 2.5}, columns.getValues("density"), 0.0);
+        Assert.assertArrayEquals(new double[] {0.1, Double.NaN, Double.NaN}, columns.getLosses("density"), 0.0);
+        Assert.assertNull(columns.getCategoricalValues("density"));
+        Assert.assertArrayEquals(new String[] {"Metal", null, "Oxide"}, columns.getCategoricalValues("class"));
+        Assert.assertTrue(Double.isNaN(columns.getValues("class")[0]));
+    }
+
+    @Test
+    public void testTopK() {
+        final PredictionColumns columns = build(Arrays.asList(
+                candidate("3", null, null),
+                candidate("1", null, null),
+                candidate("NotANumber", null, null),
+                candidate("5", null, null),
+                candidate("1", null, null)));
+        Assert.assertArrayEquals(new int[] {3, 0}, columns.topK("density", 2, true));
+        Assert.assertArrayEquals(new int[] {1, 4}, columns.topK("density", 2, false));
+        Assert.assertArrayEquals(new int[] {3, 0, 1, 4, 2}, columns.topK("density", 10, true));
+        Assert.assertArrayEquals(new int[] {1, 4, 0, 3, 2}, columns.sortedIndices("density", false));
+        Assert.assertArrayEquals(new int[0], columns.topK("density", 0, true));
+    }
+
+    @Test
+    public void testTopKMatchesSort() {
+        final Random random = new Random(7);
+        final List<Map<String, PredictedValue>> candidates = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            final String value = (random.nextInt(10) == 0) ? "n/a" : Integer.toString(random.nextInt(100));
+            candidates.add(Collections.singletonMap("density", new PredictedValue(Arrays.asList(value, "0"))));
+        }
+        final PredictionColumns columns = new PredictionResult().setCandidates(candidates).getColumns();
+        final double[] values = columns.getValues("density");
+        for (boolean descending : new boolean[] {true, false}) {
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < values.length; ++i) {
+                expected.add(i);
+            }
+            final Comparator<Integer> byValue = Comparator.comparingDouble(i -> descending ? -values[i] : values[i]);
+            expected.sort(Comparator.comparing((Integer i) -> Double.isNaN(values[i])).thenComparing(byValue)
+                    .thenComparing(Comparator.naturalOrder()));
+            for (int k : new int[] {1, 10, 100, 500}) {
+                final int[] actual = columns.topK("density", k, descending);
+                Assert.assertEquals(k, actual.length);
+                for (int i = 0; i < k; ++i) {
+                    Assert.assertEquals(expected.get(i).intValue(), actual[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFilter() {
+        final PredictionColumns columns = build(Arrays.asList(
+                candidate("3", null, null),
+                candidate("1", null, null),
+                candidate("5", null, null)));
+        Assert.assertArrayEquals(new int[] {0, 2}, columns.filter("density", i -> i > 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeK() {
+        build(Collections.singletonList(candidate("1", null, null))).topK("density", -1, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownProperty() {
+        build(Collections.singletonList(candidate("1", null, null))).getValues("hardness");
+    }
+
+    /**
+     * Build a columnar view of candidates.
+     *
+     * @param candidates Predictions for each candidate.
+     * @return {@link PredictionColumns} over the candidates.
+     */
+    private static PredictionColumns build(final List<Map<String, PredictedValue>> candidates) {
+        return new PredictionResult().setCandidates(candidates).getColumns();
+    }
+
+    /**
+     * Build the predictions for a single candidate.
+     *
+     * @param density Predicted density.
+     * @param loss Loss of the predicted density or a null pointer if it is not known.
+     * @param category Predicted class or a null pointer to leave it out.
+     * @return Map of property names to predicted values.
+     */
+    private static Map<String, PredictedValue> candidate(final String density, final String loss,
+            final String category) {
+        final Map<String, PredictedValue> res = new HashMap<>();
+        res.put("density", new PredictedValue(Arrays.asList(density, loss)));
+        if (category != null) {
+            res.put("class", new PredictedValue(Arrays.asList(category, "0")));
+        }
+        return res;
+    }
+}
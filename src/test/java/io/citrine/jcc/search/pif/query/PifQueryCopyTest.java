@@ -0,0 +1,159 @@
+package io.citrine.jcc.search.pif.query;
+
+import io.citrine.jcc.search.pif.query.core.FieldQuery;
+import io.citrine.jcc.search.pif.query.core.Filter;
+import io.citrine.jcc.search.pif.query.core.SystemQuery;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for copying {@link PifQuery} objects and changing the copies.
+ *
+ * @author Kyle Michel
+ */
+public class PifQueryCopyTest {
+
+    @Test
+    public void testAddsAfterCopyDoNotLeak() {
+        final PifQuery original = new PifQuery().includeDataset(1L).includeDataset(2L);
+        final PifQuery copy = original.copy().includeDataset(3L);
+        original.includeDataset(4L);
+        Assert.assertEquals(new PifQuery().includeDataset(1L).includeDataset(2L).includeDataset(4L), original);
+        Assert.assertEquals(new PifQuery().includeDataset(1L).includeDataset(2L).includeDataset(3L), copy);
+    }
+
+    @Test
+    public void testPathCopyOfNestedFilter() {
+        final Filter nested = new Filter().min(1.0);
+        final Filter outer = new Filter().filter(nested);
+        final FieldQuery fieldQuery = new FieldQuery().filter(outer);
+        final SystemQuery systemQuery = new SystemQuery().names(fieldQuery);
+        final PifQuery original = new PifQuery().system(systemQuery);
+        final String before = original.fingerprint().toString();
+
+        final PifQuery copy = original.copy().replaceSystem(0, systemQuery.copy()
+                .names(new FieldQuery().filter(outer.copy().replaceFilter(0, nested.copy().min(2.0)))));
+
+        Assert.assertEquals(before, original.fingerprint().toString());
+        Assert.assertEquals("1.0", nested.min());
+        Assert.assertNotEquals(original, copy);
+        Assert.assertEquals(new PifQuery().system(new SystemQuery()
+                .names(fieldQuery)
+                .names(new FieldQuery().filter(new Filter().filter(new Filter().min(2.0))))), copy);
+    }
+
+    @Test
+    public void testCopyDoesNotChangeOriginal() {
+        final Filter filter = new Filter().min(1.0);
+        final SystemQuery systemQuery = new SystemQuery().names(new FieldQuery().filter(filter));
+        final PifQuery original = new PifQuery().system(systemQuery).includeDataset(1L);
+        final PifQuery copy = original.copy();
+        Assert.assertEquals(original, copy);
+        Assert.assertFalse(original.isFrozen());
+        Assert.assertFalse(systemQuery.isFrozen());
+        Assert.assertFalse(filter.isFrozen());
+        Assert.assertNotSame(systemQuery, copy.system().iterator().next());
+
+        filter.min(2.0);
+        original.includeDataset(2L);
+        Assert.assertEquals(new PifQuery()
+                .system(new SystemQuery().names(new FieldQuery().filter(new Filter().min(1.0))))
+                .includeDataset(1L), copy);
+    }
+
+    @Test
+    public void testCopyOfFrozenQuerySharesSubQueries() {
+        final SystemQuery systemQuery = new SystemQuery().names(new FieldQuery().filter(new Filter().min(1.0)));
+        final PifQuery template = new PifQuery().system(systemQuery).includeDataset(1L);
+        template.freeze();
+        Assert.assertTrue(systemQuery.isFrozen());
+
+        final PifQuery copy = template.copy().fromIndex(10).includeDataset(2L);
+        Assert.assertFalse(copy.isFrozen());
+        Assert.assertSame(systemQuery, copy.system().iterator().next());
+        Assert.assertEquals(new PifQuery().system(systemQuery).includeDataset(1L), template);
+        Assert.assertEquals(new PifQuery().system(systemQuery).includeDataset(1L).includeDataset(2L).fromIndex(10),
+                copy);
+    }
+
+    @Test
+    public void testFrozenQueryCannotBeChanged() {
+        final Filter filter = new Filter().min(1.0);
+        final PifQuery template = new PifQuery().system(new SystemQuery().names(new FieldQuery().filter(filter)));
+        template.freeze();
+        assertFrozen(() -> template.size(10));
+        assertFrozen(() -> template.includeDataset(1L));
+        assertFrozen(() -> template.system(new SystemQuery()));
+        assertFrozen(() -> filter.max(2.0));
+        try {
+            ((List<?>) template.system()).clear();
+            Assert.fail("Expected an UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+        Assert.assertEquals("1.0", filter.min());
+        Assert.assertNull(filter.max());
+    }
+
+    @Test
+    public void testConcurrentCopiesOfOneQuery() throws Exception {
+        final PifQuery original = new PifQuery()
+                .system(new SystemQuery().names(new FieldQuery().filter(new Filter().min(1.0))))
+                .includeDataset(1L);
+        final PifQuery expected = original.copy();
+        final int numThreads = 8;
+        final CyclicBarrier barrier = new CyclicBarrier(numThreads);
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<List<PifQuery>>> futures = new ArrayList<>();
+            for (int i = 0; i < numThreads; ++i) {
+                final long dataset = 100L + i;
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    final List<PifQuery> res = new ArrayList<>();
+                    for (int j = 0; j < 200; ++j) {
+                        res.add(original.copy().includeDataset(dataset).fromIndex(j));
+                    }
+                    return res;
+                }));
+            }
+            for (int i = 0; i < numThreads; ++i) {
+                final List<PifQuery> copies = futures.get(i).get(10, TimeUnit.SECONDS);
+                for (int j = 0; j < copies.size(); ++j) {
+                    Assert.assertEquals(expected.copy().includeDataset(100L + i).fromIndex(j), copies.get(j));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(expected, original);
+        Assert.assertFalse(original.isFrozen());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testReplaceMissingSystem() {
+        new PifQuery().replaceSystem(0, new SystemQuery());
+    }
+
+    /**
+     * Assert that an action throws an {@link IllegalStateException} because it changes a frozen query.
+     *
+     * @param action Action to run.
+     */
+    private static void assertFrozen(final Runnable action) {
+        try {
+            action.run();
+            Assert.fail("Expected an IllegalStateException");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+}
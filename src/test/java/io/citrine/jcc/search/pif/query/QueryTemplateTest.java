@@ -0,0 +1,126 @@
+package io.citrine.jcc.search.pif.query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.citrine.jcc.search.pif.query.chemical.ChemicalFieldQuery;
+import io.citrine.jcc.search.pif.query.chemical.ChemicalFilter;
+import io.citrine.jcc.search.pif.query.core.FieldQuery;
+import io.citrine.jcc.search.pif.query.core.Filter;
+import io.citrine.jcc.search.pif.query.core.PropertyQuery;
+import io.citrine.jcc.search.pif.query.core.SystemQuery;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+/**
+ * Tests for {@link QueryTemplate}.
+ *
+ * @author Kyle Michel
+ */
+public class QueryTemplateTest {
+
+    @Test
+    public void testBindingMatchesQuery() throws IOException {
+        final QueryTemplate template = compile(query(QueryTemplate.placeholder("formula"),
+                QueryTemplate.placeholder("min")));
+        final byte[] bytes = template.bind().set("formula", "Fe2O3").set("min", "1.5").fromIndex(10).size(5).toBytes();
+        Assert.assertEquals(query("Fe2O3", "1.5").fromIndex(10).size(5),
+                OBJECT_MAPPER.readValue(bytes, PifQuery.class));
+    }
+
+    @Test
+    public void testStringsAreEscaped() throws IOException {
+        final String value = "a \"quoted\" \\ value\nwith é and ☃";
+        final QueryTemplate template = compile(query(QueryTemplate.placeholder("formula"), "1"));
+        final PifQuery res = OBJECT_MAPPER.readValue(template.bind().set("formula", value).toBytes(), PifQuery.class);
+        Assert.assertEquals(query(value, "1"), res);
+    }
+
+    @Test
+    public void testNumbersArePlain() throws IOException {
+        final QueryTemplate template = compile(query("Fe2O3", QueryTemplate.placeholder("min")));
+        Assert.assertEquals("0.00000010", min(template.bind().set("min", 1e-7)));
+        Assert.assertEquals("100000000000000000000", min(template.bind().set("min", 1e20)));
+        Assert.assertEquals("-2.5", min(template.bind().set("min", -2.5)));
+        Assert.assertEquals("42", min(template.bind().set("min", 42L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonFiniteNumber() throws IOException {
+        compile(query("Fe2O3", QueryTemplate.placeholder("min"))).bind().set("min", Double.NaN);
+    }
+
+    @Test
+    public void testNullValue() throws IOException {
+        final QueryTemplate template = compile(query("Fe2O3", QueryTemplate.placeholder("min")));
+        Assert.assertEquals(query("Fe2O3", null), OBJECT_MAPPER.readValue(
+                template.bind().set("min", (String) null).toBytes(), PifQuery.class));
+    }
+
+    @Test
+    public void testPaginationDefaults() throws IOException {
+        final QueryTemplate template = compile(new PifQuery().fromIndex(3).size(7));
+        Assert.assertTrue(template.getParameterNames().isEmpty());
+        Assert.assertEquals(new PifQuery().fromIndex(3).size(7),
+                OBJECT_MAPPER.readValue(template.bind().toBytes(), PifQuery.class));
+        Assert.assertEquals(new PifQuery(),
+                OBJECT_MAPPER.readValue(template.bind().fromIndex(null).size(null).toBytes(), PifQuery.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnsetParameter() throws IOException {
+        compile(query(QueryTemplate.placeholder("formula"), "1")).bind().toBytes();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownParameter() throws IOException {
+        compile(query(QueryTemplate.placeholder("formula"), "1")).bind().set("other", "value");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlaceholderMustBeWholeValue() throws IOException {
+        compile(query("x" + QueryTemplate.placeholder("formula"), "1"));
+    }
+
+    /**
+     * Build a query with a chemical formula filter and a minimum property value.
+     *
+     * @param formula Chemical formula to match.
+     * @param min Minimum value of the property.
+     * @return {@link PifQuery} with the filters.
+     */
+    private static PifQuery query(final String formula, final String min) {
+        return new PifQuery().system(new SystemQuery()
+                .chemicalFormula(new ChemicalFieldQuery().filter(new ChemicalFilter().equal(formula)))
+                .properties(new PropertyQuery()
+                        .name(new FieldQuery().filter(new Filter().equal("Band gap")))
+                        .value(new FieldQuery().filter(new Filter().min(min)))));
+    }
+
+    /**
+     * Compile a query with the mapper of these tests.
+     *
+     * @param pifQuery {@link PifQuery} to compile.
+     * @return {@link QueryTemplate} for the query.
+     * @throws IOException if the query cannot be serialized.
+     */
+    private static QueryTemplate compile(final PifQuery pifQuery) throws IOException {
+        return QueryTemplate.compile(pifQuery, OBJECT_MAPPER.writer());
+    }
+
+    /**
+     * Get the minimum property value of a bound query.
+     *
+     * @param binding {@link QueryTemplate.Binding} to serialize.
+     * @return String with the minimum value as it was written.
+     * @throws IOException if the binding cannot be parsed.
+     */
+    private static String min(final QueryTemplate.Binding binding) throws IOException {
+        final JsonNode node = OBJECT_MAPPER.readTree(binding.toBytes());
+        return node.at("/system/0/properties/0/value/0/filter/0/min").asText();
+    }
+
+    /** Mapper used to read bound queries. */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+}
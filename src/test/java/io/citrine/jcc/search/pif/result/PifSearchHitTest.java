@@ -0,0 +1,154 @@
+package io.citrine.jcc.search.pif.result;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.citrine.jpif.obj.common.Pio;
+import io.citrine.jpif.util.PifObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests for {@link PifSearchHit}.
+ *
+ * @author Kyle Michel
+ */
+public class PifSearchHitTest {
+
+    @Test
+    public void testConversionMatchesRoundTrip() throws IOException {
+        final PifSearchHit hit = new ObjectMapper().readValue(
+                "{\"id\": \"a\", \"extracted\": {\"v\": {\"name\": \"band gap\", \"value\": 1.5, \"other\": [1]}}}",
+                PifSearchHit.class);
+        final ObjectMapper mapper = PifObjectMapper.getInstance();
+        final Value expected = mapper.readerFor(Value.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(mapper.writeValueAsString(hit.getExtractedValue("v")));
+        final Value actual = hit.getExtractValue("v", Value.class);
+        Assert.assertEquals(expected.getName(), actual.getName());
+        Assert.assertEquals(expected.getValue(), actual.getValue());
+        Assert.assertEquals("band gap", actual.getName());
+        Assert.assertEquals(Double.valueOf(1.5), actual.getValue());
+    }
+
+    @Test
+    public void testConversionIsSaved() {
+        final PifSearchHit hit = new PifSearchHit().addExtracted("v", value("a", 1.0));
+        final Value first = hit.getExtractValue("v", Value.class);
+        Assert.assertSame(first, hit.getExtractValue("v", Value.class));
+        final OtherValue other = hit.getExtractValue("v", OtherValue.class);
+        Assert.assertEquals("a", other.getName());
+        Assert.assertSame(first, hit.getExtractValue("v", Value.class));
+    }
+
+    @Test
+    public void testChangedValueIsConvertedAgain() {
+        final PifSearchHit hit = new PifSearchHit().addExtracted("v", value("a", 1.0));
+        final Value first = hit.getExtractValue("v", Value.class);
+        hit.addExtracted("v", value("b", 2.0));
+        final Value second = hit.getExtractValue("v", Value.class);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals("b", second.getName());
+
+        final Map<String, Object> extracted = new HashMap<>();
+        extracted.put("v", value("c", 3.0));
+        hit.addExtracted(extracted);
+        Assert.assertEquals("c", hit.getExtractValue("v", Value.class).getName());
+    }
+
+    @Test
+    public void testMissingValues() {
+        final PifSearchHit hit = new PifSearchHit().addExtracted("v", value("a", 1.0));
+        final Value defaultValue = new Value();
+        Assert.assertNull(hit.getExtractValue("w", Value.class));
+        Assert.assertSame(defaultValue, hit.getExtractedValueOrDefault("w", defaultValue, Value.class));
+        Assert.assertEquals("a", hit.getExtractedValueOrDefault("v", defaultValue, Value.class).getName());
+        Assert.assertEquals("x", hit.getExtractedValueOrDefault("w", "x"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testValueThatCannotBeConverted() {
+        new PifSearchHit().addExtracted("v", Arrays.asList(1, 2)).getExtractValue("v", Value.class);
+    }
+
+    /**
+     * Build the parsed form of an extracted value.
+     *
+     * @param name Name of the value.
+     * @param value Number of the value.
+     * @return Map with the fields of the value.
+     */
+    private static Map<String, Object> value(final String name, final double value) {
+        final Map<String, Object> res = new HashMap<>();
+        res.put("name", name);
+        res.put("value", value);
+        return res;
+    }
+
+    /**
+     * Object that extracted values are converted to.
+     *
+     * @author Kyle Michel
+     */
+    public static class Value extends Pio {
+
+        /**
+         * Set the name.
+         *
+         * @param name String with the name.
+         */
+        @JsonSetter("name")
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Get the name.
+         *
+         * @return String with the name.
+         */
+        @JsonGetter("name")
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Set the value.
+         *
+         * @param value Number with the value.
+         */
+        @JsonSetter("value")
+        public void setValue(final Double value) {
+            this.value = value;
+        }
+
+        /**
+         * Get the value.
+         *
+         * @return Number with the value.
+         */
+        @JsonGetter("value")
+        public Double getValue() {
+            return this.value;
+        }
+
+        /** Name of the value. */
+        private String name;
+
+        /** Number of the value. */
+        private Double value;
+    }
+
+    /**
+     * Second object that extracted values are converted to.
+     *
+     * @author Kyle Michel
+     */
+    public static class OtherValue extends Value {}
+}
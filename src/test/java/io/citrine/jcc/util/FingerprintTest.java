@@ -0,0 +1,163 @@
+package io.citrine.jcc.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.citrine.jcc.search.core.query.Sort;
+import io.citrine.jcc.search.pif.query.PifMultiQuery;
+import io.citrine.jcc.search.pif.query.PifQuery;
+import io.citrine.jcc.search.pif.query.core.FieldQuery;
+import io.citrine.jcc.search.pif.query.core.Filter;
+import io.citrine.jcc.search.pif.query.core.PropertyQuery;
+import io.citrine.jcc.search.pif.query.core.SortExtracted;
+import io.citrine.jcc.search.pif.query.core.SystemQuery;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tests that {@link Fingerprint} agrees with the {@code equals} and {@code hashCode} methods of the queries.
+ *
+ * @author Kyle Michel
+ */
+public class FingerprintTest {
+
+    @Test
+    public void testUnorderedListsIgnoreOrder() {
+        final PifQuery lhs = new PifQuery()
+                .includeDataset(1L).includeDataset(2L)
+                .system(new SystemQuery().names(new FieldQuery().filter(new Filter().equal("a"))))
+                .system(new SystemQuery().names(new FieldQuery()
+                        .filter(new Filter().equal("b"))
+                        .filter(new Filter().equal("c"))));
+        final PifQuery rhs = new PifQuery()
+                .includeDataset(2L).includeDataset(1L)
+                .system(new SystemQuery().names(new FieldQuery()
+                        .filter(new Filter().equal("c"))
+                        .filter(new Filter().equal("b"))))
+                .system(new SystemQuery().names(new FieldQuery().filter(new Filter().equal("a"))));
+        assertAgree(lhs, rhs, true);
+    }
+
+    @Test
+    public void testUnorderedListsCountRepeats() {
+        final PifQuery lhs = new PifQuery().includeDataset(1L).includeDataset(1L).includeDataset(2L);
+        final PifQuery rhs = new PifQuery().includeDataset(1L).includeDataset(2L).includeDataset(2L);
+        assertAgree(lhs, rhs, false);
+    }
+
+    @Test
+    public void testSortExtractedKeepsOrder() {
+        final PifQuery lhs = new PifQuery()
+                .sortExtracted(new SortExtracted().extractAs("a").sort(Sort.ASCENDING))
+                .sortExtracted(new SortExtracted().extractAs("b").sort(Sort.DESCENDING));
+        final PifQuery rhs = new PifQuery()
+                .sortExtracted(new SortExtracted().extractAs("b").sort(Sort.DESCENDING))
+                .sortExtracted(new SortExtracted().extractAs("a").sort(Sort.ASCENDING));
+        assertAgree(lhs, rhs, false);
+        assertAgree(lhs, lhs.copy(), true);
+    }
+
+    @Test
+    public void testMultiQueryKeepsOrder() {
+        final PifQuery first = new PifQuery().includeDataset(1L);
+        final PifQuery second = new PifQuery().includeDataset(2L);
+        final PifMultiQuery lhs = new PifMultiQuery().addQuery(first).addQuery(second);
+        final PifMultiQuery rhs = new PifMultiQuery().addQuery(second).addQuery(first);
+        assertAgree(lhs, rhs, false);
+        assertAgree(lhs, lhs.copy(), true);
+    }
+
+    @Test
+    public void testNullEqualsEmpty() throws IOException {
+        final PifQuery lhs = new PifQuery().size(10);
+        final PifQuery rhs = new ObjectMapper().readValue("{\"size\": 10, \"includeDatasets\": []}", PifQuery.class);
+        assertAgree(lhs, rhs, true);
+    }
+
+    @Test
+    public void testExtractWhenMissingIgnoresKeyOrder() {
+        final Map<String, Object> lhsValue = new LinkedHashMap<>();
+        lhsValue.put("a", 1);
+        lhsValue.put("b", Arrays.asList(2, null, 1));
+        final Map<String, Object> rhsValue = new LinkedHashMap<>();
+        rhsValue.put("b", Arrays.asList(2, null, 1));
+        rhsValue.put("a", 1);
+        assertAgree(extractWhenMissing(lhsValue), extractWhenMissing(rhsValue), true);
+        assertAgree(extractWhenMissing(Arrays.asList(1, 2)), extractWhenMissing(Arrays.asList(2, 1)), false);
+    }
+
+    @Test
+    public void testFingerprintFollowsChanges() {
+        final Filter filter = new Filter().equal("a");
+        final PifQuery pifQuery = new PifQuery().system(new SystemQuery().names(new FieldQuery().filter(filter)));
+        final Fingerprint before = pifQuery.fingerprint();
+        filter.equal("b");
+        Assert.assertNotEquals(before, pifQuery.fingerprint());
+        Assert.assertEquals(Fingerprint.of(pifQuery), pifQuery.fingerprint());
+    }
+
+    @Test
+    public void testFrozenQueryKeepsFingerprint() {
+        final PifQuery template = new PifQuery().system(new SystemQuery().names(new FieldQuery().extractAs("a")));
+        template.freeze();
+        final Fingerprint fingerprint = template.fingerprint();
+        Assert.assertSame(fingerprint, template.fingerprint());
+        Assert.assertEquals(Fingerprint.of(template), fingerprint);
+
+        final PifQuery copy = template.copy().size(10);
+        Assert.assertNotEquals(fingerprint, copy.fingerprint());
+        copy.freeze();
+        Assert.assertEquals(Fingerprint.of(copy), copy.fingerprint());
+    }
+
+    @Test
+    public void testFingerprintIsStable() {
+        final Map<String, Object> value = new LinkedHashMap<>();
+        value.put("b", Arrays.asList(2, null, "x\"y\n"));
+        value.put("a", 1.5);
+        final PifQuery pifQuery = new PifQuery().size(10).fromIndex(5)
+                .includeDataset(2L).includeDataset(1L)
+                .sortExtracted(new SortExtracted().extractAs("b").sort(Sort.DESCENDING))
+                .sortExtracted(new SortExtracted().extractAs("a").sort(Sort.ASCENDING))
+                .system(new SystemQuery().names(new FieldQuery()
+                        .filter(new Filter().equal("caf\u00e9 \"q\""))
+                        .filter(new Filter().min(1.5).max(3))))
+                .system(new SystemQuery()
+                        .names(new FieldQuery().extractAs("n").extractWhenMissing(value))
+                        .properties(new PropertyQuery().name(new FieldQuery().filter(new Filter().equal("band gap")))));
+
+        // Fingerprints are the keys of caches on disk, so they must not change between versions
+        Assert.assertEquals("835fe60db7cf8483ab5610f1706c8d7b", pifQuery.fingerprint().toString());
+        Assert.assertEquals("44136fa355b3678a1146ad16f7e8649e", new PifQuery().fingerprint().toString());
+    }
+
+    /**
+     * Build a query with a value to extract when a field is missing.
+     *
+     * @param value Value to extract when the field is missing.
+     * @return {@link PifQuery} with the value.
+     */
+    private static PifQuery extractWhenMissing(final Object value) {
+        return new PifQuery().system(new SystemQuery()
+                .names(new FieldQuery().extractAs("a").extractWhenMissing(value)));
+    }
+
+    /**
+     * Check that equals, hashCode, and the fingerprint agree on whether two queries are the same.
+     *
+     * @param lhs First query to compare.
+     * @param rhs Second query to compare.
+     * @param same True if the queries are expected to be the same.
+     */
+    private static void assertAgree(final Object lhs, final Object rhs, final boolean same) {
+        Assert.assertEquals(same, lhs.equals(rhs));
+        Assert.assertEquals(same, rhs.equals(lhs));
+        Assert.assertEquals(same, Fingerprint.of(lhs).equals(Fingerprint.of(rhs)));
+        if (same) {
+            Assert.assertEquals(lhs.hashCode(), rhs.hashCode());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package io.citrine.jcc.util;
+
+import io.citrine.jcc.search.pif.query.core.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Tests for {@link ListUtil}.
+ *
+ * @author Kyle Michel
+ */
+public class ListUtilTest {
+
+    @Test
+    public void testAddInPlace() {
+        final List<Integer> first = ListUtil.add(1, EMPTY);
+        final List<Integer> second = ListUtil.add(2, first);
+        Assert.assertSame(first, second);
+        Assert.assertSame(first, ListUtil.add(Arrays.asList(3, 4), second));
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4), first);
+    }
+
+    @Test
+    public void testAddCopiesFrozenList() {
+        final List<Integer> shared = ListUtil.add(1, EMPTY);
+        ListUtil.freeze(shared);
+        final List<Integer> lhs = ListUtil.add(2, shared);
+        final List<Integer> rhs = ListUtil.add(3, shared);
+        Assert.assertEquals(Collections.singletonList(1), shared);
+        Assert.assertEquals(Arrays.asList(1, 2), lhs);
+        Assert.assertEquals(Arrays.asList(1, 3), rhs);
+        Assert.assertSame(lhs, ListUtil.add(4, lhs));
+    }
+
+    @Test
+    public void testAddCopiesListsThatAreNotCreatedHere() {
+        final List<Integer> values = Arrays.asList(1, 2);
+        final List<Integer> res = ListUtil.add(values, EMPTY);
+        Assert.assertNotSame(values, res);
+        Assert.assertSame(res, ListUtil.add(3, res));
+        Assert.assertEquals(Arrays.asList(1, 2), values);
+    }
+
+    @Test
+    public void testAddIgnoresNull() {
+        Assert.assertNull(ListUtil.add((Integer) null, EMPTY));
+        Assert.assertNull(ListUtil.add((List<Integer>) null, EMPTY));
+    }
+
+    @Test
+    public void testReplace() {
+        final List<Integer> list = ListUtil.add(Arrays.asList(1, 2, 3), EMPTY);
+        Assert.assertSame(list, ListUtil.replace(0, 4, list));
+        Assert.assertEquals(Arrays.asList(4, 2, 3), list);
+        ListUtil.freeze(list);
+        final List<Integer> copy = ListUtil.replace(1, 5, list);
+        Assert.assertEquals(Arrays.asList(4, 2, 3), list);
+        Assert.assertEquals(Arrays.asList(4, 5, 3), copy);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testReplaceOutOfRange() {
+        ListUtil.replace(0, 1, EMPTY);
+    }
+
+    @Test
+    public void testFrozenListCannotBeChanged() {
+        final List<Integer> list = ListUtil.add(Arrays.asList(1, 2, 3), EMPTY);
+        ListUtil.freeze(list);
+        assertUnsupported(() -> list.add(4));
+        assertUnsupported(() -> list.set(0, 4));
+        assertUnsupported(() -> list.remove(0));
+        assertUnsupported(list::clear);
+        assertUnsupported(() -> list.removeIf(i -> i == 1));
+        assertUnsupported(() -> list.sort(null));
+        assertUnsupported(() -> list.subList(0, 1).set(0, 4));
+        assertUnsupported(() -> {
+            final Iterator<Integer> iterator = list.iterator();
+            iterator.next();
+            iterator.remove();
+        });
+        Assert.assertEquals(Arrays.asList(1, 2, 3), list);
+    }
+
+    @Test
+    public void testFreezeFreezesElements() {
+        final Filter filter = new Filter().min(1);
+        final List<Filter> list = ListUtil.add(filter, null);
+        ListUtil.freeze(list);
+        Assert.assertTrue(filter.isFrozen());
+    }
+
+    @Test
+    public void testCopy() {
+        final Filter frozen = new Filter().min(1);
+        frozen.freeze();
+        final Filter open = new Filter().min(2);
+        final List<Filter> list = ListUtil.add(Arrays.asList(frozen, open), (List<Filter>) null);
+        final List<Filter> copy = ListUtil.copy(list);
+        Assert.assertNotSame(list, copy);
+        Assert.assertSame(frozen, copy.get(0));
+        Assert.assertNotSame(open, copy.get(1));
+        Assert.assertEquals(open, copy.get(1));
+        Assert.assertFalse(open.isFrozen());
+
+        ListUtil.freeze(list);
+        Assert.assertSame(list, ListUtil.copy(list));
+        Assert.assertNull(ListUtil.copy(EMPTY));
+    }
+
+    /**
+     * Assert that an action throws an {@link UnsupportedOperationException}.
+     *
+     * @param action Action to run.
+     */
+    private static void assertUnsupported(final Runnable action) {
+        try {
+            action.run();
+            Assert.fail("Expected an UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+    }
+
+    /** List that has not been created yet. */
+    private static final List<Integer> EMPTY = null;
+}